@@ -25,7 +25,6 @@ import bitronix.tm.twopc.Committer;
 import bitronix.tm.twopc.PhaseException;
 import bitronix.tm.twopc.Preparer;
 import bitronix.tm.twopc.Rollbacker;
-import bitronix.tm.twopc.executor.Executor;
 import bitronix.tm.utils.*;
 
 import jakarta.transaction.*;
@@ -49,20 +48,21 @@ public class BitronixTransaction
 
 	private static final java.util.logging.Logger log = java.util.logging.Logger.getLogger(BitronixTransaction.class.toString());
 
+
+	private static final LogDebugCheck debugCheck = LogDebugCheck.forLogger(log);
+
 	private final XAResourceManager resourceManager;
 	private final Scheduler<Synchronization> synchronizationScheduler = new Scheduler<>();
-	private final List<TransactionStatusChangeListener> transactionStatusListeners = new ArrayList<>();
-	private final Executor executor = TransactionManagerServices.getExecutor();
 	private final TaskScheduler taskScheduler = TransactionManagerServices.getTaskScheduler();
-	private final Preparer preparer = new Preparer(executor);
-	private final Committer committer = new Committer(executor);
-	private final Rollbacker rollbacker = new Rollbacker(executor);
+	/* the phase engines are created when a phase runs, listeners are rare */
+	private List<TransactionStatusChangeListener> transactionStatusListeners = Collections.emptyList();
+	private Map<Object, Object> synchronizationRegistryResources;
 	private volatile int status = Status.STATUS_NO_TRANSACTION;
 	private volatile boolean timeout = false;
-	private volatile Date timeoutDate;
+	private volatile long timeoutTime;
 	/* management */
 	private volatile String threadName;
-	private volatile Date startDate;
+	private volatile long startTime;
 	private volatile StackTrace activationStackTrace;
 
 
@@ -72,7 +72,7 @@ public class BitronixTransaction
 	public BitronixTransaction()
 	{
 		Uid gtrid = UidGenerator.generateUid();
-		if (LogDebugCheck.isDebugEnabled())
+		if (debugCheck.isDebugEnabled())
 		{
 			log.finer("creating new transaction with GTRID [" + gtrid + "]");
 		}
@@ -119,6 +119,38 @@ public class BitronixTransaction
 		return synchronizationScheduler;
 	}
 
+	/**
+	 * Get a resource put in the {@link BitronixTransactionSynchronizationRegistry} while this transaction was bound.
+	 *
+	 * @param key
+	 * 		the key of the resource.
+	 *
+	 * @return the resource, or null if none was put with that key.
+	 */
+	Object getSynchronizationRegistryResource(Object key)
+	{
+		Map<Object, Object> resources = synchronizationRegistryResources;
+		return resources == null ? null : resources.get(key);
+	}
+
+	/**
+	 * Put a resource of the {@link BitronixTransactionSynchronizationRegistry}. The resources live as long as this
+	 * transaction, whatever thread it gets bound to.
+	 *
+	 * @param key
+	 * 		the key of the resource.
+	 * @param value
+	 * 		the resource.
+	 */
+	void putSynchronizationRegistryResource(Object key, Object value)
+	{
+		if (synchronizationRegistryResources == null)
+		{
+			synchronizationRegistryResources = new HashMap<>();
+		}
+		synchronizationRegistryResources.put(key, value);
+	}
+
 	/**
 	 * Method commit ...
 	 *
@@ -167,7 +199,7 @@ public class BitronixTransaction
 		// Doing so would call fireAfterCompletionEvent() twice in case one of those conditions are true.
 		if (timedOut())
 		{
-			if (LogDebugCheck.isDebugEnabled())
+			if (debugCheck.isDebugEnabled())
 			{
 				log.finer("transaction timed out");
 			}
@@ -181,7 +213,7 @@ public class BitronixTransaction
 		}
 		catch (BitronixRollbackException ex)
 		{
-			if (LogDebugCheck.isDebugEnabled())
+			if (debugCheck.isDebugEnabled())
 			{
 				log.log(Level.FINER, "delistment error causing transaction rollback", ex);
 			}
@@ -192,7 +224,7 @@ public class BitronixTransaction
 
 		if (status == Status.STATUS_MARKED_ROLLBACK)
 		{
-			if (LogDebugCheck.isDebugEnabled())
+			if (debugCheck.isDebugEnabled())
 			{
 				log.finer("transaction marked as rollback only");
 			}
@@ -207,16 +239,16 @@ public class BitronixTransaction
 			// prepare phase
 			try
 			{
-				if (LogDebugCheck.isDebugEnabled())
+				if (debugCheck.isDebugEnabled())
 				{
 					log.finer("committing, " + resourceManager.size() + " enlisted resource(s)");
 				}
 
-				interestedResources = preparer.prepare(this);
+				interestedResources = new Preparer(TransactionManagerServices.getExecutor()).prepare(this);
 			}
 			catch (RollbackException ex)
 			{
-				if (LogDebugCheck.isDebugEnabled())
+				if (debugCheck.isDebugEnabled())
 				{
 					log.finer("caught rollback exception during prepare, trying to rollback");
 				}
@@ -228,12 +260,12 @@ public class BitronixTransaction
 			}
 
 			// commit phase
-			if (LogDebugCheck.isDebugEnabled())
+			if (debugCheck.isDebugEnabled())
 			{
 				log.finer(interestedResources.size() + " interested resource(s)");
 			}
 
-			committer.commit(this, interestedResources);
+			new Committer(TransactionManagerServices.getExecutor()).commit(this, interestedResources);
 
 			if (resourceManager.size() == 0 && TransactionManagerServices.getConfiguration()
 			                                                             .isDebugZeroResourceTransaction())
@@ -241,7 +273,7 @@ public class BitronixTransaction
 				log.warning(buildZeroTransactionDebugMessage(activationStackTrace, new StackTrace()));
 			}
 
-			if (LogDebugCheck.isDebugEnabled())
+			if (debugCheck.isDebugEnabled())
 			{
 				log.finer("successfully committed " + this);
 			}
@@ -308,7 +340,7 @@ public class BitronixTransaction
 				}
 				catch (SystemException ex)
 				{
-					if (LogDebugCheck.isDebugEnabled())
+					if (debugCheck.isDebugEnabled())
 					{
 						log.finer("failed to delist resource state " + xaResourceHolderState);
 					}
@@ -331,7 +363,7 @@ public class BitronixTransaction
 			}
 			else
 			{
-				if (LogDebugCheck.isDebugEnabled())
+				if (debugCheck.isDebugEnabled())
 				{
 					log.log(Level.FINER, "unilateral rollback of resource " + resourceHolder, multiSystemException);
 				}
@@ -381,7 +413,7 @@ public class BitronixTransaction
 		XAResourceHolderState resourceHolderState = new XAResourceHolderState(resourceHolder, resourceHolder.getResourceBean());
 
 		// resource timeout must be set here so manually enlisted resources can receive it
-		resourceHolderState.setTransactionTimeoutDate(timeoutDate);
+		resourceHolderState.setTransactionTimeoutTime(timeoutTime);
 
 		try
 		{
@@ -445,7 +477,7 @@ public class BitronixTransaction
 			throw new IllegalStateException("transaction is done, cannot register any more synchronization");
 		}
 
-		if (LogDebugCheck.isDebugEnabled())
+		if (debugCheck.isDebugEnabled())
 		{
 			log.finer("registering synchronization " + synchronization);
 		}
@@ -478,7 +510,7 @@ public class BitronixTransaction
 		}
 		catch (BitronixRollbackException ex)
 		{
-			if (LogDebugCheck.isDebugEnabled())
+			if (debugCheck.isDebugEnabled())
 			{
 				log.log(Level.FINER, "some resource(s) failed delistment", ex);
 			}
@@ -486,7 +518,7 @@ public class BitronixTransaction
 
 		try
 		{
-			if (LogDebugCheck.isDebugEnabled())
+			if (debugCheck.isDebugEnabled())
 			{
 				log.finer("rolling back, " + resourceManager.size() + " enlisted resource(s)");
 			}
@@ -501,9 +533,9 @@ public class BitronixTransaction
 				}
 			}
 
-			rollbacker.rollback(this, resourcesToRollback);
+			new Rollbacker(TransactionManagerServices.getExecutor()).rollback(this, resourcesToRollback);
 
-			if (LogDebugCheck.isDebugEnabled())
+			if (debugCheck.isDebugEnabled())
 			{
 				log.finer("successfully rolled back " + this);
 			}
@@ -658,7 +690,7 @@ public class BitronixTransaction
 		try
 		{
 			boolean force = (resourceManager.size() > 1) && (status == Status.STATUS_COMMITTING);
-			if (LogDebugCheck.isDebugEnabled())
+			if (debugCheck.isDebugEnabled())
 			{
 				log.finer("changing transaction status to " + Decoder.decodeStatus(status) + (force ? " (forced)" : ""));
 			}
@@ -696,7 +728,7 @@ public class BitronixTransaction
 	 */
 	private void fireTransactionStatusChangedEvent(int oldStatus, int newStatus)
 	{
-		if (LogDebugCheck.isDebugEnabled())
+		if (debugCheck.isDebugEnabled())
 		{
 			log.finer("transaction status is changing from " + Decoder.decodeStatus(oldStatus) + " to " +
 			          Decoder.decodeStatus(newStatus) + " - executing " + transactionStatusListeners.size() + " listener(s)");
@@ -704,12 +736,12 @@ public class BitronixTransaction
 
 		for (TransactionStatusChangeListener listener : transactionStatusListeners)
 		{
-			if (LogDebugCheck.isDebugEnabled())
+			if (debugCheck.isDebugEnabled())
 			{
 				log.finer("executing TransactionStatusChangeListener " + listener);
 			}
 			listener.statusChanged(oldStatus, newStatus);
-			if (LogDebugCheck.isDebugEnabled())
+			if (debugCheck.isDebugEnabled())
 			{
 				log.finer("executed TransactionStatusChangeListener " + listener);
 			}
@@ -726,7 +758,7 @@ public class BitronixTransaction
 	 */
 	private void fireBeforeCompletionEvent() throws SystemException
 	{
-		if (LogDebugCheck.isDebugEnabled())
+		if (debugCheck.isDebugEnabled())
 		{
 			log.finer("before completion, " + synchronizationScheduler.size() + " synchronization(s) to execute");
 		}
@@ -736,7 +768,7 @@ public class BitronixTransaction
 			Synchronization synchronization = it.next();
 			try
 			{
-				if (LogDebugCheck.isDebugEnabled())
+				if (debugCheck.isDebugEnabled())
 				{
 					log.finer("executing synchronization " + synchronization);
 				}
@@ -744,7 +776,7 @@ public class BitronixTransaction
 			}
 			catch (RuntimeException ex)
 			{
-				if (LogDebugCheck.isDebugEnabled())
+				if (debugCheck.isDebugEnabled())
 				{
 					log.finer("Synchronization.beforeCompletion() call failed for " + synchronization + ", marking transaction as rollback only - " + ex);
 				}
@@ -795,6 +827,10 @@ public class BitronixTransaction
 	 */
 	public void addTransactionStatusChangeListener(TransactionStatusChangeListener listener)
 	{
+		if (transactionStatusListeners.isEmpty())
+		{
+			transactionStatusListeners = new ArrayList<>();
+		}
 		transactionStatusListeners.add(listener);
 	}
 
@@ -844,7 +880,7 @@ public class BitronixTransaction
 	public String toString()
 	{
 		return "a Bitronix Transaction with GTRID [" + resourceManager.getGtrid() + "], status=" + Decoder.decodeStatus(status) + ", " + resourceManager.size() +
-		       " resource(s) enlisted (started " + startDate + ")";
+		       " resource(s) enlisted (started " + new Date(startTime) + ")";
 	}
 
 	/**
@@ -867,7 +903,7 @@ public class BitronixTransaction
 		{
 			if (!resource.isEnded())
 			{
-				if (LogDebugCheck.isDebugEnabled())
+				if (debugCheck.isDebugEnabled())
 				{
 					log.finer("found unclosed resource to delist: " + resource);
 				}
@@ -878,7 +914,7 @@ public class BitronixTransaction
 				catch (BitronixRollbackSystemException ex)
 				{
 					rolledBackResources.add(resource);
-					if (LogDebugCheck.isDebugEnabled())
+					if (debugCheck.isDebugEnabled())
 					{
 						log.log(Level.FINER, "resource unilaterally rolled back: " + resource, ex);
 					}
@@ -889,7 +925,7 @@ public class BitronixTransaction
 					log.log(Level.WARNING, "error delisting resource, assuming unilateral rollback: " + resource, ex);
 				}
 			}
-			else if (LogDebugCheck.isDebugEnabled())
+			else if (debugCheck.isDebugEnabled())
 			{
 				log.finer("no need to delist already closed resource: " + resource);
 			}
@@ -935,8 +971,8 @@ public class BitronixTransaction
 		List<XAResourceHolderState> interestedResources = resourceManager.getAllResources();
 		try
 		{
-			rollbacker.rollback(this, interestedResources);
-			if (LogDebugCheck.isDebugEnabled())
+			new Rollbacker(TransactionManagerServices.getExecutor()).rollback(this, interestedResources);
+			if (debugCheck.isDebugEnabled())
 			{
 				log.finer("rollback after prepare failure succeeded");
 			}
@@ -977,15 +1013,16 @@ public class BitronixTransaction
 		}
 
 		setStatus(Status.STATUS_ACTIVE);
-		this.startDate = new Date(MonotonicClock.currentTimeMillis());
-		this.timeoutDate = new Date(MonotonicClock.currentTimeMillis() + (timeout * 1000L));
+		long now = MonotonicClock.currentTimeMillis();
+		this.startTime = now;
+		this.timeoutTime = now + (timeout * 1000L);
 		if (TransactionManagerServices.getConfiguration()
 		                              .isDebugZeroResourceTransaction())
 		{
 			this.activationStackTrace = new StackTrace();
 		}
 
-		taskScheduler.scheduleTransactionTimeout(this, timeoutDate);
+		taskScheduler.scheduleTransactionTimeout(this, timeoutTime);
 	}
 
 	/**
@@ -996,7 +1033,7 @@ public class BitronixTransaction
 		// this TX is no longer in-flight -> remove this transaction's state from all XAResourceHolders
 		getResourceManager().clearXAResourceHolderStates();
 
-		if (LogDebugCheck.isDebugEnabled())
+		if (debugCheck.isDebugEnabled())
 		{
 			log.finer("after completion, " + synchronizationScheduler.size() + " synchronization(s) to execute");
 		}
@@ -1004,7 +1041,7 @@ public class BitronixTransaction
 		{
 			try
 			{
-				if (LogDebugCheck.isDebugEnabled())
+				if (debugCheck.isDebugEnabled())
 				{
 					log.finer("executing synchronization " + synchronization + " with status=" + Decoder.decodeStatus(status));
 				}
@@ -1015,6 +1052,7 @@ public class BitronixTransaction
 				log.log(Level.WARNING, "Synchronization.afterCompletion() call failed for " + synchronization, ex);
 			}
 		}
+		synchronizationRegistryResources = null;
 
 		ManagementRegistrar.unregister("bitronix.tm:type=Transaction,Gtrid=" + resourceManager.getGtrid());
 	}
@@ -1056,14 +1094,15 @@ public class BitronixTransaction
 	}
 
 	/**
-	 * Method getStartDate returns the startDate of this BitronixTransaction object.
+	 * Method getStartDate returns the startDate of this BitronixTransaction object. Only meant for JMX, the start
+	 * time is kept in milliseconds.
 	 *
 	 * @return the startDate (type Date) of this BitronixTransaction object.
 	 */
 	@Override
 	public Date getStartDate()
 	{
-		return startDate;
+		return new Date(startTime);
 	}
 
 	/**
@@ -19,6 +19,8 @@ import bitronix.tm.internal.BitronixSystemException;
 import bitronix.tm.internal.LogDebugCheck;
 import bitronix.tm.internal.ThreadContext;
 import bitronix.tm.internal.XAResourceManager;
+import bitronix.tm.journal.Journal;
+import bitronix.tm.journal.JournalMigrator;
 import bitronix.tm.utils.*;
 
 import javax.naming.NamingException;
@@ -28,8 +30,8 @@ import javax.naming.StringRefAddr;
 import jakarta.transaction.*;
 import javax.transaction.xa.XAException;
 import java.io.IOException;
-import java.lang.reflect.InvocationTargetException;
 import java.util.*;
+import java.util.concurrent.Callable;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.logging.Level;
 
@@ -43,8 +45,10 @@ public class BitronixTransactionManager
 {
 
 	private static final java.util.logging.Logger log = java.util.logging.Logger.getLogger(BitronixTransactionManager.class.toString());
+
+	private static final LogDebugCheck debugCheck = LogDebugCheck.forLogger(log);
 	private static final String NO_TRANSACTION_TEXT = "no transaction started on this thread";
-	private final SortedMap<BitronixTransaction, ClearContextSynchronization> inFlightTransactions;
+	private final InFlightRegistry<BitronixTransaction, ClearContextSynchronization> inFlightTransactions;
 	private volatile boolean shuttingDown;
 
 	/**
@@ -56,16 +60,21 @@ public class BitronixTransactionManager
 		try
 		{
 			shuttingDown = false;
+			LogDebugCheck.startListening();
 			logVersion();
 			Configuration configuration = TransactionManagerServices.getConfiguration();
 			configuration.buildServerIdArray(); // first call will initialize the ServerId
 
-			if (LogDebugCheck.isDebugEnabled())
+			if (debugCheck.isDebugEnabled())
 			{
 				log.finer("starting BitronixTransactionManager using " + configuration);
 			}
 			TransactionManagerServices.getJournal()
 			                          .open();
+			if (configuration.getJournalMigrationSource() != null)
+			{
+				migrateJournal(configuration);
+			}
 			TransactionManagerServices.getResourceLoader()
 			                          .init();
 			TransactionManagerServices.getRecoverer()
@@ -79,15 +88,15 @@ public class BitronixTransactionManager
 						"invalid configuration value for backgroundRecoveryIntervalSeconds, found '" + backgroundRecoveryInterval + "' but it must be greater than 0");
 			}
 
-			inFlightTransactions = createInFlightTransactionsMap();
+			inFlightTransactions = new InFlightRegistry<>();
 
-			if (LogDebugCheck.isDebugEnabled())
+			if (debugCheck.isDebugEnabled())
 			{
 				log.finer("recovery will run in the background every " + backgroundRecoveryInterval + " second(s)");
 			}
-			Date nextExecutionDate = new Date(MonotonicClock.currentTimeMillis() + (backgroundRecoveryInterval * 1000L));
+			long nextExecutionTime = MonotonicClock.currentTimeMillis() + (backgroundRecoveryInterval * 1000L);
 			TransactionManagerServices.getTaskScheduler()
-			                          .scheduleRecovery(TransactionManagerServices.getRecoverer(), nextExecutionDate);
+			                          .scheduleRecovery(TransactionManagerServices.getRecoverer(), nextExecutionTime);
 		}
 		catch (IOException ex)
 		{
@@ -104,86 +113,53 @@ public class BitronixTransactionManager
 	}
 
 	/**
-	 * Output BTM version information as INFO log.
-	 */
-	private void logVersion()
-	{
-		log.info("Bitronix Transaction Manager version " + Version.getVersion());
-		if (LogDebugCheck.isDebugEnabled())
-		{
-			log.finer("JVM version " + System.getProperty("java.version"));
-		}
-	}
-
-	/**
-	 * Method createInFlightTransactionsMap ...
+	 * Copy the records of the configured migration source journal into the journal.
 	 *
-	 * @return SortedMap<BitronixTransaction
-                       *       	   	   ,
-                       *       	   	   ClearContextSynchronization>
+	 * @param configuration
+	 * 		the configuration.
 	 *
-	 * @throws InstantiationException
-	 * 		when
-	 * @throws IllegalAccessException
-	 * 		when
-	 * @throws InvocationTargetException
-	 * 		when
-	 * @throws NoSuchMethodException
-	 * 		when
+	 * @throws InitializationException
+	 * 		if the migration failed.
 	 */
-	private SortedMap<BitronixTransaction, ClearContextSynchronization> createInFlightTransactionsMap()
-			throws InstantiationException, IllegalAccessException, InvocationTargetException, NoSuchMethodException
+	private void migrateJournal(Configuration configuration)
 	{
-		boolean debug = LogDebugCheck.isDebugEnabled();
-		if (debug)
+		String sourceName = configuration.getJournalMigrationSource();
+		if (sourceName.equals(configuration.getJournal()))
 		{
-			log.finer("Creating sorted memory storage for inflight transactions.");
+			log.warning("ignoring journal migration from '" + sourceName + "', it is the configured journal");
+			return;
 		}
 
-		Comparator<BitronixTransaction> timestampSortComparator = (t1, t2) ->
+		Journal source = TransactionManagerServices.createJournal(sourceName);
+		try
 		{
-			Long timestamp1 = t1.getResourceManager()
-			                    .getGtrid()
-			                    .extractTimestamp();
-			Long timestamp2 = t2.getResourceManager()
-			                    .getGtrid()
-			                    .extractTimestamp();
-
-			int compareTo = timestamp1.compareTo(timestamp2);
-			if (compareTo == 0 && !t1.getResourceManager()
-			                         .getGtrid()
-			                         .equals(t2.getResourceManager()
-			                                   .getGtrid()))
+			source.open();
+			try
 			{
-				// if timestamps are equal, use the Uid as the tie-breaker.  the !equals() check above avoids an expensive string compare() here.
-				return t1.getGtrid()
-				         .compareTo(t2.getGtrid());
+				new JournalMigrator(source, TransactionManagerServices.getJournal(), configuration.isJournalMigrationDanglingOnly(),
+				                    configuration.getJournalMigrationBatchSize()).migrate();
+			}
+			finally
+			{
+				source.close();
 			}
-			return compareTo;
-		};
-
-		if (debug)
-		{
-			log.finer("Attempting to use a concurrent sorted map of type 'ConcurrentSkipListMap' (from jre6 or custom supplied backport)");
 		}
-		try
+		catch (IOException ex)
 		{
-			@SuppressWarnings("unchecked")
-			SortedMap<BitronixTransaction, ClearContextSynchronization> mapInstance = (SortedMap<BitronixTransaction, ClearContextSynchronization>)
-					                                                                          ClassLoaderUtils.loadClass("java.util.concurrent.ConcurrentSkipListMap")
-					                                                                                          .
-							                                                                                          getConstructor(Comparator.class)
-					                                                                                          .newInstance(timestampSortComparator);
-			return mapInstance;
+			throw new InitializationException("cannot migrate journal '" + sourceName + "' to '" + configuration.getJournal() + "'", ex);
 		}
-		catch (ClassNotFoundException e)
+		log.warning("journal '" + sourceName + "' has been migrated, remove bitronix.tm.journal.migration.source from the configuration to avoid migrating it again");
+	}
+
+	/**
+	 * Output BTM version information as INFO log.
+	 */
+	private void logVersion()
+	{
+		log.info("Bitronix Transaction Manager version " + Version.getVersion());
+		if (debugCheck.isDebugEnabled())
 		{
-			if (debug)
-			{
-				log.log(Level.FINER, "Concurrent sorted map 'ConcurrentSkipListMap' is not available. Falling back to a synchronized TreeMap.", e);
-			}
-			return Collections.synchronizedSortedMap(
-					new TreeMap<>(timestampSortComparator));
+			log.finer("JVM version " + System.getProperty("java.version"));
 		}
 	}
 
@@ -198,7 +174,7 @@ public class BitronixTransactionManager
 	@Override
 	public void begin() throws NotSupportedException, SystemException
 	{
-		if (LogDebugCheck.isDebugEnabled())
+		if (debugCheck.isDebugEnabled())
 		{
 			log.finer("beginning a new transaction");
 		}
@@ -207,7 +183,7 @@ public class BitronixTransactionManager
 			throw new BitronixSystemException("cannot start a new transaction, transaction manager is shutting down");
 		}
 
-		if (LogDebugCheck.isDebugEnabled())
+		if (debugCheck.isDebugEnabled())
 		{
 			dumpTransactionContexts();
 		}
@@ -225,8 +201,10 @@ public class BitronixTransactionManager
 			currentTx.getSynchronizationScheduler()
 			         .add(clearContextSynchronization, Scheduler.ALWAYS_LAST_POSITION - 1);
 			currentTx.setActive(threadContext.getTimeout());
-			inFlightTransactions.put(currentTx, clearContextSynchronization);
-			if (LogDebugCheck.isDebugEnabled())
+			inFlightTransactions.register(currentTx, clearContextSynchronization, currentTx.getResourceManager()
+			                                                                              .getGtrid()
+			                                                                              .extractTimestamp());
+			if (debugCheck.isDebugEnabled())
 			{
 				log.finer("begun new transaction at " + new Date(currentTx.getResourceManager()
 				                                                          .getGtrid()
@@ -256,7 +234,7 @@ public class BitronixTransactionManager
 	public void commit() throws RollbackException, HeuristicMixedException, HeuristicRollbackException, SystemException
 	{
 		BitronixTransaction currentTx = getCurrentTransaction();
-		if (LogDebugCheck.isDebugEnabled())
+		if (debugCheck.isDebugEnabled())
 		{
 			log.finer("committing transaction " + currentTx);
 		}
@@ -309,14 +287,14 @@ public class BitronixTransactionManager
 	 * 		of type Transaction
 	 *
 	 * @throws InvalidTransactionException
-	 * 		when
+	 * 		when the transaction is null, already completed or bound to another thread.
 	 * @throws SystemException
 	 * 		when
 	 */
 	@Override
 	public void resume(Transaction transaction) throws InvalidTransactionException, SystemException
 	{
-		if (LogDebugCheck.isDebugEnabled())
+		if (debugCheck.isDebugEnabled())
 		{
 			log.finer("resuming " + transaction);
 		}
@@ -335,17 +313,26 @@ public class BitronixTransactionManager
 			throw new IllegalStateException("a transaction is already running on this thread");
 		}
 
+		ClearContextSynchronization clearContextSynchronization = inFlightTransactions.get(tx);
+		if (clearContextSynchronization == null)
+		{
+			throw new InvalidTransactionException("cannot resume " + tx + ", it is not in flight anymore");
+		}
+		ThreadContext threadContext = ThreadContext.getContext();
+		if (!clearContextSynchronization.compareAndSetThreadContext(null, threadContext))
+		{
+			throw new InvalidTransactionException("cannot resume " + tx + ", it is bound to another thread");
+		}
+
 		try
 		{
 			XAResourceManager resourceManager = tx.getResourceManager();
 			resourceManager.resume();
-			ThreadContext threadContext = ThreadContext.getContext();
 			threadContext.setTransaction(tx);
-			inFlightTransactions.get(tx)
-			                    .setThreadContext(threadContext);
 		}
 		catch (XAException ex)
 		{
+			clearContextSynchronization.setThreadContext(null);
 			String extraErrorDetails = TransactionManagerServices.getExceptionAnalyzer()
 			                                                     .extractExtraXAExceptionDetails(ex);
 			throw new BitronixSystemException("cannot resume " + tx + ", error=" + Decoder.decodeXAExceptionErrorCode(ex) +
@@ -363,7 +350,7 @@ public class BitronixTransactionManager
 	public void rollback() throws SystemException
 	{
 		BitronixTransaction currentTx = getCurrentTransaction();
-		if (LogDebugCheck.isDebugEnabled())
+		if (debugCheck.isDebugEnabled())
 		{
 			log.finer("rolling back transaction " + currentTx);
 		}
@@ -385,7 +372,7 @@ public class BitronixTransactionManager
 	public void setRollbackOnly() throws SystemException
 	{
 		BitronixTransaction currentTx = getCurrentTransaction();
-		if (LogDebugCheck.isDebugEnabled())
+		if (debugCheck.isDebugEnabled())
 		{
 			log.finer("marking transaction as rollback only: " + currentTx);
 		}
@@ -413,8 +400,12 @@ public class BitronixTransactionManager
 		{
 			throw new BitronixSystemException("cannot set a timeout to less than 0 second (was: " + seconds + "s)");
 		}
-		ThreadContext.getContext()
-		             .setTimeout(seconds);
+		// resetting the timeout of a thread without a context of its own changes nothing
+		ThreadContext threadContext = seconds == 0 ? ThreadContext.getExistingContext() : ThreadContext.getContext();
+		if (threadContext != null)
+		{
+			threadContext.setTimeout(seconds);
+		}
 	}
 
 	/**
@@ -429,7 +420,7 @@ public class BitronixTransactionManager
 	public Transaction suspend() throws SystemException
 	{
 		BitronixTransaction currentTx = getCurrentTransaction();
-		if (LogDebugCheck.isDebugEnabled())
+		if (debugCheck.isDebugEnabled())
 		{
 			log.finer("suspending transaction " + currentTx);
 		}
@@ -461,7 +452,7 @@ public class BitronixTransactionManager
 	 */
 	private void clearCurrentContextForSuspension()
 	{
-		if (LogDebugCheck.isDebugEnabled())
+		if (debugCheck.isDebugEnabled())
 		{
 			log.finer("clearing current thread context: " + ThreadContext.getContext());
 		}
@@ -484,31 +475,109 @@ public class BitronixTransactionManager
 	 */
 	public void dumpTransactionContexts()
 	{
-		if (!LogDebugCheck.isDebugEnabled())
+		if (!debugCheck.isDebugEnabled())
 		{
 			return;
 		}
 
-		// We're using an iterator, so we must synchronize on the collection
-		synchronized (inFlightTransactions)
+		log.finer("dumping " + inFlightTransactions.size() + " transaction context(s)");
+		inFlightTransactions.forEach((tx, synchronization) -> log.finer(tx.toString()));
+	}
+
+	/**
+	 * Get the transaction currently registered on the current thread context.
+	 *
+	 * @return the current transaction or null if no transaction has been started on the current thread.
+	 */
+	public BitronixTransaction getCurrentTransaction()
+	{
+		return ThreadContext.getCurrentTransaction();
+	}
+
+	/**
+	 * Run a task with a transaction bound to the calling thread, be it a platform or a virtual thread. The transaction
+	 * is resumed before the task runs and suspended after it, unless the task ended it. A transaction already bound
+	 * to the calling thread is suspended while the task runs and resumed afterwards.
+	 * <p>When the task fails, its exception is thrown and a failure to restore the transaction bound before is added
+	 * to it as a suppressed exception.</p>
+	 *
+	 * @param transaction
+	 * 		the transaction to bind, suspended from the thread it was running on.
+	 * @param task
+	 * 		the task to run.
+	 * @param <V>
+	 * 		the type of the result of the task.
+	 *
+	 * @return the result of the task.
+	 *
+	 * @throws InvalidTransactionException
+	 * 		if the transaction cannot be resumed because it is completed or bound to another thread.
+	 * @throws SystemException
+	 * 		if a transaction cannot be suspended or resumed.
+	 * @throws IllegalStateException
+	 * 		if the task left another transaction bound to the calling thread, the transaction bound before then stays
+	 * 		suspended.
+	 * @throws Exception
+	 * 		if the task failed.
+	 */
+	public <V> V callInTransaction(Transaction transaction, Callable<V> task) throws Exception
+	{
+		Transaction outerTransaction = suspend();
+		V result;
+		try
+		{
+			resume(transaction);
+			result = task.call();
+		}
+		catch (Throwable ex)
 		{
-			log.finer("dumping " + inFlightTransactions.size() + " transaction context(s)");
-			for (BitronixTransaction tx : inFlightTransactions.keySet())
+			try
 			{
-				log.finer(tx.toString());
+				restoreOuterTransaction(transaction, outerTransaction);
 			}
+			catch (Exception restoreEx)
+			{
+				ex.addSuppressed(restoreEx);
+			}
+			throw ex;
 		}
+		restoreOuterTransaction(transaction, outerTransaction);
+		return result;
 	}
 
 	/**
-	 * Get the transaction currently registered on the current thread context.
+	 * Suspend the transaction a task ran in, unless the task ended it, then resume the transaction bound to the
+	 * thread before the task ran.
 	 *
-	 * @return the current transaction or null if no transaction has been started on the current thread.
+	 * @param transaction
+	 * 		the transaction the task ran in.
+	 * @param outerTransaction
+	 * 		the transaction bound to the thread before the task ran, or null.
+	 *
+	 * @throws InvalidTransactionException
+	 * 		if the outer transaction cannot be resumed.
+	 * @throws SystemException
+	 * 		if a transaction cannot be suspended or resumed.
+	 * @throws IllegalStateException
+	 * 		if the task left another transaction bound to the thread.
 	 */
-	public BitronixTransaction getCurrentTransaction()
+	private void restoreOuterTransaction(Transaction transaction, Transaction outerTransaction) throws InvalidTransactionException, SystemException
 	{
-		return ThreadContext.getContext()
-		                    .getTransaction();
+		BitronixTransaction currentTx = getCurrentTransaction();
+		if (currentTx == transaction)
+		{
+			suspend();
+		}
+		else if (currentTx != null)
+		{
+			throw new IllegalStateException("the task left " + currentTx + " bound to the thread instead of " + transaction
+			                                + (outerTransaction == null ? "" : ", cannot resume " + outerTransaction));
+		}
+
+		if (outerTransaction != null)
+		{
+			resume(outerTransaction);
+		}
 	}
 
 	/**
@@ -559,29 +628,12 @@ public class BitronixTransactionManager
 	 */
 	public long getOldestInFlightTransactionTimestamp()
 	{
-		try
-		{
-			// The inFlightTransactions map is sorted by timestamp, so the first transaction is always the oldest
-			BitronixTransaction oldestTransaction = inFlightTransactions.firstKey();
-			long oldestTimestamp = oldestTransaction.getResourceManager()
-			                                        .getGtrid()
-			                                        .extractTimestamp();
-
-			if (LogDebugCheck.isDebugEnabled())
-			{
-				log.finer("oldest in-flight transaction's timestamp: " + oldestTimestamp);
-			}
-			return oldestTimestamp;
-
-		}
-		catch (NoSuchElementException e)
+		long oldestTimestamp = inFlightTransactions.getOldestTimestamp();
+		if (debugCheck.isDebugEnabled())
 		{
-			if (LogDebugCheck.isDebugEnabled())
-			{
-				log.log(Level.FINER, "oldest in-flight transaction's timestamp: " + Long.MIN_VALUE, e);
-			}
-			return Long.MIN_VALUE;
+			log.finer("oldest in-flight transaction's timestamp: " + oldestTimestamp);
 		}
+		return oldestTimestamp;
 	}
 
 	/*
@@ -604,7 +656,7 @@ public class BitronixTransactionManager
 	{
 		if (isShuttingDown())
 		{
-			if (LogDebugCheck.isDebugEnabled())
+			if (debugCheck.isDebugEnabled())
 			{
 				log.finer("Transaction Manager has already shut down");
 			}
@@ -614,42 +666,42 @@ public class BitronixTransactionManager
 		log.info("shutting down Bitronix Transaction Manager");
 		internalShutdown();
 
-		if (LogDebugCheck.isDebugEnabled())
+		if (debugCheck.isDebugEnabled())
 		{
 			log.finer("shutting down resource loader");
 		}
 		TransactionManagerServices.getResourceLoader()
 		                          .shutdown();
 
-		if (LogDebugCheck.isDebugEnabled())
+		if (debugCheck.isDebugEnabled())
 		{
 			log.finer("shutting down executor");
 		}
 		TransactionManagerServices.getExecutor()
 		                          .shutdown();
 
-		if (LogDebugCheck.isDebugEnabled())
+		if (debugCheck.isDebugEnabled())
 		{
 			log.finer("shutting down task scheduler");
 		}
 		TransactionManagerServices.getTaskScheduler()
 		                          .shutdown();
 
-		if (LogDebugCheck.isDebugEnabled())
+		if (debugCheck.isDebugEnabled())
 		{
 			log.finer("shutting down journal");
 		}
 		TransactionManagerServices.getJournal()
 		                          .shutdown();
 
-		if (LogDebugCheck.isDebugEnabled())
+		if (debugCheck.isDebugEnabled())
 		{
 			log.finer("shutting down recoverer");
 		}
 		TransactionManagerServices.getRecoverer()
 		                          .shutdown();
 
-		if (LogDebugCheck.isDebugEnabled())
+		if (debugCheck.isDebugEnabled())
 		{
 			log.finer("shutting down configuration");
 		}
@@ -659,7 +711,7 @@ public class BitronixTransactionManager
 		// clear references
 		TransactionManagerServices.clear();
 
-		if (LogDebugCheck.isDebugEnabled())
+		if (debugCheck.isDebugEnabled())
 		{
 			log.finer("shutdown ran successfully");
 		}
@@ -681,7 +733,7 @@ public class BitronixTransactionManager
 			txCount = inFlightTransactions.size();
 			while (seconds > 0 && txCount > 0)
 			{
-				if (LogDebugCheck.isDebugEnabled())
+				if (debugCheck.isDebugEnabled())
 				{
 					log.finer("still " + txCount + " in-flight transactions, waiting... (" + seconds + " second(s) left)");
 				}
@@ -704,7 +756,7 @@ public class BitronixTransactionManager
 
 		if (txCount > 0)
 		{
-			if (LogDebugCheck.isDebugEnabled())
+			if (debugCheck.isDebugEnabled())
 			{
 				log.finer("still " + txCount + " in-flight transactions, shutting down anyway");
 				dumpTransactionContexts();
@@ -712,7 +764,7 @@ public class BitronixTransactionManager
 		}
 		else
 		{
-			if (LogDebugCheck.isDebugEnabled())
+			if (debugCheck.isDebugEnabled())
 			{
 				log.finer("all transactions finished, resuming shutdown");
 			}
@@ -772,7 +824,7 @@ public class BitronixTransactionManager
 			ThreadContext context = threadContext.get();
 			if (context != null)
 			{
-				if (LogDebugCheck.isDebugEnabled())
+				if (debugCheck.isDebugEnabled())
 				{
 					log.finer("clearing transaction from thread context: " + context);
 				}
@@ -780,16 +832,16 @@ public class BitronixTransactionManager
 			}
 			else
 			{
-				if (LogDebugCheck.isDebugEnabled())
+				if (debugCheck.isDebugEnabled())
 				{
 					log.finer("thread context was null when clear context synchronization executed");
 				}
 			}
-			if (LogDebugCheck.isDebugEnabled())
+			if (debugCheck.isDebugEnabled())
 			{
 				log.finer("removing transaction from in-flight transactions: " + currentTx);
 			}
-			inFlightTransactions.remove(currentTx);
+			inFlightTransactions.unregister(currentTx);
 		}
 
 		/**
@@ -804,6 +856,22 @@ public class BitronixTransactionManager
 			this.threadContext.set(threadContext);
 		}
 
+		/**
+		 * Set the threadContext of this ClearContextSynchronization object if it is the expected one.
+		 *
+		 * @param expected
+		 * 		the expected threadContext.
+		 * @param threadContext
+		 * 		the new threadContext of this ClearContextSynchronization object.
+		 *
+		 * @return true if the threadContext has been set.
+		 */
+		@SuppressWarnings("WeakerAccess")
+		public boolean compareAndSetThreadContext(ThreadContext expected, ThreadContext threadContext)
+		{
+			return this.threadContext.compareAndSet(expected, threadContext);
+		}
+
 		/**
 		 * Method toString ...
 		 *
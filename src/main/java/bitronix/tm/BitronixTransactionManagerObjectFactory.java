@@ -33,6 +33,8 @@ public class BitronixTransactionManagerObjectFactory
 
 	private static final java.util.logging.Logger log = java.util.logging.Logger.getLogger(BitronixTransactionManagerObjectFactory.class.toString());
 
+	private static final LogDebugCheck debugCheck = LogDebugCheck.forLogger(log);
+
 	/**
 	 * Since there can be only one transaction manager per VM instance, this method always returns a reference
 	 * to the unique BitronixTransactionManager object.
@@ -46,7 +48,7 @@ public class BitronixTransactionManagerObjectFactory
 	@Override
 	public Object getObjectInstance(Object obj, Name name, Context nameCtx, Hashtable<?, ?> environment) throws Exception
 	{
-		if (LogDebugCheck.isDebugEnabled())
+		if (debugCheck.isDebugEnabled())
 		{
 			log.finer("returning the unique transaction manager instance");
 		}
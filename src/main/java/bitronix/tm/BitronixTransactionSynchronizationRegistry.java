@@ -27,11 +27,11 @@ import jakarta.transaction.Status;
 import jakarta.transaction.Synchronization;
 import jakarta.transaction.SystemException;
 import jakarta.transaction.TransactionSynchronizationRegistry;
-import java.util.HashMap;
-import java.util.Map;
 
 /**
  * Implementation of JTA 1.1 {@link TransactionSynchronizationRegistry}.
+ * <p>Resources are stored on the transaction they were put in, not on the thread, so they follow the transaction
+ * when it gets suspended and resumed on another thread and are dropped once it completed.</p>
  *
  * @author Ludovic Orban
  */
@@ -40,7 +40,8 @@ public class BitronixTransactionSynchronizationRegistry
 {
 
 	private static final java.util.logging.Logger log = java.util.logging.Logger.getLogger(BitronixTransactionSynchronizationRegistry.class.toString());
-	private static final ThreadLocal<Map<Object, Object>> resourcesTl = ThreadLocal.withInitial(HashMap::new);
+
+	private static final LogDebugCheck debugCheck = LogDebugCheck.forLogger(log);
 
 	private static final String CANT_GET_TRANSACTION = "cannot get current transaction status";
 	private static final String NO_TRANSACTION_ON_THREAD = "no transaction started on current thread";
@@ -96,23 +97,13 @@ public class BitronixTransactionSynchronizationRegistry
 			{
 				throw new NullPointerException("key cannot be null");
 			}
-			if (currentTransaction() == null || currentTransaction().getStatus() == Status.STATUS_NO_TRANSACTION)
+			BitronixTransaction currentTransaction = currentTransaction();
+			if (currentTransaction == null || currentTransaction.getStatus() == Status.STATUS_NO_TRANSACTION)
 			{
 				throw new IllegalStateException(NO_TRANSACTION_ON_THREAD);
 			}
 
-			Object oldValue = getResources().put(key, value);
-
-			if (oldValue == null && getResources().size() == 1)
-			{
-				if (LogDebugCheck.isDebugEnabled())
-				{
-					log.finer("first resource put in synchronization registry, registering a ClearRegistryResourcesSynchronization");
-				}
-				Synchronization synchronization = new ClearRegistryResourcesSynchronization();
-				currentTransaction().getSynchronizationScheduler()
-				                    .add(synchronization, Scheduler.ALWAYS_LAST_POSITION);
-			}
+			currentTransaction.putSynchronizationRegistryResource(key, value);
 		}
 		catch (SystemException ex)
 		{
@@ -137,12 +128,13 @@ public class BitronixTransactionSynchronizationRegistry
 			{
 				throw new NullPointerException("key cannot be null");
 			}
-			if (currentTransaction() == null || currentTransaction().getStatus() == Status.STATUS_NO_TRANSACTION)
+			BitronixTransaction currentTransaction = currentTransaction();
+			if (currentTransaction == null || currentTransaction.getStatus() == Status.STATUS_NO_TRANSACTION)
 			{
 				throw new IllegalStateException(NO_TRANSACTION_ON_THREAD);
 			}
 
-			return getResources().get(key);
+			return currentTransaction.getSynchronizationRegistryResource(key);
 		}
 		catch (SystemException ex)
 		{
@@ -252,16 +244,6 @@ public class BitronixTransactionSynchronizationRegistry
 		}
 	}
 
-	/**
-	 * Method getResources returns the resources of this BitronixTransactionSynchronizationRegistry object.
-	 *
-	 * @return the resources (type Map<Object, Object>) of this BitronixTransactionSynchronizationRegistry object.
-	 */
-	private Map<Object, Object> getResources()
-	{
-		return resourcesTl.get();
-	}
-
 	/**
 	 * Method currentTransaction ...
 	 *
@@ -291,33 +273,4 @@ public class BitronixTransactionSynchronizationRegistry
 		);
 	}
 
-	private final class ClearRegistryResourcesSynchronization
-			implements Synchronization
-	{
-		/**
-		 * Method beforeCompletion ...
-		 */
-		@Override
-		public void beforeCompletion()
-		{
-			//Nothing required
-		}
-
-		/**
-		 * Method afterCompletion ...
-		 *
-		 * @param status
-		 * 		of type int
-		 */
-		@Override
-		public void afterCompletion(int status)
-		{
-			if (LogDebugCheck.isDebugEnabled())
-			{
-				log.finer("clearing resources");
-			}
-			getResources().clear();
-		}
-	}
-
 }
@@ -33,6 +33,8 @@ public class BitronixTransactionSynchronizationRegistryObjectFactory
 
 	private static final java.util.logging.Logger log = java.util.logging.Logger.getLogger(BitronixTransactionSynchronizationRegistryObjectFactory.class.toString());
 
+	private static final LogDebugCheck debugCheck = LogDebugCheck.forLogger(log);
+
 	/**
 	 * Since there can be only one synchronization registry per VM instance, this method always returns a reference
 	 * to the unique BitronixTransactionSynchronizationRegistry object.
@@ -46,7 +48,7 @@ public class BitronixTransactionSynchronizationRegistryObjectFactory
 	@Override
 	public Object getObjectInstance(Object obj, Name name, Context nameCtx, Hashtable<?, ?> environment) throws Exception
 	{
-		if (LogDebugCheck.isDebugEnabled())
+		if (debugCheck.isDebugEnabled())
 		{
 			log.finer("returning the unique synchronization registry instance");
 		}
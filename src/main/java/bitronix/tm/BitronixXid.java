@@ -48,7 +48,7 @@ public class BitronixXid
 	private final Uid globalTransactionId;
 	private final Uid branchQualifier;
 	private final int hashCodeValue;
-	private final String toStringValue;
+	private String toStringValue;
 
 	/**
 	 * Constructor BitronixXid creates a new BitronixXid instance.
@@ -73,12 +73,11 @@ public class BitronixXid
 	{
 		this.globalTransactionId = globalTransactionId;
 		this.branchQualifier = branchQualifier;
-		this.toStringValue = precalculateToString();
 		this.hashCodeValue = precalculateHashCode();
 	}
 
 	/**
-	 * Method precalculateToString ...
+	 * Method precalculateToString builds the string returned by {@link #toString()} on first use.
 	 *
 	 * @return String
 	 */
@@ -206,7 +205,13 @@ public class BitronixXid
 	@Override
 	public String toString()
 	{
-		return toStringValue;
+		String value = toStringValue;
+		if (value == null)
+		{
+			value = precalculateToString();
+			toStringValue = value;
+		}
+		return value;
 	}
 
 }
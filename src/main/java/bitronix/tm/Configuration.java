@@ -46,6 +46,8 @@ public class Configuration
 
 	private static final java.util.logging.Logger log = java.util.logging.Logger.getLogger(Configuration.class.toString());
 
+	private static final LogDebugCheck debugCheck = LogDebugCheck.forLogger(log);
+
 	private static final int MAX_SERVER_ID_LENGTH = 51;
 	private static final Charset SERVER_ID_CHARSET = Charset.forName("US-ASCII");
 	private final AtomicReference<byte[]> serverIdArray = new AtomicReference<>();
@@ -54,6 +56,24 @@ public class Configuration
 	private volatile String logPart2Filename;
 	private volatile boolean forcedWriteEnabled;
 	private volatile boolean forceBatchingEnabled;
+	private volatile int forceBatchingMaxWaitMicros;
+	private volatile int writeBlockSize;
+	private volatile boolean uniqueNameDictionaryEnabled;
+	private volatile String segmentDirectory;
+	private volatile int maxSegments;
+	private volatile String slotFilename;
+	private volatile int slotCount;
+	private volatile int slotSize;
+	private volatile int ringBufferSize;
+	private volatile String stripeDirectories;
+	private volatile int checkpointIntervalInKb;
+	private volatile int maxCheckpointRecords;
+	private volatile boolean outcomeBatchingEnabled;
+	private volatile int outcomeBatchingIntervalMillis;
+	private volatile boolean crc32cChecksumEnabled;
+	private volatile String jdbcJournalDataSourceJndiName;
+	private volatile String jdbcJournalTableName;
+	private volatile int jdbcJournalMaxBatchSize;
 	private volatile int maxLogSizeInMb;
 	private volatile boolean filterLogStatus;
 	private volatile boolean skipCorruptedLogs;
@@ -68,6 +88,9 @@ public class Configuration
 	private volatile String jndiUserTransactionName;
 	private volatile String jndiTransactionSynchronizationRegistryName;
 	private volatile String journal;
+	private volatile String journalMigrationSource;
+	private volatile boolean journalMigrationDanglingOnly;
+	private volatile int journalMigrationBatchSize;
 	private volatile String exceptionAnalyzer;
 	private volatile boolean currentNodeOnlyRecovery;
 	private volatile boolean allowMultipleLrc;
@@ -89,7 +112,7 @@ public class Configuration
 				String configurationFilename = System.getProperty("bitronix.tm.configuration");
 				if (configurationFilename != null)
 				{
-					if (LogDebugCheck.isDebugEnabled())
+					if (debugCheck.isDebugEnabled())
 					{
 						log.finer("loading configuration file " + configurationFilename);
 					}
@@ -97,7 +120,7 @@ public class Configuration
 				}
 				else
 				{
-					if (LogDebugCheck.isDebugEnabled())
+					if (debugCheck.isDebugEnabled())
 					{
 						log.finer("loading default configuration");
 					}
@@ -108,7 +131,7 @@ public class Configuration
 				{
 					properties.load(in);
 				}
-				else if (LogDebugCheck.isDebugEnabled())
+				else if (debugCheck.isDebugEnabled())
 				{
 					log.finer("no configuration file found, using default settings");
 				}
@@ -126,6 +149,24 @@ public class Configuration
 			logPart2Filename = getString(properties, "bitronix.tm.journal.disk.logPart2Filename", "btm2.tlog");
 			forcedWriteEnabled = getBoolean(properties, "bitronix.tm.journal.disk.forcedWriteEnabled", true);
 			forceBatchingEnabled = getBoolean(properties, "bitronix.tm.journal.disk.forceBatchingEnabled", true);
+			forceBatchingMaxWaitMicros = getInt(properties, "bitronix.tm.journal.disk.forceBatchingMaxWaitMicros", 0);
+			writeBlockSize = getInt(properties, "bitronix.tm.journal.disk.writeBlockSize", 0);
+			uniqueNameDictionaryEnabled = getBoolean(properties, "bitronix.tm.journal.disk.uniqueNameDictionaryEnabled", false);
+			segmentDirectory = getString(properties, "bitronix.tm.journal.disk.segmentDirectory", "btm-segments");
+			maxSegments = getInt(properties, "bitronix.tm.journal.disk.maxSegments", 8);
+			slotFilename = getString(properties, "bitronix.tm.journal.disk.slotFilename", "btm-slots.tlog");
+			slotCount = getInt(properties, "bitronix.tm.journal.disk.slotCount", 1024);
+			slotSize = getInt(properties, "bitronix.tm.journal.disk.slotSize", 512);
+			ringBufferSize = getInt(properties, "bitronix.tm.journal.disk.ringBufferSize", 4096);
+			stripeDirectories = getString(properties, "bitronix.tm.journal.disk.stripeDirectories", null);
+			checkpointIntervalInKb = getInt(properties, "bitronix.tm.journal.disk.checkpointIntervalInKb", 0);
+			maxCheckpointRecords = getInt(properties, "bitronix.tm.journal.disk.maxCheckpointRecords", 10000);
+			outcomeBatchingEnabled = getBoolean(properties, "bitronix.tm.journal.disk.outcomeBatchingEnabled", false);
+			outcomeBatchingIntervalMillis = getInt(properties, "bitronix.tm.journal.disk.outcomeBatchingIntervalMillis", 10);
+			crc32cChecksumEnabled = getBoolean(properties, "bitronix.tm.journal.disk.crc32cChecksumEnabled", false);
+			jdbcJournalDataSourceJndiName = getString(properties, "bitronix.tm.journal.jdbc.dataSourceJndiName", null);
+			jdbcJournalTableName = getString(properties, "bitronix.tm.journal.jdbc.tableName", "BTM_JOURNAL");
+			jdbcJournalMaxBatchSize = getInt(properties, "bitronix.tm.journal.jdbc.maxBatchSize", 512);
 			maxLogSizeInMb = getInt(properties, "bitronix.tm.journal.disk.maxLogSize", 2);
 			filterLogStatus = getBoolean(properties, "bitronix.tm.journal.disk.filterLogStatus", false);
 			skipCorruptedLogs = getBoolean(properties, "bitronix.tm.journal.disk.skipCorruptedLogs", false);
@@ -141,6 +182,9 @@ public class Configuration
 			jndiTransactionSynchronizationRegistryName = getString(properties, "bitronix.tm.jndi.transactionSynchronizationRegistryName",
 			                                                       "java:comp/TransactionSynchronizationRegistry");
 			journal = getString(properties, "bitronix.tm.journal", "disk");
+			journalMigrationSource = getString(properties, "bitronix.tm.journal.migration.source", null);
+			journalMigrationDanglingOnly = getBoolean(properties, "bitronix.tm.journal.migration.danglingOnly", true);
+			journalMigrationBatchSize = getInt(properties, "bitronix.tm.journal.migration.batchSize", 1024);
 			exceptionAnalyzer = getString(properties, "bitronix.tm.exceptionAnalyzer", null);
 			currentNodeOnlyRecovery = getBoolean(properties, "bitronix.tm.currentNodeOnlyRecovery", true);
 			allowMultipleLrc = getBoolean(properties, "bitronix.tm.allowMultipleLrc", false);
@@ -379,7 +423,9 @@ public class Configuration
 	}
 
 	/**
-	 * Are disk forces batched? Disabling batching can seriously lower the transaction manager's throughput.
+	 * Are disk forces batched? When enabled, concurrent callers of {@link bitronix.tm.journal.Journal#force()} are
+	 * grouped so that a single disk force covers all the records they wrote. Disabling batching can seriously lower
+	 * the transaction manager's throughput.
 	 * <p>Property name:<br><b>bitronix.tm.journal.disk.forceBatchingEnabled -</b> <i>(defaults to true)</i></p>
 	 *
 	 * @return true if disk forces are batched, false otherwise.
@@ -402,11 +448,550 @@ public class Configuration
 	public Configuration setForceBatchingEnabled(boolean forceBatchingEnabled)
 	{
 		checkNotStarted();
-		log.warning("forceBatchingEnabled is not longer used");
 		this.forceBatchingEnabled = forceBatchingEnabled;
 		return this;
 	}
 
+	/**
+	 * Maximum time in microseconds the thread performing a batched disk force waits for concurrent writers to join
+	 * the batch before forcing. Zero means the force is performed immediately, batching only the callers that queued
+	 * up while the previous force was in progress.
+	 * <p>Property name:<br><b>bitronix.tm.journal.disk.forceBatchingMaxWaitMicros -</b> <i>(defaults to 0)</i></p>
+	 *
+	 * @return the maximum time in microseconds a batched force waits for more writers.
+	 */
+	public int getForceBatchingMaxWaitMicros()
+	{
+		return forceBatchingMaxWaitMicros;
+	}
+
+	/**
+	 * Set the maximum time in microseconds the thread performing a batched disk force waits for concurrent writers to
+	 * join the batch before forcing.
+	 *
+	 * @param forceBatchingMaxWaitMicros
+	 * 		the maximum time in microseconds a batched force waits for more writers.
+	 *
+	 * @return this.
+	 *
+	 * @see #getForceBatchingMaxWaitMicros()
+	 */
+	public Configuration setForceBatchingMaxWaitMicros(int forceBatchingMaxWaitMicros)
+	{
+		checkNotStarted();
+		this.forceBatchingMaxWaitMicros = forceBatchingMaxWaitMicros;
+		return this;
+	}
+
+	/**
+	 * Size of the blocks the disk journal writes are padded to, so that every write ends on a block boundary and the
+	 * next one starts on it: writes then cover whole filesystem blocks and the device never has to read a partially
+	 * written block back. Log files reused after a swap are also checked to be fully allocated and read once so that
+	 * their pages are in memory before being written to. Must be a power of two between 512 and 4096, matching the
+	 * filesystem block size, or 0 to write records unpadded.
+	 * <p>Property name:<br><b>bitronix.tm.journal.disk.writeBlockSize -</b> <i>(defaults to 0)</i></p>
+	 *
+	 * @return the write block size in bytes, 0 if writes are not padded.
+	 */
+	public int getWriteBlockSize()
+	{
+		return writeBlockSize;
+	}
+
+	/**
+	 * Set the size of the blocks the disk journal writes are padded to.
+	 *
+	 * @param writeBlockSize
+	 * 		the write block size in bytes, 0 if writes are not padded.
+	 *
+	 * @return this.
+	 *
+	 * @see #getWriteBlockSize()
+	 */
+	public Configuration setWriteBlockSize(int writeBlockSize)
+	{
+		checkNotStarted();
+		this.writeBlockSize = writeBlockSize;
+		return this;
+	}
+
+	/**
+	 * Should the unique names of the resources be replaced by small ids in the journal records? Each journal file then
+	 * defines the id of a unique name the first time it uses it.
+	 * <p>This changes the on-disk record format: journal files written with this setting enabled cannot be read by
+	 * versions which do not support it, so disable it and let both log files be swapped before downgrading. Files
+	 * written in the original format are always readable, whatever this setting.</p>
+	 * <p>Property name:<br><b>bitronix.tm.journal.disk.uniqueNameDictionaryEnabled -</b> <i>(defaults to false)</i></p>
+	 *
+	 * @return true if unique names are dictionary encoded.
+	 */
+	public boolean isUniqueNameDictionaryEnabled()
+	{
+		return uniqueNameDictionaryEnabled;
+	}
+
+	/**
+	 * Set if the unique names of the resources should be replaced by small ids in the journal records.
+	 *
+	 * @param uniqueNameDictionaryEnabled
+	 * 		true if unique names are dictionary encoded.
+	 *
+	 * @return this.
+	 *
+	 * @see #isUniqueNameDictionaryEnabled()
+	 */
+	public Configuration setUniqueNameDictionaryEnabled(boolean uniqueNameDictionaryEnabled)
+	{
+		checkNotStarted();
+		this.uniqueNameDictionaryEnabled = uniqueNameDictionaryEnabled;
+		return this;
+	}
+
+	/**
+	 * Directory in which the segmented journal keeps its segment files. Only used when the journal is set to
+	 * <code>segmented</code>.
+	 * <p>Property name:<br><b>bitronix.tm.journal.disk.segmentDirectory -</b> <i>(defaults to btm-segments)</i></p>
+	 *
+	 * @return the directory of the segment files.
+	 */
+	public String getSegmentDirectory()
+	{
+		return segmentDirectory;
+	}
+
+	/**
+	 * Set the directory in which the segmented journal keeps its segment files.
+	 *
+	 * @param segmentDirectory
+	 * 		the directory of the segment files.
+	 *
+	 * @return this.
+	 *
+	 * @see #getSegmentDirectory()
+	 */
+	public Configuration setSegmentDirectory(String segmentDirectory)
+	{
+		checkNotStarted();
+		this.segmentDirectory = segmentDirectory;
+		return this;
+	}
+
+	/**
+	 * Maximum number of segment files the segmented journal may use. When all segments hold in-doubt transactions, the
+	 * oldest segment's live records are moved into the new active segment before it is reused.
+	 * <p>Property name:<br><b>bitronix.tm.journal.disk.maxSegments -</b> <i>(defaults to 8)</i></p>
+	 *
+	 * @return the maximum number of segment files.
+	 */
+	public int getMaxSegments()
+	{
+		return maxSegments;
+	}
+
+	/**
+	 * Set the maximum number of segment files the segmented journal may use.
+	 *
+	 * @param maxSegments
+	 * 		the maximum number of segment files.
+	 *
+	 * @return this.
+	 *
+	 * @see #getMaxSegments()
+	 */
+	public Configuration setMaxSegments(int maxSegments)
+	{
+		checkNotStarted();
+		this.maxSegments = maxSegments;
+		return this;
+	}
+
+	/**
+	 * Get the slot file name of the slotted disk journal. Only used when the journal is set to <code>slotted</code>.
+	 * <p>Property name:<br><b>bitronix.tm.journal.disk.slotFilename -</b> <i>(defaults to btm-slots.tlog)</i></p>
+	 *
+	 * @return the slot file name.
+	 */
+	public String getSlotFilename()
+	{
+		return slotFilename;
+	}
+
+	/**
+	 * Set the slot file name of the slotted disk journal.
+	 *
+	 * @param slotFilename
+	 * 		the slot file name.
+	 *
+	 * @return this.
+	 *
+	 * @see #getSlotFilename()
+	 */
+	public Configuration setSlotFilename(String slotFilename)
+	{
+		checkNotStarted();
+		this.slotFilename = slotFilename;
+		return this;
+	}
+
+	/**
+	 * Get the number of slots of the slotted disk journal, the maximum number of two-phase commit transactions it can
+	 * have between their COMMITTING and COMMITTED records at the same time. An existing slot file with fewer slots is
+	 * extended when the journal opens, one with more slots keeps them. Only used when the journal is set to
+	 * <code>slotted</code>.
+	 * <p>Property name:<br><b>bitronix.tm.journal.disk.slotCount -</b> <i>(defaults to 1024)</i></p>
+	 *
+	 * @return the number of slots.
+	 */
+	public int getSlotCount()
+	{
+		return slotCount;
+	}
+
+	/**
+	 * Set the number of slots of the slotted disk journal.
+	 *
+	 * @param slotCount
+	 * 		the number of slots.
+	 *
+	 * @return this.
+	 *
+	 * @see #getSlotCount()
+	 */
+	public Configuration setSlotCount(int slotCount)
+	{
+		checkNotStarted();
+		this.slotCount = slotCount;
+		return this;
+	}
+
+	/**
+	 * Get the size in bytes of a slot of the slotted disk journal, which bounds the size of a COMMITTING record. Slots
+	 * of at most the disk sector size are written atomically by most devices. The size of an existing slot file is
+	 * kept. Only used when the journal is set to <code>slotted</code>.
+	 * <p>Property name:<br><b>bitronix.tm.journal.disk.slotSize -</b> <i>(defaults to 512)</i></p>
+	 *
+	 * @return the slot size in bytes.
+	 */
+	public int getSlotSize()
+	{
+		return slotSize;
+	}
+
+	/**
+	 * Set the size in bytes of a slot of the slotted disk journal.
+	 *
+	 * @param slotSize
+	 * 		the slot size in bytes.
+	 *
+	 * @return this.
+	 *
+	 * @see #getSlotSize()
+	 */
+	public Configuration setSlotSize(int slotSize)
+	{
+		checkNotStarted();
+		this.slotSize = slotSize;
+		return this;
+	}
+
+	/**
+	 * Number of slots of the ring buffer in which the ring buffer journal queues records for its writer thread.
+	 * Rounded up to the next power of two. Only used when the journal is set to <code>ringbuffer</code>.
+	 * <p>Property name:<br><b>bitronix.tm.journal.disk.ringBufferSize -</b> <i>(defaults to 4096)</i></p>
+	 *
+	 * @return the number of slots of the ring buffer.
+	 */
+	public int getRingBufferSize()
+	{
+		return ringBufferSize;
+	}
+
+	/**
+	 * Set the number of slots of the ring buffer journal's ring buffer.
+	 *
+	 * @param ringBufferSize
+	 * 		the number of slots of the ring buffer.
+	 *
+	 * @return this.
+	 *
+	 * @see #getRingBufferSize()
+	 */
+	public Configuration setRingBufferSize(int ringBufferSize)
+	{
+		checkNotStarted();
+		this.ringBufferSize = ringBufferSize;
+		return this;
+	}
+
+	/**
+	 * Comma-separated list of the directories holding the journal files of each stripe of the striped journal. Each
+	 * directory holds its own pair of journal files, named after
+	 * <code>bitronix.tm.journal.disk.logPart1Filename</code> and
+	 * <code>bitronix.tm.journal.disk.logPart2Filename</code>. Only used when the journal is set to
+	 * <code>striped</code>.
+	 * <p>Property name:<br><b>bitronix.tm.journal.disk.stripeDirectories -</b> <i>(defaults to null)</i></p>
+	 *
+	 * @return the comma-separated list of stripe directories.
+	 */
+	public String getStripeDirectories()
+	{
+		return stripeDirectories;
+	}
+
+	/**
+	 * Set the comma-separated list of the directories holding the journal files of each stripe of the striped journal.
+	 *
+	 * @param stripeDirectories
+	 * 		the comma-separated list of stripe directories.
+	 *
+	 * @return this.
+	 *
+	 * @see #getStripeDirectories()
+	 */
+	public Configuration setStripeDirectories(String stripeDirectories)
+	{
+		checkNotStarted();
+		this.stripeDirectories = stripeDirectories;
+		return this;
+	}
+
+	/**
+	 * Amount of records in kilobytes the disk journal writes to a log file between two checkpoints of its dangling
+	 * records. Collecting the dangling records, when recovering, only has to read the log file from its latest
+	 * checkpoint. 0 disables checkpoints.
+	 * <p>Property name:<br><b>bitronix.tm.journal.disk.checkpointIntervalInKb -</b> <i>(defaults to 0)</i></p>
+	 *
+	 * @return the amount of records in kilobytes written between two checkpoints.
+	 */
+	public int getCheckpointIntervalInKb()
+	{
+		return checkpointIntervalInKb;
+	}
+
+	/**
+	 * Set the amount of records in kilobytes written between two checkpoints, 0 to disable checkpoints.
+	 *
+	 * @param checkpointIntervalInKb
+	 * 		the amount of records in kilobytes written between two checkpoints.
+	 *
+	 * @return this.
+	 *
+	 * @see #getCheckpointIntervalInKb()
+	 */
+	public Configuration setCheckpointIntervalInKb(int checkpointIntervalInKb)
+	{
+		checkNotStarted();
+		this.checkpointIntervalInKb = checkpointIntervalInKb;
+		return this;
+	}
+
+	/**
+	 * Maximum number of dangling records a checkpoint may hold. No checkpoint is written while there are more dangling
+	 * records, bounding the space and time a single checkpoint takes.
+	 * <p>Property name:<br><b>bitronix.tm.journal.disk.maxCheckpointRecords -</b> <i>(defaults to 10000)</i></p>
+	 *
+	 * @return the maximum number of dangling records a checkpoint may hold.
+	 */
+	public int getMaxCheckpointRecords()
+	{
+		return maxCheckpointRecords;
+	}
+
+	/**
+	 * Set the maximum number of dangling records a checkpoint may hold.
+	 *
+	 * @param maxCheckpointRecords
+	 * 		the maximum number of dangling records a checkpoint may hold.
+	 *
+	 * @return this.
+	 *
+	 * @see #getMaxCheckpointRecords()
+	 */
+	public Configuration setMaxCheckpointRecords(int maxCheckpointRecords)
+	{
+		checkNotStarted();
+		this.maxCheckpointRecords = maxCheckpointRecords;
+		return this;
+	}
+
+	/**
+	 * Should the disk journal buffer COMMITTED, UNKNOWN and ROLLEDBACK records and write them as a single outcome
+	 * batch record per flush interval? This roughly halves the number of journal writes of two-phase commits. Outcomes
+	 * lost in a crash leave their transaction dangling until recovery completes it again. Older versions cannot read
+	 * journals containing batch records.
+	 * <p>Property name:<br><b>bitronix.tm.journal.disk.outcomeBatchingEnabled -</b> <i>(defaults to false)</i></p>
+	 *
+	 * @return true if outcomes are batched, false otherwise.
+	 */
+	public boolean isOutcomeBatchingEnabled()
+	{
+		return outcomeBatchingEnabled;
+	}
+
+	/**
+	 * Set if the disk journal should buffer transaction outcomes and write them as outcome batch records.
+	 *
+	 * @param outcomeBatchingEnabled
+	 * 		true if outcomes are batched, false otherwise.
+	 *
+	 * @return this.
+	 *
+	 * @see #isOutcomeBatchingEnabled()
+	 */
+	public Configuration setOutcomeBatchingEnabled(boolean outcomeBatchingEnabled)
+	{
+		checkNotStarted();
+		this.outcomeBatchingEnabled = outcomeBatchingEnabled;
+		return this;
+	}
+
+	/**
+	 * Maximum amount of milliseconds a buffered transaction outcome waits before its batch is written, checked on
+	 * every journal write.
+	 * <p>Property name:<br><b>bitronix.tm.journal.disk.outcomeBatchingIntervalMillis -</b> <i>(defaults to 10)</i></p>
+	 *
+	 * @return the maximum time in milliseconds an outcome stays buffered.
+	 */
+	public int getOutcomeBatchingIntervalMillis()
+	{
+		return outcomeBatchingIntervalMillis;
+	}
+
+	/**
+	 * Set the maximum amount of milliseconds a buffered transaction outcome waits before its batch is written.
+	 *
+	 * @param outcomeBatchingIntervalMillis
+	 * 		the maximum time in milliseconds an outcome stays buffered.
+	 *
+	 * @return this.
+	 *
+	 * @see #getOutcomeBatchingIntervalMillis()
+	 */
+	public Configuration setOutcomeBatchingIntervalMillis(int outcomeBatchingIntervalMillis)
+	{
+		checkNotStarted();
+		this.outcomeBatchingIntervalMillis = outcomeBatchingIntervalMillis;
+		return this;
+	}
+
+	/**
+	 * Should the journal records be checksummed with CRC32C instead of CRC32? CRC32C is hardware accelerated on most
+	 * CPUs, reducing the cost of writing records and of scanning the journal at startup. The checksum is recorded per
+	 * log file and only changes once a log file is empty, so existing log files stay readable. Older versions cannot
+	 * read log files using CRC32C.
+	 * <p>Property name:<br><b>bitronix.tm.journal.disk.crc32cChecksumEnabled -</b> <i>(defaults to false)</i></p>
+	 *
+	 * @return true if CRC32C is used for new log files, false otherwise.
+	 */
+	public boolean isCrc32cChecksumEnabled()
+	{
+		return crc32cChecksumEnabled;
+	}
+
+	/**
+	 * Set if the journal records should be checksummed with CRC32C instead of CRC32.
+	 *
+	 * @param crc32cChecksumEnabled
+	 * 		true if CRC32C is used for new log files, false otherwise.
+	 *
+	 * @return this.
+	 *
+	 * @see #isCrc32cChecksumEnabled()
+	 */
+	public Configuration setCrc32cChecksumEnabled(boolean crc32cChecksumEnabled)
+	{
+		checkNotStarted();
+		this.crc32cChecksumEnabled = crc32cChecksumEnabled;
+		return this;
+	}
+
+	/**
+	 * JNDI name of the DataSource the JDBC journal persists its records to. It is looked up in the default
+	 * InitialContext when the journal opens.
+	 * <p>Property name:<br><b>bitronix.tm.journal.jdbc.dataSourceJndiName -</b> <i>(defaults to null)</i></p>
+	 *
+	 * @return the JNDI name of the JDBC journal DataSource.
+	 */
+	public String getJdbcJournalDataSourceJndiName()
+	{
+		return jdbcJournalDataSourceJndiName;
+	}
+
+	/**
+	 * Set the JNDI name of the DataSource the JDBC journal persists its records to.
+	 *
+	 * @param jdbcJournalDataSourceJndiName
+	 * 		the JNDI name of the JDBC journal DataSource.
+	 *
+	 * @return this.
+	 *
+	 * @see #getJdbcJournalDataSourceJndiName()
+	 */
+	public Configuration setJdbcJournalDataSourceJndiName(String jdbcJournalDataSourceJndiName)
+	{
+		checkNotStarted();
+		this.jdbcJournalDataSourceJndiName = jdbcJournalDataSourceJndiName;
+		return this;
+	}
+
+	/**
+	 * Name of the table the JDBC journal persists its records to. The table and its index are created when the journal
+	 * opens if they do not exist yet.
+	 * <p>Property name:<br><b>bitronix.tm.journal.jdbc.tableName -</b> <i>(defaults to BTM_JOURNAL)</i></p>
+	 *
+	 * @return the JDBC journal table name.
+	 */
+	public String getJdbcJournalTableName()
+	{
+		return jdbcJournalTableName;
+	}
+
+	/**
+	 * Set the name of the table the JDBC journal persists its records to.
+	 *
+	 * @param jdbcJournalTableName
+	 * 		the JDBC journal table name.
+	 *
+	 * @return this.
+	 *
+	 * @see #getJdbcJournalTableName()
+	 */
+	public Configuration setJdbcJournalTableName(String jdbcJournalTableName)
+	{
+		checkNotStarted();
+		this.jdbcJournalTableName = jdbcJournalTableName;
+		return this;
+	}
+
+	/**
+	 * Maximum number of records the JDBC journal keeps in memory before inserting them, even if no thread requested a
+	 * force. All pending records are inserted with a single batch and committed at once.
+	 * <p>Property name:<br><b>bitronix.tm.journal.jdbc.maxBatchSize -</b> <i>(defaults to 512)</i></p>
+	 *
+	 * @return the maximum number of pending JDBC journal records.
+	 */
+	public int getJdbcJournalMaxBatchSize()
+	{
+		return jdbcJournalMaxBatchSize;
+	}
+
+	/**
+	 * Set the maximum number of records the JDBC journal keeps in memory before inserting them.
+	 *
+	 * @param jdbcJournalMaxBatchSize
+	 * 		the maximum number of pending JDBC journal records.
+	 *
+	 * @return this.
+	 *
+	 * @see #getJdbcJournalMaxBatchSize()
+	 */
+	public Configuration setJdbcJournalMaxBatchSize(int jdbcJournalMaxBatchSize)
+	{
+		checkNotStarted();
+		this.jdbcJournalMaxBatchSize = jdbcJournalMaxBatchSize;
+		return this;
+	}
+
 	/**
 	 * Maximum size in megabytes of the journal fragments. Larger logs allow transactions to stay longer in-doubt but
 	 * the TM pauses longer when a fragment is full.
@@ -829,7 +1414,12 @@ public class Configuration
 	}
 
 	/**
-	 * Get the journal implementation. Can be <code>disk</code>, <code>null</code> or a class name.
+	 * Get the journal implementation. Can be <code>disk</code>, <code>mapped</code> (memory-mapped disk journal),
+	 * <code>segmented</code> (rolling segment files disk journal), <code>ringbuffer</code> (disk journal written by a
+	 * single writer thread), <code>striped</code> (disk journals spread over several directories), <code>slotted</code>
+	 * (fixed array of slots disk journal), <code>jdbc</code> (database table journal), <code>null</code> or a class
+	 * name.
+	 * <p>Property name:<br><b>bitronix.tm.journal -</b> <i>(defaults to disk)</i></p>
 	 *
 	 * @return the journal name.
 	 */
@@ -839,7 +1429,9 @@ public class Configuration
 	}
 
 	/**
-	 * Set the journal name. Can be <code>disk</code>, <code>null</code> or a class name.
+	 * Set the journal name. Can be <code>disk</code>, <code>mapped</code>, <code>segmented</code>,
+	 * <code>ringbuffer</code>, <code>striped</code>, <code>slotted</code>, <code>jdbc</code>, <code>null</code> or a
+	 * class name.
 	 *
 	 * @param journal
 	 * 		the journal name.
@@ -855,6 +1447,94 @@ public class Configuration
 		return this;
 	}
 
+	/**
+	 * Journal to migrate the records of into the configured journal when the transaction manager starts, before
+	 * recovery runs. Can be any of the journal names or a class name, it must not use the same files as the configured
+	 * journal. Remove the property once the migration is done, the source is left untouched and would be migrated
+	 * again on the next start.
+	 * <p>Property name:<br><b>bitronix.tm.journal.migration.source -</b> <i>(defaults to null)</i></p>
+	 *
+	 * @return the journal to migrate from, or null.
+	 */
+	public String getJournalMigrationSource()
+	{
+		return journalMigrationSource;
+	}
+
+	/**
+	 * Set the journal to migrate the records of into the configured journal when the transaction manager starts.
+	 *
+	 * @param journalMigrationSource
+	 * 		the journal to migrate from, or null.
+	 *
+	 * @return this.
+	 *
+	 * @see #getJournalMigrationSource()
+	 */
+	public Configuration setJournalMigrationSource(String journalMigrationSource)
+	{
+		checkNotStarted();
+		this.journalMigrationSource = journalMigrationSource;
+		return this;
+	}
+
+	/**
+	 * Should the startup journal migration only copy the COMMITTING records of the unresolved transactions? When false
+	 * all the records of the source journal are copied.
+	 * <p>Property name:<br><b>bitronix.tm.journal.migration.danglingOnly -</b> <i>(defaults to true)</i></p>
+	 *
+	 * @return true if only the dangling records are migrated.
+	 */
+	public boolean isJournalMigrationDanglingOnly()
+	{
+		return journalMigrationDanglingOnly;
+	}
+
+	/**
+	 * Set if the startup journal migration only copies the COMMITTING records of the unresolved transactions.
+	 *
+	 * @param journalMigrationDanglingOnly
+	 * 		true if only the dangling records are migrated.
+	 *
+	 * @return this.
+	 *
+	 * @see #isJournalMigrationDanglingOnly()
+	 */
+	public Configuration setJournalMigrationDanglingOnly(boolean journalMigrationDanglingOnly)
+	{
+		checkNotStarted();
+		this.journalMigrationDanglingOnly = journalMigrationDanglingOnly;
+		return this;
+	}
+
+	/**
+	 * Maximum number of records written at once to the target journal by a journal migration.
+	 * <p>Property name:<br><b>bitronix.tm.journal.migration.batchSize -</b> <i>(defaults to 1024)</i></p>
+	 *
+	 * @return the journal migration batch size.
+	 */
+	public int getJournalMigrationBatchSize()
+	{
+		return journalMigrationBatchSize;
+	}
+
+	/**
+	 * Set the maximum number of records written at once to the target journal by a journal migration.
+	 *
+	 * @param journalMigrationBatchSize
+	 * 		the journal migration batch size.
+	 *
+	 * @return this.
+	 *
+	 * @see #getJournalMigrationBatchSize()
+	 */
+	public Configuration setJournalMigrationBatchSize(int journalMigrationBatchSize)
+	{
+		checkNotStarted();
+		this.journalMigrationBatchSize = journalMigrationBatchSize;
+		return this;
+	}
+
 	/**
 	 * Get the exception analyzer implementation. Can be <code>null</code> for the default one or a class name.
 	 *
@@ -1120,7 +1800,7 @@ public class Configuration
 		catch (PropertyException ex)
 		{
 			sb.append("???");
-			if (LogDebugCheck.isDebugEnabled())
+			if (debugCheck.isDebugEnabled())
 			{
 				log.log(Level.FINER, "error accessing properties of Configuration object", ex);
 			}
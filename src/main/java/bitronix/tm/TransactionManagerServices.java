@@ -17,8 +17,14 @@ package bitronix.tm;
 
 import bitronix.tm.internal.LogDebugCheck;
 import bitronix.tm.journal.DiskJournal;
+import bitronix.tm.journal.JdbcJournal;
 import bitronix.tm.journal.Journal;
+import bitronix.tm.journal.MappedDiskJournal;
 import bitronix.tm.journal.NullJournal;
+import bitronix.tm.journal.RingBufferDiskJournal;
+import bitronix.tm.journal.SegmentedDiskJournal;
+import bitronix.tm.journal.SlottedDiskJournal;
+import bitronix.tm.journal.StripedDiskJournal;
 import bitronix.tm.recovery.Recoverer;
 import bitronix.tm.resource.ResourceLoader;
 import bitronix.tm.timer.TaskScheduler;
@@ -48,6 +54,8 @@ public class TransactionManagerServices
 
 	private static final java.util.logging.Logger log = java.util.logging.Logger.getLogger(TransactionManagerServices.class.toString());
 
+	private static final LogDebugCheck debugCheck = LogDebugCheck.forLogger(log);
+
 	private static final Lock transactionManagerLock = new ReentrantLock();
 	private static final AtomicReference<BitronixTransactionSynchronizationRegistry> transactionSynchronizationRegistryRef = new AtomicReference<>();
 	private static final AtomicReference<Configuration> configurationRef = new AtomicReference<>();
@@ -119,28 +127,8 @@ public class TransactionManagerServices
 		if (journal == null)
 		{
 			String configuredJournal = getConfiguration().getJournal();
-			if ("null".equals(configuredJournal) || null == configuredJournal)
-			{
-				journal = new NullJournal();
-			}
-			else if ("disk".equals(configuredJournal))
-			{
-				journal = new DiskJournal();
-			}
-			else
-			{
-				try
-				{
-					Class<?> clazz = ClassLoaderUtils.loadClass(configuredJournal);
-					journal = (Journal) clazz.getDeclaredConstructor()
-					                         .newInstance();
-				}
-				catch (Exception ex)
-				{
-					throw new InitializationException("invalid journal implementation '" + configuredJournal + "'", ex);
-				}
-			}
-			if (LogDebugCheck.isDebugEnabled())
+			journal = createJournal(configuredJournal);
+			if (debugCheck.isDebugEnabled())
 			{
 				log.finer("using journal " + configuredJournal);
 			}
@@ -153,6 +141,63 @@ public class TransactionManagerServices
 		return journal;
 	}
 
+	/**
+	 * Create an unopened journal.
+	 *
+	 * @param name
+	 * 		the journal name as in {@link Configuration#getJournal()}, or a class name.
+	 *
+	 * @return the journal.
+	 */
+	static Journal createJournal(String name)
+	{
+		if ("null".equals(name) || null == name)
+		{
+			return new NullJournal();
+		}
+		else if ("disk".equals(name))
+		{
+			return new DiskJournal();
+		}
+		else if ("mapped".equals(name))
+		{
+			return new MappedDiskJournal();
+		}
+		else if ("segmented".equals(name))
+		{
+			return new SegmentedDiskJournal();
+		}
+		else if ("ringbuffer".equals(name))
+		{
+			return new RingBufferDiskJournal();
+		}
+		else if ("striped".equals(name))
+		{
+			return new StripedDiskJournal();
+		}
+		else if ("slotted".equals(name))
+		{
+			return new SlottedDiskJournal();
+		}
+		else if ("jdbc".equals(name))
+		{
+			return new JdbcJournal();
+		}
+		else
+		{
+			try
+			{
+				Class<?> clazz = ClassLoaderUtils.loadClass(name);
+				return (Journal) clazz.getDeclaredConstructor()
+				                      .newInstance();
+			}
+			catch (Exception ex)
+			{
+				throw new InitializationException("invalid journal implementation '" + name + "'", ex);
+			}
+		}
+	}
+
 	/**
 	 * Create the configuration of all the components of the transaction manager.
 	 *
@@ -245,7 +290,7 @@ public class TransactionManagerServices
 		{
 			if (getConfiguration().isAsynchronous2Pc())
 			{
-				if (LogDebugCheck.isDebugEnabled())
+				if (debugCheck.isDebugEnabled())
 				{
 					log.finer("using AsyncExecutor");
 				}
@@ -253,7 +298,7 @@ public class TransactionManagerServices
 			}
 			else
 			{
-				if (LogDebugCheck.isDebugEnabled())
+				if (debugCheck.isDebugEnabled())
 				{
 					log.finer("using SyncExecutor");
 				}
@@ -338,6 +383,8 @@ public class TransactionManagerServices
 		recovererRef.set(null);
 		executorRef.set(null);
 		exceptionAnalyzerRef.set(null);
+
+		LogDebugCheck.stopListening();
 	}
 
 }
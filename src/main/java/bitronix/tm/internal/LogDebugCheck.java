@@ -1,22 +1,131 @@
+/*
+ * Copyright (C) 2006-2013 Bitronix Software (http://www.bitronix.be)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
 package bitronix.tm.internal;
 
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.logging.Level;
+import java.util.logging.LogManager;
 import java.util.logging.Logger;
 
 /**
- * Checks if debug log is enabled..;/
+ * Checks if debug log is enabled for a logger.
+ * <p>Each class logging debug messages holds its own check, created from its logger. The check caches whether the
+ * effective level of the logger lets {@link Level#FINER} messages through, so that guarding a debug message costs a
+ * volatile read instead of a logger lookup. The cached values are refreshed when the transaction manager starts and,
+ * while it is running, whenever the {@link LogManager} configuration is read or updated. The configuration listener is
+ * removed when the transaction manager shuts down, so that the {@link LogManager} does not keep the class loader of
+ * the transaction manager reachable.</p>
+ * <p>Levels changed programmatically with {@link Logger#setLevel(Level)} while the transaction manager is running,
+ * like the ones propagated by logback's <code>LevelChangePropagator</code> when JUL is bridged to SLF4J, do not notify
+ * the {@link LogManager}. They are only picked up after a call to {@link #refreshAll()}, typically from the same hook
+ * changing the levels, e.g. a logback <code>LoggerContextListener</code> calling it from
+ * <code>onLevelChange()</code>.</p>
  */
-public interface LogDebugCheck
+public final class LogDebugCheck
 {
+
+	private static final List<LogDebugCheck> checks = new CopyOnWriteArrayList<>();
+	private static final Runnable configurationListener = LogDebugCheck::refreshAll;
+	/**
+	 * Guarded by the class lock.
+	 */
+	private static boolean listening;
+
+	static
+	{
+		startListening();
+	}
+
+	private final Logger logger;
+	private volatile boolean debugEnabled;
+
+	private LogDebugCheck(Logger logger)
+	{
+		this.logger = logger;
+		refresh();
+	}
+
+	/**
+	 * Create the debug check of a logger.
+	 *
+	 * @param logger
+	 * 		the logger the debug messages are logged to.
+	 *
+	 * @return the check, kept up to date with the logging configuration.
+	 */
+	public static LogDebugCheck forLogger(Logger logger)
+	{
+		LogDebugCheck check = new LogDebugCheck(logger);
+		checks.add(check);
+		return check;
+	}
+
+	/**
+	 * Refresh all checks, then keep them up to date with the {@link LogManager} configuration. Called when the
+	 * transaction manager starts.
+	 */
+	public static synchronized void startListening()
+	{
+		if (!listening)
+		{
+			LogManager.getLogManager()
+			          .addConfigurationListener(configurationListener);
+			listening = true;
+		}
+		refreshAll();
+	}
+
+	/**
+	 * Stop following the {@link LogManager} configuration. Called when the transaction manager shuts down.
+	 */
+	public static synchronized void stopListening()
+	{
+		if (listening)
+		{
+			LogManager.getLogManager()
+			          .removeConfigurationListener(configurationListener);
+			listening = false;
+		}
+	}
+
+	/**
+	 * Re-evaluate the effective level of the loggers of all checks. Only needed after a level got changed without
+	 * going through the {@link LogManager} configuration.
+	 */
+	public static void refreshAll()
+	{
+		for (LogDebugCheck check : checks)
+		{
+			check.refresh();
+		}
+	}
+
+	private void refresh()
+	{
+		debugEnabled = logger.isLoggable(Level.FINER);
+	}
+
 	/**
 	 * Method isDebugEnabled returns the debugEnabled of this LogDebugCheck object.
 	 *
 	 * @return the debugEnabled (type boolean) of this LogDebugCheck object.
 	 */
-	static boolean isDebugEnabled()
+	public boolean isDebugEnabled()
 	{
-		return Logger.getLogger("")
-		             .getLevel()
-		             .intValue() >= Level.FINER.intValue();
+		return debugEnabled;
 	}
 }
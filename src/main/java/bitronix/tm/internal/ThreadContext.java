@@ -21,6 +21,8 @@ import bitronix.tm.TransactionManagerServices;
 /**
  * Transactional context of a thread. It contains both the active transaction (if any) and all default parameters
  * that a transaction running on a thread must inherit.
+ * <p>A context is only created for a thread when it gets a transaction or a default timeout of its own: threads that
+ * only look up their current transaction, like most request handling virtual threads, never get one.</p>
  *
  * @author Ludovic Orban
  */
@@ -28,32 +30,59 @@ public class ThreadContext
 {
 
 	private static final java.util.logging.Logger log = java.util.logging.Logger.getLogger(ThreadContext.class.toString());
-	private static final ThreadLocal<ThreadContext> context = ThreadLocal.withInitial(ThreadContext::new);
+
+	private static final LogDebugCheck debugCheck = LogDebugCheck.forLogger(log);
+	private static final ThreadLocal<ThreadContext> context = new ThreadLocal<>();
 	private volatile BitronixTransaction transaction;
-	private volatile int timeout = TransactionManagerServices.getConfiguration()
-	                                                         .getDefaultTransactionTimeout();
+	/* 0 stands for the configured default timeout */
+	private volatile int timeout;
 
 	/**
 	 * Private constructor.
 	 */
 	private ThreadContext()
 	{
-		// Can only be constructed from initialValue() above.
+		// Can only be constructed from getContext() below.
 	}
 
 	/**
-	 * Get the ThreadContext thread local value for the calling thread. This is
-	 * the only way to access the ThreadContext. The get() call will
-	 * automatically construct a ThreadContext if this thread doesn't have one
-	 * (see initialValue() above).
+	 * Get the ThreadContext thread local value for the calling thread. This call
+	 * will construct a ThreadContext if this thread doesn't have one.
 	 *
 	 * @return the calling thread's ThreadContext
 	 */
 	public static ThreadContext getContext()
+	{
+		ThreadContext threadContext = context.get();
+		if (threadContext == null)
+		{
+			threadContext = new ThreadContext();
+			context.set(threadContext);
+		}
+		return threadContext;
+	}
+
+	/**
+	 * Get the ThreadContext of the calling thread without constructing one.
+	 *
+	 * @return the calling thread's ThreadContext or null if this thread doesn't have one.
+	 */
+	public static ThreadContext getExistingContext()
 	{
 		return context.get();
 	}
 
+	/**
+	 * Return the transaction linked with the calling thread.
+	 *
+	 * @return the transaction linked to the calling thread's ThreadContext or null if there is none.
+	 */
+	public static BitronixTransaction getCurrentTransaction()
+	{
+		ThreadContext threadContext = context.get();
+		return threadContext == null ? null : threadContext.transaction;
+	}
+
 	/**
 	 * Return the transaction linked with this ThreadContext.
 	 *
@@ -76,7 +105,7 @@ public class ThreadContext
 		{
 			throw new IllegalArgumentException("transaction parameter cannot be null");
 		}
-		if (LogDebugCheck.isDebugEnabled())
+		if (debugCheck.isDebugEnabled())
 		{
 			log.finer("assigning <" + transaction + "> to <" + this + ">");
 		}
@@ -98,7 +127,9 @@ public class ThreadContext
 	 */
 	public int getTimeout()
 	{
-		return timeout;
+		int contextTimeout = timeout;
+		return contextTimeout == 0 ? TransactionManagerServices.getConfiguration()
+		                                                       .getDefaultTransactionTimeout() : contextTimeout;
 	}
 
 	/**
@@ -113,17 +144,16 @@ public class ThreadContext
 	{
 		if (timeout == 0)
 		{
-			int defaultValue = TransactionManagerServices.getConfiguration()
-			                                             .getDefaultTransactionTimeout();
-			if (LogDebugCheck.isDebugEnabled())
+			if (debugCheck.isDebugEnabled())
 			{
-				log.finer("resetting default timeout of thread context to default value of " + defaultValue + "s");
+				log.finer("resetting default timeout of thread context to default value of " + TransactionManagerServices.getConfiguration()
+				                                                                                                        .getDefaultTransactionTimeout() + "s");
 			}
-			this.timeout = defaultValue;
+			this.timeout = 0;
 		}
 		else
 		{
-			if (LogDebugCheck.isDebugEnabled())
+			if (debugCheck.isDebugEnabled())
 			{
 				log.finer("changing default timeout of thread context to " + timeout + "s");
 			}
@@ -139,6 +169,6 @@ public class ThreadContext
 	@Override
 	public String toString()
 	{
-		return "a ThreadContext (" + System.identityHashCode(this) + ") with transaction " + transaction + ", default timeout " + timeout + "s";
+		return "a ThreadContext (" + System.identityHashCode(this) + ") with transaction " + transaction + ", default timeout " + getTimeout() + "s";
 	}
 }
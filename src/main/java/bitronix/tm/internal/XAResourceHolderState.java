@@ -23,7 +23,6 @@ import bitronix.tm.utils.MonotonicClock;
 
 import javax.transaction.xa.XAException;
 import javax.transaction.xa.XAResource;
-import java.util.Date;
 
 /**
  * {@link XAResourceHolder} state container.
@@ -43,6 +42,8 @@ public class XAResourceHolderState
 {
 
 	private static final java.util.logging.Logger log = java.util.logging.Logger.getLogger(XAResourceHolderState.class.toString());
+
+	private static final LogDebugCheck debugCheck = LogDebugCheck.forLogger(log);
 	private static final String WITH_STRING = " with ";
 
 	private final ResourceBean bean;
@@ -51,7 +52,7 @@ public class XAResourceHolderState
 	private volatile boolean started;
 	private volatile boolean ended;
 	private volatile boolean suspended;
-	private volatile Date transactionTimeoutDate;
+	private volatile long transactionTimeoutTime;
 	private volatile boolean isTimeoutAlreadySet;
 	private volatile boolean failed;
 	private volatile int hashCode;
@@ -117,7 +118,7 @@ public class XAResourceHolderState
 	 */
 	public void setXid(BitronixXid xid) throws BitronixSystemException
 	{
-		if (LogDebugCheck.isDebugEnabled())
+		if (debugCheck.isDebugEnabled())
 		{
 			log.finer("assigning <" + xid + "> to <" + this + ">");
 		}
@@ -140,24 +141,24 @@ public class XAResourceHolderState
 	}
 
 	/**
-	 * Method getTransactionTimeoutDate returns the transactionTimeoutDate of this XAResourceHolderState object.
+	 * Method getTransactionTimeoutTime returns the transactionTimeoutTime of this XAResourceHolderState object.
 	 *
-	 * @return the transactionTimeoutDate (type Date) of this XAResourceHolderState object.
+	 * @return the transactionTimeoutTime in milliseconds of this XAResourceHolderState object, 0 if none is set.
 	 */
-	public Date getTransactionTimeoutDate()
+	public long getTransactionTimeoutTime()
 	{
-		return transactionTimeoutDate;
+		return transactionTimeoutTime;
 	}
 
 	/**
-	 * Method setTransactionTimeoutDate sets the transactionTimeoutDate of this XAResourceHolderState object.
+	 * Method setTransactionTimeoutTime sets the transactionTimeoutTime of this XAResourceHolderState object.
 	 *
-	 * @param transactionTimeoutDate
-	 * 		the transactionTimeoutDate of this XAResourceHolderState object.
+	 * @param transactionTimeoutTime
+	 * 		the transactionTimeoutTime in milliseconds of this XAResourceHolderState object.
 	 */
-	public void setTransactionTimeoutDate(Date transactionTimeoutDate)
+	public void setTransactionTimeoutTime(long transactionTimeoutTime)
 	{
-		this.transactionTimeoutDate = transactionTimeoutDate;
+		this.transactionTimeoutTime = transactionTimeoutTime;
 	}
 
 	/**
@@ -256,7 +257,7 @@ public class XAResourceHolderState
 
 		if (this.ended && (flags == XAResource.TMSUSPEND))
 		{
-			if (LogDebugCheck.isDebugEnabled())
+			if (debugCheck.isDebugEnabled())
 			{
 				log.finer("resource already ended, changing state to suspended: " + this);
 			}
@@ -280,7 +281,7 @@ public class XAResourceHolderState
 				throw new BitronixXAException("resource already suspended: " + this, XAException.XAER_PROTO);
 			}
 
-			if (LogDebugCheck.isDebugEnabled())
+			if (debugCheck.isDebugEnabled())
 			{
 				log.finer("suspending " + this + WITH_STRING + Decoder.decodeXAResourceFlag(flags));
 			}
@@ -288,7 +289,7 @@ public class XAResourceHolderState
 		}
 		else
 		{
-			if (LogDebugCheck.isDebugEnabled())
+			if (debugCheck.isDebugEnabled())
 			{
 				log.finer("ending " + this + WITH_STRING + Decoder.decodeXAResourceFlag(flags));
 			}
@@ -298,7 +299,7 @@ public class XAResourceHolderState
 		try
 		{
 			getXAResource().end(xid, flags);
-			if (LogDebugCheck.isDebugEnabled())
+			if (debugCheck.isDebugEnabled())
 			{
 				log.finer("ended " + this + WITH_STRING + Decoder.decodeXAResourceFlag(flags));
 			}
@@ -343,7 +344,7 @@ public class XAResourceHolderState
 
 		if (this.ended && (flags == XAResource.TMRESUME))
 		{
-			if (LogDebugCheck.isDebugEnabled())
+			if (debugCheck.isDebugEnabled())
 			{
 				log.finer("resource already ended, changing state to resumed: " + this);
 			}
@@ -362,7 +363,7 @@ public class XAResourceHolderState
 				throw new BitronixXAException("resource hasn't been started, cannot resume it: " + this, XAException.XAER_PROTO);
 			}
 
-			if (LogDebugCheck.isDebugEnabled())
+			if (debugCheck.isDebugEnabled())
 			{
 				log.finer("resuming " + this + WITH_STRING + Decoder.decodeXAResourceFlag(flags));
 			}
@@ -375,18 +376,18 @@ public class XAResourceHolderState
 				throw new BitronixXAException("resource already started: " + this, XAException.XAER_PROTO);
 			}
 
-			if (LogDebugCheck.isDebugEnabled())
+			if (debugCheck.isDebugEnabled())
 			{
 				log.finer("starting " + this + WITH_STRING + Decoder.decodeXAResourceFlag(flags));
 			}
 			hasStarted = true;
 		}
 
-		if (!isTimeoutAlreadySet && transactionTimeoutDate != null && bean.getApplyTransactionTimeout())
+		if (!isTimeoutAlreadySet && transactionTimeoutTime != 0L && bean.getApplyTransactionTimeout())
 		{
-			int timeoutInSeconds = (int) ((transactionTimeoutDate.getTime() - MonotonicClock.currentTimeMillis() + 999L) / 1000L);
+			int timeoutInSeconds = (int) ((transactionTimeoutTime - MonotonicClock.currentTimeMillis() + 999L) / 1000L);
 			timeoutInSeconds = Math.max(1, timeoutInSeconds); // setting a timeout of 0 means resetting -> set it to at least 1
-			if (LogDebugCheck.isDebugEnabled())
+			if (debugCheck.isDebugEnabled())
 			{
 				log.finer("applying resource timeout of " + timeoutInSeconds + "s on " + this);
 			}
@@ -398,7 +399,7 @@ public class XAResourceHolderState
 		this.suspended = isSuspended;
 		this.started = hasStarted;
 		this.ended = false;
-		if (LogDebugCheck.isDebugEnabled())
+		if (debugCheck.isDebugEnabled())
 		{
 			log.finer("started " + this + WITH_STRING + Decoder.decodeXAResourceFlag(flags));
 		}
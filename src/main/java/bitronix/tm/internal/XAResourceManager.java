@@ -37,6 +37,8 @@ public class XAResourceManager
 
 	private static final java.util.logging.Logger log = java.util.logging.Logger.getLogger(XAResourceManager.class.toString());
 
+	private static final LogDebugCheck debugCheck = LogDebugCheck.forLogger(log);
+
 	private final Uid gtrid;
 	private final Scheduler<XAResourceHolderState> resources = new Scheduler<>();
 
@@ -68,7 +70,7 @@ public class XAResourceManager
 	{
 		if (findXAResourceHolderState(xaResourceHolderState.getXAResource()) != null)
 		{
-			if (LogDebugCheck.isDebugEnabled())
+			if (debugCheck.isDebugEnabled())
 			{
 				log.finer("delisting resource " + xaResourceHolderState);
 			}
@@ -114,7 +116,7 @@ public class XAResourceManager
 		{
 			if (!xaResourceHolderState.isEnded())
 			{
-				if (LogDebugCheck.isDebugEnabled())
+				if (debugCheck.isDebugEnabled())
 				{
 					log.finer("suspending " + xaResourceHolderState);
 				}
@@ -138,7 +140,7 @@ public class XAResourceManager
 
 		for (XAResourceHolderState xaResourceHolderState : resources)
 		{
-			if (LogDebugCheck.isDebugEnabled())
+			if (debugCheck.isDebugEnabled())
 			{
 				log.finer("resuming " + xaResourceHolderState);
 			}
@@ -148,13 +150,13 @@ public class XAResourceManager
 			toBeReEnlisted.add(new XAResourceHolderState(xaResourceHolderState));
 		}
 
-		if (!toBeReEnlisted.isEmpty() && LogDebugCheck.isDebugEnabled())
+		if (!toBeReEnlisted.isEmpty() && debugCheck.isDebugEnabled())
 		{
 			log.finer("re-enlisting " + toBeReEnlisted.size() + " resource(s)");
 		}
 		for (XAResourceHolderState xaResourceHolderState : toBeReEnlisted)
 		{
-			if (LogDebugCheck.isDebugEnabled())
+			if (debugCheck.isDebugEnabled())
 			{
 				log.finer("re-enlisting resource " + xaResourceHolderState);
 			}
@@ -204,7 +206,7 @@ public class XAResourceManager
 		XAResourceHolderState toBeJoinedHolderState = null;
 		if (alreadyEnlistedHolder != null)
 		{
-			if (LogDebugCheck.isDebugEnabled())
+			if (debugCheck.isDebugEnabled())
 			{
 				log.finer("resource already enlisted but has been ended eligible for join: " + alreadyEnlistedHolder);
 			}
@@ -216,7 +218,7 @@ public class XAResourceManager
 
 		if (toBeJoinedHolderState != null)
 		{
-			if (LogDebugCheck.isDebugEnabled())
+			if (debugCheck.isDebugEnabled())
 			{
 				log.finer("joining " + xaResourceHolderState + " with " + toBeJoinedHolderState);
 			}
@@ -226,7 +228,7 @@ public class XAResourceManager
 		else
 		{
 			xid = UidGenerator.generateXid(gtrid);
-			if (LogDebugCheck.isDebugEnabled())
+			if (debugCheck.isDebugEnabled())
 			{
 				log.finer("creating new branch with " + xid);
 			}
@@ -277,7 +279,7 @@ public class XAResourceManager
 	{
 		if (!xaResourceHolderState.getUseTmJoin())
 		{
-			if (LogDebugCheck.isDebugEnabled())
+			if (debugCheck.isDebugEnabled())
 			{
 				log.finer("join disabled on resource " + xaResourceHolderState);
 			}
@@ -286,7 +288,7 @@ public class XAResourceManager
 
 		for (XAResourceHolderState alreadyEnlistedHolderState : resources)
 		{
-			if (LogDebugCheck.isDebugEnabled())
+			if (debugCheck.isDebugEnabled())
 			{
 				log.finer("checking joinability of " + xaResourceHolderState + " with " + alreadyEnlistedHolderState);
 			}
@@ -295,19 +297,19 @@ public class XAResourceManager
 			    xaResourceHolderState.getXAResource()
 			                         .isSameRM(alreadyEnlistedHolderState.getXAResource()))
 			{
-				if (LogDebugCheck.isDebugEnabled())
+				if (debugCheck.isDebugEnabled())
 				{
 					log.finer("resources are joinable");
 				}
 				return alreadyEnlistedHolderState;
 			}
-			if (LogDebugCheck.isDebugEnabled())
+			if (debugCheck.isDebugEnabled())
 			{
 				log.finer("resources are not joinable");
 			}
 		}
 
-		if (LogDebugCheck.isDebugEnabled())
+		if (debugCheck.isDebugEnabled())
 		{
 			log.finer("no joinable resource found for " + xaResourceHolderState);
 		}
@@ -320,7 +322,7 @@ public class XAResourceManager
 	 */
 	public void clearXAResourceHolderStates()
 	{
-		if (LogDebugCheck.isDebugEnabled())
+		if (debugCheck.isDebugEnabled())
 		{
 			log.finer("clearing XAResourceHolder states on " + resources.size() + " resource(s)");
 		}
@@ -339,7 +341,7 @@ public class XAResourceManager
 				log.warning("resource " + resourceHolder + " did not clean up " + resourceHolder.getXAResourceHolderStateCountForGtrid(gtrid) + "transaction states for GTRID [" +
 				            gtrid + "]");
 			}
-			else if (LogDebugCheck.isDebugEnabled())
+			else if (debugCheck.isDebugEnabled())
 			{
 				log.finer("resource " + resourceHolder + " cleaned up all transaction states for GTRID [" + gtrid + "]");
 			}
@@ -355,6 +357,10 @@ public class XAResourceManager
 	 */
 	public Set<String> collectUniqueNames()
 	{
+		if (resources.size() == 0)
+		{
+			return Collections.emptySet();
+		}
 		Set<String> names = new HashSet<>(resources.size());
 		for (XAResourceHolderState xaResourceHolderState : resources)
 		{
@@ -416,10 +422,14 @@ public class XAResourceManager
 	 */
 	public List<XAResourceHolderState> getAllResources()
 	{
+		if (resources.size() == 0)
+		{
+			return Collections.emptyList();
+		}
 		List<XAResourceHolderState> result = new ArrayList<>(resources.size());
-		for (Integer positionKey : resources.getNaturalOrderPositions())
+		for (XAResourceHolderState xaResourceHolderState : resources)
 		{
-			result.addAll(resources.getByNaturalOrderForPosition(positionKey));
+			result.add(xaResourceHolderState);
 		}
 		return Collections.unmodifiableList(result);
 	}
@@ -36,6 +36,8 @@ public class BitronixContext
 {
 
 	private static final java.util.logging.Logger log = java.util.logging.Logger.getLogger(BitronixContext.class.toString());
+
+	private static final LogDebugCheck debugCheck = LogDebugCheck.forLogger(log);
 	private final String userTransactionName;
 	private final String synchronizationRegistryName;
 	private boolean closed = false;
@@ -47,14 +49,14 @@ public class BitronixContext
 	{
 		userTransactionName = TransactionManagerServices.getConfiguration()
 		                                                .getJndiUserTransactionName();
-		if (LogDebugCheck.isDebugEnabled())
+		if (debugCheck.isDebugEnabled())
 		{
 			log.finer("binding transaction manager at name '" + userTransactionName + "'");
 		}
 
 		synchronizationRegistryName = TransactionManagerServices.getConfiguration()
 		                                                        .getJndiTransactionSynchronizationRegistryName();
-		if (LogDebugCheck.isDebugEnabled())
+		if (debugCheck.isDebugEnabled())
 		{
 			log.finer("binding synchronization registry at name '" + synchronizationRegistryName + "'");
 		}
@@ -106,7 +108,7 @@ public class BitronixContext
 	public Object lookup(String s) throws NamingException
 	{
 		checkClosed();
-		if (LogDebugCheck.isDebugEnabled())
+		if (debugCheck.isDebugEnabled())
 		{
 			log.finer("looking up '" + s + "'");
 		}
@@ -0,0 +1,977 @@
+/*
+ * Copyright (C) 2006-2013 Bitronix Software (http://www.bitronix.be)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package bitronix.tm.journal;
+
+import bitronix.tm.TransactionManagerServices;
+import bitronix.tm.internal.LogDebugCheck;
+import bitronix.tm.utils.Encoder;
+import bitronix.tm.utils.Uid;
+
+import jakarta.transaction.Status;
+import java.io.File;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.stream.Collectors;
+import java.util.zip.CRC32;
+import java.util.zip.CRC32C;
+import java.util.zip.Checksum;
+
+/**
+ * Collects the dangling records of a log file, that is the COMMITTING records with no matching COMMITTED record.
+ * <p>The log file is mapped in memory and read from its latest checkpoint, whose entries are the dangling records
+ * before it. The checkpoint is the one the appender last wrote or found, or else is located by a pass reading only the
+ * record statuses and lengths. The records after the checkpoint are split into chunks of whole records. The chunks are then decoded and checksummed in parallel on the common fork-join pool, each record
+ * being reduced to what the dangling detection needs, and finally merged in file order. Only the records which are
+ * still dangling at the end are turned into {@link TransactionLogRecord}s.</p>
+ * <p>Whenever anything unexpected is found, like a corrupted record, the collection is done again sequentially with a
+ * {@link TransactionLogCursor} so that corrupted logs are reported, or skipped, exactly like they always were.</p>
+ */
+final class DanglingRecordCollector
+{
+
+	private static final java.util.logging.Logger log = java.util.logging.Logger.getLogger(DanglingRecordCollector.class.toString());
+
+	private static final LogDebugCheck debugCheck = LogDebugCheck.forLogger(log);
+	private static final int CHUNK_SIZE = 1024 * 1024;
+
+	private final AtomicLong bytesScanned = new AtomicLong();
+	private volatile long bytesToScan;
+	private volatile long lastDurationMillis = -1L;
+	private volatile long lastRecordCount = -1L;
+
+	/**
+	 * Collect the dangling records of the log file written by an appender.
+	 *
+	 * @param tla
+	 * 		the TransactionLogAppender to scan
+	 *
+	 * @return a Map using Uid objects GTRID as key and {@link TransactionLogRecord} as value
+	 *
+	 * @throws java.io.IOException
+	 * 		in case of disk IO failure or if a corrupted record is found and corrupted logs are not skipped.
+	 */
+	Map<Uid, JournalRecord> collect(TransactionLogAppender tla) throws IOException
+	{
+		long start = System.nanoTime();
+		bytesScanned.set(0L);
+		bytesToScan = 0L;
+		try
+		{
+			Map<Uid, JournalRecord> danglingRecords = collectInParallel(tla);
+			if (danglingRecords == null)
+			{
+				if (debugCheck.isDebugEnabled())
+				{
+					log.finer("cannot collect dangling records of " + tla + " in parallel, reading it sequentially");
+				}
+				danglingRecords = collectSequentially(tla);
+			}
+			return danglingRecords;
+		}
+		finally
+		{
+			bytesScanned.set(bytesToScan);
+			lastDurationMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+			if (debugCheck.isDebugEnabled())
+			{
+				log.finer("scanned " + lastRecordCount + " record(s) of " + tla + " in " + lastDurationMillis + "ms");
+			}
+		}
+	}
+
+	/**
+	 * Get the fraction of the log file scanned by the collection in progress.
+	 *
+	 * @return a value between 0.0 and 1.0, 1.0 when no collection is in progress.
+	 */
+	double getProgress()
+	{
+		long toScan = bytesToScan;
+		return toScan == 0L ? 1.0 : Math.min(1.0, (double) bytesScanned.get() / toScan);
+	}
+
+	/**
+	 * Get the duration of the last collection.
+	 *
+	 * @return the duration in milliseconds, or -1 if no collection ran yet.
+	 */
+	long getLastDurationMillis()
+	{
+		return lastDurationMillis;
+	}
+
+	/**
+	 * Get the number of records scanned by the last collection.
+	 *
+	 * @return the number of records, or -1 if no collection ran yet.
+	 */
+	long getLastRecordCount()
+	{
+		return lastRecordCount;
+	}
+
+	/**
+	 * Collect the dangling records by decoding chunks of the memory-mapped log file in parallel.
+	 *
+	 * @param tla
+	 * 		the TransactionLogAppender to scan
+	 *
+	 * @return the dangling records, or null if the log file cannot be collected in parallel.
+	 *
+	 * @throws java.io.IOException
+	 * 		in case of disk IO failure.
+	 */
+	private Map<Uid, JournalRecord> collectInParallel(TransactionLogAppender tla) throws IOException
+	{
+		try (FileChannel fc = FileChannel.open(tla.getFile()
+		                                         .toPath(), StandardOpenOption.READ))
+		{
+			ByteBuffer positionHeader = ByteBuffer.allocate(8);
+			while (positionHeader.hasRemaining())
+			{
+				if (fc.read(positionHeader, TransactionLogHeader.CURRENT_POSITION_HEADER + positionHeader.position()) < 0)
+				{
+					return null;
+				}
+			}
+			long endPosition = positionHeader.getLong(0);
+			if (endPosition < TransactionLogHeader.HEADER_LENGTH || endPosition > Integer.MAX_VALUE || endPosition > fc.size())
+			{
+				return null;
+			}
+
+			ByteBuffer content = fc.map(FileChannel.MapMode.READ_ONLY, 0, endPosition);
+			long[] checkpoint = tla.getCheckpoint();
+			if (checkpoint == null || checkpoint[1] > endPosition)
+			{
+				checkpoint = findCheckpoint(content, (int) endPosition);
+				if (checkpoint == null)
+				{
+					return null;
+				}
+				if (checkpoint[1] > checkpoint[0])
+				{
+					tla.checkpointFound(checkpoint[0], checkpoint[1]);
+				}
+			}
+			int startPosition = (int) Math.max(checkpoint[0], TransactionLogHeader.HEADER_LENGTH);
+			int checkpointEndPosition = (int) Math.max(checkpoint[1], TransactionLogHeader.HEADER_LENGTH);
+
+			List<int[]> chunks = split(content, startPosition, (int) endPosition);
+			if (chunks == null)
+			{
+				return null;
+			}
+			bytesToScan = endPosition - startPosition;
+
+			List<Chunk> decoded = chunks.parallelStream()
+			                            .map(bounds -> decode(content, bounds[0], bounds[1], checkpointEndPosition))
+			                            .collect(Collectors.toList());
+			return merge(decoded, checkpointEndPosition, tla);
+		}
+	}
+
+	/**
+	 * Locate the latest complete checkpoint of the log file by walking the record statuses and lengths.
+	 *
+	 * @param content
+	 * 		the log file content.
+	 * @param endPosition
+	 * 		the position of the end of the last record.
+	 *
+	 * @return the position of the checkpoint and the position right after it, both being the beginning of the log
+	 * file if there is no checkpoint, or null if a record length is invalid.
+	 */
+	private static long[] findCheckpoint(ByteBuffer content, int endPosition)
+	{
+		long[] checkpoint = {TransactionLogHeader.HEADER_LENGTH, TransactionLogHeader.HEADER_LENGTH};
+		int position = (int) TransactionLogHeader.HEADER_LENGTH;
+		int entriesPosition = -1;
+		int entryCount = 0;
+		while (position < endPosition)
+		{
+			if (endPosition - position < 8)
+			{
+				return null;
+			}
+			int status = content.getInt(position);
+			int recordLength = content.getInt(position + 4);
+			if (recordLength < 0 || (long) position + 8 + recordLength > endPosition)
+			{
+				return null;
+			}
+
+			if (status == TransactionLogRecord.STATUS_CHECKPOINT_ENTRY)
+			{
+				if (entriesPosition < 0)
+				{
+					entriesPosition = position;
+					entryCount = 0;
+				}
+				entryCount++;
+			}
+			else
+			{
+				if (status == TransactionLogRecord.STATUS_CHECKPOINT_END && getCheckpointEntryCount(content, position, recordLength) == entryCount)
+				{
+					checkpoint = new long[]{entriesPosition < 0 ? position : entriesPosition, position + 8 + recordLength};
+				}
+				entriesPosition = -1;
+				entryCount = 0;
+			}
+			position += 8 + recordLength;
+		}
+		return checkpoint;
+	}
+
+	/**
+	 * Get the number of entries a checkpoint terminator record holds in its GTRID.
+	 *
+	 * @param content
+	 * 		the log file content.
+	 * @param position
+	 * 		the position of the record.
+	 * @param recordLength
+	 * 		the length of the record.
+	 *
+	 * @return the number of entries, or -1 if the record is not a checkpoint terminator.
+	 */
+	private static int getCheckpointEntryCount(ByteBuffer content, int position, int recordLength)
+	{
+		int gtridSizePosition = position + TransactionLogRecord.RECORD_HEADER_LENGTH;
+		if (recordLength < TransactionLogRecord.RECORD_HEADER_LENGTH - 8 + 1 + 4 || content.getInt(position + 8) != TransactionLogRecord.RECORD_HEADER_LENGTH
+		    || content.get(gtridSizePosition) != 4)
+		{
+			return -1;
+		}
+		return content.getInt(gtridSizePosition + 1);
+	}
+
+	/**
+	 * Split the log file into chunks of whole records by walking the record lengths.
+	 *
+	 * @param content
+	 * 		the log file content.
+	 * @param startPosition
+	 * 		the position of the first record.
+	 * @param endPosition
+	 * 		the position of the end of the last record.
+	 *
+	 * @return the start and end positions of each chunk, or null if a record length is invalid.
+	 */
+	private static List<int[]> split(ByteBuffer content, int startPosition, int endPosition)
+	{
+		List<int[]> chunks = new ArrayList<>();
+		int chunkStart = startPosition;
+		int position = chunkStart;
+		while (position < endPosition)
+		{
+			if (endPosition - position < 8)
+			{
+				return null;
+			}
+			int recordLength = content.getInt(position + 4);
+			if (recordLength < 0 || (long) position + 8 + recordLength > endPosition)
+			{
+				return null;
+			}
+			position += 8 + recordLength;
+			if (position - chunkStart >= CHUNK_SIZE)
+			{
+				chunks.add(new int[]{chunkStart, position});
+				chunkStart = position;
+			}
+		}
+		if (position > chunkStart)
+		{
+			chunks.add(new int[]{chunkStart, position});
+		}
+		return chunks;
+	}
+
+	/**
+	 * Decode and checksum the records of a chunk, keeping only what the dangling detection needs.
+	 *
+	 * @param content
+	 * 		the log file content.
+	 * @param from
+	 * 		the position of the first record of the chunk.
+	 * @param to
+	 * 		the position of the end of the last record of the chunk.
+	 * @param checkpointEndPosition
+	 * 		the position right after the checkpoint the collection starts from.
+	 *
+	 * @return the decoded chunk, or null if a record is not exactly what the writer would have written.
+	 */
+	private Chunk decode(ByteBuffer content, int from, int to, int checkpointEndPosition)
+	{
+		ByteBuffer buf = content.duplicate();
+		TransactionLogDictionary dictionary = new TransactionLogDictionary();
+		boolean crc32c = content.getInt((int) TransactionLogHeader.FORMAT_ID_HEADER) == TransactionLogHeader.CRC32C_FORMAT_ID;
+		Checksum checksum = crc32c ? new CRC32C() : new CRC32();
+		Chunk chunk = new Chunk();
+		try
+		{
+			int position = from;
+			while (position < to)
+			{
+				DecodedRecord record = decodeRecord(buf, position, dictionary, checksum);
+				if (record == null)
+				{
+					return null;
+				}
+				record.crc32c = crc32c;
+				chunk.recordCount++;
+				if (position < checkpointEndPosition || record.isRelevant())
+				{
+					chunk.records.add(record);
+				}
+				position += 8 + record.recordLength;
+			}
+			return chunk;
+		}
+		catch (BufferUnderflowException | IndexOutOfBoundsException | IllegalArgumentException ex)
+		{
+			return null;
+		}
+		finally
+		{
+			bytesScanned.addAndGet(to - from);
+		}
+	}
+
+	/**
+	 * Decode and checksum a single record. Unique names defined by an earlier chunk cannot be resolved yet and are
+	 * left null.
+	 *
+	 * @param buf
+	 * 		the log file content.
+	 * @param position
+	 * 		the position of the record.
+	 * @param dictionary
+	 * 		the unique names defined so far in the chunk.
+	 * @param checksum
+	 * 		a checksum of the algorithm of the log file to reuse.
+	 *
+	 * @return the decoded record, or null if the record is not exactly what the writer would have written.
+	 */
+	private static DecodedRecord decodeRecord(ByteBuffer buf, int position, TransactionLogDictionary dictionary, Checksum checksum)
+	{
+		buf.clear()
+		   .position(position);
+		DecodedRecord record = new DecodedRecord();
+		record.position = position;
+		record.status = buf.getInt();
+		record.recordLength = buf.getInt();
+		int endOfRecordPosition = position + 8 + record.recordLength;
+		buf.limit(endOfRecordPosition);
+
+		record.headerLength = buf.getInt();
+		record.time = buf.getLong();
+		record.sequenceNumber = buf.getInt();
+		record.crc32 = buf.getInt();
+		boolean dictionaryEncoded = record.headerLength == TransactionLogRecord.FORMATTED_HEADER_LENGTH;
+		byte format = dictionaryEncoded ? buf.get() : 0;
+		if (dictionaryEncoded && format != TransactionLogRecord.DICTIONARY_FORMAT && format != TransactionLogRecord.OUTCOME_BATCH_FORMAT)
+		{
+			return null;
+		}
+		int gtridSize = buf.get();
+		if (gtridSize < 0 || 4 + 8 + 4 + 4 + (dictionaryEncoded ? 2 : 1) + gtridSize > record.recordLength)
+		{
+			return null;
+		}
+		if (buf.getInt(endOfRecordPosition - 4) != TransactionLogAppender.END_RECORD)
+		{
+			return null;
+		}
+		byte[] gtridArray = new byte[gtridSize];
+		buf.get(gtridArray);
+		record.gtrid = Uid.wrap(gtridArray);
+
+		int namesEnd = endOfRecordPosition - 4;
+		boolean decoded;
+		if (format == TransactionLogRecord.OUTCOME_BATCH_FORMAT)
+		{
+			decoded = decodeOutcomes(buf, namesEnd, record);
+		}
+		else
+		{
+			decoded = dictionaryEncoded ? decodeDictionaryNames(buf, namesEnd, record, dictionary) : decodeNames(buf, namesEnd, record);
+		}
+		if (!decoded || buf.position() != namesEnd)
+		{
+			return null;
+		}
+		record.endRecord = buf.getInt();
+
+		// same coverage as TransactionLogRecord.encode()
+		checksum.reset();
+		buf.limit(position + 24)
+		   .position(position);
+		checksum.update(buf);
+		buf.limit(endOfRecordPosition)
+		   .position(position + 24 + (dictionaryEncoded ? 4 : 5));
+		checksum.update(buf);
+		if ((int) checksum.getValue() != record.crc32)
+		{
+			return null;
+		}
+		return record;
+	}
+
+	/**
+	 * Decode unique names stored in the original format.
+	 *
+	 * @param buf
+	 * 		the log file content, positioned on the unique names count.
+	 * @param namesEnd
+	 * 		the position of the end of the unique names.
+	 * @param record
+	 * 		the record to fill.
+	 *
+	 * @return false if the unique names are invalid.
+	 */
+	private static boolean decodeNames(ByteBuffer buf, int namesEnd, DecodedRecord record)
+	{
+		int count = buf.getInt();
+		if (count < 0 || count > namesEnd - buf.position())
+		{
+			return false;
+		}
+		record.uniqueNames = new String[count];
+		for (int i = 0; i < count; i++)
+		{
+			int length = buf.getShort();
+			if (length < 0)
+			{
+				return false;
+			}
+			record.uniqueNames[i] = readName(buf, length);
+			if (record.uniqueNames[i] == null)
+			{
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Decode dictionary encoded unique names, resolving the ids defined earlier in the chunk.
+	 *
+	 * @param buf
+	 * 		the log file content, positioned on the unique names count.
+	 * @param namesEnd
+	 * 		the position of the end of the unique names.
+	 * @param record
+	 * 		the record to fill.
+	 * @param dictionary
+	 * 		the unique names defined so far in the chunk.
+	 *
+	 * @return false if the unique names are invalid.
+	 */
+	private static boolean decodeDictionaryNames(ByteBuffer buf, int namesEnd, DecodedRecord record, TransactionLogDictionary dictionary)
+	{
+		int count = TransactionLogSerializer.getVarInt(buf, namesEnd);
+		if (count < 0 || count > namesEnd - buf.position())
+		{
+			return false;
+		}
+		record.uniqueNames = new String[count];
+		record.nameIds = new int[count];
+		record.nameDefinitions = new boolean[count];
+		for (int i = 0; i < count; i++)
+		{
+			int reference = TransactionLogSerializer.getVarInt(buf, namesEnd);
+			if (reference < 0)
+			{
+				return false;
+			}
+			record.nameIds[i] = reference >>> 1;
+			record.nameDefinitions[i] = (reference & 1) != 0;
+			if (record.nameDefinitions[i])
+			{
+				int length = TransactionLogSerializer.getVarInt(buf, namesEnd);
+				if (length < 0 || length > namesEnd - buf.position())
+				{
+					return false;
+				}
+				record.uniqueNames[i] = readName(buf, length);
+				if (record.uniqueNames[i] == null)
+				{
+					return false;
+				}
+			}
+			else
+			{
+				record.uniqueNames[i] = dictionary.nameOf(record.nameIds[i]);
+			}
+		}
+		// ids defined by an earlier chunk are out of sequence here, they are defined again when merging
+		record.defineNames(dictionary);
+		return true;
+	}
+
+	/**
+	 * Decode the outcomes of an outcome batch record.
+	 *
+	 * @param buf
+	 * 		the log file content, positioned on the outcomes count.
+	 * @param outcomesEnd
+	 * 		the position of the end of the outcomes.
+	 * @param record
+	 * 		the record to fill.
+	 *
+	 * @return false if the outcomes are invalid.
+	 */
+	private static boolean decodeOutcomes(ByteBuffer buf, int outcomesEnd, DecodedRecord record)
+	{
+		int count = TransactionLogSerializer.getVarInt(buf, outcomesEnd);
+		if (count < 0 || count > outcomesEnd - buf.position())
+		{
+			return false;
+		}
+		record.uniqueNames = new String[0];
+		record.outcomes = new DecodedRecord[count];
+		for (int i = 0; i < count; i++)
+		{
+			DecodedRecord outcome = new DecodedRecord();
+			outcome.status = TransactionLogSerializer.getVarInt(buf, outcomesEnd);
+			if (outcome.status < 0 || buf.position() >= outcomesEnd)
+			{
+				return false;
+			}
+			byte[] gtridArray = new byte[buf.get()];
+			buf.get(gtridArray);
+			outcome.gtrid = Uid.wrap(gtridArray);
+
+			int namesCount = TransactionLogSerializer.getVarInt(buf, outcomesEnd);
+			if (namesCount < 0 || namesCount > outcomesEnd - buf.position())
+			{
+				return false;
+			}
+			outcome.uniqueNames = new String[namesCount];
+			for (int j = 0; j < namesCount; j++)
+			{
+				int length = TransactionLogSerializer.getVarInt(buf, outcomesEnd);
+				if (length < 0 || length > outcomesEnd - buf.position())
+				{
+					return false;
+				}
+				outcome.uniqueNames[j] = readName(buf, length);
+				if (outcome.uniqueNames[j] == null || j > 0 && outcome.uniqueNames[j - 1].compareTo(outcome.uniqueNames[j]) >= 0)
+				{
+					return false;
+				}
+			}
+			record.outcomes[i] = outcome;
+		}
+		return true;
+	}
+
+	/**
+	 * Read a US-ASCII unique name.
+	 *
+	 * @param buf
+	 * 		the log file content, positioned on the unique name.
+	 * @param length
+	 * 		the length of the unique name.
+	 *
+	 * @return the unique name, or null if it is not US-ASCII and thus would not be written back identically.
+	 */
+	private static String readName(ByteBuffer buf, int length)
+	{
+		byte[] nameBytes = new byte[length];
+		buf.get(nameBytes);
+		for (byte b : nameBytes)
+		{
+			if (b < 0)
+			{
+				return null;
+			}
+		}
+		return new String(nameBytes, StandardCharsets.US_ASCII);
+	}
+
+	/**
+	 * Replay the decoded chunks in file order, applying the same rules as {@link DiskJournal#processTransaction}.
+	 *
+	 * @param chunks
+	 * 		the decoded chunks, in file order.
+	 * @param checkpointEndPosition
+	 * 		the position right after the checkpoint the chunks start with, whose entries are the initial dangling
+	 * 		records.
+	 * @param tla
+	 * 		the scanned TransactionLogAppender
+	 *
+	 * @return the dangling records, or null if a chunk could not be decoded, a unique name cannot be resolved or the
+	 * checkpoint is invalid.
+	 */
+	private Map<Uid, JournalRecord> merge(List<Chunk> chunks, int checkpointEndPosition, TransactionLogAppender tla)
+	{
+		TransactionLogDictionary dictionary = new TransactionLogDictionary();
+		Map<Uid, DecodedRecord> dangling = new HashMap<>(64);
+		long recordCount = 0L;
+		int committing = 0;
+		int committed = 0;
+		boolean checkpointEnded = checkpointEndPosition <= TransactionLogHeader.HEADER_LENGTH;
+
+		for (Chunk chunk : chunks)
+		{
+			if (chunk == null)
+			{
+				return null;
+			}
+			recordCount += chunk.recordCount;
+
+			for (DecodedRecord record : chunk.records)
+			{
+				if (!record.resolveNames(dictionary))
+				{
+					return null;
+				}
+
+				int status = record.status;
+				if (record.position < checkpointEndPosition)
+				{
+					if (status == TransactionLogRecord.STATUS_CHECKPOINT_ENTRY)
+					{
+						record.remainingUniqueNames = record.uniqueNameSet();
+						dangling.put(record.gtrid, record);
+					}
+					else if (status == TransactionLogRecord.STATUS_CHECKPOINT_END && record.getCheckpointEntryCount() == dangling.size()
+					         && record.position + 8 + record.recordLength == checkpointEndPosition)
+					{
+						checkpointEnded = true;
+					}
+					else
+					{
+						return null;
+					}
+				}
+				else if (status == Status.STATUS_COMMITTING)
+				{
+					dangling.put(record.gtrid, record);
+					committing++;
+				}
+				else if (status == Status.STATUS_COMMITTED || status == Status.STATUS_UNKNOWN || status == Status.STATUS_ROLLEDBACK)
+				{
+					committed += applyOutcome(dangling, record);
+				}
+				else if (status == TransactionLogRecord.STATUS_OUTCOME_BATCH)
+				{
+					for (DecodedRecord outcome : record.outcomes)
+					{
+						committed += applyOutcome(dangling, outcome);
+					}
+				}
+			}
+		}
+
+		if (!checkpointEnded)
+		{
+			return null;
+		}
+
+		Map<Uid, JournalRecord> danglingRecords = new HashMap<>(Math.max(64, dangling.size() * 2));
+		for (DecodedRecord rec : dangling.values())
+		{
+			danglingRecords.put(rec.gtrid, rec.remainingUniqueNames == null ? rec.toTransactionLogRecord()
+			                                                                : new TransactionLogRecord(Status.STATUS_COMMITTING, rec.gtrid, rec.remainingUniqueNames));
+		}
+		lastRecordCount = recordCount;
+
+		if (debugCheck.isDebugEnabled())
+		{
+			log.finer("collected dangling records of " + tla + " in " + chunks.size() + " chunk(s), committing: " + committing + ", committed: " + committed + ", delta: "
+			          + danglingRecords.size());
+		}
+		return danglingRecords;
+	}
+
+	/**
+	 * Remove the unique names of an outcome from the dangling record of its transaction.
+	 *
+	 * @param dangling
+	 * 		the dangling records, COMMITTING records or checkpoint entries.
+	 * @param outcome
+	 * 		the COMMITTED, UNKNOWN or ROLLEDBACK outcome.
+	 *
+	 * @return 1 if the transaction is no longer dangling, 0 otherwise.
+	 */
+	private static int applyOutcome(Map<Uid, DecodedRecord> dangling, DecodedRecord outcome)
+	{
+		DecodedRecord rec = dangling.get(outcome.gtrid);
+		if (rec == null)
+		{
+			return 0;
+		}
+		Set<String> recUniqueNames = rec.remainingUniqueNames == null ? rec.uniqueNameSet() : rec.remainingUniqueNames;
+		recUniqueNames.removeAll(Arrays.asList(outcome.uniqueNames));
+		if (recUniqueNames.isEmpty())
+		{
+			dangling.remove(outcome.gtrid);
+			return 1;
+		}
+		rec.remainingUniqueNames = recUniqueNames;
+		return 0;
+	}
+
+	/**
+	 * Collect the dangling records with a {@link TransactionLogCursor}.
+	 *
+	 * @param tla
+	 * 		the TransactionLogAppender to scan
+	 *
+	 * @return a Map using Uid objects GTRID as key and {@link TransactionLogRecord} as value
+	 *
+	 * @throws java.io.IOException
+	 * 		in case of disk IO failure.
+	 */
+	private Map<Uid, JournalRecord> collectSequentially(TransactionLogAppender tla) throws IOException
+	{
+		Map<Uid, JournalRecord> danglingRecords = new HashMap<>(64);
+		TransactionLogCursor tlc = tla.getCursor();
+
+		try
+		{
+			long recordCount = 0L;
+			int committing = 0;
+			Integer committed = 0;
+
+			while (true)
+			{
+				TransactionLogRecord tlog;
+				try
+				{
+					tlog = tlc.readLog();
+				}
+				catch (CorruptedTransactionLogException ex)
+				{
+					if (TransactionManagerServices.getConfiguration()
+					                              .isSkipCorruptedLogs())
+					{
+						log.log(Level.SEVERE, "skipping corrupted log", ex);
+						continue;
+					}
+					throw ex;
+				}
+
+				if (tlog == null)
+				{
+					break;
+				}
+				recordCount++;
+
+				int status = tlog.getStatus();
+				if (status == Status.STATUS_COMMITTING)
+				{
+					danglingRecords.put(tlog.getGtrid(), tlog);
+					committing++;
+				}
+
+				// COMMITTED is when there was no problem in the transaction
+				// UNKNOWN is when a 2PC transaction heuristically terminated
+				// ROLLEDBACK is when a 1PC transaction rolled back during commit
+				// OUTCOME_BATCH coalesces any of them
+				if (status == Status.STATUS_COMMITTED || status == Status.STATUS_UNKNOWN || status == Status.STATUS_ROLLEDBACK
+				    || status == TransactionLogRecord.STATUS_OUTCOME_BATCH)
+				{
+					committed = DiskJournal.processTransaction(danglingRecords, tlog, committed);
+				}
+			}
+			lastRecordCount = recordCount;
+
+			if (debugCheck.isDebugEnabled())
+			{
+				log.finer("collected dangling records of " + tla + ", committing: " + committing + ", committed: " + committed + ", delta: " + danglingRecords.size());
+			}
+		}
+		finally
+		{
+			tlc.close();
+		}
+		return danglingRecords;
+	}
+
+	/**
+	 * The records of a chunk relevant to the dangling detection.
+	 */
+	private static final class Chunk
+	{
+		private final List<DecodedRecord> records = new ArrayList<>();
+		private int recordCount;
+	}
+
+	/**
+	 * A record reduced to its fields, without any collection allocated for its unique names.
+	 */
+	private static final class DecodedRecord
+	{
+		private int position;
+		private int status;
+		private int recordLength;
+		private int headerLength;
+		private long time;
+		private int sequenceNumber;
+		private int crc32;
+		private boolean crc32c;
+		private Uid gtrid;
+		/**
+		 * In stored order, null entries being ids defined by an earlier chunk.
+		 */
+		private String[] uniqueNames;
+		private int[] nameIds;
+		private boolean[] nameDefinitions;
+		/**
+		 * The outcomes of an outcome batch record, null for other records.
+		 */
+		private DecodedRecord[] outcomes;
+		private int endRecord;
+		/**
+		 * The unique names still in doubt of a checkpoint entry or of a partially committed record, null while all the
+		 * unique names of this record are.
+		 */
+		private Set<String> remainingUniqueNames;
+
+		/**
+		 * @return true if this record changes the dangling records or the dictionary.
+		 */
+		private boolean isRelevant()
+		{
+			if (status == Status.STATUS_COMMITTING || status == Status.STATUS_COMMITTED || status == Status.STATUS_UNKNOWN || status == Status.STATUS_ROLLEDBACK
+			    || status == TransactionLogRecord.STATUS_OUTCOME_BATCH)
+			{
+				return true;
+			}
+			if (nameDefinitions != null)
+			{
+				for (boolean definition : nameDefinitions)
+				{
+					if (definition)
+					{
+						return true;
+					}
+				}
+			}
+			return false;
+		}
+
+		/**
+		 * Add the ids this record defines to a dictionary.
+		 *
+		 * @param dictionary
+		 * 		the dictionary.
+		 *
+		 * @return false if an id is out of sequence in the dictionary.
+		 */
+		private boolean defineNames(TransactionLogDictionary dictionary)
+		{
+			boolean defined = true;
+			for (int i = 0; i < nameIds.length; i++)
+			{
+				if (nameDefinitions[i])
+				{
+					defined &= dictionary.define(nameIds[i], uniqueNames[i]);
+				}
+			}
+			return defined;
+		}
+
+		/**
+		 * Resolve the unique names defined by earlier chunks then add the ids this record defines to the dictionary.
+		 *
+		 * @param dictionary
+		 * 		the dictionary built from all the records preceding this one.
+		 *
+		 * @return false if a unique name cannot be resolved, or if the unique names are not stored in the order the
+		 * writer would have stored them.
+		 */
+		private boolean resolveNames(TransactionLogDictionary dictionary)
+		{
+			if (nameIds != null)
+			{
+				for (int i = 0; i < uniqueNames.length; i++)
+				{
+					if (uniqueNames[i] == null)
+					{
+						uniqueNames[i] = dictionary.nameOf(nameIds[i]);
+						if (uniqueNames[i] == null)
+						{
+							return false;
+						}
+					}
+				}
+				if (!defineNames(dictionary))
+				{
+					return false;
+				}
+			}
+			for (int i = 1; i < uniqueNames.length; i++)
+			{
+				if (uniqueNames[i - 1].compareTo(uniqueNames[i]) >= 0)
+				{
+					return false;
+				}
+			}
+			return true;
+		}
+
+		/**
+		 * @return the number of entries of the checkpoint this record terminates, or -1 if its GTRID is not an entry
+		 * count.
+		 */
+		private int getCheckpointEntryCount()
+		{
+			byte[] array = gtrid.getArray();
+			return array.length == 4 ? Encoder.bytesToInt(array, 0) : -1;
+		}
+
+		/**
+		 * @return a new mutable set of the unique names.
+		 */
+		private Set<String> uniqueNameSet()
+		{
+			return new HashSet<>(Arrays.asList(uniqueNames));
+		}
+
+		/**
+		 * @return the TransactionLogRecord a TransactionLogCursor would have read.
+		 */
+		private TransactionLogRecord toTransactionLogRecord()
+		{
+			TransactionLogRecord tlog;
+			if (nameIds == null)
+			{
+				tlog = new TransactionLogRecord(status, recordLength, headerLength, time, sequenceNumber, crc32, gtrid, uniqueNameSet(), endRecord);
+			}
+			else
+			{
+				tlog = new TransactionLogRecord(status, recordLength, time, sequenceNumber, crc32, gtrid, uniqueNameSet(), nameIds, nameDefinitions, endRecord);
+			}
+			tlog.setCrc32c(crc32c);
+			return tlog;
+		}
+	}
+}
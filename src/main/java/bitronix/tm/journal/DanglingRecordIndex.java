@@ -0,0 +1,259 @@
+/*
+ * Copyright (C) 2006-2013 Bitronix Software (http://www.bitronix.be)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package bitronix.tm.journal;
+
+import bitronix.tm.utils.Uid;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Concurrent index of the unique names still in doubt of the dangling transactions of a log file.
+ * <p>Unique names are numbered once per index and each GTRID maps to an immutable bitset of the ids of its unique
+ * names, so that updating a transaction only locks its own bin of the map and costs a few words of memory instead of a
+ * sorted set. The set of resources is small and stable, ids are never reclaimed.</p>
+ * <p>Snapshots are weakly consistent: they reflect every update completed before they started and may or may not
+ * reflect the concurrent ones. Callers needing an exact view must prevent updates meanwhile.</p>
+ */
+final class DanglingRecordIndex
+{
+
+	/**
+	 * Estimated size of a map entry: the node, its share of the table and the bitset array header.
+	 */
+	private static final int ENTRY_OVERHEAD = 32 + 8 + 16;
+	/**
+	 * Estimated size of a GTRID without its bytes: the Uid object and its array header.
+	 */
+	private static final int UID_OVERHEAD = 24 + 16;
+	private static final long[] EMPTY = new long[0];
+
+	private final ConcurrentMap<Uid, long[]> dangling = new ConcurrentHashMap<>();
+	private final ConcurrentMap<String, Integer> ids = new ConcurrentHashMap<>();
+	private volatile String[] names = new String[0];
+
+	/**
+	 * Index a transaction as dangling, replacing any previous entry.
+	 *
+	 * @param gtrid
+	 * 		the GTRID of the transaction.
+	 * @param uniqueNames
+	 * 		the unique names of the resources in doubt.
+	 */
+	void put(Uid gtrid, Set<String> uniqueNames)
+	{
+		dangling.put(gtrid, toBits(uniqueNames, true));
+	}
+
+	/**
+	 * Remove unique names from the dangling entry of a transaction, removing the entry once all its unique names are
+	 * gone.
+	 *
+	 * @param gtrid
+	 * 		the GTRID of the transaction.
+	 * @param uniqueNames
+	 * 		the unique names of the resources no longer in doubt.
+	 */
+	void remove(Uid gtrid, Set<String> uniqueNames)
+	{
+		long[] removed = toBits(uniqueNames, false);
+		dangling.computeIfPresent(gtrid, (uid, bits) -> andNot(bits, removed));
+	}
+
+	/**
+	 * Check if a transaction is dangling.
+	 *
+	 * @param gtrid
+	 * 		the GTRID of the transaction.
+	 *
+	 * @return true if at least one unique name of the transaction is still in doubt.
+	 */
+	boolean contains(Uid gtrid)
+	{
+		return dangling.containsKey(gtrid);
+	}
+
+	/**
+	 * Get the number of dangling transactions.
+	 *
+	 * @return the number of indexed GTRIDs.
+	 */
+	int size()
+	{
+		return dangling.size();
+	}
+
+	/**
+	 * Estimate the memory used by the index entries, ignoring the unique names shared by all entries.
+	 *
+	 * @return the estimated footprint in bytes.
+	 */
+	long getFootprint()
+	{
+		long footprint = 0L;
+		for (Map.Entry<Uid, long[]> entry : dangling.entrySet())
+		{
+			footprint += ENTRY_OVERHEAD + UID_OVERHEAD + entry.getKey()
+			                                                  .length() + 8L * entry.getValue().length;
+		}
+		return footprint;
+	}
+
+	/**
+	 * Take a weakly consistent snapshot of the index.
+	 *
+	 * @return the unique names in doubt by GTRID.
+	 */
+	Map<Uid, Set<String>> snapshot()
+	{
+		Map<Uid, Set<String>> snapshot = new HashMap<>(Math.max(16, dangling.size() * 2));
+		for (Map.Entry<Uid, long[]> entry : dangling.entrySet())
+		{
+			snapshot.put(entry.getKey(), toNames(entry.getValue()));
+		}
+		return snapshot;
+	}
+
+	/**
+	 * Remove all entries. Unique name ids are kept.
+	 */
+	void clear()
+	{
+		dangling.clear();
+	}
+
+	/**
+	 * Convert unique names to a bitset of their ids.
+	 *
+	 * @param uniqueNames
+	 * 		the unique names.
+	 * @param numberUnknown
+	 * 		true to number the unknown unique names, false to leave them out of the bitset.
+	 *
+	 * @return the bitset, with no trailing empty word.
+	 */
+	private long[] toBits(Set<String> uniqueNames, boolean numberUnknown)
+	{
+		// the first 64 ids, by far the common case, are accumulated without allocating
+		long firstWord = 0L;
+		long[] bits = null;
+		for (String uniqueName : uniqueNames)
+		{
+			Integer known = ids.get(uniqueName);
+			if (known == null && !numberUnknown)
+			{
+				continue;
+			}
+			int id = known == null ? idOf(uniqueName) : known;
+			if (id < 64)
+			{
+				firstWord |= 1L << id;
+				continue;
+			}
+			int word = id >>> 6;
+			if (bits == null || word >= bits.length)
+			{
+				bits = Arrays.copyOf(bits == null ? new long[0] : bits, word + 1);
+			}
+			bits[word] |= 1L << id;
+		}
+		if (bits == null)
+		{
+			return firstWord == 0L ? EMPTY : new long[]{firstWord};
+		}
+		bits[0] = firstWord;
+		return bits;
+	}
+
+	/**
+	 * Get the id of a unique name, numbering it if it is not known yet.
+	 *
+	 * @param uniqueName
+	 * 		the unique name.
+	 *
+	 * @return the id.
+	 */
+	private int idOf(String uniqueName)
+	{
+		synchronized (ids)
+		{
+			Integer id = ids.get(uniqueName);
+			if (id == null)
+			{
+				String[] known = names;
+				String[] extended = Arrays.copyOf(known, known.length + 1);
+				extended[known.length] = uniqueName;
+				// publish the name before its id so that whoever sees the id can resolve it
+				names = extended;
+				id = known.length;
+				ids.put(uniqueName, id);
+			}
+			return id;
+		}
+	}
+
+	/**
+	 * Clear the bits of a bitset which are set in another one.
+	 *
+	 * @param bits
+	 * 		the bitset to clear bits from, not modified.
+	 * @param removed
+	 * 		the bits to clear.
+	 *
+	 * @return the resulting bitset, or null if no bit is left.
+	 */
+	private static long[] andNot(long[] bits, long[] removed)
+	{
+		long[] result = null;
+		for (int i = 0; i < bits.length; i++)
+		{
+			long word = i < removed.length ? bits[i] & ~removed[i] : bits[i];
+			if (word != 0L)
+			{
+				if (result == null)
+				{
+					result = new long[bits.length];
+				}
+				result[i] = word;
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Convert a bitset to the unique names of its ids.
+	 *
+	 * @param bits
+	 * 		the bitset.
+	 *
+	 * @return the unique names.
+	 */
+	private Set<String> toNames(long[] bits)
+	{
+		// names are published before their id, reading them after the bitset sees all the ids it uses
+		String[] known = names;
+		Set<String> uniqueNames = new TreeSet<>();
+		for (int word = 0; word < bits.length; word++)
+		{
+			for (long remaining = bits[word]; remaining != 0L; remaining &= remaining - 1)
+			{
+				uniqueNames.add(known[word << 6 | Long.numberOfTrailingZeros(remaining)]);
+			}
+		}
+		return uniqueNames;
+	}
+}
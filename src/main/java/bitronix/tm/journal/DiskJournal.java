@@ -20,6 +20,7 @@ import bitronix.tm.Configuration;
 import bitronix.tm.TransactionManagerServices;
 import bitronix.tm.internal.LogDebugCheck;
 import bitronix.tm.utils.Decoder;
+import bitronix.tm.utils.ManagementRegistrar;
 import bitronix.tm.utils.MonotonicClock;
 import bitronix.tm.utils.Uid;
 
@@ -28,7 +29,7 @@ import java.io.File;
 import java.io.IOException;
 import java.io.RandomAccessFile;
 import java.util.*;
-import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReadWriteLock;
@@ -42,6 +43,9 @@ import java.util.logging.Level;
  * second file and logging starts again on the latter.</p>
  * <p>This implementation is not highly efficient but quite robust and simple. It is based on one of the implementations
  * proposed by Mike Spille.</p>
+ * <p>When force batching is enabled, concurrent calls to {@link #force()} are grouped: the first caller becomes the
+ * leader and performs a single disk force on behalf of all callers that queued up before it started, while the others
+ * park until a force covering their request has completed.</p>
  * <p>Configurable properties are all starting with <code>bitronix.tm.journal.disk</code>.</p>
  *
  * @author Ludovic Orban
@@ -50,11 +54,19 @@ import java.util.logging.Level;
  * @see <a href="http://jroller.com/page/pyrasun?entry=xa_exposed_part_iii_the">XA Exposed, Part III: The Implementor's Notebook</a>
  */
 public class DiskJournal
-		implements Journal, MigratableJournal, ReadableJournal
+		implements Journal, MigratableJournal, ReadableJournal, DiskJournalMBean
 {
 
 	private static final java.util.logging.Logger log = java.util.logging.Logger.getLogger(DiskJournal.class.toString());
 
+	private static final LogDebugCheck debugCheck = LogDebugCheck.forLogger(log);
+	private static final String JMX_NAME = "bitronix.tm:type=Journal";
+	/**
+	 * Total length of the buffered outcome records triggering the write of their batch regardless of the batching
+	 * interval, keeping batches small enough to be read back by a {@link TransactionLogCursor}.
+	 */
+	private static final int MAX_OUTCOME_BATCH_LENGTH = TransactionLogCursor.PAGE_SIZE / 2;
+
 	/**
 	 * The active log appender. This is exactly the same reference as tla1 or tla2 depending on which one is
 	 * currently active
@@ -63,8 +75,31 @@ public class DiskJournal
 	private final Lock conservativeJournalingLock = new ReentrantLock();
 	private final ReadWriteLock swapForceLock = new ReentrantReadWriteLock(true);
 	private final Object positionLock = new Object();
-	private final AtomicBoolean needsForce;
+	private final ForceBatcher forceBatcher;
+	private final DanglingRecordCollector danglingRecordCollector = new DanglingRecordCollector();
+	private final AtomicLong checkpointCount = new AtomicLong();
+	private final AtomicLong outcomeBatchCount = new AtomicLong();
+	private final AtomicLong batchedOutcomeCount = new AtomicLong();
+	private final LatencyHistogram writeLatency = new LatencyHistogram();
+	private final LatencyHistogram forceLatency = new LatencyHistogram();
+	private final LatencyHistogram rolloverLatency = new LatencyHistogram();
+	/**
+	 * The buffered COMMITTED, UNKNOWN and ROLLEDBACK records waiting to be written as an outcome batch, guarded by
+	 * itself.
+	 */
+	private final List<TransactionLogRecord> outcomeBuffer = new ArrayList<>();
+	/**
+	 * Time at which the oldest buffered outcome was buffered, guarded by outcomeBuffer.
+	 */
+	private long outcomeBufferStartTime;
+	/**
+	 * Total length of the buffered outcomes as individual records, guarded by outcomeBuffer.
+	 */
+	private int outcomeBufferLength;
 	private final Configuration configuration;
+	private final String logPart1Filename;
+	private final String logPart2Filename;
+	private final String jmxName;
 	/**
 	 * The transaction log appender writing on the 1st file
 	 */
@@ -78,10 +113,29 @@ public class DiskJournal
 	 * Create an uninitialized disk journal. You must call open() prior you can use it.
 	 */
 	public DiskJournal()
+	{
+		this(null, null, JMX_NAME);
+	}
+
+	/**
+	 * Create an uninitialized disk journal writing to the specified files instead of the configured ones. You must
+	 * call open() prior you can use it.
+	 *
+	 * @param logPart1Filename
+	 * 		the 1st journal file, or null to use the configured one.
+	 * @param logPart2Filename
+	 * 		the 2nd journal file, or null to use the configured one.
+	 * @param jmxName
+	 * 		the JMX name under which the journal registers itself.
+	 */
+	DiskJournal(String logPart1Filename, String logPart2Filename, String jmxName)
 	{
 		configuration = TransactionManagerServices.getConfiguration();
-		needsForce = new AtomicBoolean();
+		forceBatcher = new ForceBatcher(configuration);
 		activeTla = new AtomicReference<>();
+		this.logPart1Filename = logPart1Filename;
+		this.logPart2Filename = logPart2Filename;
+		this.jmxName = jmxName;
 	}
 
 	/**
@@ -109,16 +163,158 @@ public class DiskJournal
 
 		if (configuration.isFilterLogStatus() && (status != Status.STATUS_COMMITTING && status != Status.STATUS_COMMITTED && status != Status.STATUS_UNKNOWN))
 		{
-			if (LogDebugCheck.isDebugEnabled())
+			if (debugCheck.isDebugEnabled())
 			{
 				log.finer("filtered out write to log for status " + Decoder.decodeStatus(status));
 			}
 			return;
 		}
 
-
 		TransactionLogRecord tlog = new TransactionLogRecord(status, gtrid, uniqueNames);
+		if (configuration.isOutcomeBatchingEnabled())
+		{
+			boolean outcome = status == Status.STATUS_COMMITTED || status == Status.STATUS_UNKNOWN || status == Status.STATUS_ROLLEDBACK;
+			List<TransactionLogRecord> batch;
+			synchronized (outcomeBuffer)
+			{
+				if (outcome)
+				{
+					if (outcomeBuffer.isEmpty())
+					{
+						outcomeBufferStartTime = MonotonicClock.currentTimeMillis();
+					}
+					outcomeBuffer.add(tlog);
+					outcomeBufferLength += tlog.getRecordLength();
+				}
+				batch = drainOutcomeBuffer(false);
+			}
+			if (batch != null)
+			{
+				writeOutcomeBatch(batch);
+			}
+			if (outcome)
+			{
+				return;
+			}
+		}
+
+		writeRecord(tlog);
+	}
+
+	/**
+	 * Log several transaction statuses to journal with as few writes as possible: the records are positioned together
+	 * and written with a single write per log file they end up in. Other threads cannot log while a batch is being
+	 * positioned and written. Buffered outcomes are written first and the records of the batch are not coalesced.
+	 *
+	 * @param records
+	 * 		the records to log, only their status, GTRID and unique names are used.
+	 *
+	 * @throws java.io.IOException
+	 * 		in case of disk IO failure or if the disk journal is not open.
+	 */
+	@Override
+	public void logAll(Collection<? extends JournalRecord> records) throws IOException
+	{
+		if (activeTla.get() == null)
+		{
+			throw new IOException("cannot write log, disk logger is not open");
+		}
+
+		List<TransactionLogRecord> batch = new ArrayList<>(records.size());
+		for (JournalRecord record : records)
+		{
+			int status = record.getStatus();
+			if (!configuration.isFilterLogStatus() || status == Status.STATUS_COMMITTING || status == Status.STATUS_COMMITTED || status == Status.STATUS_UNKNOWN)
+			{
+				batch.add(new TransactionLogRecord(status, record.getGtrid(), record.getUniqueNames()));
+			}
+		}
+		if (batch.isEmpty())
+		{
+			return;
+		}
+
+		if (configuration.isOutcomeBatchingEnabled())
+		{
+			flushOutcomeBuffer();
+		}
+		writeRecords(batch);
+	}
+
+	/**
+	 * Take the buffered outcomes out of the buffer if their batch has to be written. Callers must synchronize on
+	 * outcomeBuffer.
+	 *
+	 * @param force
+	 * 		true to take the outcomes out even if the batching interval has not elapsed yet.
+	 *
+	 * @return the outcomes to write as a batch or null if there is nothing to write yet.
+	 */
+	private List<TransactionLogRecord> drainOutcomeBuffer(boolean force)
+	{
+		if (outcomeBuffer.isEmpty())
+		{
+			return null;
+		}
+		if (!force && outcomeBufferLength < MAX_OUTCOME_BATCH_LENGTH && MonotonicClock.currentTimeMillis() - outcomeBufferStartTime < configuration.getOutcomeBatchingIntervalMillis())
+		{
+			return null;
+		}
+		List<TransactionLogRecord> batch = new ArrayList<>(outcomeBuffer);
+		outcomeBuffer.clear();
+		outcomeBufferLength = 0;
+		return batch;
+	}
+
+	/**
+	 * Write the buffered outcomes as an outcome batch, whether or not the batching interval has elapsed.
+	 *
+	 * @throws java.io.IOException
+	 * 		in case of disk IO failure.
+	 */
+	private void flushOutcomeBuffer() throws IOException
+	{
+		List<TransactionLogRecord> batch;
+		synchronized (outcomeBuffer)
+		{
+			batch = drainOutcomeBuffer(true);
+		}
+		if (batch != null)
+		{
+			writeOutcomeBatch(batch);
+		}
+	}
 
+	/**
+	 * Write outcomes as a single outcome batch record.
+	 *
+	 * @param batch
+	 * 		the COMMITTED, UNKNOWN and ROLLEDBACK records to write.
+	 *
+	 * @throws java.io.IOException
+	 * 		in case of disk IO failure.
+	 */
+	private void writeOutcomeBatch(List<TransactionLogRecord> batch) throws IOException
+	{
+		writeRecord(new TransactionLogRecord(batch));
+		outcomeBatchCount.incrementAndGet();
+		batchedOutcomeCount.addAndGet(batch.size());
+	}
+
+	/**
+	 * Position and write a record to the active log file, swapping the log files when it is full.
+	 *
+	 * @param tlog
+	 * 		the record to write.
+	 *
+	 * @throws java.io.IOException
+	 * 		in case of disk IO failure.
+	 */
+	private void writeRecord(TransactionLogRecord tlog) throws IOException
+	{
+		long start = System.nanoTime();
+		boolean written = false;
+		forceBatcher.writeStarted();
 		try
 		{
 			if (configuration.isConservativeJournaling())
@@ -128,11 +324,27 @@ public class DiskJournal
 
 			synchronized (positionLock)
 			{
+				// this read lock MUST be acquired under positionLock and before the position is advanced, so that
+				// holding the write lock guarantees that every reserved record has been written
+				swapForceLock.readLock()
+				             .lock();
+				try
+				{
+					checkpointIfDue(activeTla.get());
+				}
+				catch (IOException | RuntimeException ex)
+				{
+					swapForceLock.readLock()
+					             .unlock();
+					throw ex;
+				}
 				boolean rollover = activeTla.get()
 				                            .setPositionAndAdvance(tlog);
 				if (rollover)
 				{
 					// time to swap log files
+					swapForceLock.readLock()
+					             .unlock();
 					swapForceLock.writeLock()
 					             .lock();
 					try
@@ -140,6 +352,8 @@ public class DiskJournal
 						swapJournalFiles();
 						activeTla.get()
 						         .setPositionAndAdvance(tlog);
+						swapForceLock.readLock()
+						             .lock();
 					}
 					finally
 					{
@@ -147,17 +361,13 @@ public class DiskJournal
 						             .unlock();
 					}
 				}
-
-				// this read lock MUST be acquired under positionLock
-				swapForceLock.readLock()
-				             .lock();
 			}
 
 			try
 			{
 				activeTla.get()
 				         .writeLog(tlog);
-				needsForce.set(true);
+				written = true;
 			}
 			finally
 			{
@@ -171,6 +381,118 @@ public class DiskJournal
 			{
 				conservativeJournalingLock.unlock();
 			}
+			forceBatcher.writeCompleted(written);
+		}
+		writeLatency.recordSince(start);
+	}
+
+	/**
+	 * Position and write records to the active log file with a single write, swapping the log files when it is full.
+	 * The write latency histogram records the write of the whole batch.
+	 *
+	 * @param batch
+	 * 		the records to write, in order.
+	 *
+	 * @throws java.io.IOException
+	 * 		in case of disk IO failure.
+	 */
+	private void writeRecords(List<TransactionLogRecord> batch) throws IOException
+	{
+		long start = System.nanoTime();
+		boolean written = false;
+		forceBatcher.writeStarted();
+		try
+		{
+			if (configuration.isConservativeJournaling())
+			{
+				conservativeJournalingLock.lock();
+			}
+
+			// positionLock is held during the write so that no other record gets positioned in the middle of the batch
+			synchronized (positionLock)
+			{
+				swapForceLock.readLock()
+				             .lock();
+				boolean readLocked = true;
+				try
+				{
+					checkpointIfDue(activeTla.get());
+					int from = 0;
+					for (int i = 0; i < batch.size(); i++)
+					{
+						TransactionLogRecord tlog = batch.get(i);
+						if (activeTla.get()
+						             .setPositionAndAdvance(tlog, i == batch.size() - 1))
+						{
+							activeTla.get()
+							         .writeLogs(batch.subList(from, i));
+							written = true;
+							swapForceLock.readLock()
+							             .unlock();
+							readLocked = false;
+							swapForceLock.writeLock()
+							             .lock();
+							try
+							{
+								swapJournalFiles();
+								if (activeTla.get()
+								             .setPositionAndAdvance(tlog, i == batch.size() - 1))
+								{
+									throw new IOException("record of " + tlog.calculateTotalRecordSize() + " bytes does not fit in " + activeTla.get());
+								}
+								swapForceLock.readLock()
+								             .lock();
+								readLocked = true;
+							}
+							finally
+							{
+								swapForceLock.writeLock()
+								             .unlock();
+							}
+							from = i;
+						}
+					}
+					activeTla.get()
+					         .writeLogs(batch.subList(from, batch.size()));
+					written = true;
+				}
+				finally
+				{
+					if (readLocked)
+					{
+						swapForceLock.readLock()
+						             .unlock();
+					}
+				}
+			}
+		}
+		finally
+		{
+			if (configuration.isConservativeJournaling())
+			{
+				conservativeJournalingLock.unlock();
+			}
+			forceBatcher.writeCompleted(written);
+		}
+		writeLatency.recordSince(start);
+	}
+
+	/**
+	 * Write a checkpoint of the dangling records to a log file if enough records have been written to it since the
+	 * previous one. Callers must hold the lock serializing the calls to
+	 * {@link TransactionLogAppender#setPositionAndAdvance(TransactionLogRecord)}.
+	 *
+	 * @param tla
+	 * 		the appender of the active log file.
+	 *
+	 * @throws java.io.IOException
+	 * 		in case of disk IO failure.
+	 */
+	protected void checkpointIfDue(TransactionLogAppender tla) throws IOException
+	{
+		if (tla.isCheckpointDue() && tla.writeCheckpoint())
+		{
+			checkpointCount.incrementAndGet();
 		}
 	}
 
@@ -189,9 +511,10 @@ public class DiskJournal
 	 * @throws java.io.IOException
 	 * 		in case of disk IO failure.
 	 */
-	private synchronized void swapJournalFiles() throws IOException
+	protected synchronized void swapJournalFiles() throws IOException
 	{
-		if (LogDebugCheck.isDebugEnabled())
+		long start = System.nanoTime();
+		if (debugCheck.isDebugEnabled())
 		{
 			log.finer("swapping journal log file to " + getPassiveTransactionLogAppender());
 		}
@@ -206,17 +529,17 @@ public class DiskJournal
 
 		List<TransactionLogRecord> danglingLogs = activeTla.get()
 		                                                   .getDanglingLogs();
-		for (TransactionLogRecord tlog : danglingLogs)
+		for (int i = 0; i < danglingLogs.size(); i++)
 		{
-			boolean rolloverError = passiveTla.setPositionAndAdvance(tlog);
+			boolean rolloverError = passiveTla.setPositionAndAdvance(danglingLogs.get(i), i == danglingLogs.size() - 1);
 			if (rolloverError)
 			{
 				throw new IOException("moving in-flight transactions the rollover log file would have resulted in an overflow of that file");
 			}
-			passiveTla.writeLog(tlog);
 		}
+		passiveTla.writeLogs(danglingLogs);
 
-		if (LogDebugCheck.isDebugEnabled())
+		if (debugCheck.isDebugEnabled())
 		{
 			log.finer(danglingLogs.size() + " dangling record(s) copied to passive log file");
 		}
@@ -232,13 +555,22 @@ public class DiskJournal
 
 		//step 5
 		activeTla.set(passiveTla);
+		rolloverLatency.recordSince(start);
 
-		if (LogDebugCheck.isDebugEnabled())
+		if (debugCheck.isDebugEnabled())
 		{
 			log.finer("journal log files swapped");
 		}
 	}
 
+	/**
+	 * @return the TransactionFileAppender of the active journal file, or null if the journal is not open.
+	 */
+	protected TransactionLogAppender getActiveTransactionLogAppender()
+	{
+		return activeTla.get();
+	}
+
 	/**
 	 * @return the TransactionFileAppender of the passive journal file.
 	 */
@@ -263,8 +595,8 @@ public class DiskJournal
 			return;
 		}
 
-		File file1 = new File(configuration.getLogPart1Filename());
-		File file2 = new File(configuration.getLogPart2Filename());
+		File file1 = new File(logPart1Filename != null ? logPart1Filename : configuration.getLogPart1Filename());
+		File file2 = new File(logPart2Filename != null ? logPart2Filename : configuration.getLogPart2Filename());
 
 		if (!file1.exists() && !file2.exists())
 		{
@@ -296,13 +628,13 @@ public class DiskJournal
 		}
 
 		long maxFileLength = Math.max(file1.length(), file2.length());
-		if (LogDebugCheck.isDebugEnabled())
+		if (debugCheck.isDebugEnabled())
 		{
 			log.finer("disk journal files max length: " + maxFileLength);
 		}
 
-		tla1 = new TransactionLogAppender(file1, maxFileLength);
-		tla2 = new TransactionLogAppender(file2, maxFileLength);
+		tla1 = createTransactionLogAppender(file1, maxFileLength);
+		tla2 = createTransactionLogAppender(file2, maxFileLength);
 
 		byte cleanStatus = pickActiveJournalFile(tla1, tla2);
 		if (cleanStatus != TransactionLogHeader.CLEAN_LOG_STATE)
@@ -310,12 +642,52 @@ public class DiskJournal
 			log.warning("active log file is unclean, did you call BitronixTransactionManager.shutdown() at the end of the last run?");
 		}
 
-		if (LogDebugCheck.isDebugEnabled())
+		if (configuration.getCheckpointIntervalInKb() > 0)
+		{
+			// checkpoints must include the records left dangling by the previous run
+			try
+			{
+				activeTla.get()
+				         .trackDanglingRecords(danglingRecordCollector.collect(activeTla.get())
+				                                                      .values());
+			}
+			catch (CorruptedTransactionLogException ex)
+			{
+				log.log(Level.WARNING, "cannot collect dangling records of active log file, no checkpoint will be written to it", ex);
+				activeTla.get()
+				         .suspendCheckpoints();
+			}
+		}
+
+		ManagementRegistrar.register(jmxName, this);
+		ManagementRegistrar.register(jmxName + ",Latency=Write", writeLatency);
+		ManagementRegistrar.register(jmxName + ",Latency=Force", forceLatency);
+		ManagementRegistrar.register(jmxName + ",Latency=Rollover", rolloverLatency);
+
+		if (debugCheck.isDebugEnabled())
 		{
 			log.finer("disk journal opened");
 		}
 	}
 
+	/**
+	 * Create the appender writing to one of the two journal files.
+	 *
+	 * @param file
+	 * 		the journal file.
+	 * @param maxFileLength
+	 * 		the length of the journal file.
+	 *
+	 * @return the TransactionLogAppender writing to the journal file.
+	 *
+	 * @throws java.io.IOException
+	 * 		in case of disk IO failure.
+	 */
+	protected TransactionLogAppender createTransactionLogAppender(File file, long maxFileLength) throws IOException
+	{
+		return new TransactionLogAppender(file, maxFileLength);
+	}
+
 	/**
 	 * Create a fresh log file on disk. If the specified file already exists it will be deleted then recreated.
 	 *
@@ -327,7 +699,7 @@ public class DiskJournal
 	 * @throws java.io.IOException
 	 * 		in case of disk IO failure.
 	 */
-	private static void createLogfile(File logfile, int maxLogSizeInMb) throws IOException
+	static void createLogfile(File logfile, int maxLogSizeInMb) throws IOException
 	{
 		if (logfile.isDirectory())
 		{
@@ -384,7 +756,7 @@ public class DiskJournal
 		if (tla1.getTimestamp() > tla2.getTimestamp())
 		{
 			activeTla.set(tla1);
-			if (LogDebugCheck.isDebugEnabled())
+			if (debugCheck.isDebugEnabled())
 			{
 				log.finer("logging to file 1: " + activeTla);
 			}
@@ -392,7 +764,7 @@ public class DiskJournal
 		else
 		{
 			activeTla.set(tla2);
-			if (LogDebugCheck.isDebugEnabled())
+			if (debugCheck.isDebugEnabled())
 			{
 				log.finer("logging to file 2: " + activeTla);
 			}
@@ -402,7 +774,7 @@ public class DiskJournal
 		                           .getState();
 		activeTla.get()
 		         .setState(TransactionLogHeader.UNCLEAN_LOG_STATE);
-		if (LogDebugCheck.isDebugEnabled())
+		if (debugCheck.isDebugEnabled())
 		{
 			log.finer("log file activated, forcing file state to disk");
 		}
@@ -425,6 +797,14 @@ public class DiskJournal
 			return;
 		}
 
+		try
+		{
+			flushOutcomeBuffer();
+		}
+		catch (IOException ex)
+		{
+			log.log(Level.SEVERE, "cannot write buffered transaction outcomes, their transactions will be recovered", ex);
+		}
 		try
 		{
 			tla1.close();
@@ -444,15 +824,21 @@ public class DiskJournal
 		}
 		tla2 = null;
 		activeTla.set(null);
+		ManagementRegistrar.unregister(jmxName);
+		ManagementRegistrar.unregister(jmxName + ",Latency=Write");
+		ManagementRegistrar.unregister(jmxName + ",Latency=Force");
+		ManagementRegistrar.unregister(jmxName + ",Latency=Rollover");
 
-		if (LogDebugCheck.isDebugEnabled())
+		if (debugCheck.isDebugEnabled())
 		{
 			log.finer("disk journal closed");
 		}
 	}
 
 	/**
-	 * Force active log file to synchronize with the underlying disk device.
+	 * Force active log file to synchronize with the underlying disk device. When force batching is enabled, the
+	 * caller is guaranteed that every record it wrote before calling this method is on disk when it returns, but the
+	 * disk force itself may be performed by another thread on behalf of a whole batch of callers.
 	 *
 	 * @throws java.io.IOException
 	 * 		in case of disk IO failure or if the disk journal is not open.
@@ -465,22 +851,215 @@ public class DiskJournal
 			throw new IOException("cannot force log writing, disk logger is not open");
 		}
 
-		if (needsForce.get() && configuration.isForcedWriteEnabled())
+		if (configuration.isForcedWriteEnabled())
 		{
-			swapForceLock.writeLock()
+			forceBatcher.force(this::forceActiveLog);
+		}
+	}
+
+	/**
+	 * Force the active log file without blocking writers during the force itself. The write lock is taken first so
+	 * that all records reserved so far are written and covered by the header position, then downgraded to the read
+	 * lock which only prevents the files from being swapped meanwhile.
+	 *
+	 * @throws java.io.IOException
+	 * 		in case of disk IO failure.
+	 */
+	private void forceActiveLog() throws IOException
+	{
+		swapForceLock.writeLock()
+		             .lock();
+		try
+		{
+			swapForceLock.readLock()
 			             .lock();
-			try
-			{
-				activeTla.get()
-				         .force();
-				needsForce.set(false);
-			}
-			finally
-			{
-				swapForceLock.writeLock()
-				             .unlock();
-			}
 		}
+		finally
+		{
+			swapForceLock.writeLock()
+			             .unlock();
+		}
+		try
+		{
+			long start = System.nanoTime();
+			activeTla.get()
+			         .force();
+			forceLatency.recordSince(start);
+		}
+		finally
+		{
+			swapForceLock.readLock()
+			             .unlock();
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public long getForceCount()
+	{
+		return forceBatcher.getForceCount();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public long getForceRequestCount()
+	{
+		return forceBatcher.getRequestCount();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public double getAverageForceBatchSize()
+	{
+		return forceBatcher.getAverageBatchSize();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public long getMaxForceBatchSize()
+	{
+		return forceBatcher.getMaxBatchSize();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public double getAverageForceWaitTimeMicros()
+	{
+		return forceBatcher.getAverageWaitTimeMicros();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public long getMaxForceWaitTimeMicros()
+	{
+		return forceBatcher.getMaxWaitTimeMicros();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public long getCheckpointCount()
+	{
+		return checkpointCount.get();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void resetLatencyHistograms()
+	{
+		writeLatency.reset();
+		forceLatency.reset();
+		rolloverLatency.reset();
+	}
+
+	/**
+	 * Get the histogram of the time spent writing records, from the call to the end of the write.
+	 *
+	 * @return the record write latency histogram.
+	 */
+	LatencyHistogram getWriteLatency()
+	{
+		return writeLatency;
+	}
+
+	/**
+	 * Get the histogram of the time spent in disk forces of the journal files.
+	 *
+	 * @return the disk force latency histogram.
+	 */
+	LatencyHistogram getForceLatency()
+	{
+		return forceLatency;
+	}
+
+	/**
+	 * Get the histogram of the time spent swapping the journal files.
+	 *
+	 * @return the rollover latency histogram.
+	 */
+	LatencyHistogram getRolloverLatency()
+	{
+		return rolloverLatency;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public int getDanglingRecordCount()
+	{
+		TransactionLogAppender tla = activeTla.get();
+		return tla == null ? 0 : tla.getDanglingRecordCount();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public long getDanglingRecordFootprint()
+	{
+		TransactionLogAppender tla = activeTla.get();
+		return tla == null ? 0L : tla.getDanglingRecordFootprint();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public long getOutcomeBatchCount()
+	{
+		return outcomeBatchCount.get();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public long getBatchedOutcomeCount()
+	{
+		return batchedOutcomeCount.get();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public double getDanglingCollectionProgress()
+	{
+		return danglingRecordCollector.getProgress();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public long getLastDanglingCollectionDurationMillis()
+	{
+		return danglingRecordCollector.getLastDurationMillis();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public long getLastDanglingCollectionRecordCount()
+	{
+		return danglingRecordCollector.getLastRecordCount();
 	}
 
 	/*
@@ -502,11 +1081,18 @@ public class DiskJournal
 		{
 			throw new IOException("cannot collect dangling records, disk logger is not open");
 		}
-		return collectDanglingRecords(activeTla.get());
+		flushOutcomeBuffer();
+		return danglingRecordCollector.collect(activeTla.get());
 	}
 
 	/**
-	 * {@inheritDoc}
+	 * Copy the dangling records to another journal with a {@link JournalMigrator}, in batches and with a single force.
+	 *
+	 * @param other
+	 * 		the journal to migrate all unfinished transactions to.
+	 *
+	 * @throws java.io.IOException
+	 * 		if not all records could be copied to the other journal.
 	 */
 	@Override
 	public void migrateTo(Journal other) throws IOException
@@ -520,88 +1106,11 @@ public class DiskJournal
 			throw new IllegalArgumentException("the migration target journal cannot be null");
 		}
 
-		for (Object record : collectDanglingRecords().values())
-		{
-			JournalRecord jr = (JournalRecord) record;
-			other.log(jr.getStatus(), jr.getGtrid(), jr.getUniqueNames());
-		}
+		new JournalMigrator(this, other, true, configuration.getJournalMigrationBatchSize()).migrate();
 	}
 
 	/**
-	 * Create a Map of TransactionLogRecord with COMMITTING status objects using the GTRID byte[] as key that have
-	 * no corresponding COMMITTED record
-	 *
-	 * @param tla
-	 * 		the TransactionLogAppender to scan
-	 *
-	 * @return a Map using Uid objects GTRID as key and {@link TransactionLogRecord} as value
-	 *
-	 * @throws java.io.IOException
-	 * 		in case of disk IO failure.
-	 */
-	private static Map<Uid, JournalRecord> collectDanglingRecords(TransactionLogAppender tla) throws IOException
-	{
-		Map<Uid, JournalRecord> danglingRecords = new HashMap<>(64);
-		TransactionLogCursor tlc = tla.getCursor();
-
-		try
-		{
-			int committing = 0;
-			Integer committed = 0;
-
-			while (true)
-			{
-				TransactionLogRecord tlog;
-				try
-				{
-					tlog = tlc.readLog();
-				}
-				catch (CorruptedTransactionLogException ex)
-				{
-					if (TransactionManagerServices.getConfiguration()
-					                              .isSkipCorruptedLogs())
-					{
-						log.log(Level.SEVERE, "skipping corrupted log", ex);
-						continue;
-					}
-					throw ex;
-				}
-
-				if (tlog == null)
-				{
-					break;
-				}
-
-				int status = tlog.getStatus();
-				if (status == Status.STATUS_COMMITTING)
-				{
-					danglingRecords.put(tlog.getGtrid(), tlog);
-					committing++;
-				}
-
-				// COMMITTED is when there was no problem in the transaction
-				// UNKNOWN is when a 2PC transaction heuristically terminated
-				// ROLLEDBACK is when a 1PC transaction rolled back during commit
-				if (status == Status.STATUS_COMMITTED || status == Status.STATUS_UNKNOWN || status == Status.STATUS_ROLLEDBACK)
-				{
-					committed = processTransaction(danglingRecords, tlog, committed);
-				}
-			}
-
-			if (LogDebugCheck.isDebugEnabled())
-			{
-				log.finer("collected dangling records of " + tla + ", committing: " + committing + ", committed: " + committed + ", delta: " + danglingRecords.size());
-			}
-		}
-		finally
-		{
-			tlc.close();
-		}
-		return danglingRecords;
-	}
-
-	/**
-	 * Method processTransaction ...
+	 * Method processTransaction ... An outcome batch record is processed as each of its outcomes.
 	 *
 	 * @param danglingRecords
 	 * 		of type Map<Uid, JournalRecord>
@@ -612,8 +1121,18 @@ public class DiskJournal
 	 *
 	 * @return int
 	 */
-	private static int processTransaction(Map<Uid, JournalRecord> danglingRecords, TransactionLogRecord tlog, int committed)
+	static int processTransaction(Map<Uid, JournalRecord> danglingRecords, TransactionLogRecord tlog, int committed)
 	{
+		List<TransactionLogRecord> outcomes = tlog.getOutcomes();
+		if (outcomes != null)
+		{
+			for (TransactionLogRecord outcome : outcomes)
+			{
+				committed = processTransaction(danglingRecords, outcome, committed);
+			}
+			return committed;
+		}
+
 		JournalRecord rec = danglingRecords.get(tlog.getGtrid());
 		if (rec != null)
 		{
@@ -662,7 +1181,7 @@ public class DiskJournal
 	 * @throws java.io.IOException
 	 * 		in case of the initial disk IO failed (subsequent errors are unchecked exceptions).
 	 */
-	private static Iterator<TransactionLogRecord> iterateRecords(TransactionLogAppender tla, boolean skipCrcCheck) throws IOException
+	static Iterator<TransactionLogRecord> iterateRecords(TransactionLogAppender tla, boolean skipCrcCheck) throws IOException
 	{
 		TransactionLogCursor tlc = tla.getCursor();
 		Iterator it = new TransactionLogIterator(tlc, skipCrcCheck);
@@ -0,0 +1,133 @@
+/*
+ * Copyright (C) 2006-2013 Bitronix Software (http://www.bitronix.be)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package bitronix.tm.journal;
+
+/**
+ * {@link DiskJournal} Management interface.
+ */
+public interface DiskJournalMBean
+{
+
+	/**
+	 * Method getForceCount returns the number of disk forces performed on the journal files.
+	 *
+	 * @return the forceCount (type long) of this DiskJournalMBean object.
+	 */
+	long getForceCount();
+
+	/**
+	 * Method getForceRequestCount returns the number of force requests satisfied by the journal, batched or not.
+	 *
+	 * @return the forceRequestCount (type long) of this DiskJournalMBean object.
+	 */
+	long getForceRequestCount();
+
+	/**
+	 * Method getAverageForceBatchSize returns the average number of force requests satisfied by a single disk force.
+	 *
+	 * @return the averageForceBatchSize (type double) of this DiskJournalMBean object.
+	 */
+	double getAverageForceBatchSize();
+
+	/**
+	 * Method getMaxForceBatchSize returns the largest number of force requests satisfied by a single disk force.
+	 *
+	 * @return the maxForceBatchSize (type long) of this DiskJournalMBean object.
+	 */
+	long getMaxForceBatchSize();
+
+	/**
+	 * Method getAverageForceWaitTimeMicros returns the average time in microseconds a caller spent in a force request.
+	 *
+	 * @return the averageForceWaitTimeMicros (type double) of this DiskJournalMBean object.
+	 */
+	double getAverageForceWaitTimeMicros();
+
+	/**
+	 * Method getMaxForceWaitTimeMicros returns the longest time in microseconds a caller spent in a force request.
+	 *
+	 * @return the maxForceWaitTimeMicros (type long) of this DiskJournalMBean object.
+	 */
+	long getMaxForceWaitTimeMicros();
+
+	/**
+	 * Method getCheckpointCount returns the number of checkpoints of the dangling records written to the journal files.
+	 *
+	 * @return the checkpointCount (type long) of this DiskJournalMBean object.
+	 */
+	long getCheckpointCount();
+
+	/**
+	 * Method getDanglingRecordCount returns the number of in-doubt transactions currently tracked by the journal.
+	 *
+	 * @return the danglingRecordCount (type int) of this DiskJournalMBean object.
+	 */
+	int getDanglingRecordCount();
+
+	/**
+	 * Method getDanglingRecordFootprint returns the estimated number of bytes of memory used to track the in-doubt
+	 * transactions.
+	 *
+	 * @return the danglingRecordFootprint (type long) of this DiskJournalMBean object.
+	 */
+	long getDanglingRecordFootprint();
+
+	/**
+	 * Forget the latencies recorded so far by the record write, disk force and rollover histograms, registered as
+	 * <code>Latency=Write</code>, <code>Latency=Force</code> and <code>Latency=Rollover</code> next to this MBean.
+	 */
+	void resetLatencyHistograms();
+
+	/**
+	 * Method getOutcomeBatchCount returns the number of outcome batch records written to the journal files.
+	 *
+	 * @return the outcomeBatchCount (type long) of this DiskJournalMBean object.
+	 */
+	long getOutcomeBatchCount();
+
+	/**
+	 * Method getBatchedOutcomeCount returns the number of COMMITTED, UNKNOWN and ROLLEDBACK records written as part
+	 * of outcome batch records.
+	 *
+	 * @return the batchedOutcomeCount (type long) of this DiskJournalMBean object.
+	 */
+	long getBatchedOutcomeCount();
+
+	/**
+	 * Method getDanglingCollectionProgress returns the fraction of the journal scanned by the dangling records
+	 * collection in progress, 1.0 when none is running.
+	 *
+	 * @return the danglingCollectionProgress (type double) of this DiskJournalMBean object.
+	 */
+	double getDanglingCollectionProgress();
+
+	/**
+	 * Method getLastDanglingCollectionDurationMillis returns the time in milliseconds the last dangling records
+	 * collection took, -1 if none ran yet.
+	 *
+	 * @return the lastDanglingCollectionDurationMillis (type long) of this DiskJournalMBean object.
+	 */
+	long getLastDanglingCollectionDurationMillis();
+
+	/**
+	 * Method getLastDanglingCollectionRecordCount returns the number of records scanned by the last dangling records
+	 * collection, -1 if none ran yet.
+	 *
+	 * @return the lastDanglingCollectionRecordCount (type long) of this DiskJournalMBean object.
+	 */
+	long getLastDanglingCollectionRecordCount();
+
+}
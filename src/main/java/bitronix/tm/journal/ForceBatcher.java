@@ -0,0 +1,350 @@
+/*
+ * Copyright (C) 2006-2013 Bitronix Software (http://www.bitronix.be)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package bitronix.tm.journal;
+
+import bitronix.tm.Configuration;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Coordinates the disk forces requested by the threads logging to a journal.
+ * <p>When force batching is enabled, each caller of {@link #force(ForceAction)} takes a ticket, then either waits for
+ * a force covering its ticket to complete or, if no force is in progress, becomes the leader and forces on behalf of
+ * every caller that took a ticket before the force started. When batching is disabled, forces are simply serialized.
+ * In both cases a force is skipped when nothing has been written since the previous one.</p>
+ * <p>Journals must call {@link #writeStarted()} and {@link #writeCompleted(boolean)} around each record write.</p>
+ *
+ * @see Configuration#isForceBatchingEnabled()
+ */
+final class ForceBatcher
+{
+
+	private static final long PARK_NANOS = 10_000L;
+
+	private final Configuration configuration;
+	private final AtomicBoolean needsForce = new AtomicBoolean();
+	private final AtomicInteger writesInProgress = new AtomicInteger();
+	private final Lock lock = new ReentrantLock();
+	private final Condition forceCompleted = lock.newCondition();
+	private final AtomicLong forceCount = new AtomicLong();
+	private final LongAdder requestCount = new LongAdder();
+	private final LongAdder waitTimeNanos = new LongAdder();
+	private final AtomicLong maxWaitTimeNanos = new AtomicLong();
+	private final AtomicLong maxBatchSize = new AtomicLong();
+	/**
+	 * A force request is satisfied once forcedSequence reached its ticket. Guarded by lock.
+	 */
+	private long requestSequence;
+	private long forcedSequence;
+	private boolean forceInProgress;
+
+	/**
+	 * Constructor ForceBatcher creates a new ForceBatcher instance.
+	 *
+	 * @param configuration
+	 * 		the configuration holding the force batching settings.
+	 */
+	ForceBatcher(Configuration configuration)
+	{
+		this.configuration = configuration;
+	}
+
+	/**
+	 * Must be called before a record starts being written.
+	 */
+	void writeStarted()
+	{
+		writesInProgress.incrementAndGet();
+	}
+
+	/**
+	 * Must be called after a record write attempt, successful or not.
+	 *
+	 * @param written
+	 * 		true if the record has been written and now needs to be forced.
+	 */
+	void writeCompleted(boolean written)
+	{
+		if (written)
+		{
+			needsForce.set(true);
+		}
+		writesInProgress.decrementAndGet();
+	}
+
+	/**
+	 * Ensure that every record written before this call is on disk when it returns.
+	 *
+	 * @param action
+	 * 		the physical force. It must cover all the records whose write completed before it was called.
+	 *
+	 * @throws IOException
+	 * 		in case of disk IO failure.
+	 */
+	void force(ForceAction action) throws IOException
+	{
+		long start = System.nanoTime();
+		if (configuration.isForceBatchingEnabled())
+		{
+			batchedForce(action);
+		}
+		else
+		{
+			serializedForce(action);
+		}
+
+		long waitTime = System.nanoTime() - start;
+		requestCount.increment();
+		waitTimeNanos.add(waitTime);
+		updateMax(maxWaitTimeNanos, waitTime);
+	}
+
+	/**
+	 * One force at a time, each caller forcing if anything has been written since the previous force.
+	 *
+	 * @param action
+	 * 		the physical force.
+	 *
+	 * @throws IOException
+	 * 		in case of disk IO failure.
+	 */
+	private void serializedForce(ForceAction action) throws IOException
+	{
+		lock.lock();
+		try
+		{
+			performForce(action);
+		}
+		finally
+		{
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Group commit, see the class description.
+	 *
+	 * @param action
+	 * 		the physical force.
+	 *
+	 * @throws IOException
+	 * 		in case of disk IO failure.
+	 */
+	private void batchedForce(ForceAction action) throws IOException
+	{
+		lock.lock();
+		try
+		{
+			long ticket = ++requestSequence;
+			while (forceInProgress && forcedSequence < ticket)
+			{
+				forceCompleted.awaitUninterruptibly();
+			}
+			if (forcedSequence >= ticket)
+			{
+				return;
+			}
+			forceInProgress = true;
+		}
+		finally
+		{
+			lock.unlock();
+		}
+
+		// this thread is the batch leader
+		boolean forced = false;
+		long target = 0L;
+		try
+		{
+			awaitWriters();
+
+			lock.lock();
+			try
+			{
+				target = requestSequence;
+			}
+			finally
+			{
+				lock.unlock();
+			}
+
+			performForce(action);
+			forced = true;
+		}
+		finally
+		{
+			lock.lock();
+			try
+			{
+				if (forced)
+				{
+					updateMax(maxBatchSize, target - forcedSequence);
+					forcedSequence = target;
+				}
+				forceInProgress = false;
+				forceCompleted.signalAll();
+			}
+			finally
+			{
+				lock.unlock();
+			}
+		}
+	}
+
+	/**
+	 * Force if anything has been written since the previous force. A record written before its writer requested a
+	 * force is covered as long as needsForce is cleared after the request and before the force starts.
+	 *
+	 * @param action
+	 * 		the physical force.
+	 *
+	 * @throws IOException
+	 * 		in case of disk IO failure.
+	 */
+	private void performForce(ForceAction action) throws IOException
+	{
+		if (!needsForce.getAndSet(false))
+		{
+			return;
+		}
+		try
+		{
+			action.force();
+			forceCount.incrementAndGet();
+		}
+		catch (IOException | RuntimeException ex)
+		{
+			// let the next caller retry the force
+			needsForce.set(true);
+			throw ex;
+		}
+	}
+
+	/**
+	 * Give writers that are still in the middle of writing a record a chance to join the current batch, waiting at
+	 * most {@link Configuration#getForceBatchingMaxWaitMicros()}.
+	 */
+	private void awaitWriters()
+	{
+		long maxWaitNanos = TimeUnit.MICROSECONDS.toNanos(configuration.getForceBatchingMaxWaitMicros());
+		if (maxWaitNanos <= 0L)
+		{
+			return;
+		}
+
+		long deadline = System.nanoTime() + maxWaitNanos;
+		long remaining = maxWaitNanos;
+		while (writesInProgress.get() > 0 && remaining > 0L)
+		{
+			LockSupport.parkNanos(this, Math.min(remaining, PARK_NANOS));
+			remaining = deadline - System.nanoTime();
+		}
+	}
+
+	/**
+	 * Atomically raise a maximum.
+	 *
+	 * @param max
+	 * 		the maximum to update
+	 * @param value
+	 * 		the candidate value
+	 */
+	private static void updateMax(AtomicLong max, long value)
+	{
+		long current;
+		while (value > (current = max.get()))
+		{
+			if (max.compareAndSet(current, value))
+			{
+				return;
+			}
+		}
+	}
+
+	/**
+	 * @return the number of disk forces performed.
+	 */
+	long getForceCount()
+	{
+		return forceCount.get();
+	}
+
+	/**
+	 * @return the number of force requests satisfied.
+	 */
+	long getRequestCount()
+	{
+		return requestCount.sum();
+	}
+
+	/**
+	 * @return the average number of force requests satisfied by a single disk force.
+	 */
+	double getAverageBatchSize()
+	{
+		long forces = forceCount.get();
+		return forces == 0L ? 0.0d : (double) requestCount.sum() / forces;
+	}
+
+	/**
+	 * @return the largest number of force requests satisfied by a single disk force.
+	 */
+	long getMaxBatchSize()
+	{
+		return maxBatchSize.get();
+	}
+
+	/**
+	 * @return the average time in microseconds a caller spent in a force request.
+	 */
+	double getAverageWaitTimeMicros()
+	{
+		long requests = requestCount.sum();
+		return requests == 0L ? 0.0d : (double) TimeUnit.NANOSECONDS.toMicros(waitTimeNanos.sum()) / requests;
+	}
+
+	/**
+	 * @return the longest time in microseconds a caller spent in a force request.
+	 */
+	long getMaxWaitTimeMicros()
+	{
+		return TimeUnit.NANOSECONDS.toMicros(maxWaitTimeNanos.get());
+	}
+
+	/**
+	 * The physical force of a journal.
+	 */
+	@FunctionalInterface
+	interface ForceAction
+	{
+		/**
+		 * Force the journal to disk.
+		 *
+		 * @throws IOException
+		 * 		in case of disk IO failure.
+		 */
+		void force() throws IOException;
+	}
+}
@@ -0,0 +1,1171 @@
+/*
+ * Copyright (C) 2006-2013 Bitronix Software (http://www.bitronix.be)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package bitronix.tm.journal;
+
+import bitronix.tm.Configuration;
+import bitronix.tm.TransactionManagerServices;
+import bitronix.tm.internal.LogDebugCheck;
+import bitronix.tm.utils.Decoder;
+import bitronix.tm.utils.ManagementRegistrar;
+import bitronix.tm.utils.Uid;
+
+import jakarta.transaction.Status;
+import javax.naming.InitialContext;
+import javax.naming.NamingException;
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.*;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.Level;
+import java.util.regex.Pattern;
+
+/**
+ * Journal persisting its records to a database table through a plain JDBC {@link DataSource}.
+ * <p>Logged records are queued in memory. A call to {@link #force()} inserts all the records queued so far with a
+ * single JDBC batch and commits it: threads forcing while a batch is being written wait for it, then find their records
+ * already committed or write the next batch on behalf of all the threads which queued records meanwhile, so commits are
+ * naturally grouped under load. Records are also written without waiting for a force once
+ * <code>bitronix.tm.journal.jdbc.maxBatchSize</code> of them are queued.</p>
+ * <p>Unlike the disk journals, this journal ignores <code>bitronix.tm.journal.disk.forcedWriteEnabled</code>: queued
+ * records only live in memory, so skipping the commit on {@link #force()} would lose them on a crash rather than
+ * merely leave them unsynced in the operating system cache. How durable a commit is remains up to the database.</p>
+ * <p>The table only holds what recovery needs: the rows of the transactions which are dangling. The records of a
+ * transaction are inserted from its COMMITTING record on, and all its rows are deleted in the batch resolving its last
+ * unique name in doubt, so the table stays as small as the number of in-doubt transactions and a transaction committed
+ * within a single batch never reaches the database. Dangling records are collected with a query using the GTRID index
+ * of the table. Several transaction managers can share the same table as the rows are partitioned by server ID.</p>
+ * <p>The DataSource is either passed to the constructor or looked up in JNDI under
+ * <code>bitronix.tm.journal.jdbc.dataSourceJndiName</code>. It must not be enlisted in transactions managed by this
+ * transaction manager. The table is created when the journal opens if it does not exist yet.</p>
+ *
+ * @see bitronix.tm.Configuration
+ */
+public class JdbcJournal
+		implements Journal, MigratableJournal, ReadableJournal, JdbcJournalMBean
+{
+
+	private static final java.util.logging.Logger log = java.util.logging.Logger.getLogger(JdbcJournal.class.toString());
+
+	private static final LogDebugCheck debugCheck = LogDebugCheck.forLogger(log);
+	private static final String JMX_NAME = "bitronix.tm:type=Journal";
+	private static final Pattern TABLE_NAME = Pattern.compile("[A-Za-z_][A-Za-z0-9_$]*(\\.[A-Za-z_][A-Za-z0-9_$]*)?");
+	private static final int SERVER_ID_COLUMN_LENGTH = 51;
+	private static final int GTRID_COLUMN_LENGTH = 128;
+	private static final int UNIQUE_NAME_COLUMN_LENGTH = 255;
+
+	private final Configuration configuration;
+	private final Object pendingLock = new Object();
+	/**
+	 * Serializes the batches and guards the connection.
+	 */
+	private final Lock flushLock = new ReentrantLock();
+	private final DanglingRecordIndex danglingIndex = new DanglingRecordIndex();
+	private final AtomicLong batchCount = new AtomicLong();
+	private final LongAdder batchedRecordCount = new LongAdder();
+	private final AtomicLong maxBatchSize = new AtomicLong();
+	private final LongAdder forceRequestCount = new LongAdder();
+	private final LongAdder insertedRowCount = new LongAdder();
+	private final LongAdder skippedRecordCount = new LongAdder();
+	private final LongAdder purgedTransactionCount = new LongAdder();
+	private final LatencyHistogram writeLatency = new LatencyHistogram();
+	private final LatencyHistogram forceLatency = new LatencyHistogram();
+	private DataSource dataSource;
+	/**
+	 * The records logged but not written yet. Guarded by pendingLock.
+	 */
+	private List<TransactionLogRecord> pending = new ArrayList<>();
+	/**
+	 * The number of records logged since the journal opened. Written under pendingLock.
+	 */
+	private volatile long queuedSequence;
+	/**
+	 * All records up to this sequence number have been committed. Written under flushLock.
+	 */
+	private volatile long committedSequence;
+	private volatile boolean open;
+	/**
+	 * The fields below are guarded by flushLock.
+	 */
+	private Connection connection;
+	private boolean danglingIndexStale;
+	private long lastRecordId;
+	private String serverId;
+	private String insertSql;
+	private String deleteSql;
+	private String danglingSql;
+	private String readSql;
+
+	/**
+	 * Create an uninitialized JDBC journal looking up its DataSource in JNDI. You must call open() prior you can use
+	 * it.
+	 */
+	public JdbcJournal()
+	{
+		this(null);
+	}
+
+	/**
+	 * Create an uninitialized JDBC journal. You must call open() prior you can use it.
+	 *
+	 * @param dataSource
+	 * 		the DataSource of the journal table, null to look it up in JNDI.
+	 */
+	public JdbcJournal(DataSource dataSource)
+	{
+		this.configuration = TransactionManagerServices.getConfiguration();
+		this.dataSource = dataSource;
+	}
+
+	/**
+	 * Log a new transaction status to journal. The record is queued in memory, call {@link #force()} to make sure it is
+	 * committed to the database.
+	 *
+	 * @param status
+	 * 		transaction status to log. See {@link jakarta.transaction.Status} constants.
+	 * @param gtrid
+	 * 		raw GTRID of the transaction.
+	 * @param uniqueNames
+	 * 		unique names of the {@link bitronix.tm.resource.common.ResourceBean}s participating in
+	 * 		this transaction.
+	 *
+	 * @throws java.io.IOException
+	 * 		in case of database failure while writing a full batch or if the journal is not open.
+	 */
+	@Override
+	public void log(int status, Uid gtrid, Set<String> uniqueNames) throws IOException
+	{
+		if (!open)
+		{
+			throw new IOException("cannot write log, JDBC journal is not open");
+		}
+
+		if (configuration.isFilterLogStatus() && (status != Status.STATUS_COMMITTING && status != Status.STATUS_COMMITTED && status != Status.STATUS_UNKNOWN))
+		{
+			if (debugCheck.isDebugEnabled())
+			{
+				log.finer("filtered out write to log for status " + Decoder.decodeStatus(status));
+			}
+			return;
+		}
+
+		TransactionLogRecord tlog = new TransactionLogRecord(status, gtrid, uniqueNames);
+		long sequence;
+		boolean full;
+		synchronized (pendingLock)
+		{
+			pending.add(tlog);
+			sequence = ++queuedSequence;
+			full = pending.size() >= configuration.getJdbcJournalMaxBatchSize();
+		}
+		if (full)
+		{
+			flush(sequence);
+		}
+	}
+
+	/**
+	 * Log several transaction statuses to journal. The records are queued in memory together, then written like a
+	 * full batch if there are enough of them.
+	 *
+	 * @param records
+	 * 		the records to log, only their status, GTRID and unique names are used.
+	 *
+	 * @throws java.io.IOException
+	 * 		in case of database failure while writing a full batch or if the journal is not open.
+	 */
+	@Override
+	public void logAll(Collection<? extends JournalRecord> records) throws IOException
+	{
+		if (!open)
+		{
+			throw new IOException("cannot write log, JDBC journal is not open");
+		}
+
+		List<TransactionLogRecord> batch = new ArrayList<>(records.size());
+		for (JournalRecord record : records)
+		{
+			int status = record.getStatus();
+			if (!configuration.isFilterLogStatus() || status == Status.STATUS_COMMITTING || status == Status.STATUS_COMMITTED || status == Status.STATUS_UNKNOWN)
+			{
+				batch.add(new TransactionLogRecord(status, record.getGtrid(), record.getUniqueNames()));
+			}
+		}
+		long sequence;
+		boolean full;
+		synchronized (pendingLock)
+		{
+			pending.addAll(batch);
+			queuedSequence += batch.size();
+			sequence = queuedSequence;
+			full = pending.size() >= configuration.getJdbcJournalMaxBatchSize();
+		}
+		if (full)
+		{
+			flush(sequence);
+		}
+	}
+
+	/**
+	 * Commit all the records logged before this call to the database, whether forced writes are enabled or not.
+	 *
+	 * @throws java.io.IOException
+	 * 		in case of database failure or if the journal is not open.
+	 */
+	@Override
+	public void force() throws IOException
+	{
+		if (!open)
+		{
+			throw new IOException("cannot force log writing, JDBC journal is not open");
+		}
+
+		forceRequestCount.increment();
+		flush(queuedSequence);
+	}
+
+	/**
+	 * Make sure all the records up to the specified sequence number are committed, writing the pending records in a
+	 * new batch if they are not.
+	 *
+	 * @param sequence
+	 * 		the sequence number to wait for.
+	 *
+	 * @throws java.io.IOException
+	 * 		in case of database failure.
+	 */
+	private void flush(long sequence) throws IOException
+	{
+		if (committedSequence >= sequence)
+		{
+			return;
+		}
+
+		flushLock.lock();
+		try
+		{
+			if (committedSequence >= sequence)
+			{
+				return;
+			}
+
+			List<TransactionLogRecord> batch;
+			long last;
+			synchronized (pendingLock)
+			{
+				batch = pending;
+				pending = new ArrayList<>();
+				last = queuedSequence;
+			}
+
+			try
+			{
+				writeBatch(batch);
+			}
+			catch (IOException | RuntimeException ex)
+			{
+				// put the records back in front of the ones queued meanwhile so that the next flush retries them
+				synchronized (pendingLock)
+				{
+					batch.addAll(pending);
+					pending = batch;
+				}
+				throw ex;
+			}
+			committedSequence = last;
+		}
+		finally
+		{
+			flushLock.unlock();
+		}
+	}
+
+	/**
+	 * Write a batch of records in a single database transaction. Must be called with flushLock held.
+	 *
+	 * @param batch
+	 * 		the records to write, in logging order.
+	 *
+	 * @throws java.io.IOException
+	 * 		in case of database failure.
+	 */
+	private void writeBatch(List<TransactionLogRecord> batch) throws IOException
+	{
+		if (batch.isEmpty())
+		{
+			return;
+		}
+
+		try
+		{
+			Connection c = getConnection();
+			if (danglingIndexStale)
+			{
+				loadDanglingRecords(c);
+				danglingIndexStale = false;
+			}
+
+			// the index is updated as the batch is planned, it is reloaded if the batch does not make it to the database
+			danglingIndexStale = true;
+			Map<Uid, List<PendingRow>> inserts = new LinkedHashMap<>();
+			Map<Uid, Long> deletes = new LinkedHashMap<>();
+			planBatch(batch, inserts, deletes);
+
+			long start = System.nanoTime();
+			int rows = executeBatch(c, inserts, deletes);
+			writeLatency.recordSince(start);
+
+			start = System.nanoTime();
+			c.commit();
+			forceLatency.recordSince(start);
+			danglingIndexStale = false;
+
+			batchCount.incrementAndGet();
+			batchedRecordCount.add(batch.size());
+			maxBatchSize.accumulateAndGet(batch.size(), Math::max);
+			insertedRowCount.add(rows);
+			purgedTransactionCount.add(deletes.size());
+			if (debugCheck.isDebugEnabled())
+			{
+				log.finer("committed batch of " + batch.size() + " record(s) with " + rows + " inserted row(s) and " + deletes.size() + " purged transaction(s)");
+			}
+		}
+		catch (SQLException ex)
+		{
+			closeConnection(true);
+			throw new IOException("cannot write batch of " + batch.size() + " record(s) to JDBC journal table " + configuration.getJdbcJournalTableName(), ex);
+		}
+	}
+
+	/**
+	 * Decide which records of a batch have to be inserted and which transactions have to be purged, updating the
+	 * dangling index accordingly. Must be called with flushLock held.
+	 *
+	 * @param batch
+	 * 		the records to write, in logging order.
+	 * @param inserts
+	 * 		the rows to insert by GTRID, filled by this method.
+	 * @param deletes
+	 * 		the highest record ID to delete by GTRID, filled by this method.
+	 */
+	private void planBatch(List<TransactionLogRecord> batch, Map<Uid, List<PendingRow>> inserts, Map<Uid, Long> deletes)
+	{
+		// GTRIDs which had no row in the table before this batch
+		Set<Uid> fresh = new HashSet<>();
+		for (TransactionLogRecord tlog : batch)
+		{
+			Uid gtrid = tlog.getGtrid();
+			long recordId = ++lastRecordId;
+			int status = tlog.getStatus();
+
+			if (status == Status.STATUS_COMMITTING)
+			{
+				if (!danglingIndex.contains(gtrid))
+				{
+					fresh.add(gtrid);
+				}
+				danglingIndex.put(gtrid, tlog.getUniqueNames());
+				inserts.computeIfAbsent(gtrid, uid -> new ArrayList<>())
+				       .add(new PendingRow(recordId, tlog));
+			}
+			else if (!danglingIndex.contains(gtrid))
+			{
+				// nothing to recover from a transaction which is not in doubt
+				skippedRecordCount.increment();
+			}
+			else if (status == Status.STATUS_COMMITTED || status == Status.STATUS_UNKNOWN || status == Status.STATUS_ROLLEDBACK)
+			{
+				danglingIndex.remove(gtrid, tlog.getUniqueNames());
+				if (danglingIndex.contains(gtrid))
+				{
+					inserts.computeIfAbsent(gtrid, uid -> new ArrayList<>())
+					       .add(new PendingRow(recordId, tlog));
+				}
+				else
+				{
+					// resolved: its rows of this batch are dropped and the ones already in the table purged
+					skippedRecordCount.increment();
+					List<PendingRow> dropped = inserts.remove(gtrid);
+					if (dropped != null)
+					{
+						skippedRecordCount.add(dropped.size());
+					}
+					if (!fresh.remove(gtrid))
+					{
+						deletes.put(gtrid, recordId);
+					}
+				}
+			}
+			else
+			{
+				inserts.computeIfAbsent(gtrid, uid -> new ArrayList<>())
+				       .add(new PendingRow(recordId, tlog));
+			}
+		}
+	}
+
+	/**
+	 * Execute the deletes then the inserts of a batch, each with a single JDBC batch.
+	 *
+	 * @param c
+	 * 		the connection to use.
+	 * @param inserts
+	 * 		the rows to insert by GTRID.
+	 * @param deletes
+	 * 		the highest record ID to delete by GTRID.
+	 *
+	 * @return the number of inserted rows.
+	 *
+	 * @throws SQLException
+	 * 		in case of database failure.
+	 */
+	private int executeBatch(Connection c, Map<Uid, List<PendingRow>> inserts, Map<Uid, Long> deletes) throws SQLException
+	{
+		if (!deletes.isEmpty())
+		{
+			try (PreparedStatement ps = c.prepareStatement(deleteSql))
+			{
+				for (Map.Entry<Uid, Long> entry : deletes.entrySet())
+				{
+					ps.setString(1, serverId);
+					ps.setString(2, entry.getKey()
+					                     .toString());
+					ps.setLong(3, entry.getValue());
+					ps.addBatch();
+				}
+				ps.executeBatch();
+			}
+		}
+
+		int rows = 0;
+		if (!inserts.isEmpty())
+		{
+			try (PreparedStatement ps = c.prepareStatement(insertSql))
+			{
+				for (List<PendingRow> pendingRows : inserts.values())
+				{
+					for (PendingRow row : pendingRows)
+					{
+						rows += addRows(ps, row);
+					}
+				}
+				ps.executeBatch();
+			}
+		}
+		return rows;
+	}
+
+	/**
+	 * Add the rows of a record to the insert batch, one per unique name.
+	 *
+	 * @param ps
+	 * 		the insert statement.
+	 * @param row
+	 * 		the record to insert.
+	 *
+	 * @return the number of added rows.
+	 *
+	 * @throws SQLException
+	 * 		in case of database failure.
+	 */
+	private int addRows(PreparedStatement ps, PendingRow row) throws SQLException
+	{
+		TransactionLogRecord tlog = row.tlog;
+		Iterator<String> uniqueNames = tlog.getUniqueNames()
+		                                   .iterator();
+		int nameIndex = 0;
+		do
+		{
+			// a record without unique name still gets a row, with a null unique name
+			ps.setString(1, serverId);
+			ps.setLong(2, row.recordId);
+			ps.setInt(3, nameIndex++);
+			ps.setInt(4, tlog.getStatus());
+			ps.setString(5, tlog.getGtrid()
+			                    .toString());
+			if (uniqueNames.hasNext())
+			{
+				ps.setString(6, uniqueNames.next());
+			}
+			else
+			{
+				ps.setNull(6, Types.VARCHAR);
+			}
+			ps.setLong(7, tlog.getTime());
+			ps.setInt(8, tlog.getSequenceNumber());
+			ps.addBatch();
+		}
+		while (uniqueNames.hasNext());
+		return nameIndex;
+	}
+
+	/**
+	 * Get the connection of the journal, opening a new one if needed. Must be called with flushLock held.
+	 *
+	 * @return the connection, with auto-commit disabled.
+	 *
+	 * @throws SQLException
+	 * 		in case of database failure.
+	 */
+	private Connection getConnection() throws SQLException
+	{
+		if (connection == null)
+		{
+			Connection c = dataSource.getConnection();
+			try
+			{
+				c.setAutoCommit(false);
+			}
+			catch (SQLException ex)
+			{
+				c.close();
+				throw ex;
+			}
+			connection = c;
+		}
+		return connection;
+	}
+
+	/**
+	 * Close the connection of the journal, logging failures. The next batch will open a new one. Must be called with
+	 * flushLock held.
+	 *
+	 * @param rollback
+	 * 		true to roll back the current database transaction first.
+	 */
+	private void closeConnection(boolean rollback)
+	{
+		Connection c = connection;
+		if (c == null)
+		{
+			return;
+		}
+		connection = null;
+		try
+		{
+			if (rollback)
+			{
+				c.rollback();
+			}
+		}
+		catch (SQLException ex)
+		{
+			log.log(Level.FINE, "cannot roll back JDBC journal transaction", ex);
+		}
+		try
+		{
+			c.close();
+		}
+		catch (SQLException ex)
+		{
+			log.log(Level.WARNING, "cannot close JDBC journal connection", ex);
+		}
+	}
+
+	/**
+	 * Open the JDBC journal: look up the DataSource if needed, create the table if it does not exist yet and load the
+	 * dangling transactions of this server.
+	 *
+	 * @throws java.io.IOException
+	 * 		in case of database failure or if the DataSource cannot be found.
+	 */
+	@Override
+	public synchronized void open() throws IOException
+	{
+		if (open)
+		{
+			log.warning("JDBC journal already open");
+			return;
+		}
+
+		String tableName = configuration.getJdbcJournalTableName();
+		if (tableName == null || !TABLE_NAME.matcher(tableName)
+		                                    .matches())
+		{
+			throw new IOException("invalid JDBC journal table name '" + tableName + "'");
+		}
+		if (dataSource == null)
+		{
+			dataSource = lookupDataSource();
+		}
+
+		flushLock.lock();
+		try
+		{
+			serverId = new String(configuration.buildServerIdArray(), StandardCharsets.US_ASCII);
+			prepareSql(tableName);
+			Connection c = getConnection();
+			createTableIfMissing(c, tableName);
+			try (PreparedStatement ps = c.prepareStatement("SELECT MAX(RECORD_ID) FROM " + tableName + " WHERE SERVER_ID = ?"))
+			{
+				ps.setString(1, serverId);
+				try (ResultSet rs = ps.executeQuery())
+				{
+					lastRecordId = rs.next() ? rs.getLong(1) : 0L;
+				}
+			}
+			Map<Uid, JournalRecord> danglingRecords = loadDanglingRecords(c);
+			c.commit();
+			danglingIndexStale = false;
+			if (debugCheck.isDebugEnabled())
+			{
+				log.finer("JDBC journal opened on table " + tableName + " with " + danglingRecords.size() + " dangling record(s), last record ID is " + lastRecordId);
+			}
+		}
+		catch (SQLException ex)
+		{
+			closeConnection(true);
+			throw new IOException("cannot open JDBC journal on table " + tableName, ex);
+		}
+		finally
+		{
+			flushLock.unlock();
+		}
+
+		synchronized (pendingLock)
+		{
+			pending = new ArrayList<>();
+			queuedSequence = 0L;
+		}
+		committedSequence = 0L;
+		open = true;
+
+		ManagementRegistrar.register(JMX_NAME, this);
+		ManagementRegistrar.register(JMX_NAME + ",Latency=Write", writeLatency);
+		ManagementRegistrar.register(JMX_NAME + ",Latency=Force", forceLatency);
+	}
+
+	/**
+	 * Look up the DataSource configured with <code>bitronix.tm.journal.jdbc.dataSourceJndiName</code>.
+	 *
+	 * @return the DataSource.
+	 *
+	 * @throws java.io.IOException
+	 * 		if no name is configured or the lookup fails.
+	 */
+	private DataSource lookupDataSource() throws IOException
+	{
+		String jndiName = configuration.getJdbcJournalDataSourceJndiName();
+		if (jndiName == null)
+		{
+			throw new IOException("no DataSource configured for the JDBC journal, set bitronix.tm.journal.jdbc.dataSourceJndiName");
+		}
+
+		try
+		{
+			InitialContext ctx = new InitialContext();
+			try
+			{
+				return (DataSource) ctx.lookup(jndiName);
+			}
+			finally
+			{
+				ctx.close();
+			}
+		}
+		catch (NamingException | ClassCastException ex)
+		{
+			throw new IOException("cannot look up JDBC journal DataSource '" + jndiName + "'", ex);
+		}
+	}
+
+	/**
+	 * Build the SQL statements of the journal.
+	 *
+	 * @param tableName
+	 * 		the journal table name.
+	 */
+	private void prepareSql(String tableName)
+	{
+		insertSql = "INSERT INTO " + tableName + " (SERVER_ID, RECORD_ID, NAME_INDEX, STATUS, GTRID, UNIQUE_NAME, RECORD_TIME, SEQUENCE_NUMBER) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+		deleteSql = "DELETE FROM " + tableName + " WHERE SERVER_ID = ? AND GTRID = ? AND RECORD_ID <= ?";
+		// the unique names of the last COMMITTING record of each GTRID which have not been resolved since
+		danglingSql = "SELECT c.GTRID, c.UNIQUE_NAME, c.RECORD_TIME, c.SEQUENCE_NUMBER FROM " + tableName + " c WHERE c.SERVER_ID = ? AND c.STATUS = "
+		              + Status.STATUS_COMMITTING + " AND NOT EXISTS (SELECT 1 FROM " + tableName + " d WHERE d.SERVER_ID = c.SERVER_ID AND d.GTRID = c.GTRID"
+		              + " AND d.RECORD_ID > c.RECORD_ID AND (d.STATUS = " + Status.STATUS_COMMITTING + " OR (d.STATUS IN (" + Status.STATUS_COMMITTED + ", "
+		              + Status.STATUS_UNKNOWN + ", " + Status.STATUS_ROLLEDBACK + ") AND d.UNIQUE_NAME = c.UNIQUE_NAME))) ORDER BY c.RECORD_ID, c.NAME_INDEX";
+		readSql = "SELECT RECORD_ID, STATUS, GTRID, UNIQUE_NAME, RECORD_TIME, SEQUENCE_NUMBER FROM " + tableName + " WHERE SERVER_ID = ? ORDER BY RECORD_ID, NAME_INDEX";
+	}
+
+	/**
+	 * Create the journal table and its GTRID index if the table does not exist yet.
+	 *
+	 * @param c
+	 * 		the connection to use.
+	 * @param tableName
+	 * 		the journal table name, optionally qualified by a schema.
+	 *
+	 * @throws SQLException
+	 * 		in case of database failure.
+	 */
+	private static void createTableIfMissing(Connection c, String tableName) throws SQLException
+	{
+		int dot = tableName.indexOf('.');
+		String schema = dot < 0 ? null : tableName.substring(0, dot);
+		String table = tableName.substring(dot + 1);
+
+		// unquoted identifiers may be stored in upper or lower case depending on the database
+		DatabaseMetaData metaData = c.getMetaData();
+		String upperSchema = schema == null ? null : schema.toUpperCase(Locale.ROOT);
+		String lowerSchema = schema == null ? null : schema.toLowerCase(Locale.ROOT);
+		if (tableExists(metaData, schema, table) || tableExists(metaData, upperSchema, table.toUpperCase(Locale.ROOT))
+		    || tableExists(metaData, lowerSchema, table.toLowerCase(Locale.ROOT)))
+		{
+			return;
+		}
+
+		try (Statement statement = c.createStatement())
+		{
+			statement.executeUpdate("CREATE TABLE " + tableName + " (SERVER_ID VARCHAR(" + SERVER_ID_COLUMN_LENGTH + ") NOT NULL, RECORD_ID BIGINT NOT NULL,"
+			                        + " NAME_INDEX INTEGER NOT NULL, STATUS INTEGER NOT NULL, GTRID VARCHAR(" + GTRID_COLUMN_LENGTH + ") NOT NULL, UNIQUE_NAME VARCHAR("
+			                        + UNIQUE_NAME_COLUMN_LENGTH + "), RECORD_TIME BIGINT NOT NULL, SEQUENCE_NUMBER INTEGER NOT NULL, PRIMARY KEY (SERVER_ID, RECORD_ID, NAME_INDEX))");
+			statement.executeUpdate("CREATE INDEX " + table + "_GTRID ON " + tableName + " (SERVER_ID, GTRID, RECORD_ID)");
+		}
+		c.commit();
+		log.info("created JDBC journal table " + tableName);
+	}
+
+	/**
+	 * Check if a table exists.
+	 *
+	 * @param metaData
+	 * 		the database metadata.
+	 * @param schema
+	 * 		the schema of the table, null to search all schemas.
+	 * @param table
+	 * 		the table name.
+	 *
+	 * @return true if the table exists.
+	 *
+	 * @throws SQLException
+	 * 		in case of database failure.
+	 */
+	private static boolean tableExists(DatabaseMetaData metaData, String schema, String table) throws SQLException
+	{
+		try (ResultSet rs = metaData.getTables(null, schema, table, null))
+		{
+			return rs.next();
+		}
+	}
+
+	/**
+	 * Query the dangling records of this server and rebuild the dangling index from them. Must be called with
+	 * flushLock held.
+	 *
+	 * @param c
+	 * 		the connection to use.
+	 *
+	 * @return a Map using Uid objects GTRID as key and {@link TransactionLogRecord} as value.
+	 *
+	 * @throws SQLException
+	 * 		in case of database failure.
+	 */
+	private Map<Uid, JournalRecord> loadDanglingRecords(Connection c) throws SQLException
+	{
+		Map<Uid, Set<String>> uniqueNamesByGtrid = new LinkedHashMap<>();
+		Map<Uid, long[]> timeByGtrid = new HashMap<>();
+		try (PreparedStatement ps = c.prepareStatement(danglingSql))
+		{
+			ps.setString(1, serverId);
+			try (ResultSet rs = ps.executeQuery())
+			{
+				while (rs.next())
+				{
+					Uid gtrid = toUid(rs.getString(1));
+					Set<String> uniqueNames = uniqueNamesByGtrid.computeIfAbsent(gtrid, uid -> new TreeSet<>());
+					String uniqueName = rs.getString(2);
+					if (uniqueName != null)
+					{
+						uniqueNames.add(uniqueName);
+					}
+					timeByGtrid.put(gtrid, new long[]{rs.getLong(3), rs.getInt(4)});
+				}
+			}
+		}
+
+		danglingIndex.clear();
+		Map<Uid, JournalRecord> danglingRecords = new HashMap<>(Math.max(64, uniqueNamesByGtrid.size() * 2));
+		for (Map.Entry<Uid, Set<String>> entry : uniqueNamesByGtrid.entrySet())
+		{
+			Uid gtrid = entry.getKey();
+			long[] time = timeByGtrid.get(gtrid);
+			danglingIndex.put(gtrid, entry.getValue());
+			danglingRecords.put(gtrid, new TransactionLogRecord(Status.STATUS_COMMITTING, time[0], (int) time[1], gtrid, entry.getValue()));
+		}
+		return danglingRecords;
+	}
+
+	/**
+	 * Decode a GTRID stored as a hex string.
+	 *
+	 * @param hex
+	 * 		the hex string, as returned by {@link Uid#toString()}.
+	 *
+	 * @return the GTRID.
+	 */
+	private static Uid toUid(String hex)
+	{
+		byte[] array = new byte[hex.length() / 2];
+		for (int i = 0; i < array.length; i++)
+		{
+			array[i] = (byte) (Character.digit(hex.charAt(2 * i), 16) << 4 | Character.digit(hex.charAt(2 * i + 1), 16));
+		}
+		return Uid.wrap(array);
+	}
+
+	/**
+	 * Commit the pending records, then close the connection of the journal.
+	 *
+	 * @throws java.io.IOException
+	 * 		in case of database failure, the pending records are lost then.
+	 */
+	@Override
+	public synchronized void close() throws IOException
+	{
+		if (!open)
+		{
+			return;
+		}
+
+		open = false;
+		flushLock.lock();
+		try
+		{
+			flush(queuedSequence);
+		}
+		finally
+		{
+			closeConnection(false);
+			danglingIndex.clear();
+			synchronized (pendingLock)
+			{
+				pending = new ArrayList<>();
+			}
+			flushLock.unlock();
+
+			ManagementRegistrar.unregister(JMX_NAME);
+			ManagementRegistrar.unregister(JMX_NAME + ",Latency=Write");
+			ManagementRegistrar.unregister(JMX_NAME + ",Latency=Force");
+		}
+
+		if (debugCheck.isDebugEnabled())
+		{
+			log.finer("JDBC journal closed");
+		}
+	}
+
+	/**
+	 * Commit the pending records, then collect the dangling records with an indexed query.
+	 *
+	 * @return a Map using Uid objects GTRID as key and {@link TransactionLogRecord} as value
+	 *
+	 * @throws java.io.IOException
+	 * 		in case of database failure or if the journal is not open.
+	 */
+	@Override
+	public Map<Uid, JournalRecord> collectDanglingRecords() throws IOException
+	{
+		if (!open)
+		{
+			throw new IOException("cannot collect dangling records, JDBC journal is not open");
+		}
+
+		flushLock.lock();
+		try
+		{
+			flush(queuedSequence);
+			Connection c = getConnection();
+			Map<Uid, JournalRecord> danglingRecords = loadDanglingRecords(c);
+			c.commit();
+			danglingIndexStale = false;
+			return danglingRecords;
+		}
+		catch (SQLException ex)
+		{
+			closeConnection(true);
+			danglingIndexStale = true;
+			throw new IOException("cannot collect dangling records from JDBC journal table " + configuration.getJdbcJournalTableName(), ex);
+		}
+		finally
+		{
+			flushLock.unlock();
+		}
+	}
+
+	/**
+	 * Copy the dangling records to another journal with a {@link JournalMigrator}, in batches and with a single force.
+	 *
+	 * @param other
+	 * 		the journal to migrate all unfinished transactions to.
+	 *
+	 * @throws java.io.IOException
+	 * 		if not all records could be copied to the other journal.
+	 */
+	@Override
+	public void migrateTo(Journal other) throws IOException
+	{
+		if (other == this)
+		{
+			throw new IllegalArgumentException("cannot migrate a journal to itself (this == otherJournal)");
+		}
+		if (other == null)
+		{
+			throw new IllegalArgumentException("the migration target journal cannot be null");
+		}
+
+		new JournalMigrator(this, other, true, configuration.getJournalMigrationBatchSize()).migrate();
+	}
+
+	/**
+	 * Read the records of this server still in the table, oldest first, after committing the pending ones. The records
+	 * of the transactions which are not dangling have been purged or were never inserted.
+	 *
+	 * @param target
+	 * 		the target collection to read the records into.
+	 * @param includeInvalid
+	 * 		ignored, records read from the database are always valid.
+	 *
+	 * @throws java.io.IOException
+	 * 		in case of database failure or if the journal is not open.
+	 */
+	@Override
+	public void unsafeReadRecordsInto(Collection<JournalRecord> target, boolean includeInvalid) throws IOException
+	{
+		if (!open)
+		{
+			throw new IOException("cannot read records, JDBC journal is not open");
+		}
+
+		flushLock.lock();
+		try
+		{
+			flush(queuedSequence);
+			Connection c = getConnection();
+			try (PreparedStatement ps = c.prepareStatement(readSql))
+			{
+				ps.setString(1, serverId);
+				try (ResultSet rs = ps.executeQuery())
+				{
+					readRecords(rs, target);
+				}
+			}
+			c.commit();
+		}
+		catch (SQLException ex)
+		{
+			closeConnection(true);
+			throw new IOException("cannot read records from JDBC journal table " + configuration.getJdbcJournalTableName(), ex);
+		}
+		finally
+		{
+			flushLock.unlock();
+		}
+	}
+
+	/**
+	 * Group the rows of the records, ordered by record ID, into records.
+	 *
+	 * @param rs
+	 * 		the result set of the read query.
+	 * @param target
+	 * 		the target collection to read the records into.
+	 *
+	 * @throws SQLException
+	 * 		in case of database failure.
+	 */
+	private static void readRecords(ResultSet rs, Collection<JournalRecord> target) throws SQLException
+	{
+		long recordId = -1L;
+		int status = 0;
+		Uid gtrid = null;
+		long time = 0L;
+		int sequenceNumber = 0;
+		Set<String> uniqueNames = new TreeSet<>();
+		while (rs.next())
+		{
+			if (rs.getLong(1) != recordId)
+			{
+				if (gtrid != null)
+				{
+					target.add(new TransactionLogRecord(status, time, sequenceNumber, gtrid, uniqueNames));
+				}
+				recordId = rs.getLong(1);
+				status = rs.getInt(2);
+				gtrid = toUid(rs.getString(3));
+				time = rs.getLong(5);
+				sequenceNumber = rs.getInt(6);
+				uniqueNames = new TreeSet<>();
+			}
+			String uniqueName = rs.getString(4);
+			if (uniqueName != null)
+			{
+				uniqueNames.add(uniqueName);
+			}
+		}
+		if (gtrid != null)
+		{
+			target.add(new TransactionLogRecord(status, time, sequenceNumber, gtrid, uniqueNames));
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public int getDanglingRecordCount()
+	{
+		return danglingIndex.size();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public long getDanglingRecordFootprint()
+	{
+		return danglingIndex.getFootprint();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public int getPendingRecordCount()
+	{
+		synchronized (pendingLock)
+		{
+			return pending.size();
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public long getBatchCount()
+	{
+		return batchCount.get();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public long getBatchedRecordCount()
+	{
+		return batchedRecordCount.sum();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public double getAverageBatchSize()
+	{
+		long batches = batchCount.get();
+		return batches == 0L ? 0.0d : (double) batchedRecordCount.sum() / batches;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public long getMaxBatchSize()
+	{
+		return maxBatchSize.get();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public long getForceRequestCount()
+	{
+		return forceRequestCount.sum();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public long getInsertedRowCount()
+	{
+		return insertedRowCount.sum();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public long getSkippedRecordCount()
+	{
+		return skippedRecordCount.sum();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public long getPurgedTransactionCount()
+	{
+		return purgedTransactionCount.sum();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void resetLatencyHistograms()
+	{
+		writeLatency.reset();
+		forceLatency.reset();
+	}
+
+	/**
+	 * Shutdown the service and free all held resources.
+	 */
+	@Override
+	public void shutdown()
+	{
+		try
+		{
+			close();
+		}
+		catch (IOException ex)
+		{
+			log.log(Level.SEVERE, "error shutting down JDBC journal. Transaction log integrity could be compromised!", ex);
+		}
+	}
+
+	/**
+	 * A record waiting to be inserted with the ID it has been assigned.
+	 */
+	private static final class PendingRow
+	{
+		private final long recordId;
+		private final TransactionLogRecord tlog;
+
+		private PendingRow(long recordId, TransactionLogRecord tlog)
+		{
+			this.recordId = recordId;
+			this.tlog = tlog;
+		}
+	}
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright (C) 2006-2013 Bitronix Software (http://www.bitronix.be)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package bitronix.tm.journal;
+
+/**
+ * {@link JdbcJournal} Management interface.
+ */
+public interface JdbcJournalMBean
+{
+
+	/**
+	 * Method getDanglingRecordCount returns the number of transactions whose COMMITTING record has not been resolved
+	 * yet.
+	 *
+	 * @return the danglingRecordCount (type int) of this JdbcJournalMBean object.
+	 */
+	int getDanglingRecordCount();
+
+	/**
+	 * Method getDanglingRecordFootprint returns an estimate in bytes of the memory used to track the dangling
+	 * transactions.
+	 *
+	 * @return the danglingRecordFootprint (type long) of this JdbcJournalMBean object.
+	 */
+	long getDanglingRecordFootprint();
+
+	/**
+	 * Method getPendingRecordCount returns the number of records logged but not inserted yet.
+	 *
+	 * @return the pendingRecordCount (type int) of this JdbcJournalMBean object.
+	 */
+	int getPendingRecordCount();
+
+	/**
+	 * Method getBatchCount returns the number of batches written, each in its own database transaction.
+	 *
+	 * @return the batchCount (type long) of this JdbcJournalMBean object.
+	 */
+	long getBatchCount();
+
+	/**
+	 * Method getBatchedRecordCount returns the number of records written by all batches.
+	 *
+	 * @return the batchedRecordCount (type long) of this JdbcJournalMBean object.
+	 */
+	long getBatchedRecordCount();
+
+	/**
+	 * Method getAverageBatchSize returns the average number of records written by a batch.
+	 *
+	 * @return the averageBatchSize (type double) of this JdbcJournalMBean object.
+	 */
+	double getAverageBatchSize();
+
+	/**
+	 * Method getMaxBatchSize returns the largest number of records written by a single batch.
+	 *
+	 * @return the maxBatchSize (type long) of this JdbcJournalMBean object.
+	 */
+	long getMaxBatchSize();
+
+	/**
+	 * Method getForceRequestCount returns the number of calls to force().
+	 *
+	 * @return the forceRequestCount (type long) of this JdbcJournalMBean object.
+	 */
+	long getForceRequestCount();
+
+	/**
+	 * Method getInsertedRowCount returns the number of rows inserted in the journal table.
+	 *
+	 * @return the insertedRowCount (type long) of this JdbcJournalMBean object.
+	 */
+	long getInsertedRowCount();
+
+	/**
+	 * Method getSkippedRecordCount returns the number of records which were not inserted because their transaction was
+	 * not dangling or was resolved in the same batch.
+	 *
+	 * @return the skippedRecordCount (type long) of this JdbcJournalMBean object.
+	 */
+	long getSkippedRecordCount();
+
+	/**
+	 * Method getPurgedTransactionCount returns the number of resolved transactions whose rows have been deleted from the
+	 * journal table.
+	 *
+	 * @return the purgedTransactionCount (type long) of this JdbcJournalMBean object.
+	 */
+	long getPurgedTransactionCount();
+
+	/**
+	 * Forget the latencies recorded so far by the write and commit latency histograms of this journal.
+	 */
+	void resetLatencyHistograms();
+}
@@ -19,6 +19,7 @@ import bitronix.tm.utils.Service;
 import bitronix.tm.utils.Uid;
 
 import java.io.IOException;
+import java.util.Collection;
 import java.util.Map;
 import java.util.Set;
 
@@ -48,6 +49,24 @@ public interface Journal
 	 */
 	void log(int status, Uid gtrid, Set<String> uniqueNames) throws IOException;
 
+	/**
+	 * Log several transaction statuses to journal, in order. Journals able to write them with fewer I/Os than one
+	 * {@link #log(int, Uid, Set)} call each override this method.
+	 *
+	 * @param records
+	 * 		the records to log, only their status, GTRID and unique names are used.
+	 *
+	 * @throws IOException
+	 * 		if an I/O error occurs.
+	 */
+	default void logAll(Collection<? extends JournalRecord> records) throws IOException
+	{
+		for (JournalRecord record : records)
+		{
+			log(record.getStatus(), record.getGtrid(), record.getUniqueNames());
+		}
+	}
+
 	/**
 	 * Open the journal. Integrity should be checked and an exception should be thrown in case the journal is corrupt.
 	 *
@@ -0,0 +1,395 @@
+/*
+ * Copyright (C) 2006-2013 Bitronix Software (http://www.bitronix.be)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package bitronix.tm.journal;
+
+import bitronix.tm.utils.Uid;
+
+import java.io.IOException;
+import java.util.AbstractCollection;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bulk copy of the records of a journal into another one.
+ * <p>A reader thread streams the records of the source journal into a bounded queue while the calling thread drains
+ * them and writes them to the target journal in batches with {@link Journal#logAll(java.util.Collection)}, so the whole
+ * log never has to fit in memory and the target is forced a single time, once all records have been written.</p>
+ * <p>In dangling-only mode, only the COMMITTING records of the unresolved transactions are copied, as
+ * {@link MigratableJournal#migrateTo(Journal)} does. Otherwise all the records the source holds are copied in order,
+ * which requires a {@link ReadableJournal} source: outcome batches are copied as their individual outcomes,
+ * checkpoints are left out since the target writes its own and so are padding records.</p>
+ * <p>Neither journal is opened nor closed by the migrator. Nothing else should log to the source while it is being
+ * read.</p>
+ */
+public final class JournalMigrator
+{
+
+	private static final java.util.logging.Logger log = java.util.logging.Logger.getLogger(JournalMigrator.class.toString());
+	private static final long PROGRESS_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(5);
+	private static final long OFFER_TIMEOUT_MILLIS = 100L;
+	/**
+	 * Marks the end of the stream of records in the queue.
+	 */
+	private static final JournalRecord END = new TransactionLogRecord(0, new Uid(new byte[0]), Collections.emptySet());
+
+	private final Journal source;
+	private final Journal target;
+	private final boolean danglingOnly;
+	private final int batchSize;
+	private final BlockingQueue<JournalRecord> queue;
+	private volatile boolean aborted;
+	private volatile Throwable readFailure;
+	private long recordCount;
+	private long batchCount;
+	private long durationNanos;
+
+	/**
+	 * Create a migrator copying the records of a journal into another one.
+	 *
+	 * @param source
+	 * 		the open journal to copy the records of.
+	 * @param target
+	 * 		the open journal to copy the records to.
+	 * @param danglingOnly
+	 * 		true to only copy the COMMITTING records of the unresolved transactions.
+	 * @param batchSize
+	 * 		the maximum number of records written to the target at once.
+	 */
+	public JournalMigrator(Journal source, Journal target, boolean danglingOnly, int batchSize)
+	{
+		if (source == target)
+		{
+			throw new IllegalArgumentException("cannot migrate a journal to itself (this == otherJournal)");
+		}
+		if (source == null || target == null)
+		{
+			throw new IllegalArgumentException("the migration source and target journals cannot be null");
+		}
+		if (!danglingOnly && !(source instanceof ReadableJournal))
+		{
+			throw new IllegalArgumentException("cannot read all the records of " + source + ", it is not a ReadableJournal");
+		}
+		this.source = source;
+		this.target = target;
+		this.danglingOnly = danglingOnly;
+		this.batchSize = Math.max(1, batchSize);
+		this.queue = new ArrayBlockingQueue<>(this.batchSize * 4);
+	}
+
+	/**
+	 * Copy the records, then force the target journal. A migrator can only be run once.
+	 *
+	 * @throws java.io.IOException
+	 * 		if the source cannot be read or the target cannot be written. Part of the records may have been copied.
+	 */
+	public void migrate() throws IOException
+	{
+		long start = System.nanoTime();
+		Thread reader = new Thread(this::read, "bitronix-journal-migration-reader");
+		reader.setDaemon(true);
+		reader.start();
+
+		try
+		{
+			writeAll(start);
+			target.force();
+		}
+		finally
+		{
+			// stops the reader if the writing failed
+			aborted = true;
+			queue.clear();
+			joinUninterruptibly(reader);
+		}
+
+		durationNanos = System.nanoTime() - start;
+		String sourceName = source.getClass()
+		                          .getSimpleName();
+		String targetName = target.getClass()
+		                          .getSimpleName();
+		log.info("migrated " + recordCount + (danglingOnly ? " dangling" : "") + " record(s) from " + sourceName + " to " + targetName + " in " + getDurationMillis() + "ms with "
+		         + batchCount + " batch(es), " + Math.round(getRecordsPerSecond()) + " records/s");
+	}
+
+	/**
+	 * Drain the queue and write the records to the target in batches until the end of the stream.
+	 *
+	 * @param start
+	 * 		the {@link System#nanoTime()} at which the migration started.
+	 *
+	 * @throws java.io.IOException
+	 * 		if the source cannot be read or the target cannot be written.
+	 */
+	private void writeAll(long start) throws IOException
+	{
+		List<JournalRecord> batch = new ArrayList<>(batchSize);
+		long nextProgress = start + PROGRESS_INTERVAL_NANOS;
+		while (true)
+		{
+			JournalRecord first = take();
+			boolean end = first == END;
+			if (!end)
+			{
+				batch.add(first);
+				queue.drainTo(batch, batchSize - 1);
+				if (batch.get(batch.size() - 1) == END)
+				{
+					batch.remove(batch.size() - 1);
+					end = true;
+				}
+			}
+
+			if (!batch.isEmpty())
+			{
+				target.logAll(batch);
+				recordCount += batch.size();
+				batchCount++;
+				batch.clear();
+			}
+			if (end)
+			{
+				break;
+			}
+
+			long now = System.nanoTime();
+			if (now >= nextProgress)
+			{
+				nextProgress = now + PROGRESS_INTERVAL_NANOS;
+				log.info("migrated " + recordCount + " record(s) so far, " + Math.round(recordCount / ((now - start) / 1_000_000_000.0)) + " records/s");
+			}
+		}
+
+		Throwable failure = readFailure;
+		if (failure != null)
+		{
+			throw new IOException("cannot read the records of " + source, failure);
+		}
+	}
+
+	/**
+	 * Take the next record of the stream.
+	 *
+	 * @return the record, or {@link #END}.
+	 *
+	 * @throws java.io.IOException
+	 * 		if the calling thread is interrupted.
+	 */
+	private JournalRecord take() throws IOException
+	{
+		try
+		{
+			return queue.take();
+		}
+		catch (InterruptedException ex)
+		{
+			Thread.currentThread()
+			      .interrupt();
+			throw new IOException("interrupted while migrating journal records", ex);
+		}
+	}
+
+	/**
+	 * Stream the records of the source into the queue, then the end marker. Runs in the reader thread.
+	 */
+	private void read()
+	{
+		try
+		{
+			RecordStream stream = new RecordStream();
+			if (danglingOnly)
+			{
+				stream.addAll(source.collectDanglingRecords()
+				                    .values());
+			}
+			else
+			{
+				((ReadableJournal) source).unsafeReadRecordsInto(stream, false);
+			}
+		}
+		catch (CancellationException ex)
+		{
+			// the writer gave up
+		}
+		catch (Throwable ex)
+		{
+			readFailure = ex;
+		}
+		finally
+		{
+			put(END);
+		}
+	}
+
+	/**
+	 * Put a record in the queue, waiting for room unless the migration has been aborted.
+	 *
+	 * @param record
+	 * 		the record.
+	 *
+	 * @return false if the migration has been aborted.
+	 */
+	private boolean put(JournalRecord record)
+	{
+		try
+		{
+			while (!aborted)
+			{
+				if (queue.offer(record, OFFER_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS))
+				{
+					return true;
+				}
+			}
+		}
+		catch (InterruptedException ex)
+		{
+			Thread.currentThread()
+			      .interrupt();
+		}
+		return false;
+	}
+
+	/**
+	 * Wait for a thread to die, even if the calling thread gets interrupted.
+	 *
+	 * @param thread
+	 * 		the thread to wait for.
+	 */
+	private static void joinUninterruptibly(Thread thread)
+	{
+		boolean interrupted = false;
+		while (thread.isAlive())
+		{
+			try
+			{
+				thread.join();
+			}
+			catch (InterruptedException ex)
+			{
+				interrupted = true;
+			}
+		}
+		if (interrupted)
+		{
+			Thread.currentThread()
+			      .interrupt();
+		}
+	}
+
+	/**
+	 * Get the number of records written to the target journal.
+	 *
+	 * @return the number of migrated records.
+	 */
+	public long getRecordCount()
+	{
+		return recordCount;
+	}
+
+	/**
+	 * Get the number of batches written to the target journal.
+	 *
+	 * @return the number of batches.
+	 */
+	public long getBatchCount()
+	{
+		return batchCount;
+	}
+
+	/**
+	 * Get the duration of the migration, including the final force.
+	 *
+	 * @return the duration in milliseconds.
+	 */
+	public long getDurationMillis()
+	{
+		return TimeUnit.NANOSECONDS.toMillis(durationNanos);
+	}
+
+	/**
+	 * Get the migration throughput.
+	 *
+	 * @return the number of records migrated per second, 0 if the migration did not complete.
+	 */
+	public double getRecordsPerSecond()
+	{
+		return durationNanos == 0L ? 0.0d : recordCount / (durationNanos / 1_000_000_000.0d);
+	}
+
+	/**
+	 * Create human-readable String representation.
+	 *
+	 * @return a human-readable String representing this object's state.
+	 */
+	@Override
+	public String toString()
+	{
+		return "a JournalMigrator from " + source + " to " + target + (danglingOnly ? " of the dangling records" : " of all records") + ", batches of " + batchSize;
+	}
+
+	/**
+	 * The collection the source journal reads its records into: each record is put in the queue as soon as it is added,
+	 * outcome batches are split, checkpoints and padding left out.
+	 */
+	private final class RecordStream
+			extends AbstractCollection<JournalRecord>
+	{
+
+		@Override
+		public boolean add(JournalRecord record)
+		{
+			if (record instanceof TransactionLogRecord)
+			{
+				TransactionLogRecord tlog = (TransactionLogRecord) record;
+				if (tlog.getOutcomes() != null)
+				{
+					for (TransactionLogRecord outcome : tlog.getOutcomes())
+					{
+						add(outcome);
+					}
+					return true;
+				}
+				int status = tlog.getStatus();
+				if (status == TransactionLogRecord.STATUS_CHECKPOINT_ENTRY || status == TransactionLogRecord.STATUS_CHECKPOINT_END || status == TransactionLogRecord.STATUS_PADDING)
+				{
+					return false;
+				}
+			}
+			if (!put(record))
+			{
+				throw new CancellationException("journal migration aborted");
+			}
+			return true;
+		}
+
+		@Override
+		public Iterator<JournalRecord> iterator()
+		{
+			return Collections.emptyIterator();
+		}
+
+		@Override
+		public int size()
+		{
+			return 0;
+		}
+	}
+}
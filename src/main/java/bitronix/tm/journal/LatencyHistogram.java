@@ -0,0 +1,235 @@
+/*
+ * Copyright (C) 2006-2013 Bitronix Software (http://www.bitronix.be)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package bitronix.tm.journal;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free histogram of latencies in nanoseconds.
+ * <p>Latencies are counted in log-linear buckets: 8 buckets per power of two, so a percentile is reported with at most
+ * 12.5% of error. The buckets are a fixed array of atomic counters, recording a latency never allocates nor blocks.</p>
+ * <p>A reset is not atomic: latencies recorded while it runs may be partially kept.</p>
+ */
+public final class LatencyHistogram
+		implements LatencyHistogramMBean
+{
+
+	private static final int SUB_BUCKET_BITS = 3;
+	private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+	private static final int BUCKET_COUNT = (63 - SUB_BUCKET_BITS + 1) * SUB_BUCKETS;
+
+	private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_COUNT);
+	private final LongAdder count = new LongAdder();
+	private final LongAdder totalNanos = new LongAdder();
+	private final AtomicLong maxNanos = new AtomicLong();
+
+	/**
+	 * Record a latency.
+	 *
+	 * @param nanos
+	 * 		the latency in nanoseconds, negative values are recorded as 0.
+	 */
+	void record(long nanos)
+	{
+		long latency = Math.max(0L, nanos);
+		buckets.incrementAndGet(bucketOf(latency));
+		count.increment();
+		totalNanos.add(latency);
+		if (latency > maxNanos.get())
+		{
+			maxNanos.accumulateAndGet(latency, Math::max);
+		}
+	}
+
+	/**
+	 * Record the latency of an operation that started at the specified time.
+	 *
+	 * @param startNanos
+	 * 		the {@link System#nanoTime()} at which the operation started.
+	 */
+	void recordSince(long startNanos)
+	{
+		record(System.nanoTime() - startNanos);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public long getCount()
+	{
+		return count.sum();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public double getMeanMicros()
+	{
+		long recorded = count.sum();
+		return recorded == 0L ? 0.0 : totalNanos.sum() / (recorded * 1000.0);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public double getMaxMicros()
+	{
+		return maxNanos.get() / 1000.0;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public double getMedianMicros()
+	{
+		return getPercentileMicros(50.0);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public double getPercentile90Micros()
+	{
+		return getPercentileMicros(90.0);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public double getPercentile99Micros()
+	{
+		return getPercentileMicros(99.0);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public double getPercentile999Micros()
+	{
+		return getPercentileMicros(99.9);
+	}
+
+	/**
+	 * Get a percentile of the recorded latencies, as the highest latency of the bucket it falls in bounded by the
+	 * highest recorded latency.
+	 *
+	 * @param percentile
+	 * 		the percentile, between 0 and 100.
+	 *
+	 * @return the percentile in microseconds, 0 if nothing has been recorded.
+	 */
+	double getPercentileMicros(double percentile)
+	{
+		long[] snapshot = new long[BUCKET_COUNT];
+		long total = 0L;
+		for (int i = 0; i < BUCKET_COUNT; i++)
+		{
+			snapshot[i] = buckets.get(i);
+			total += snapshot[i];
+		}
+		if (total == 0L)
+		{
+			return 0.0;
+		}
+
+		long rank = Math.max(1L, (long) Math.ceil(total * percentile / 100.0));
+		long seen = 0L;
+		for (int i = 0; i < BUCKET_COUNT; i++)
+		{
+			seen += snapshot[i];
+			if (seen >= rank)
+			{
+				return Math.min(highestValueOf(i), maxNanos.get()) / 1000.0;
+			}
+		}
+		return maxNanos.get() / 1000.0;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void reset()
+	{
+		for (int i = 0; i < BUCKET_COUNT; i++)
+		{
+			buckets.set(i, 0L);
+		}
+		count.reset();
+		totalNanos.reset();
+		maxNanos.set(0L);
+	}
+
+	/**
+	 * Get the bucket of a latency: the values below {@link #SUB_BUCKETS} have their own bucket, the others are bucketed
+	 * by their highest bit and the {@link #SUB_BUCKET_BITS} bits following it.
+	 *
+	 * @param nanos
+	 * 		the non-negative latency.
+	 *
+	 * @return the bucket index.
+	 */
+	private static int bucketOf(long nanos)
+	{
+		if (nanos < SUB_BUCKETS)
+		{
+			return (int) nanos;
+		}
+		int exponent = 63 - Long.numberOfLeadingZeros(nanos);
+		int subBucket = (int) (nanos >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+		return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+	}
+
+	/**
+	 * Get the highest latency counted in a bucket.
+	 *
+	 * @param bucket
+	 * 		the bucket index.
+	 *
+	 * @return the highest latency of the bucket.
+	 */
+	private static long highestValueOf(int bucket)
+	{
+		if (bucket < SUB_BUCKETS)
+		{
+			return bucket;
+		}
+		int shift = bucket / SUB_BUCKETS - 1;
+		long lowest = (long) (SUB_BUCKETS + bucket % SUB_BUCKETS) << shift;
+		return lowest + (1L << shift) - 1;
+	}
+
+	/**
+	 * Create human-readable String representation.
+	 *
+	 * @return a human-readable String representing this object's state.
+	 */
+	@Override
+	public String toString()
+	{
+		return "a LatencyHistogram with count=" + getCount() + ", mean=" + getMeanMicros() + "us, p50=" + getMedianMicros() + "us, p99=" + getPercentile99Micros()
+		       + "us, p99.9=" + getPercentile999Micros() + "us, max=" + getMaxMicros() + "us";
+	}
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright (C) 2006-2013 Bitronix Software (http://www.bitronix.be)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package bitronix.tm.journal;
+
+/**
+ * {@link LatencyHistogram} Management interface.
+ */
+public interface LatencyHistogramMBean
+{
+
+	/**
+	 * Method getCount returns the number of latencies recorded since the last reset.
+	 *
+	 * @return the count (type long) of this LatencyHistogramMBean object.
+	 */
+	long getCount();
+
+	/**
+	 * Method getMeanMicros returns the mean latency in microseconds.
+	 *
+	 * @return the meanMicros (type double) of this LatencyHistogramMBean object.
+	 */
+	double getMeanMicros();
+
+	/**
+	 * Method getMaxMicros returns the highest latency in microseconds.
+	 *
+	 * @return the maxMicros (type double) of this LatencyHistogramMBean object.
+	 */
+	double getMaxMicros();
+
+	/**
+	 * Method getMedianMicros returns the median latency in microseconds.
+	 *
+	 * @return the medianMicros (type double) of this LatencyHistogramMBean object.
+	 */
+	double getMedianMicros();
+
+	/**
+	 * Method getPercentile90Micros returns the 90th percentile latency in microseconds.
+	 *
+	 * @return the percentile90Micros (type double) of this LatencyHistogramMBean object.
+	 */
+	double getPercentile90Micros();
+
+	/**
+	 * Method getPercentile99Micros returns the 99th percentile latency in microseconds.
+	 *
+	 * @return the percentile99Micros (type double) of this LatencyHistogramMBean object.
+	 */
+	double getPercentile99Micros();
+
+	/**
+	 * Method getPercentile999Micros returns the 99.9th percentile latency in microseconds.
+	 *
+	 * @return the percentile999Micros (type double) of this LatencyHistogramMBean object.
+	 */
+	double getPercentile999Micros();
+
+	/**
+	 * Forget all the latencies recorded so far.
+	 */
+	void reset();
+}
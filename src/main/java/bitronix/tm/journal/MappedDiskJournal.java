@@ -0,0 +1,52 @@
+/*
+ * Copyright (C) 2006-2013 Bitronix Software (http://www.bitronix.be)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package bitronix.tm.journal;
+
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * {@link DiskJournal} writing to memory-mapped journal files.
+ * <p>The pre-allocated fragment files are mapped in memory as a whole, records are appended with plain memory stores
+ * and forces only flush the range written since the previous force. Dangling records are collected by reading the
+ * mapping sequentially, without copying the file content.</p>
+ * <p>The fragment files have the exact same format as the ones written by {@link DiskJournal} so both implementations
+ * can be swapped freely. The fragment size, set with <code>bitronix.tm.journal.disk.maxLogSize</code>, must stay
+ * below 2GB.</p>
+ *
+ * @see MappedTransactionLogAppender
+ */
+public class MappedDiskJournal
+		extends DiskJournal
+{
+
+	/**
+	 * Create an uninitialized memory-mapped disk journal. You must call open() prior you can use it.
+	 */
+	public MappedDiskJournal()
+	{
+		super();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	protected TransactionLogAppender createTransactionLogAppender(File file, long maxFileLength) throws IOException
+	{
+		return new MappedTransactionLogAppender(file, maxFileLength);
+	}
+}
@@ -0,0 +1,141 @@
+/*
+ * Copyright (C) 2006-2013 Bitronix Software (http://www.bitronix.be)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package bitronix.tm.journal;
+
+import bitronix.tm.internal.LogDebugCheck;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+
+/**
+ * Used to write {@link TransactionLogRecord} objects to a memory-mapped log file.
+ * <p>The whole pre-allocated log file is mapped: records are appended with plain memory stores and a force only
+ * flushes the range written since the previous force, plus the header. Cursors read the records straight from the
+ * mapping.</p>
+ *
+ * @see MappedDiskJournal
+ */
+public class MappedTransactionLogAppender
+		extends TransactionLogAppender
+{
+
+	private static final java.util.logging.Logger log = java.util.logging.Logger.getLogger(MappedTransactionLogAppender.class.toString());
+
+	private static final LogDebugCheck debugCheck = LogDebugCheck.forLogger(log);
+
+	/**
+	 * All bytes before that position are known to be on disk.
+	 */
+	private long forcedPosition;
+
+	/**
+	 * Create an appender that will write to the specified file through a memory mapping covering its whole length.
+	 *
+	 * @param file
+	 * 		the underlying File used to write to disk, it must be pre-allocated to maxFileLength.
+	 * @param maxFileLength
+	 * 		size of the file on disk that can never be bypassed.
+	 *
+	 * @throws IOException
+	 * 		if an I/O error occurs.
+	 */
+	public MappedTransactionLogAppender(File file, long maxFileLength) throws IOException
+	{
+		super(file, maxFileLength, true);
+		this.forcedPosition = TransactionLogHeader.HEADER_LENGTH;
+	}
+
+	/**
+	 * Copy the content of a buffer to the mapping.
+	 *
+	 * @param buf
+	 * 		the buffer holding the serialized record.
+	 * @param writePosition
+	 * 		the position in the file at which the buffer content must be written.
+	 */
+	@Override
+	protected void write(ByteBuffer buf, long writePosition)
+	{
+		getMap().put((int) writePosition, buf, buf.position(), buf.remaining());
+		buf.position(buf.limit());
+	}
+
+	/**
+	 * Force the range of the mapping written since the last force, then the header.
+	 *
+	 * @throws IOException
+	 * 		if an I/O error occurs.
+	 */
+	@Override
+	protected synchronized void force() throws IOException
+	{
+		MappedByteBuffer map = getMap();
+		long completedPosition = getHeaderPosition();
+		long dirtyEnd = getPosition();
+
+		if (debugCheck.isDebugEnabled())
+		{
+			log.finer("forcing mapped log between " + forcedPosition + " and " + dirtyEnd);
+		}
+		if (dirtyEnd > forcedPosition)
+		{
+			map.force((int) forcedPosition, (int) (dirtyEnd - forcedPosition));
+		}
+		map.force(0, (int) TransactionLogHeader.HEADER_LENGTH);
+
+		// records between completedPosition and dirtyEnd may still have been in the middle of being written
+		forcedPosition = Math.max(forcedPosition, completedPosition);
+		if (debugCheck.isDebugEnabled())
+		{
+			log.finer("done forcing mapped log");
+		}
+	}
+
+	/**
+	 * Rewind the log position back to the beginning of the file.
+	 *
+	 * @throws IOException
+	 * 		if an I/O error occurs
+	 */
+	@Override
+	synchronized void rewind() throws IOException
+	{
+		super.rewind();
+		forcedPosition = TransactionLogHeader.HEADER_LENGTH;
+	}
+
+	/**
+	 * Fault the pages of the whole mapping in, the file being pre-allocated by the mapping itself.
+	 */
+	@Override
+	protected void pretouch()
+	{
+		getMap().load();
+	}
+
+	/**
+	 * Creates a cursor reading the records straight from the mapping.
+	 *
+	 * @return a TransactionLogCursor.
+	 */
+	@Override
+	protected TransactionLogCursor getCursor()
+	{
+		return new TransactionLogCursor(getMap());
+	}
+}
@@ -0,0 +1,706 @@
+/*
+ * Copyright (C) 2006-2013 Bitronix Software (http://www.bitronix.be)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package bitronix.tm.journal;
+
+import bitronix.tm.Configuration;
+import bitronix.tm.TransactionManagerServices;
+import bitronix.tm.internal.LogDebugCheck;
+import bitronix.tm.utils.Decoder;
+import bitronix.tm.utils.Uid;
+
+import jakarta.transaction.Status;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.logging.Level;
+
+/**
+ * {@link DiskJournal} in which a single writer thread performs all the disk IO.
+ * <p>Logging threads claim a sequence number in a pre-allocated ring buffer with a single atomic increment, publish
+ * their record in the matching slot and return without taking any lock. The writer thread drains the published
+ * records in sequence order and writes each run of consecutive records with a single write, swapping the journal
+ * files itself when the active one is full.</p>
+ * <p>Threads calling {@link #force()} wait on a sequence barrier until the writer thread has forced all the records
+ * claimed before the call. As the writer thread only forces once per drained batch, forces are naturally grouped
+ * under load.</p>
+ * <p>Records are written in claim order, which makes <code>bitronix.tm.journal.disk.conservativeJournaling</code>
+ * unnecessary with this journal. The ring buffer size is set with
+ * <code>bitronix.tm.journal.disk.ringBufferSize</code>.</p>
+ *
+ * @see bitronix.tm.Configuration
+ */
+public class RingBufferDiskJournal
+		extends DiskJournal
+		implements RingBufferDiskJournalMBean
+{
+
+	private static final java.util.logging.Logger log = java.util.logging.Logger.getLogger(RingBufferDiskJournal.class.toString());
+
+	private static final LogDebugCheck debugCheck = LogDebugCheck.forLogger(log);
+	private static final int MAX_WRITE_BYTES = 256 * 1024;
+	private static final int SPIN_TRIES = 64;
+	private static final long WAITER_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+	private static final long WRITER_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+
+	private final Configuration configuration;
+	private final int capacity;
+	private final int mask;
+	private final AtomicReferenceArray<TransactionLogRecord> slots;
+	/**
+	 * The sequence number of the record currently published in each slot.
+	 */
+	private final AtomicLongArray published;
+	/**
+	 * The next sequence number to claim.
+	 */
+	private final AtomicLong claimSequence = new AtomicLong();
+	/**
+	 * The highest sequence number a caller of force() is waiting for.
+	 */
+	private final AtomicLong forceRequestSequence = new AtomicLong(-1L);
+	/**
+	 * Threads waiting for the writer thread to make progress.
+	 */
+	private final Queue<Waiter> waiters = new ConcurrentLinkedQueue<>();
+	private final AtomicLong forceCount = new AtomicLong();
+	private final LongAdder forceRequestCount = new LongAdder();
+	private final AtomicLong pendingForceRequests = new AtomicLong();
+	private final AtomicLong maxForceBatchSize = new AtomicLong();
+	private final LongAdder forceWaitTimeNanos = new LongAdder();
+	private final AtomicLong maxForceWaitTimeNanos = new AtomicLong();
+	private final LongAdder writeCount = new LongAdder();
+	private final LongAdder writtenRecordCount = new LongAdder();
+	/**
+	 * All records up to this sequence number have been written to the journal file.
+	 */
+	private volatile long writtenSequence = -1L;
+	/**
+	 * All records up to this sequence number have been forced to disk.
+	 */
+	private volatile long forcedSequence = -1L;
+	private volatile boolean running;
+	private volatile boolean writerSleeping;
+	private volatile IOException failure;
+	private volatile Writer writer;
+
+	/**
+	 * Create an uninitialized ring buffer disk journal. You must call open() prior you can use it.
+	 */
+	public RingBufferDiskJournal()
+	{
+		super();
+		configuration = TransactionManagerServices.getConfiguration();
+		capacity = Integer.highestOneBit(Math.max(2, configuration.getRingBufferSize() - 1)) << 1;
+		mask = capacity - 1;
+		slots = new AtomicReferenceArray<>(capacity);
+		published = new AtomicLongArray(capacity);
+	}
+
+	/**
+	 * Log a new transaction status to journal. The record is queued in the ring buffer and written later by the
+	 * writer thread, call {@link #force()} to wait until it is on disk.
+	 *
+	 * @param status
+	 * 		transaction status to log. See {@link jakarta.transaction.Status} constants.
+	 * @param gtrid
+	 * 		raw GTRID of the transaction.
+	 * @param uniqueNames
+	 * 		unique names of the {@link bitronix.tm.resource.common.ResourceBean}s participating in
+	 * 		this transaction.
+	 *
+	 * @throws java.io.IOException
+	 * 		if the writer thread failed or if the journal is not open.
+	 */
+	@Override
+	public void log(int status, Uid gtrid, Set<String> uniqueNames) throws IOException
+	{
+		Writer currentWriter = writer;
+		if (!running || currentWriter == null)
+		{
+			throw new IOException("cannot write log, ring buffer disk logger is not open");
+		}
+
+		if (configuration.isFilterLogStatus() && (status != Status.STATUS_COMMITTING && status != Status.STATUS_COMMITTED && status != Status.STATUS_UNKNOWN))
+		{
+			if (debugCheck.isDebugEnabled())
+			{
+				log.finer("filtered out write to log for status " + Decoder.decodeStatus(status));
+			}
+			return;
+		}
+
+		TransactionLogRecord tlog = new TransactionLogRecord(status, gtrid, uniqueNames);
+
+		long sequence = claimSequence.getAndIncrement();
+		// the slot can only be reused once the record published a full turn earlier has been written
+		awaitWritten(sequence - capacity);
+
+		int index = (int) sequence & mask;
+		slots.lazySet(index, tlog);
+		published.set(index, sequence);
+
+		if (!running)
+		{
+			// closed meanwhile, the writer thread may have stopped before this record got published
+			awaitWrittenByStoppingWriter(sequence, currentWriter);
+			return;
+		}
+		if (writerSleeping)
+		{
+			LockSupport.unpark(writer);
+		}
+	}
+
+	/**
+	 * Wait for a stopping writer thread to terminate and check that it wrote a record.
+	 *
+	 * @param sequence
+	 * 		the sequence number of the record.
+	 * @param stoppingWriter
+	 * 		the writer thread that was running when the record got claimed.
+	 *
+	 * @throws java.io.IOException
+	 * 		if the record has not been written.
+	 */
+	private void awaitWrittenByStoppingWriter(long sequence, Writer stoppingWriter) throws IOException
+	{
+		try
+		{
+			stoppingWriter.join();
+		}
+		catch (InterruptedException ex)
+		{
+			Thread.currentThread()
+			      .interrupt();
+			throw new IOException("interrupted while waiting for the ring buffer disk journal writer to stop", ex);
+		}
+		if (writtenSequence < sequence)
+		{
+			throw new IOException("cannot write log, ring buffer disk logger has been closed");
+		}
+	}
+
+	/**
+	 * Log several transaction statuses to journal. The records are queued in the ring buffer one by one, the writer
+	 * thread already writes them in batches.
+	 *
+	 * @param records
+	 * 		the records to log, only their status, GTRID and unique names are used.
+	 *
+	 * @throws java.io.IOException
+	 * 		if the writer thread failed or if the journal is not open.
+	 */
+	@Override
+	public void logAll(Collection<? extends JournalRecord> records) throws IOException
+	{
+		for (JournalRecord record : records)
+		{
+			log(record.getStatus(), record.getGtrid(), record.getUniqueNames());
+		}
+	}
+
+	/**
+	 * Wait until the writer thread has forced all the records claimed before this call to disk.
+	 *
+	 * @throws java.io.IOException
+	 * 		if the writer thread failed or if the journal is not open.
+	 */
+	@Override
+	public void force() throws IOException
+	{
+		if (!running)
+		{
+			throw new IOException("cannot force log writing, ring buffer disk logger is not open");
+		}
+		if (!configuration.isForcedWriteEnabled())
+		{
+			return;
+		}
+
+		long target = claimSequence.get() - 1;
+		long start = System.nanoTime();
+		forceRequestCount.increment();
+		if (forcedSequence < target)
+		{
+			pendingForceRequests.incrementAndGet();
+			forceRequestSequence.accumulateAndGet(target, Math::max);
+			if (writerSleeping)
+			{
+				LockSupport.unpark(writer);
+			}
+			awaitForced(target);
+		}
+
+		long waited = System.nanoTime() - start;
+		forceWaitTimeNanos.add(waited);
+		maxForceWaitTimeNanos.accumulateAndGet(waited, Math::max);
+	}
+
+	/**
+	 * Wait until the specified sequence number has been written.
+	 *
+	 * @param sequence
+	 * 		the sequence number to wait for.
+	 *
+	 * @throws java.io.IOException
+	 * 		if the writer thread failed or stopped meanwhile.
+	 */
+	private void awaitWritten(long sequence) throws IOException
+	{
+		Waiter waiter = null;
+		for (int tries = 0; writtenSequence < sequence; tries++)
+		{
+			waiter = awaitWriter(tries, waiter);
+			if (writtenSequence < sequence)
+			{
+				LockSupport.parkNanos(this, WAITER_PARK_NANOS);
+			}
+		}
+	}
+
+	/**
+	 * Wait until the specified sequence number has been forced.
+	 *
+	 * @param sequence
+	 * 		the sequence number to wait for.
+	 *
+	 * @throws java.io.IOException
+	 * 		if the writer thread failed or stopped meanwhile.
+	 */
+	private void awaitForced(long sequence) throws IOException
+	{
+		Waiter waiter = null;
+		for (int tries = 0; forcedSequence < sequence; tries++)
+		{
+			waiter = awaitWriter(tries, waiter);
+			if (forcedSequence < sequence)
+			{
+				LockSupport.parkNanos(this, WAITER_PARK_NANOS);
+			}
+		}
+	}
+
+	/**
+	 * Spin for a while then register the current thread to be woken up by the writer thread. Callers must check their
+	 * barrier again before parking.
+	 *
+	 * @param tries
+	 * 		how many times the caller already waited.
+	 * @param waiter
+	 * 		the registration of the caller returned by the previous call, or null.
+	 *
+	 * @return the registration of the caller, or null while it is still spinning.
+	 *
+	 * @throws java.io.IOException
+	 * 		if the writer thread failed or stopped meanwhile.
+	 */
+	private Waiter awaitWriter(int tries, Waiter waiter) throws IOException
+	{
+		IOException ex = failure;
+		if (ex != null)
+		{
+			throw new IOException("ring buffer disk journal writer failed", ex);
+		}
+		if (writer == null)
+		{
+			throw new IOException("ring buffer disk logger has been closed");
+		}
+		if (tries < SPIN_TRIES)
+		{
+			Thread.onSpinWait();
+			return null;
+		}
+
+		Waiter registered = waiter == null ? new Waiter(Thread.currentThread()) : waiter;
+		// registered once, again only after having been woken up
+		if (!registered.queued)
+		{
+			registered.queued = true;
+			waiters.add(registered);
+		}
+		return registered;
+	}
+
+	/**
+	 * Wake up all threads waiting for the writer thread to make progress.
+	 */
+	private void wakeUpWaiters()
+	{
+		Waiter waiter;
+		while ((waiter = waiters.poll()) != null)
+		{
+			waiter.queued = false;
+			LockSupport.unpark(waiter.thread);
+		}
+	}
+
+	/**
+	 * Write a batch of records drained from the ring buffer, after a checkpoint if one is due, swapping the journal files
+	 * when the active one is full. The write latency histogram records the write of the whole batch.
+	 *
+	 * @param batch
+	 * 		the records to write, in sequence order.
+	 *
+	 * @throws java.io.IOException
+	 * 		in case of disk IO failure.
+	 */
+	private void writeBatch(List<TransactionLogRecord> batch) throws IOException
+	{
+		long start = System.nanoTime();
+		TransactionLogAppender tla = getActiveTransactionLogAppender();
+		checkpointIfDue(tla);
+		int from = 0;
+		for (int i = 0; i < batch.size(); i++)
+		{
+			TransactionLogRecord tlog = batch.get(i);
+			if (tla.setPositionAndAdvance(tlog, i == batch.size() - 1))
+			{
+				tla.writeLogs(batch.subList(from, i));
+				swapJournalFiles();
+				tla = getActiveTransactionLogAppender();
+				if (tla.setPositionAndAdvance(tlog, i == batch.size() - 1))
+				{
+					throw new IOException("record of " + tlog.calculateTotalRecordSize() + " bytes does not fit in " + tla);
+				}
+				from = i;
+			}
+		}
+		tla.writeLogs(batch.subList(from, batch.size()));
+		getWriteLatency().recordSince(start);
+		writeCount.increment();
+		writtenRecordCount.add(batch.size());
+	}
+
+	/**
+	 * Force the active journal file on behalf of all the force requests received so far.
+	 *
+	 * @param sequence
+	 * 		the last sequence number written.
+	 *
+	 * @throws java.io.IOException
+	 * 		in case of disk IO failure.
+	 */
+	private void forceBatch(long sequence) throws IOException
+	{
+		long start = System.nanoTime();
+		getActiveTransactionLogAppender().force();
+		getForceLatency().recordSince(start);
+		forcedSequence = sequence;
+		forceCount.incrementAndGet();
+		maxForceBatchSize.accumulateAndGet(pendingForceRequests.getAndSet(0), Math::max);
+	}
+
+	/**
+	 * Open the journal files then start the writer thread.
+	 *
+	 * @throws java.io.IOException
+	 * 		in case of disk IO failure.
+	 */
+	@Override
+	public synchronized void open() throws IOException
+	{
+		if (writer != null)
+		{
+			log.warning("ring buffer disk journal already open");
+			return;
+		}
+
+		super.open();
+
+		for (int i = 0; i < capacity; i++)
+		{
+			slots.set(i, null);
+			published.set(i, -1L);
+		}
+		claimSequence.set(0L);
+		forceRequestSequence.set(-1L);
+		writtenSequence = -1L;
+		forcedSequence = -1L;
+		failure = null;
+		running = true;
+		writer = new Writer();
+		writer.start();
+	}
+
+	/**
+	 * Stop the writer thread once it has written all queued records, then close the journal files.
+	 *
+	 * @throws java.io.IOException
+	 * 		in case of disk IO failure.
+	 */
+	@Override
+	public synchronized void close() throws IOException
+	{
+		Writer toStop = writer;
+		if (toStop == null)
+		{
+			return;
+		}
+
+		running = false;
+		LockSupport.unpark(toStop);
+		try
+		{
+			toStop.join();
+		}
+		catch (InterruptedException ex)
+		{
+			Thread.currentThread()
+			      .interrupt();
+			throw new IOException("interrupted while waiting for the ring buffer disk journal writer to stop", ex);
+		}
+		finally
+		{
+			writer = null;
+			wakeUpWaiters();
+		}
+
+		super.close();
+	}
+
+	/**
+	 * Collect all dangling records of the active log file, once all the records logged so far have been written.
+	 *
+	 * @return a Map using Uid objects GTRID as key and {@link TransactionLogRecord} as value
+	 *
+	 * @throws java.io.IOException
+	 * 		in case of disk IO failure or if the journal is not open.
+	 */
+	@Override
+	public Map<Uid, JournalRecord> collectDanglingRecords() throws IOException
+	{
+		if (running)
+		{
+			awaitWritten(claimSequence.get() - 1);
+		}
+		return super.collectDanglingRecords();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public synchronized void unsafeReadRecordsInto(Collection<JournalRecord> target, boolean includeInvalid) throws IOException
+	{
+		if (running)
+		{
+			awaitWritten(claimSequence.get() - 1);
+		}
+		super.unsafeReadRecordsInto(target, includeInvalid);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public int getRingBufferSize()
+	{
+		return capacity;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public long getPendingRecordCount()
+	{
+		return Math.max(0L, claimSequence.get() - 1 - writtenSequence);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public long getWriteCount()
+	{
+		return writeCount.sum();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public double getAverageWriteBatchSize()
+	{
+		long writes = writeCount.sum();
+		return writes == 0 ? 0.0 : (double) writtenRecordCount.sum() / writes;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public long getForceCount()
+	{
+		return forceCount.get();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public long getForceRequestCount()
+	{
+		return forceRequestCount.sum();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public double getAverageForceBatchSize()
+	{
+		long forces = forceCount.get();
+		return forces == 0 ? 0.0 : (double) forceRequestCount.sum() / forces;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public long getMaxForceBatchSize()
+	{
+		return maxForceBatchSize.get();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public double getAverageForceWaitTimeMicros()
+	{
+		long requests = forceRequestCount.sum();
+		return requests == 0 ? 0.0 : forceWaitTimeNanos.sum() / 1000.0 / requests;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public long getMaxForceWaitTimeMicros()
+	{
+		return TimeUnit.NANOSECONDS.toMicros(maxForceWaitTimeNanos.get());
+	}
+
+	/**
+	 * A thread waiting for the writer thread to make progress.
+	 */
+	private static final class Waiter
+	{
+		private final Thread thread;
+		private volatile boolean queued;
+
+		private Waiter(Thread thread)
+		{
+			this.thread = thread;
+		}
+	}
+
+	/**
+	 * The thread draining the ring buffer into the journal files.
+	 */
+	private final class Writer
+			extends Thread
+	{
+		private Writer()
+		{
+			setDaemon(true);
+			setName("bitronix-journal-writer");
+		}
+
+		/**
+		 * Method run ...
+		 */
+		@Override
+		public void run()
+		{
+			List<TransactionLogRecord> batch = new ArrayList<>();
+			long next = 0L;
+			try
+			{
+				while (true)
+				{
+					int bytes = 0;
+					batch.clear();
+					while (bytes < MAX_WRITE_BYTES)
+					{
+						int index = (int) next & mask;
+						if (published.get(index) != next)
+						{
+							break;
+						}
+						TransactionLogRecord tlog = slots.get(index);
+						slots.lazySet(index, null);
+						batch.add(tlog);
+						bytes += tlog.calculateTotalRecordSize();
+						next++;
+					}
+
+					if (!batch.isEmpty())
+					{
+						writeBatch(batch);
+						writtenSequence = next - 1;
+					}
+
+					boolean forceNeeded = forceRequestSequence.get() > forcedSequence && writtenSequence > forcedSequence;
+					if (forceNeeded)
+					{
+						forceBatch(next - 1);
+					}
+
+					if (!batch.isEmpty() || forceNeeded)
+					{
+						wakeUpWaiters();
+						continue;
+					}
+
+					if (!running && next == claimSequence.get())
+					{
+						break;
+					}
+
+					writerSleeping = true;
+					if (published.get((int) next & mask) != next && forceRequestSequence.get() <= forcedSequence && running)
+					{
+						LockSupport.parkNanos(this, WRITER_PARK_NANOS);
+					}
+					writerSleeping = false;
+				}
+			}
+			catch (IOException | RuntimeException ex)
+			{
+				log.log(Level.SEVERE, "ring buffer disk journal writer failed, transaction log integrity could be compromised!", ex);
+				failure = ex instanceof IOException ? (IOException) ex : new IOException(ex);
+				running = false;
+			}
+			finally
+			{
+				wakeUpWaiters();
+			}
+		}
+	}
+}
@@ -0,0 +1,52 @@
+/*
+ * Copyright (C) 2006-2013 Bitronix Software (http://www.bitronix.be)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package bitronix.tm.journal;
+
+/**
+ * {@link RingBufferDiskJournal} Management interface.
+ */
+public interface RingBufferDiskJournalMBean
+		extends DiskJournalMBean
+{
+
+	/**
+	 * Method getRingBufferSize returns the number of slots of the ring buffer.
+	 *
+	 * @return the ringBufferSize (type int) of this RingBufferDiskJournalMBean object.
+	 */
+	int getRingBufferSize();
+
+	/**
+	 * Method getPendingRecordCount returns the number of records claimed in the ring buffer but not written yet.
+	 *
+	 * @return the pendingRecordCount (type long) of this RingBufferDiskJournalMBean object.
+	 */
+	long getPendingRecordCount();
+
+	/**
+	 * Method getWriteCount returns the number of writes performed by the writer thread.
+	 *
+	 * @return the writeCount (type long) of this RingBufferDiskJournalMBean object.
+	 */
+	long getWriteCount();
+
+	/**
+	 * Method getAverageWriteBatchSize returns the average number of records written by a single write.
+	 *
+	 * @return the averageWriteBatchSize (type double) of this RingBufferDiskJournalMBean object.
+	 */
+	double getAverageWriteBatchSize();
+}
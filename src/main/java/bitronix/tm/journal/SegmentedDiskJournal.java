@@ -0,0 +1,1003 @@
+/*
+ * Copyright (C) 2006-2013 Bitronix Software (http://www.bitronix.be)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package bitronix.tm.journal;
+
+import bitronix.tm.Configuration;
+import bitronix.tm.TransactionManagerServices;
+import bitronix.tm.internal.LogDebugCheck;
+import bitronix.tm.utils.Decoder;
+import bitronix.tm.utils.ManagementRegistrar;
+import bitronix.tm.utils.MonotonicClock;
+import bitronix.tm.utils.Uid;
+
+import jakarta.transaction.Status;
+import java.io.File;
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.logging.Level;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Disk journal writing to a rolling set of segment files instead of two fragments.
+ * <p>Segments have the same format as {@link DiskJournal} fragments and are ordered by their header timestamp. Records
+ * are appended to the active segment only. When it is full, a free segment is activated and logging continues there
+ * without copying anything: older segments are kept as long as they contain a COMMITTING record which has not been
+ * resolved yet, and they are rewound and recycled as soon as they no longer do.</p>
+ * <p>The dangling transactions are tracked in memory, per segment, so that rolling over and collecting dangling
+ * records never requires reading the segments back. Only when all <code>bitronix.tm.journal.disk.maxSegments</code>
+ * segments are in use are the dangling records of the oldest segment copied to the active one, which bounds the
+ * space used by long in-doubt transactions like the two-fragment journal does.</p>
+ * <p>Configurable properties are all starting with <code>bitronix.tm.journal.disk</code>.</p>
+ *
+ * @see bitronix.tm.Configuration
+ */
+public class SegmentedDiskJournal
+		implements Journal, MigratableJournal, ReadableJournal, SegmentedDiskJournalMBean
+{
+
+	private static final java.util.logging.Logger log = java.util.logging.Logger.getLogger(SegmentedDiskJournal.class.toString());
+
+	private static final LogDebugCheck debugCheck = LogDebugCheck.forLogger(log);
+	private static final String JMX_NAME = "bitronix.tm:type=Journal";
+	private static final Pattern SEGMENT_FILENAME = Pattern.compile("btm-segment-(\\d+)\\.tlog");
+
+	private final Lock conservativeJournalingLock = new ReentrantLock();
+	private final ReadWriteLock rollForceLock = new ReentrantReadWriteLock(true);
+	private final Object positionLock = new Object();
+	private final ForceBatcher forceBatcher;
+	private final Configuration configuration;
+	/**
+	 * The segments holding records, oldest first. The last one is the active segment. Guarded by rollForceLock.
+	 */
+	private final Deque<Segment> segments = new ArrayDeque<>();
+	/**
+	 * The rewound segments ready to be activated. Guarded by rollForceLock.
+	 */
+	private final Deque<Segment> freeSegments = new ArrayDeque<>();
+	/**
+	 * The segment holding the COMMITTING record of each dangling transaction. Guarded by itself.
+	 */
+	private final Map<Uid, Segment> danglingIndex = new HashMap<>();
+	private final AtomicLong relocatedRecordCount = new AtomicLong();
+	private final LatencyHistogram writeLatency = new LatencyHistogram();
+	private final LatencyHistogram forceLatency = new LatencyHistogram();
+	private final LatencyHistogram rolloverLatency = new LatencyHistogram();
+	private volatile long bytesToScan;
+	private volatile long bytesScanned;
+	private volatile long lastScanDurationMillis = -1L;
+	private volatile long lastScanRecordCount = -1L;
+	private volatile Segment activeSegment;
+	private long lastTimestamp;
+	private int lastFileNumber;
+
+	/**
+	 * Create an uninitialized segmented disk journal. You must call open() prior you can use it.
+	 */
+	public SegmentedDiskJournal()
+	{
+		configuration = TransactionManagerServices.getConfiguration();
+		forceBatcher = new ForceBatcher(configuration);
+	}
+
+	/**
+	 * Log a new transaction status to journal. Note that the SegmentedDiskJournal will not check the flow of the
+	 * transaction. If you call this method with erroneous data, it will be added to the journal anyway.
+	 *
+	 * @param status
+	 * 		transaction status to log. See {@link jakarta.transaction.Status} constants.
+	 * @param gtrid
+	 * 		raw GTRID of the transaction.
+	 * @param uniqueNames
+	 * 		unique names of the {@link bitronix.tm.resource.common.ResourceBean}s participating in
+	 * 		this transaction.
+	 *
+	 * @throws java.io.IOException
+	 * 		in case of disk IO failure or if the journal is not open.
+	 */
+	@Override
+	public void log(int status, Uid gtrid, Set<String> uniqueNames) throws IOException
+	{
+		if (activeSegment == null)
+		{
+			throw new IOException("cannot write log, segmented disk logger is not open");
+		}
+
+		if (configuration.isFilterLogStatus() && (status != Status.STATUS_COMMITTING && status != Status.STATUS_COMMITTED && status != Status.STATUS_UNKNOWN))
+		{
+			if (debugCheck.isDebugEnabled())
+			{
+				log.finer("filtered out write to log for status " + Decoder.decodeStatus(status));
+			}
+			return;
+		}
+
+		TransactionLogRecord tlog = new TransactionLogRecord(status, gtrid, uniqueNames);
+
+		long start = System.nanoTime();
+		boolean written = false;
+		forceBatcher.writeStarted();
+		try
+		{
+			if (configuration.isConservativeJournaling())
+			{
+				conservativeJournalingLock.lock();
+			}
+
+			Segment segment;
+			synchronized (positionLock)
+			{
+				// same protocol as DiskJournal: the read lock is taken before the position is advanced so that holding
+				// the write lock guarantees that every reserved record has been written and indexed
+				rollForceLock.readLock()
+				             .lock();
+				segment = activeSegment;
+				boolean rollover = segment.appender.setPositionAndAdvance(tlog);
+				if (rollover)
+				{
+					rollForceLock.readLock()
+					             .unlock();
+					rollForceLock.writeLock()
+					             .lock();
+					try
+					{
+						rollover();
+						segment = activeSegment;
+						if (segment.appender.setPositionAndAdvance(tlog))
+						{
+							throw new IOException("record of " + tlog.calculateTotalRecordSize() + " bytes does not fit in an empty segment of " + segment);
+						}
+						rollForceLock.readLock()
+						             .lock();
+					}
+					finally
+					{
+						rollForceLock.writeLock()
+						             .unlock();
+					}
+				}
+			}
+
+			try
+			{
+				segment.appender.writeLog(tlog);
+				index(segment, status, gtrid, uniqueNames);
+				written = true;
+			}
+			finally
+			{
+				rollForceLock.readLock()
+				             .unlock();
+			}
+		}
+		finally
+		{
+			if (configuration.isConservativeJournaling())
+			{
+				conservativeJournalingLock.unlock();
+			}
+			forceBatcher.writeCompleted(written);
+		}
+		writeLatency.recordSince(start);
+	}
+
+	/**
+	 * Update the in-memory dangling index with a record written to a segment, following the same rules as the
+	 * dangling records collection of {@link DiskJournal}.
+	 *
+	 * @param segment
+	 * 		the segment the record has been written to.
+	 * @param status
+	 * 		the status of the record.
+	 * @param gtrid
+	 * 		the GTRID of the record.
+	 * @param uniqueNames
+	 * 		the unique names of the record.
+	 */
+	private void index(Segment segment, int status, Uid gtrid, Set<String> uniqueNames)
+	{
+		synchronized (danglingIndex)
+		{
+			if (status == Status.STATUS_COMMITTING)
+			{
+				Segment previous = danglingIndex.put(gtrid, segment);
+				if (previous != null)
+				{
+					previous.dangling.remove(gtrid);
+				}
+				segment.dangling.put(gtrid, uniqueNames);
+			}
+			// COMMITTED is when there was no problem in the transaction
+			// UNKNOWN is when a 2PC transaction heuristically terminated
+			// ROLLEDBACK is when a 1PC transaction rolled back during commit
+			else if (status == Status.STATUS_COMMITTED || status == Status.STATUS_UNKNOWN || status == Status.STATUS_ROLLEDBACK)
+			{
+				Segment owner = danglingIndex.get(gtrid);
+				if (owner == null)
+				{
+					return;
+				}
+				Set<String> remaining = new HashSet<>(owner.dangling.get(gtrid));
+				remaining.removeAll(uniqueNames);
+				if (remaining.isEmpty())
+				{
+					danglingIndex.remove(gtrid);
+					owner.dangling.remove(gtrid);
+				}
+				else
+				{
+					owner.dangling.put(gtrid, remaining);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Activate a new segment once the active one is full. Must be called with the write lock held.
+	 * List of actions taken by this method:
+	 * <ul>
+	 * <li>ensure all data has been forced to the active segment.</li>
+	 * <li>activate a free segment, creating a new file if none is free.</li>
+	 * <li>if all segments are now in use, copy the dangling records of the oldest segment to the active one.</li>
+	 * <li>rewind and free all the oldest segments which do not contain any dangling record anymore.</li>
+	 * </ul>
+	 *
+	 * @throws java.io.IOException
+	 * 		in case of disk IO failure.
+	 */
+	private void rollover() throws IOException
+	{
+		long start = System.nanoTime();
+
+		//step 1
+		activeSegment.appender.force();
+
+		//step 2
+		Segment next = freeSegments.poll();
+		if (next == null)
+		{
+			next = createSegment();
+		}
+		if (debugCheck.isDebugEnabled())
+		{
+			log.finer("rolling journal over to " + next);
+		}
+		activate(next);
+
+		//step 3
+		if (freeSegments.isEmpty() && segments.size() >= configuration.getMaxSegments())
+		{
+			relocateOldestSegment();
+		}
+
+		//step 4
+		freeResolvedSegments();
+		rolloverLatency.recordSince(start);
+	}
+
+	/**
+	 * Make a rewound segment the active one by stamping it with a timestamp newer than all the others.
+	 *
+	 * @param segment
+	 * 		the segment to activate.
+	 *
+	 * @throws java.io.IOException
+	 * 		in case of disk IO failure.
+	 */
+	private void activate(Segment segment) throws IOException
+	{
+		lastTimestamp = Math.max(MonotonicClock.currentTimeMillis(), lastTimestamp + 1);
+		segment.appender.setTimestamp(lastTimestamp);
+		segment.appender.setState(TransactionLogHeader.UNCLEAN_LOG_STATE);
+		segment.appender.force();
+		segments.addLast(segment);
+		activeSegment = segment;
+	}
+
+	/**
+	 * Copy the dangling records of the oldest segment to the active one so that the oldest segment can be freed.
+	 *
+	 * @throws java.io.IOException
+	 * 		in case of disk IO failure.
+	 */
+	private void relocateOldestSegment() throws IOException
+	{
+		Segment oldest = segments.peekFirst();
+		if (oldest == activeSegment)
+		{
+			return;
+		}
+
+		List<TransactionLogRecord> danglingLogs;
+		synchronized (danglingIndex)
+		{
+			danglingLogs = new ArrayList<>(oldest.dangling.size());
+			for (Map.Entry<Uid, Set<String>> entry : oldest.dangling.entrySet())
+			{
+				danglingLogs.add(new TransactionLogRecord(Status.STATUS_COMMITTING, entry.getKey(), entry.getValue()));
+			}
+		}
+
+		for (int i = 0; i < danglingLogs.size(); i++)
+		{
+			if (activeSegment.appender.setPositionAndAdvance(danglingLogs.get(i), i == danglingLogs.size() - 1))
+			{
+				throw new IOException("moving in-flight transactions to the active segment would have resulted in an overflow of that segment");
+			}
+		}
+		activeSegment.appender.writeLogs(danglingLogs);
+		for (TransactionLogRecord tlog : danglingLogs)
+		{
+			index(activeSegment, Status.STATUS_COMMITTING, tlog.getGtrid(), tlog.getUniqueNames());
+		}
+		activeSegment.appender.force();
+		relocatedRecordCount.addAndGet(danglingLogs.size());
+
+		if (debugCheck.isDebugEnabled())
+		{
+			log.finer(danglingLogs.size() + " dangling record(s) copied from " + oldest + " to " + activeSegment);
+		}
+	}
+
+	/**
+	 * Rewind and free the oldest segments as long as they do not contain any dangling record.
+	 *
+	 * @throws java.io.IOException
+	 * 		in case of disk IO failure.
+	 */
+	private void freeResolvedSegments() throws IOException
+	{
+		while (segments.size() > 1)
+		{
+			Segment oldest = segments.peekFirst();
+			synchronized (danglingIndex)
+			{
+				if (!oldest.dangling.isEmpty())
+				{
+					return;
+				}
+			}
+			segments.removeFirst();
+
+			// the rewound header must reach the disk before the segment gets reused, otherwise records already
+			// resolved in newer segments could be collected again after a crash
+			oldest.appender.rewind();
+			oldest.appender.force();
+			oldest.appender.clearDanglingLogs();
+			freeSegments.addLast(oldest);
+
+			if (debugCheck.isDebugEnabled())
+			{
+				log.finer("freed " + oldest);
+			}
+		}
+	}
+
+	/**
+	 * Create a new segment file in the segment directory.
+	 *
+	 * @return the new segment.
+	 *
+	 * @throws java.io.IOException
+	 * 		in case of disk IO failure.
+	 */
+	private Segment createSegment() throws IOException
+	{
+		int fileNumber = ++lastFileNumber;
+		File file = new File(configuration.getSegmentDirectory(), "btm-segment-" + fileNumber + ".tlog");
+		DiskJournal.createLogfile(file, configuration.getMaxLogSizeInMb());
+		return new Segment(fileNumber, new TransactionLogAppender(file, file.length()));
+	}
+
+	/**
+	 * Open the segmented disk journal. All segments are read once to rebuild the in-memory dangling index, resolved
+	 * segments are freed and logging continues on the most recent one. If no segment is present on disk, this method
+	 * will create and pre-allocate the first one.
+	 *
+	 * @throws java.io.IOException
+	 * 		in case of disk IO failure.
+	 */
+	@Override
+	public synchronized void open() throws IOException
+	{
+		if (activeSegment != null)
+		{
+			log.warning("segmented disk journal already open");
+			return;
+		}
+		if (configuration.getMaxSegments() < 2)
+		{
+			throw new IOException("segmented disk journal requires at least 2 segments, configured: " + configuration.getMaxSegments());
+		}
+
+		List<Segment> existing = new ArrayList<>();
+		long start = System.nanoTime();
+		long recordCount = 0L;
+		bytesScanned = 0L;
+		try
+		{
+			File[] files = new File(configuration.getSegmentDirectory()).listFiles();
+			for (File file : files == null ? new File[0] : files)
+			{
+				Matcher matcher = SEGMENT_FILENAME.matcher(file.getName());
+				if (matcher.matches())
+				{
+					int fileNumber = Integer.parseInt(matcher.group(1));
+					lastFileNumber = Math.max(lastFileNumber, fileNumber);
+					existing.add(new Segment(fileNumber, new TransactionLogAppender(file, file.length())));
+				}
+			}
+			existing.sort(Comparator.comparingLong(segment -> segment.appender.getTimestamp()));
+			long toScan = 0L;
+			for (Segment segment : existing)
+			{
+				toScan += segment.appender.getFile()
+				                          .length();
+			}
+			bytesToScan = toScan;
+
+			for (Segment segment : existing)
+			{
+				lastTimestamp = Math.max(lastTimestamp, segment.appender.getTimestamp());
+				recordCount += readSegment(segment);
+				segments.addLast(segment);
+				bytesScanned += segment.appender.getFile()
+				                                .length();
+			}
+		}
+		catch (IOException | RuntimeException ex)
+		{
+			closeSegments(existing);
+			throw ex;
+		}
+		finally
+		{
+			bytesToScan = 0L;
+			lastScanDurationMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+		}
+		lastScanRecordCount = recordCount;
+
+		if (segments.isEmpty())
+		{
+			log.finer("creation of the first segment");
+			activate(createSegment());
+		}
+		else
+		{
+			activeSegment = segments.peekLast();
+			if (activeSegment.appender.getState() != TransactionLogHeader.CLEAN_LOG_STATE)
+			{
+				log.warning("active segment is unclean, did you call BitronixTransactionManager.shutdown() at the end of the last run?");
+			}
+			activeSegment.appender.setState(TransactionLogHeader.UNCLEAN_LOG_STATE);
+			activeSegment.appender.force();
+			freeResolvedSegments();
+		}
+
+		ManagementRegistrar.register(JMX_NAME, this);
+		ManagementRegistrar.register(JMX_NAME + ",Latency=Write", writeLatency);
+		ManagementRegistrar.register(JMX_NAME + ",Latency=Force", forceLatency);
+		ManagementRegistrar.register(JMX_NAME + ",Latency=Rollover", rolloverLatency);
+
+		if (debugCheck.isDebugEnabled())
+		{
+			log.finer("segmented disk journal opened with " + segments.size() + " segment(s) in use, " + freeSegments.size() + " free, " + danglingIndex.size() + " dangling record(s)");
+		}
+	}
+
+	/**
+	 * Read all records of a segment and apply them to the dangling index.
+	 *
+	 * @param segment
+	 * 		the segment to read.
+	 *
+	 * @return the number of records read.
+	 *
+	 * @throws java.io.IOException
+	 * 		in case of disk IO failure.
+	 */
+	private long readSegment(Segment segment) throws IOException
+	{
+		TransactionLogCursor tlc = segment.appender.getCursor();
+		long recordCount = 0L;
+		try
+		{
+			while (true)
+			{
+				TransactionLogRecord tlog;
+				try
+				{
+					tlog = tlc.readLog();
+				}
+				catch (CorruptedTransactionLogException ex)
+				{
+					if (configuration.isSkipCorruptedLogs())
+					{
+						log.log(Level.SEVERE, "skipping corrupted log", ex);
+						continue;
+					}
+					throw ex;
+				}
+
+				if (tlog == null)
+				{
+					break;
+				}
+				index(segment, tlog.getStatus(), tlog.getGtrid(), tlog.getUniqueNames());
+				recordCount++;
+			}
+		}
+		finally
+		{
+			tlc.close();
+		}
+		return recordCount;
+	}
+
+	/**
+	 * Close the segmented disk journal and all the segment files.
+	 *
+	 * @throws java.io.IOException
+	 * 		in case of disk IO failure.
+	 */
+	@Override
+	public synchronized void close() throws IOException
+	{
+		if (activeSegment == null)
+		{
+			return;
+		}
+
+		List<Segment> all = new ArrayList<>(segments);
+		all.addAll(freeSegments);
+		closeSegments(all);
+		segments.clear();
+		freeSegments.clear();
+		synchronized (danglingIndex)
+		{
+			danglingIndex.clear();
+		}
+		activeSegment = null;
+		lastTimestamp = 0L;
+		lastFileNumber = 0;
+		ManagementRegistrar.unregister(JMX_NAME);
+		ManagementRegistrar.unregister(JMX_NAME + ",Latency=Write");
+		ManagementRegistrar.unregister(JMX_NAME + ",Latency=Force");
+		ManagementRegistrar.unregister(JMX_NAME + ",Latency=Rollover");
+
+		if (debugCheck.isDebugEnabled())
+		{
+			log.finer("segmented disk journal closed");
+		}
+	}
+
+	/**
+	 * Close the appenders of the specified segments, logging failures.
+	 *
+	 * @param toClose
+	 * 		the segments to close.
+	 */
+	private static void closeSegments(Collection<Segment> toClose)
+	{
+		for (Segment segment : toClose)
+		{
+			try
+			{
+				segment.appender.close();
+			}
+			catch (IOException ex)
+			{
+				log.log(Level.SEVERE, "cannot close " + segment, ex);
+			}
+		}
+	}
+
+	/**
+	 * Force the active segment to synchronize with the underlying disk device. Segments which are not active anymore
+	 * have already been forced when the journal rolled over.
+	 *
+	 * @throws java.io.IOException
+	 * 		in case of disk IO failure or if the journal is not open.
+	 */
+	@Override
+	public void force() throws IOException
+	{
+		if (activeSegment == null)
+		{
+			throw new IOException("cannot force log writing, segmented disk logger is not open");
+		}
+
+		if (configuration.isForcedWriteEnabled())
+		{
+			forceBatcher.force(this::forceActiveSegment);
+		}
+	}
+
+	/**
+	 * Force the active segment without blocking writers during the force itself, see DiskJournal.
+	 *
+	 * @throws java.io.IOException
+	 * 		in case of disk IO failure.
+	 */
+	private void forceActiveSegment() throws IOException
+	{
+		rollForceLock.writeLock()
+		             .lock();
+		try
+		{
+			rollForceLock.readLock()
+			             .lock();
+		}
+		finally
+		{
+			rollForceLock.writeLock()
+			             .unlock();
+		}
+		try
+		{
+			long start = System.nanoTime();
+			activeSegment.appender.force();
+			forceLatency.recordSince(start);
+		}
+		finally
+		{
+			rollForceLock.readLock()
+			             .unlock();
+		}
+	}
+
+	/**
+	 * Collect all dangling records of the journal from the in-memory index.
+	 *
+	 * @return a Map using Uid objects GTRID as key and {@link TransactionLogRecord} as value
+	 *
+	 * @throws java.io.IOException
+	 * 		if the journal is not open.
+	 */
+	@Override
+	public Map<Uid, JournalRecord> collectDanglingRecords() throws IOException
+	{
+		if (activeSegment == null)
+		{
+			throw new IOException("cannot collect dangling records, segmented disk logger is not open");
+		}
+
+		synchronized (danglingIndex)
+		{
+			Map<Uid, JournalRecord> danglingRecords = new HashMap<>(Math.max(64, danglingIndex.size() * 2));
+			for (Map.Entry<Uid, Segment> entry : danglingIndex.entrySet())
+			{
+				Uid gtrid = entry.getKey();
+				danglingRecords.put(gtrid, new TransactionLogRecord(Status.STATUS_COMMITTING, gtrid, entry.getValue().dangling.get(gtrid)));
+			}
+			return danglingRecords;
+		}
+	}
+
+	/**
+	 * Copy the dangling records to another journal with a {@link JournalMigrator}, in batches and with a single force.
+	 *
+	 * @param other
+	 * 		the journal to migrate all unfinished transactions to.
+	 *
+	 * @throws java.io.IOException
+	 * 		if not all records could be copied to the other journal.
+	 */
+	@Override
+	public void migrateTo(Journal other) throws IOException
+	{
+		if (other == this)
+		{
+			throw new IllegalArgumentException("cannot migrate a journal to itself (this == otherJournal)");
+		}
+		if (other == null)
+		{
+			throw new IllegalArgumentException("the migration target journal cannot be null");
+		}
+
+		new JournalMigrator(this, other, true, configuration.getJournalMigrationBatchSize()).migrate();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public synchronized void unsafeReadRecordsInto(Collection<JournalRecord> target, boolean includeInvalid) throws IOException
+	{
+		if (activeSegment == null)
+		{
+			throw new IOException("cannot read records, segmented disk logger is not open");
+		}
+
+		rollForceLock.readLock()
+		             .lock();
+		try
+		{
+			for (Segment segment : segments)
+			{
+				for (Iterator<TransactionLogRecord> i = DiskJournal.iterateRecords(segment.appender, includeInvalid); i != null && i.hasNext(); )
+				{
+					target.add(i.next());
+				}
+			}
+		}
+		finally
+		{
+			rollForceLock.readLock()
+			             .unlock();
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public int getSegmentCount()
+	{
+		rollForceLock.readLock()
+		             .lock();
+		try
+		{
+			return segments.size();
+		}
+		finally
+		{
+			rollForceLock.readLock()
+			             .unlock();
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public int getFreeSegmentCount()
+	{
+		rollForceLock.readLock()
+		             .lock();
+		try
+		{
+			return freeSegments.size();
+		}
+		finally
+		{
+			rollForceLock.readLock()
+			             .unlock();
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public int getDanglingRecordCount()
+	{
+		synchronized (danglingIndex)
+		{
+			return danglingIndex.size();
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public long getDanglingRecordFootprint()
+	{
+		long footprint = 0L;
+		synchronized (danglingIndex)
+		{
+			for (Map.Entry<Uid, Segment> entry : danglingIndex.entrySet())
+			{
+				// an entry in the index and in its segment, the GTRID and the set of unique names
+				footprint += 2 * 48 + 40 + entry.getKey()
+				                                .length() + 48 + 40L * entry.getValue().dangling.get(entry.getKey())
+				                                                                                .size();
+			}
+		}
+		return footprint;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public long getRelocatedRecordCount()
+	{
+		return relocatedRecordCount.get();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public long getForceCount()
+	{
+		return forceBatcher.getForceCount();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public long getForceRequestCount()
+	{
+		return forceBatcher.getRequestCount();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public double getAverageForceBatchSize()
+	{
+		return forceBatcher.getAverageBatchSize();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public long getMaxForceBatchSize()
+	{
+		return forceBatcher.getMaxBatchSize();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public double getAverageForceWaitTimeMicros()
+	{
+		return forceBatcher.getAverageWaitTimeMicros();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public long getMaxForceWaitTimeMicros()
+	{
+		return forceBatcher.getMaxWaitTimeMicros();
+	}
+
+	/**
+	 * Segments do not need checkpoints, the dangling records are indexed in memory and a segment is only read when
+	 * the journal opens.
+	 *
+	 * @return 0.
+	 */
+	@Override
+	public long getCheckpointCount()
+	{
+		return 0L;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void resetLatencyHistograms()
+	{
+		writeLatency.reset();
+		forceLatency.reset();
+		rolloverLatency.reset();
+	}
+
+	/**
+	 * Segments always write outcomes as individual records.
+	 *
+	 * @return 0.
+	 */
+	@Override
+	public long getOutcomeBatchCount()
+	{
+		return 0L;
+	}
+
+	/**
+	 * Segments always write outcomes as individual records.
+	 *
+	 * @return 0.
+	 */
+	@Override
+	public long getBatchedOutcomeCount()
+	{
+		return 0L;
+	}
+
+	/**
+	 * Get the fraction of the segments scanned by {@link #open()}, dangling records being collected from the index it
+	 * builds.
+	 *
+	 * @return a value between 0.0 and 1.0, 1.0 when no scan is in progress.
+	 */
+	@Override
+	public double getDanglingCollectionProgress()
+	{
+		long toScan = bytesToScan;
+		return toScan == 0L ? 1.0 : Math.min(1.0, (double) bytesScanned / toScan);
+	}
+
+	/**
+	 * Get the duration of the segments scan of the last {@link #open()}.
+	 *
+	 * @return the duration in milliseconds, or -1 if the journal was never opened.
+	 */
+	@Override
+	public long getLastDanglingCollectionDurationMillis()
+	{
+		return lastScanDurationMillis;
+	}
+
+	/**
+	 * Get the number of records read by the segments scan of the last {@link #open()}.
+	 *
+	 * @return the number of records, or -1 if the journal was never opened.
+	 */
+	@Override
+	public long getLastDanglingCollectionRecordCount()
+	{
+		return lastScanRecordCount;
+	}
+
+	/**
+	 * Shutdown the service and free all held resources.
+	 */
+	@Override
+	public void shutdown()
+	{
+		try
+		{
+			close();
+		}
+		catch (IOException ex)
+		{
+			log.log(Level.SEVERE, "error shutting down segmented disk journal. Transaction log integrity could be compromised!", ex);
+		}
+	}
+
+	/**
+	 * A segment file with the unique names still in doubt of the COMMITTING records it holds.
+	 */
+	private static final class Segment
+	{
+		private final int fileNumber;
+		private final TransactionLogAppender appender;
+		/**
+		 * Guarded by the danglingIndex of the journal.
+		 */
+		private final Map<Uid, Set<String>> dangling = new HashMap<>();
+
+		private Segment(int fileNumber, TransactionLogAppender appender)
+		{
+			this.fileNumber = fileNumber;
+			this.appender = appender;
+		}
+
+		@Override
+		public String toString()
+		{
+			return "segment " + fileNumber + " (" + appender + ")";
+		}
+	}
+}
@@ -0,0 +1,46 @@
+/*
+ * Copyright (C) 2006-2013 Bitronix Software (http://www.bitronix.be)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package bitronix.tm.journal;
+
+/**
+ * {@link SegmentedDiskJournal} Management interface.
+ */
+public interface SegmentedDiskJournalMBean
+		extends DiskJournalMBean
+{
+
+	/**
+	 * Method getSegmentCount returns the number of segments currently holding records, including the active one.
+	 *
+	 * @return the segmentCount (type int) of this SegmentedDiskJournalMBean object.
+	 */
+	int getSegmentCount();
+
+	/**
+	 * Method getFreeSegmentCount returns the number of segment files ready to be reused.
+	 *
+	 * @return the freeSegmentCount (type int) of this SegmentedDiskJournalMBean object.
+	 */
+	int getFreeSegmentCount();
+
+	/**
+	 * Method getRelocatedRecordCount returns the number of dangling records that had to be copied out of the oldest
+	 * segment because all segments were in use.
+	 *
+	 * @return the relocatedRecordCount (type long) of this SegmentedDiskJournalMBean object.
+	 */
+	long getRelocatedRecordCount();
+}
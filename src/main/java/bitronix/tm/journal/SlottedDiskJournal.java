@@ -0,0 +1,1263 @@
+/*
+ * Copyright (C) 2006-2013 Bitronix Software (http://www.bitronix.be)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package bitronix.tm.journal;
+
+import bitronix.tm.BitronixXid;
+import bitronix.tm.Configuration;
+import bitronix.tm.TransactionManagerServices;
+import bitronix.tm.internal.LogDebugCheck;
+import bitronix.tm.utils.Decoder;
+import bitronix.tm.utils.ManagementRegistrar;
+import bitronix.tm.utils.MonotonicClock;
+import bitronix.tm.utils.Uid;
+
+import jakarta.transaction.Status;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.Level;
+
+/**
+ * Disk journal keeping the dangling transactions in a fixed array of slots instead of an append-only log.
+ * <p>A COMMITTING record is written to a free slot of the slot file and the COMMITTED, UNKNOWN or ROLLEDBACK record
+ * resolving it frees that slot again, so the file only ever holds the in-flight two-phase commit transactions: opening
+ * the journal and collecting the dangling records read <code>bitronix.tm.journal.disk.slotCount</code> slots
+ * whatever the number of transactions logged before. Outcomes resolving only part of the unique names rewrite the
+ * remaining ones to another slot before freeing the first, a transaction found in two slots after a crash keeps the
+ * union of their unique names. Other statuses are not needed by recovery and are not written.</p>
+ * <p>Each slot has the layout of a log file holding at most one record, see {@link TransactionLogHeader}, and is
+ * decoded by a {@link TransactionLogCursor}. A free slot is an empty log. The file starts with a header of one slot
+ * holding the format ID, timestamp and state like a log file, followed by the slot size and the slot count.</p>
+ * <p>Logging a COMMITTING record fails when all the slots are in use, the slot count must be sized for the maximum
+ * number of concurrent two-phase commit transactions.</p>
+ * <p>Configurable properties are all starting with <code>bitronix.tm.journal.disk</code>.</p>
+ *
+ * @see bitronix.tm.Configuration
+ */
+public class SlottedDiskJournal
+		implements Journal, MigratableJournal, ReadableJournal, SlottedDiskJournalMBean
+{
+
+	private static final java.util.logging.Logger log = java.util.logging.Logger.getLogger(SlottedDiskJournal.class.toString());
+
+	private static final LogDebugCheck debugCheck = LogDebugCheck.forLogger(log);
+	private static final String JMX_NAME = "bitronix.tm:type=Journal";
+	/**
+	 * Format ID of the slot files, int-encoded "BtnS" ASCII string.
+	 */
+	private static final int SLOT_FILE_FORMAT_ID = 0x42746e53;
+	/**
+	 * Position of the slot size in the header of the slot file.
+	 */
+	private static final int SLOT_SIZE_HEADER = (int) TransactionLogHeader.STATE_HEADER + 1;
+	/**
+	 * Position of the slot count in the header of the slot file.
+	 */
+	private static final int SLOT_COUNT_HEADER = SLOT_SIZE_HEADER + 4;
+	/**
+	 * Length of the header of a slot, the same as a log file header.
+	 */
+	private static final int SLOT_HEADER_LENGTH = (int) TransactionLogHeader.HEADER_LENGTH;
+	/**
+	 * The smallest slot able to hold a COMMITTING record with a GTRID and a few unique names.
+	 */
+	private static final int MIN_SLOT_SIZE = 128;
+	/**
+	 * Size of the chunks in which the slots are read when the journal opens.
+	 */
+	private static final int SCAN_CHUNK_SIZE = 1024 * 1024;
+
+	private final Lock conservativeJournalingLock = new ReentrantLock();
+	private final ForceBatcher forceBatcher;
+	private final Configuration configuration;
+	/**
+	 * The slot holding the COMMITTING record of each dangling transaction. Guarded by itself.
+	 */
+	private final Map<Uid, Slot> slots = new HashMap<>();
+	private final AtomicLong slotExhaustionCount = new AtomicLong();
+	private final LatencyHistogram writeLatency = new LatencyHistogram();
+	private final LatencyHistogram forceLatency = new LatencyHistogram();
+	/**
+	 * The indexes of the free slots, the next one to use on top. Guarded by slots.
+	 */
+	private int[] freeSlots = new int[0];
+	private int freeSlotCount;
+	private int maxUsedSlotCount;
+	private volatile RandomAccessFile slotFile;
+	private volatile FileChannel channel;
+	private volatile int slotSize;
+	private volatile int slotCount;
+	private volatile long bytesToScan;
+	private volatile long bytesScanned;
+	private volatile long lastScanDurationMillis = -1L;
+	private volatile long lastScanRecordCount = -1L;
+
+	/**
+	 * Create an uninitialized slotted disk journal. You must call open() prior you can use it.
+	 */
+	public SlottedDiskJournal()
+	{
+		configuration = TransactionManagerServices.getConfiguration();
+		forceBatcher = new ForceBatcher(configuration);
+	}
+
+	/**
+	 * Log a new transaction status to journal. COMMITTING records take a free slot, COMMITTED, UNKNOWN and ROLLEDBACK
+	 * records free the slot of their transaction once all its unique names are resolved, other statuses are ignored.
+	 *
+	 * @param status
+	 * 		transaction status to log. See {@link jakarta.transaction.Status} constants.
+	 * @param gtrid
+	 * 		raw GTRID of the transaction.
+	 * @param uniqueNames
+	 * 		unique names of the {@link bitronix.tm.resource.common.ResourceBean}s participating in
+	 * 		this transaction.
+	 *
+	 * @throws java.io.IOException
+	 * 		in case of disk IO failure, if all the slots are in use or if the journal is not open.
+	 */
+	@Override
+	public void log(int status, Uid gtrid, Set<String> uniqueNames) throws IOException
+	{
+		if (channel == null)
+		{
+			throw new IOException("cannot write log, slotted disk logger is not open");
+		}
+
+		boolean outcome = status == Status.STATUS_COMMITTED || status == Status.STATUS_UNKNOWN || status == Status.STATUS_ROLLEDBACK;
+		if (status != Status.STATUS_COMMITTING && !outcome)
+		{
+			if (debugCheck.isDebugEnabled())
+			{
+				log.finer("slotted journal does not keep status " + Decoder.decodeStatus(status));
+			}
+			return;
+		}
+
+		long start = System.nanoTime();
+		boolean written = false;
+		forceBatcher.writeStarted();
+		try
+		{
+			if (configuration.isConservativeJournaling())
+			{
+				conservativeJournalingLock.lock();
+			}
+
+			if (outcome)
+			{
+				written = resolve(gtrid, uniqueNames);
+			}
+			else
+			{
+				occupy(gtrid, uniqueNames);
+				written = true;
+			}
+		}
+		finally
+		{
+			if (configuration.isConservativeJournaling())
+			{
+				conservativeJournalingLock.unlock();
+			}
+			forceBatcher.writeCompleted(written);
+		}
+		writeLatency.recordSince(start);
+	}
+
+	/**
+	 * Write the COMMITTING record of a transaction to a free slot, then free the slot of a previous COMMITTING record
+	 * of the same transaction.
+	 *
+	 * @param gtrid
+	 * 		the GTRID of the transaction.
+	 * @param uniqueNames
+	 * 		the unique names of the resources in doubt.
+	 *
+	 * @throws java.io.IOException
+	 * 		in case of disk IO failure or if all the slots are in use.
+	 */
+	private void occupy(Uid gtrid, Set<String> uniqueNames) throws IOException
+	{
+		TransactionLogRecord tlog = new TransactionLogRecord(Status.STATUS_COMMITTING, gtrid, uniqueNames);
+		checkFits(tlog);
+
+		Slot slot;
+		Slot replaced;
+		synchronized (slots)
+		{
+			slot = new Slot(allocate(), tlog.getUniqueNames());
+			replaced = slots.put(gtrid, slot);
+		}
+
+		try
+		{
+			writeSlot(slot.index, tlog);
+		}
+		catch (IOException ex)
+		{
+			synchronized (slots)
+			{
+				if (slots.get(gtrid) == slot)
+				{
+					if (replaced == null)
+					{
+						slots.remove(gtrid);
+					}
+					else
+					{
+						slots.put(gtrid, replaced);
+					}
+				}
+			}
+			release(slot.index);
+			throw ex;
+		}
+
+		if (replaced != null)
+		{
+			free(replaced.index);
+		}
+	}
+
+	/**
+	 * Remove resolved unique names from a dangling transaction, freeing its slot once none is left in doubt.
+	 *
+	 * @param gtrid
+	 * 		the GTRID of the transaction.
+	 * @param uniqueNames
+	 * 		the unique names of the resources no longer in doubt.
+	 *
+	 * @return true if a slot has been written, false if the transaction is not dangling.
+	 *
+	 * @throws java.io.IOException
+	 * 		in case of disk IO failure.
+	 */
+	private boolean resolve(Uid gtrid, Set<String> uniqueNames) throws IOException
+	{
+		Slot slot;
+		Slot rewritten = null;
+		synchronized (slots)
+		{
+			slot = slots.get(gtrid);
+			if (slot == null)
+			{
+				return false;
+			}
+			Set<String> remaining = new TreeSet<>(slot.uniqueNames);
+			remaining.removeAll(uniqueNames);
+			if (remaining.isEmpty())
+			{
+				slots.remove(gtrid);
+			}
+			else if (remaining.size() < slot.uniqueNames.size())
+			{
+				// copied to another slot so that a torn write cannot lose the unique names still in doubt, or
+				// rewritten in place if none is free as the record only shrinks
+				rewritten = new Slot(freeSlotCount == 0 ? slot.index : allocate(), remaining);
+				slots.put(gtrid, rewritten);
+			}
+			else
+			{
+				return false;
+			}
+		}
+
+		if (rewritten != null)
+		{
+			writeSlot(rewritten.index, new TransactionLogRecord(Status.STATUS_COMMITTING, gtrid, rewritten.uniqueNames));
+			if (rewritten.index == slot.index)
+			{
+				return true;
+			}
+		}
+		free(slot.index);
+		return true;
+	}
+
+	/**
+	 * Check that a record fits in a slot.
+	 *
+	 * @param tlog
+	 * 		the record.
+	 *
+	 * @throws java.io.IOException
+	 * 		if the record is too large.
+	 */
+	private void checkFits(TransactionLogRecord tlog) throws IOException
+	{
+		int size = SLOT_HEADER_LENGTH + tlog.calculateTotalRecordSize();
+		if (size > slotSize)
+		{
+			throw new IOException("record of " + size + " bytes does not fit in a slot of " + slotSize + " bytes, increase bitronix.tm.journal.disk.slotSize");
+		}
+	}
+
+	/**
+	 * Take a free slot. Must be called with the slots lock held.
+	 *
+	 * @return the index of the slot.
+	 *
+	 * @throws java.io.IOException
+	 * 		if all the slots are in use.
+	 */
+	private int allocate() throws IOException
+	{
+		if (freeSlotCount == 0)
+		{
+			slotExhaustionCount.incrementAndGet();
+			throw new IOException("all " + slotCount + " slots of the slotted disk journal are in use, increase bitronix.tm.journal.disk.slotCount");
+		}
+		maxUsedSlotCount = Math.max(maxUsedSlotCount, slotCount - freeSlotCount + 1);
+		return freeSlots[--freeSlotCount];
+	}
+
+	/**
+	 * Give a slot back to the free slots.
+	 *
+	 * @param index
+	 * 		the index of the slot.
+	 */
+	private void release(int index)
+	{
+		synchronized (slots)
+		{
+			freeSlots[freeSlotCount++] = index;
+		}
+	}
+
+	/**
+	 * Empty a slot on disk, then give it back to the free slots. The slot can only be reused once the empty log has
+	 * been written, otherwise this write could land after the one of the next record.
+	 *
+	 * @param index
+	 * 		the index of the slot.
+	 *
+	 * @throws java.io.IOException
+	 * 		in case of disk IO failure.
+	 */
+	private void free(int index) throws IOException
+	{
+		ByteBuffer buf = TransactionLogSerializer.get()
+		                                         .buffer(SLOT_HEADER_LENGTH);
+		putEmptySlot(buf, 0L);
+		buf.flip();
+		writeFully(buf, slotPosition(index));
+		release(index);
+	}
+
+	/**
+	 * Write a COMMITTING record to a slot.
+	 *
+	 * @param index
+	 * 		the index of the slot.
+	 * @param tlog
+	 * 		the record, it must fit in the slot.
+	 *
+	 * @throws java.io.IOException
+	 * 		in case of disk IO failure.
+	 */
+	private void writeSlot(int index, TransactionLogRecord tlog) throws IOException
+	{
+		boolean crc32c = configuration.isCrc32cChecksumEnabled();
+		int recordSize = tlog.calculateTotalRecordSize();
+		ByteBuffer buf = TransactionLogSerializer.get()
+		                                         .buffer(SLOT_HEADER_LENGTH + recordSize);
+		buf.putInt(crc32c ? TransactionLogHeader.CRC32C_FORMAT_ID : BitronixXid.FORMAT_ID);
+		buf.putLong(tlog.getTime());
+		buf.put(TransactionLogHeader.CLEAN_LOG_STATE);
+		buf.putLong(SLOT_HEADER_LENGTH + recordSize);
+		tlog.setCrc32c(crc32c);
+		tlog.writeTo(buf);
+		buf.flip();
+		writeFully(buf, slotPosition(index));
+	}
+
+	/**
+	 * Write the whole content of a buffer at a position of the slot file.
+	 *
+	 * @param buf
+	 * 		the buffer.
+	 * @param position
+	 * 		the position in the slot file.
+	 *
+	 * @throws java.io.IOException
+	 * 		in case of disk IO failure.
+	 */
+	private void writeFully(ByteBuffer buf, long position) throws IOException
+	{
+		FileChannel fileChannel = channel;
+		if (fileChannel == null)
+		{
+			throw new IOException("cannot write log, slotted disk logger is not open");
+		}
+		while (buf.hasRemaining())
+		{
+			position += fileChannel.write(buf, position);
+		}
+	}
+
+	/**
+	 * Get the position of a slot in the slot file, the header taking the first slot.
+	 *
+	 * @param index
+	 * 		the index of the slot.
+	 *
+	 * @return the position.
+	 */
+	private long slotPosition(int index)
+	{
+		return (index + 1L) * slotSize;
+	}
+
+	/**
+	 * Store the header of an empty slot, a log without any record.
+	 *
+	 * @param buf
+	 * 		the buffer to write to.
+	 * @param timestamp
+	 * 		the timestamp of the slot.
+	 */
+	private static void putEmptySlot(ByteBuffer buf, long timestamp)
+	{
+		buf.putInt(BitronixXid.FORMAT_ID);
+		buf.putLong(timestamp);
+		buf.put(TransactionLogHeader.CLEAN_LOG_STATE);
+		buf.putLong(SLOT_HEADER_LENGTH);
+	}
+
+	/**
+	 * Open the slotted disk journal. All the slots are read once to rebuild the in-memory index of the dangling
+	 * transactions. If the slot file does not exist, this method will create and pre-allocate it.
+	 *
+	 * @throws java.io.IOException
+	 * 		in case of disk IO failure.
+	 */
+	@Override
+	public synchronized void open() throws IOException
+	{
+		if (channel != null)
+		{
+			log.warning("slotted disk journal already open");
+			return;
+		}
+		if (configuration.getSlotSize() < MIN_SLOT_SIZE || configuration.getSlotCount() < 1)
+		{
+			throw new IOException("slotted disk journal requires at least 1 slot of " + MIN_SLOT_SIZE + " bytes, configured: " + configuration.getSlotCount()
+			                      + " slot(s) of " + configuration.getSlotSize() + " bytes");
+		}
+
+		File file = new File(configuration.getSlotFilename());
+		if (!file.exists())
+		{
+			log.finer("creation of the slot file");
+			createSlotFile(file, configuration.getSlotCount(), configuration.getSlotSize());
+		}
+
+		RandomAccessFile raf = new RandomAccessFile(file, "rw");
+		try
+		{
+			FileChannel fileChannel = raf.getChannel();
+			ByteBuffer header = ByteBuffer.allocate(SLOT_COUNT_HEADER + 4);
+			fileChannel.read(header, 0L);
+			if (header.getInt((int) TransactionLogHeader.FORMAT_ID_HEADER) != SLOT_FILE_FORMAT_ID)
+			{
+				throw new IOException("not a slot file: " + file.getAbsolutePath());
+			}
+			if (header.get((int) TransactionLogHeader.STATE_HEADER) != TransactionLogHeader.CLEAN_LOG_STATE)
+			{
+				log.warning("slot file is unclean, did you call BitronixTransactionManager.shutdown() at the end of the last run?");
+			}
+			slotSize = header.getInt(SLOT_SIZE_HEADER);
+			slotCount = header.getInt(SLOT_COUNT_HEADER);
+			if (slotSize < MIN_SLOT_SIZE || slotCount < 1 || fileChannel.size() < slotPosition(slotCount))
+			{
+				throw new IOException("corrupted slot file header: " + slotCount + " slot(s) of " + slotSize + " bytes in a file of " + fileChannel.size() + " bytes");
+			}
+			if (slotSize != configuration.getSlotSize())
+			{
+				log.warning("slot file has slots of " + slotSize + " bytes, ignoring the configured size of " + configuration.getSlotSize() + " bytes");
+			}
+			channel = fileChannel;
+			slotFile = raf;
+
+			if (slotCount < configuration.getSlotCount())
+			{
+				extendSlots(configuration.getSlotCount());
+			}
+			scanSlots();
+			writeHeaderState(TransactionLogHeader.UNCLEAN_LOG_STATE);
+			fileChannel.force(false);
+		}
+		catch (IOException | RuntimeException ex)
+		{
+			channel = null;
+			slotFile = null;
+			clearSlots();
+			raf.close();
+			throw ex;
+		}
+
+		ManagementRegistrar.register(JMX_NAME, this);
+		ManagementRegistrar.register(JMX_NAME + ",Latency=Write", writeLatency);
+		ManagementRegistrar.register(JMX_NAME + ",Latency=Force", forceLatency);
+
+		if (debugCheck.isDebugEnabled())
+		{
+			log.finer("slotted disk journal opened with " + getDanglingRecordCount() + " slot(s) in use out of " + slotCount);
+		}
+	}
+
+	/**
+	 * Create a slot file with all its slots empty. The file is written next to its final location and renamed once
+	 * complete so that a crash never leaves a partial slot file behind.
+	 *
+	 * @param file
+	 * 		the slot file to create.
+	 * @param count
+	 * 		the number of slots.
+	 * @param size
+	 * 		the size of a slot in bytes.
+	 *
+	 * @throws java.io.IOException
+	 * 		in case of disk IO failure.
+	 */
+	private static void createSlotFile(File file, int count, int size) throws IOException
+	{
+		if (file.getParentFile() != null)
+		{
+			file.getParentFile()
+			    .mkdirs();
+		}
+		File tmp = new File(file.getPath() + ".tmp");
+		try (RandomAccessFile raf = new RandomAccessFile(tmp, "rw"))
+		{
+			raf.setLength(0L);
+			FileChannel fileChannel = raf.getChannel();
+			writeEmptySlots(fileChannel, size, 0, count);
+
+			ByteBuffer header = ByteBuffer.allocate(size);
+			header.putInt(SLOT_FILE_FORMAT_ID);
+			header.putLong(MonotonicClock.currentTimeMillis());
+			header.put(TransactionLogHeader.CLEAN_LOG_STATE);
+			header.putInt(size);
+			header.putInt(count);
+			header.clear();
+			while (header.hasRemaining())
+			{
+				fileChannel.write(header, header.position());
+			}
+			fileChannel.force(true);
+		}
+		Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.ATOMIC_MOVE);
+	}
+
+	/**
+	 * Write empty slots, padded to the slot size so that the file is pre-allocated.
+	 *
+	 * @param fileChannel
+	 * 		the channel of the slot file.
+	 * @param size
+	 * 		the size of a slot in bytes.
+	 * @param from
+	 * 		the index of the first slot to write.
+	 * @param to
+	 * 		the index of the slot after the last one to write.
+	 *
+	 * @throws java.io.IOException
+	 * 		in case of disk IO failure.
+	 */
+	private static void writeEmptySlots(FileChannel fileChannel, int size, int from, int to) throws IOException
+	{
+		int perChunk = Math.max(1, SCAN_CHUNK_SIZE / size);
+		ByteBuffer chunk = ByteBuffer.allocate(perChunk * size);
+		for (int index = from; index < to; index += perChunk)
+		{
+			int n = Math.min(perChunk, to - index);
+			chunk.clear();
+			for (int i = 0; i < n; i++)
+			{
+				chunk.position(i * size);
+				putEmptySlot(chunk, 0L);
+			}
+			chunk.position(0)
+			     .limit(n * size);
+			long position = (index + 1L) * size;
+			while (chunk.hasRemaining())
+			{
+				position += fileChannel.write(chunk, position);
+			}
+		}
+	}
+
+	/**
+	 * Add empty slots at the end of the slot file, then record the new slot count in its header.
+	 *
+	 * @param count
+	 * 		the new number of slots.
+	 *
+	 * @throws java.io.IOException
+	 * 		in case of disk IO failure.
+	 */
+	private void extendSlots(int count) throws IOException
+	{
+		writeEmptySlots(channel, slotSize, slotCount, count);
+		channel.force(false);
+
+		ByteBuffer buf = ByteBuffer.allocate(4);
+		buf.putInt(count)
+		   .flip();
+		writeFully(buf, SLOT_COUNT_HEADER);
+		channel.force(false);
+		log.info("slot file extended from " + slotCount + " to " + count + " slots");
+		slotCount = count;
+	}
+
+	/**
+	 * Update the state in the header of the slot file.
+	 *
+	 * @param state
+	 * 		{@link TransactionLogHeader#CLEAN_LOG_STATE} or {@link TransactionLogHeader#UNCLEAN_LOG_STATE}.
+	 *
+	 * @throws java.io.IOException
+	 * 		in case of disk IO failure.
+	 */
+	private void writeHeaderState(byte state) throws IOException
+	{
+		ByteBuffer buf = ByteBuffer.allocate(1);
+		buf.put(state)
+		   .flip();
+		writeFully(buf, TransactionLogHeader.STATE_HEADER);
+	}
+
+	/**
+	 * Read all the slots and rebuild the index of the dangling transactions and the free slots.
+	 *
+	 * @throws java.io.IOException
+	 * 		in case of disk IO failure or if a slot is corrupted.
+	 */
+	private void scanSlots() throws IOException
+	{
+		long start = System.nanoTime();
+		long recordCount = 0L;
+		Map<Uid, Slot> found = new HashMap<>();
+		Set<Uid> merged = new HashSet<>();
+		List<Slot> duplicates = new ArrayList<>();
+		boolean[] used = new boolean[slotCount];
+		bytesScanned = 0L;
+		bytesToScan = (long) slotCount * slotSize;
+		try
+		{
+			int perChunk = Math.max(1, SCAN_CHUNK_SIZE / slotSize);
+			ByteBuffer chunk = ByteBuffer.allocate(perChunk * slotSize);
+			for (int index = 0; index < slotCount; index += perChunk)
+			{
+				int n = Math.min(perChunk, slotCount - index);
+				readFully(chunk, n * slotSize, slotPosition(index));
+				for (int i = 0; i < n; i++)
+				{
+					TransactionLogRecord tlog = readSlot(chunk, i * slotSize, index + i, false);
+					if (tlog == null)
+					{
+						continue;
+					}
+					recordCount++;
+					used[index + i] = true;
+					Slot slot = new Slot(index + i, tlog.getUniqueNames());
+					Slot previous = found.put(tlog.getGtrid(), slot);
+					if (previous != null)
+					{
+						Set<String> union = new TreeSet<>(previous.uniqueNames);
+						union.addAll(slot.uniqueNames);
+						found.put(tlog.getGtrid(), new Slot(previous.index, union));
+						merged.add(tlog.getGtrid());
+						duplicates.add(slot);
+					}
+				}
+				bytesScanned += (long) n * slotSize;
+			}
+		}
+		finally
+		{
+			bytesToScan = 0L;
+			lastScanDurationMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+		}
+		lastScanRecordCount = recordCount;
+
+		synchronized (slots)
+		{
+			slots.clear();
+			slots.putAll(found);
+			freeSlots = new int[slotCount];
+			freeSlotCount = 0;
+			// lowest indexes on top so that the beginning of the file gets reused first
+			for (int index = slotCount - 1; index >= 0; index--)
+			{
+				if (!used[index])
+				{
+					freeSlots[freeSlotCount++] = index;
+				}
+			}
+			maxUsedSlotCount = slotCount - freeSlotCount;
+		}
+
+		if (!duplicates.isEmpty())
+		{
+			mergeDuplicates(found, merged, duplicates);
+		}
+	}
+
+	/**
+	 * Keep a single slot for the transactions found in several slots after a crash, holding the union of their unique
+	 * names.
+	 *
+	 * @param found
+	 * 		the slot of each dangling transaction.
+	 * @param merged
+	 * 		the GTRIDs of the transactions found in several slots.
+	 * @param duplicates
+	 * 		the other slots holding a record of the same transactions.
+	 *
+	 * @throws java.io.IOException
+	 * 		in case of disk IO failure.
+	 */
+	private void mergeDuplicates(Map<Uid, Slot> found, Set<Uid> merged, List<Slot> duplicates) throws IOException
+	{
+		for (Uid gtrid : merged)
+		{
+			Slot slot = found.get(gtrid);
+			writeSlot(slot.index, new TransactionLogRecord(Status.STATUS_COMMITTING, gtrid, slot.uniqueNames));
+		}
+		channel.force(false);
+		for (Slot duplicate : duplicates)
+		{
+			free(duplicate.index);
+		}
+		log.warning("merged " + duplicates.size() + " transaction(s) found in more than one slot");
+	}
+
+	/**
+	 * Read bytes of the slot file into a buffer, from its beginning.
+	 *
+	 * @param buf
+	 * 		the buffer.
+	 * @param length
+	 * 		the number of bytes to read.
+	 * @param position
+	 * 		the position in the slot file.
+	 *
+	 * @throws java.io.IOException
+	 * 		in case of disk IO failure or if the file is too short.
+	 */
+	private void readFully(ByteBuffer buf, int length, long position) throws IOException
+	{
+		buf.clear()
+		   .limit(length);
+		while (buf.hasRemaining())
+		{
+			int read = channel.read(buf, position + buf.position());
+			if (read < 0)
+			{
+				throw new IOException("slot file truncated at " + (position + buf.position()));
+			}
+		}
+	}
+
+	/**
+	 * Decode a slot.
+	 *
+	 * @param buf
+	 * 		the buffer holding the slot.
+	 * @param offset
+	 * 		the position of the slot in the buffer.
+	 * @param index
+	 * 		the index of the slot.
+	 * @param includeInvalid
+	 * 		true to return the record even if its CRC is wrong and never fail on a corrupted slot.
+	 *
+	 * @return the COMMITTING record held by the slot, or null if it is empty.
+	 *
+	 * @throws java.io.IOException
+	 * 		if the slot is corrupted and neither corrupted logs nor invalid records are skipped.
+	 */
+	private TransactionLogRecord readSlot(ByteBuffer buf, int offset, int index, boolean includeInvalid) throws IOException
+	{
+		ByteBuffer slot = buf.duplicate();
+		slot.limit(offset + slotSize)
+		    .position(offset);
+		slot = slot.slice();
+		try
+		{
+			int format = slot.getInt((int) TransactionLogHeader.FORMAT_ID_HEADER);
+			long end = slot.getLong((int) TransactionLogHeader.CURRENT_POSITION_HEADER);
+			if (format != BitronixXid.FORMAT_ID && format != TransactionLogHeader.CRC32C_FORMAT_ID)
+			{
+				throw new CorruptedTransactionLogException("corrupted slot " + index + " (unknown format ID " + format + ")");
+			}
+			if (end < SLOT_HEADER_LENGTH || end > slotSize)
+			{
+				throw new CorruptedTransactionLogException("corrupted slot " + index + " (end position " + end + " outside of the slot)");
+			}
+
+			TransactionLogRecord tlog;
+			try
+			{
+				tlog = new TransactionLogCursor(slot).readLog(includeInvalid);
+			}
+			catch (RuntimeException ex)
+			{
+				throw new CorruptedTransactionLogException("corrupted slot " + index + " (" + ex + ")");
+			}
+			if (tlog != null && tlog.getStatus() != Status.STATUS_COMMITTING)
+			{
+				throw new CorruptedTransactionLogException("corrupted slot " + index + " (unexpected status " + Decoder.decodeStatus(tlog.getStatus()) + ")");
+			}
+			return tlog;
+		}
+		catch (CorruptedTransactionLogException ex)
+		{
+			if (includeInvalid)
+			{
+				return null;
+			}
+			if (configuration.isSkipCorruptedLogs())
+			{
+				log.log(Level.SEVERE, "skipping corrupted slot", ex);
+				return null;
+			}
+			throw ex;
+		}
+	}
+
+	/**
+	 * Forget the dangling transactions and free slots.
+	 */
+	private void clearSlots()
+	{
+		synchronized (slots)
+		{
+			slots.clear();
+			freeSlots = new int[0];
+			freeSlotCount = 0;
+			maxUsedSlotCount = 0;
+		}
+	}
+
+	/**
+	 * Close the slotted disk journal and the slot file.
+	 *
+	 * @throws java.io.IOException
+	 * 		in case of disk IO failure.
+	 */
+	@Override
+	public synchronized void close() throws IOException
+	{
+		if (channel == null)
+		{
+			return;
+		}
+
+		try
+		{
+			writeHeaderState(TransactionLogHeader.CLEAN_LOG_STATE);
+			channel.force(false);
+		}
+		finally
+		{
+			slotFile.close();
+			channel = null;
+			slotFile = null;
+			clearSlots();
+			ManagementRegistrar.unregister(JMX_NAME);
+			ManagementRegistrar.unregister(JMX_NAME + ",Latency=Write");
+			ManagementRegistrar.unregister(JMX_NAME + ",Latency=Force");
+		}
+
+		if (debugCheck.isDebugEnabled())
+		{
+			log.finer("slotted disk journal closed");
+		}
+	}
+
+	/**
+	 * Force the slot file to synchronize with the underlying disk device.
+	 *
+	 * @throws java.io.IOException
+	 * 		in case of disk IO failure or if the journal is not open.
+	 */
+	@Override
+	public void force() throws IOException
+	{
+		if (channel == null)
+		{
+			throw new IOException("cannot force log writing, slotted disk logger is not open");
+		}
+
+		if (configuration.isForcedWriteEnabled())
+		{
+			forceBatcher.force(this::forceSlotFile);
+		}
+	}
+
+	/**
+	 * Force the slot file. Slots are written in place, there is no file switch to synchronize with.
+	 *
+	 * @throws java.io.IOException
+	 * 		in case of disk IO failure.
+	 */
+	private void forceSlotFile() throws IOException
+	{
+		long start = System.nanoTime();
+		channel.force(false);
+		forceLatency.recordSince(start);
+	}
+
+	/**
+	 * Collect all dangling records of the journal from the in-memory index of the slots.
+	 *
+	 * @return a Map using Uid objects GTRID as key and {@link TransactionLogRecord} as value
+	 *
+	 * @throws java.io.IOException
+	 * 		if the journal is not open.
+	 */
+	@Override
+	public Map<Uid, JournalRecord> collectDanglingRecords() throws IOException
+	{
+		if (channel == null)
+		{
+			throw new IOException("cannot collect dangling records, slotted disk logger is not open");
+		}
+
+		synchronized (slots)
+		{
+			Map<Uid, JournalRecord> danglingRecords = new HashMap<>(Math.max(64, slots.size() * 2));
+			for (Map.Entry<Uid, Slot> entry : slots.entrySet())
+			{
+				danglingRecords.put(entry.getKey(), new TransactionLogRecord(Status.STATUS_COMMITTING, entry.getKey(), entry.getValue().uniqueNames));
+			}
+			return danglingRecords;
+		}
+	}
+
+	/**
+	 * Copy the dangling records to another journal with a {@link JournalMigrator}, in batches and with a single force.
+	 *
+	 * @param other
+	 * 		the journal to migrate all unfinished transactions to.
+	 *
+	 * @throws java.io.IOException
+	 * 		if not all records could be copied to the other journal.
+	 */
+	@Override
+	public void migrateTo(Journal other) throws IOException
+	{
+		if (other == this)
+		{
+			throw new IllegalArgumentException("cannot migrate a journal to itself (this == otherJournal)");
+		}
+		if (other == null)
+		{
+			throw new IllegalArgumentException("the migration target journal cannot be null");
+		}
+
+		new JournalMigrator(this, other, true, configuration.getJournalMigrationBatchSize()).migrate();
+	}
+
+	/**
+	 * Read the COMMITTING records of the slots in use, in slot order. Slots which cannot be decoded are skipped when
+	 * invalid records are included.
+	 *
+	 * @param target
+	 * 		the collection to add the records to.
+	 * @param includeInvalid
+	 * 		true to include the records whose CRC is wrong.
+	 *
+	 * @throws java.io.IOException
+	 * 		in case of disk IO failure or if the journal is not open.
+	 */
+	@Override
+	public synchronized void unsafeReadRecordsInto(Collection<JournalRecord> target, boolean includeInvalid) throws IOException
+	{
+		if (channel == null)
+		{
+			throw new IOException("cannot read records, slotted disk logger is not open");
+		}
+
+		int perChunk = Math.max(1, SCAN_CHUNK_SIZE / slotSize);
+		ByteBuffer chunk = ByteBuffer.allocate(perChunk * slotSize);
+		for (int index = 0; index < slotCount; index += perChunk)
+		{
+			int n = Math.min(perChunk, slotCount - index);
+			readFully(chunk, n * slotSize, slotPosition(index));
+			for (int i = 0; i < n; i++)
+			{
+				TransactionLogRecord tlog = readSlot(chunk, i * slotSize, index + i, includeInvalid);
+				if (tlog != null)
+				{
+					target.add(tlog);
+				}
+			}
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public int getSlotCount()
+	{
+		return slotCount;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public int getSlotSize()
+	{
+		return slotSize;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public int getMaxUsedSlotCount()
+	{
+		synchronized (slots)
+		{
+			return maxUsedSlotCount;
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public long getSlotExhaustionCount()
+	{
+		return slotExhaustionCount.get();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public long getForceCount()
+	{
+		return forceBatcher.getForceCount();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public long getForceRequestCount()
+	{
+		return forceBatcher.getRequestCount();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public double getAverageForceBatchSize()
+	{
+		return forceBatcher.getAverageBatchSize();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public long getMaxForceBatchSize()
+	{
+		return forceBatcher.getMaxBatchSize();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public double getAverageForceWaitTimeMicros()
+	{
+		return forceBatcher.getAverageWaitTimeMicros();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public long getMaxForceWaitTimeMicros()
+	{
+		return forceBatcher.getMaxWaitTimeMicros();
+	}
+
+	/**
+	 * Slots do not need checkpoints, the slot file only holds the dangling records.
+	 *
+	 * @return 0.
+	 */
+	@Override
+	public long getCheckpointCount()
+	{
+		return 0L;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public int getDanglingRecordCount()
+	{
+		synchronized (slots)
+		{
+			return slots.size();
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public long getDanglingRecordFootprint()
+	{
+		synchronized (slots)
+		{
+			long footprint = 4L * freeSlots.length;
+			for (Map.Entry<Uid, Slot> entry : slots.entrySet())
+			{
+				// the map entry, the slot, the GTRID and the set of unique names
+				footprint += 48 + 24 + 40 + entry.getKey()
+				                                 .length() + 48 + 40L * entry.getValue().uniqueNames.size();
+			}
+			return footprint;
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void resetLatencyHistograms()
+	{
+		writeLatency.reset();
+		forceLatency.reset();
+	}
+
+	/**
+	 * Slots never hold outcomes.
+	 *
+	 * @return 0.
+	 */
+	@Override
+	public long getOutcomeBatchCount()
+	{
+		return 0L;
+	}
+
+	/**
+	 * Slots never hold outcomes.
+	 *
+	 * @return 0.
+	 */
+	@Override
+	public long getBatchedOutcomeCount()
+	{
+		return 0L;
+	}
+
+	/**
+	 * Get the fraction of the slots scanned by {@link #open()}, dangling records being collected from the index it
+	 * builds.
+	 *
+	 * @return a value between 0.0 and 1.0, 1.0 when no scan is in progress.
+	 */
+	@Override
+	public double getDanglingCollectionProgress()
+	{
+		long toScan = bytesToScan;
+		return toScan == 0L ? 1.0 : Math.min(1.0, (double) bytesScanned / toScan);
+	}
+
+	/**
+	 * Get the duration of the slots scan of the last {@link #open()}.
+	 *
+	 * @return the duration in milliseconds, or -1 if the journal was never opened.
+	 */
+	@Override
+	public long getLastDanglingCollectionDurationMillis()
+	{
+		return lastScanDurationMillis;
+	}
+
+	/**
+	 * Get the number of records read by the slots scan of the last {@link #open()}.
+	 *
+	 * @return the number of records, or -1 if the journal was never opened.
+	 */
+	@Override
+	public long getLastDanglingCollectionRecordCount()
+	{
+		return lastScanRecordCount;
+	}
+
+	/**
+	 * Shutdown the service and free all held resources.
+	 */
+	@Override
+	public void shutdown()
+	{
+		try
+		{
+			close();
+		}
+		catch (IOException ex)
+		{
+			log.log(Level.SEVERE, "error shutting down slotted disk journal. Transaction log integrity could be compromised!", ex);
+		}
+	}
+
+	/**
+	 * A slot in use with the unique names still in doubt of the COMMITTING record it holds.
+	 */
+	private static final class Slot
+	{
+		private final int index;
+		private final Set<String> uniqueNames;
+
+		private Slot(int index, Set<String> uniqueNames)
+		{
+			this.index = index;
+			this.uniqueNames = uniqueNames;
+		}
+
+		@Override
+		public String toString()
+		{
+			return "slot " + index + " " + uniqueNames;
+		}
+	}
+}
@@ -0,0 +1,54 @@
+/*
+ * Copyright (C) 2006-2013 Bitronix Software (http://www.bitronix.be)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package bitronix.tm.journal;
+
+/**
+ * {@link SlottedDiskJournal} Management interface.
+ */
+public interface SlottedDiskJournalMBean
+		extends DiskJournalMBean
+{
+
+	/**
+	 * Method getSlotCount returns the number of slots of the slot file.
+	 *
+	 * @return the slotCount (type int) of this SlottedDiskJournalMBean object.
+	 */
+	int getSlotCount();
+
+	/**
+	 * Method getSlotSize returns the size in bytes of a slot.
+	 *
+	 * @return the slotSize (type int) of this SlottedDiskJournalMBean object.
+	 */
+	int getSlotSize();
+
+	/**
+	 * Method getMaxUsedSlotCount returns the largest number of slots that have been in use at the same time since the
+	 * journal has been opened.
+	 *
+	 * @return the maxUsedSlotCount (type int) of this SlottedDiskJournalMBean object.
+	 */
+	int getMaxUsedSlotCount();
+
+	/**
+	 * Method getSlotExhaustionCount returns the number of COMMITTING records which could not be logged because all the
+	 * slots were in use.
+	 *
+	 * @return the slotExhaustionCount (type long) of this SlottedDiskJournalMBean object.
+	 */
+	long getSlotExhaustionCount();
+}
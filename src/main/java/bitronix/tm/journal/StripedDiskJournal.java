@@ -0,0 +1,493 @@
+/*
+ * Copyright (C) 2006-2013 Bitronix Software (http://www.bitronix.be)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package bitronix.tm.journal;
+
+import bitronix.tm.Configuration;
+import bitronix.tm.TransactionManagerServices;
+import bitronix.tm.internal.LogDebugCheck;
+import bitronix.tm.utils.ManagementRegistrar;
+import bitronix.tm.utils.Uid;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.logging.Level;
+
+/**
+ * Journal spreading the transactions over several independent {@link DiskJournal}s, typically located on different
+ * disks, so that the journal bandwidth and the number of concurrent disk forces are not bound to a single device.
+ * <p>Each stripe is a regular two-files disk journal in one of the directories listed in
+ * <code>bitronix.tm.journal.disk.stripeDirectories</code>. Records are routed by GTRID hash so all the records of a
+ * transaction land in the same stripe and dangling records can be collected from each stripe independently.</p>
+ * <p>This only holds as long as the stripes are not reordered nor their count changed, so each stripe directory also
+ * holds a small descriptor file recording the index of the stripe and the stripe count. Opening the journal with a
+ * configuration that does not match the descriptors fails, the dangling records must then be migrated with the
+ * previous configuration first.</p>
+ * <p>A call to {@link #force()} only forces the stripes the calling thread logged to since its previous force, or all
+ * stripes when it did not log anything.</p>
+ *
+ * @see bitronix.tm.Configuration
+ */
+public class StripedDiskJournal
+		implements Journal, MigratableJournal, ReadableJournal, StripedDiskJournalMBean
+{
+
+	private static final java.util.logging.Logger log = java.util.logging.Logger.getLogger(StripedDiskJournal.class.toString());
+
+	private static final LogDebugCheck debugCheck = LogDebugCheck.forLogger(log);
+	private static final String JMX_NAME = "bitronix.tm:type=Journal";
+	private static final String DESCRIPTOR_SUFFIX = ".stripe";
+	private static final String STRIPE_INDEX_PROPERTY = "stripeIndex";
+	private static final String STRIPE_COUNT_PROPERTY = "stripeCount";
+
+	private final Configuration configuration;
+	/**
+	 * The stripes the current thread logged to since its last force.
+	 */
+	private final ThreadLocal<BitSet> touchedStripes = ThreadLocal.withInitial(BitSet::new);
+	private volatile DiskJournal[] stripes;
+
+	/**
+	 * Create an uninitialized striped disk journal. You must call open() prior you can use it.
+	 */
+	public StripedDiskJournal()
+	{
+		configuration = TransactionManagerServices.getConfiguration();
+	}
+
+	/**
+	 * Log a new transaction status to the stripe of its GTRID.
+	 *
+	 * @param status
+	 * 		transaction status to log. See {@link jakarta.transaction.Status} constants.
+	 * @param gtrid
+	 * 		raw GTRID of the transaction.
+	 * @param uniqueNames
+	 * 		unique names of the {@link bitronix.tm.resource.common.ResourceBean}s participating in
+	 * 		this transaction.
+	 *
+	 * @throws java.io.IOException
+	 * 		in case of disk IO failure or if the journal is not open.
+	 */
+	@Override
+	public void log(int status, Uid gtrid, Set<String> uniqueNames) throws IOException
+	{
+		DiskJournal[] current = stripes;
+		if (current == null)
+		{
+			throw new IOException("cannot write log, striped disk logger is not open");
+		}
+
+		int stripe = stripeOf(gtrid, current.length);
+		current[stripe].log(status, gtrid, uniqueNames);
+		touchedStripes.get()
+		              .set(stripe);
+	}
+
+	/**
+	 * Log several transaction statuses, each stripe writing its share of the records as a single batch.
+	 *
+	 * @param records
+	 * 		the records to log, only their status, GTRID and unique names are used.
+	 *
+	 * @throws java.io.IOException
+	 * 		in case of disk IO failure or if the journal is not open.
+	 */
+	@Override
+	public void logAll(Collection<? extends JournalRecord> records) throws IOException
+	{
+		DiskJournal[] current = stripes;
+		if (current == null)
+		{
+			throw new IOException("cannot write log, striped disk logger is not open");
+		}
+
+		List<List<JournalRecord>> batches = new ArrayList<>(current.length);
+		for (int i = 0; i < current.length; i++)
+		{
+			batches.add(new ArrayList<>());
+		}
+		for (JournalRecord record : records)
+		{
+			batches.get(stripeOf(record.getGtrid(), current.length))
+			       .add(record);
+		}
+		BitSet touched = touchedStripes.get();
+		for (int i = 0; i < current.length; i++)
+		{
+			if (!batches.get(i)
+			            .isEmpty())
+			{
+				current[i].logAll(batches.get(i));
+				touched.set(i);
+			}
+		}
+	}
+
+	/**
+	 * Get the stripe of a GTRID.
+	 *
+	 * @param gtrid
+	 * 		the GTRID.
+	 * @param stripeCount
+	 * 		the number of stripes.
+	 *
+	 * @return the index of the stripe.
+	 */
+	private static int stripeOf(Uid gtrid, int stripeCount)
+	{
+		int hash = gtrid.hashCode();
+		return Math.floorMod(hash ^ (hash >>> 16), stripeCount);
+	}
+
+	/**
+	 * Force the stripes the calling thread logged to since its last force.
+	 *
+	 * @throws java.io.IOException
+	 * 		in case of disk IO failure or if the journal is not open.
+	 */
+	@Override
+	public void force() throws IOException
+	{
+		DiskJournal[] current = stripes;
+		if (current == null)
+		{
+			throw new IOException("cannot force log writing, striped disk logger is not open");
+		}
+
+		BitSet touched = touchedStripes.get();
+		if (touched.isEmpty())
+		{
+			for (DiskJournal stripe : current)
+			{
+				stripe.force();
+			}
+			return;
+		}
+
+		for (int i = touched.nextSetBit(0); i >= 0 && i < current.length; i = touched.nextSetBit(i + 1))
+		{
+			current[i].force();
+		}
+		touched.clear();
+	}
+
+	/**
+	 * Open all the stripes. If files are not present on disk, they are created and pre-allocated.
+	 *
+	 * @throws java.io.IOException
+	 * 		in case of disk IO failure, if no stripe directory is configured or if the stripe directories were last used
+	 * 		with a different layout.
+	 */
+	@Override
+	public synchronized void open() throws IOException
+	{
+		if (stripes != null)
+		{
+			log.warning("striped disk journal already open");
+			return;
+		}
+
+		List<String> directories = new ArrayList<>();
+		String configured = configuration.getStripeDirectories();
+		if (configured != null)
+		{
+			for (String directory : configured.split(","))
+			{
+				if (!directory.trim()
+				              .isEmpty())
+				{
+					directories.add(directory.trim());
+				}
+			}
+		}
+		if (directories.isEmpty())
+		{
+			throw new IOException("striped disk journal requires bitronix.tm.journal.disk.stripeDirectories to be set");
+		}
+
+		String logPart1Name = new File(configuration.getLogPart1Filename()).getName();
+		String logPart2Name = new File(configuration.getLogPart2Filename()).getName();
+		File[] descriptors = new File[directories.size()];
+		for (int i = 0; i < descriptors.length; i++)
+		{
+			descriptors[i] = new File(directories.get(i), logPart1Name + DESCRIPTOR_SUFFIX);
+			checkDescriptor(descriptors[i], i, descriptors.length);
+		}
+
+		DiskJournal[] opened = new DiskJournal[directories.size()];
+		try
+		{
+			for (int i = 0; i < opened.length; i++)
+			{
+				String directory = directories.get(i);
+				opened[i] = new DiskJournal(new File(directory, logPart1Name).getPath(), new File(directory, logPart2Name).getPath(), JMX_NAME + ",Stripe=" + i);
+				opened[i].open();
+				if (!descriptors[i].exists())
+				{
+					writeDescriptor(descriptors[i], i, opened.length);
+				}
+			}
+		}
+		catch (IOException | RuntimeException ex)
+		{
+			closeStripes(opened);
+			throw ex;
+		}
+		stripes = opened;
+
+		ManagementRegistrar.register(JMX_NAME, this);
+
+		if (debugCheck.isDebugEnabled())
+		{
+			log.finer("striped disk journal opened with " + opened.length + " stripe(s) in " + directories);
+		}
+	}
+
+	/**
+	 * Check that a stripe directory was last used as the same stripe of a journal with the same stripe count.
+	 *
+	 * @param descriptor
+	 * 		the descriptor file of the stripe.
+	 * @param index
+	 * 		the index of the stripe in the configuration.
+	 * @param count
+	 * 		the number of stripes in the configuration.
+	 *
+	 * @throws java.io.IOException
+	 * 		if the descriptor cannot be read or does not match the configuration.
+	 */
+	private static void checkDescriptor(File descriptor, int index, int count) throws IOException
+	{
+		if (!descriptor.exists())
+		{
+			return;
+		}
+
+		Properties properties = new Properties();
+		try (Reader reader = new InputStreamReader(new FileInputStream(descriptor), StandardCharsets.ISO_8859_1))
+		{
+			properties.load(reader);
+		}
+		String storedIndex = properties.getProperty(STRIPE_INDEX_PROPERTY);
+		String storedCount = properties.getProperty(STRIPE_COUNT_PROPERTY);
+		if (!String.valueOf(index)
+		           .equals(storedIndex) || !String.valueOf(count)
+		                                         .equals(storedCount))
+		{
+			throw new IOException("striped disk journal stripe " + descriptor.getParent() + " was stripe " + storedIndex + " of " + storedCount + " but is configured as stripe " + index
+			                      + " of " + count + ", transactions would be looked up in the wrong stripe. Migrate the journal with its previous "
+			                      + "bitronix.tm.journal.disk.stripeDirectories first");
+		}
+	}
+
+	/**
+	 * Record the index of a stripe and the stripe count in the stripe directory.
+	 *
+	 * @param descriptor
+	 * 		the descriptor file of the stripe.
+	 * @param index
+	 * 		the index of the stripe.
+	 * @param count
+	 * 		the number of stripes.
+	 *
+	 * @throws java.io.IOException
+	 * 		if the descriptor cannot be written.
+	 */
+	private static void writeDescriptor(File descriptor, int index, int count) throws IOException
+	{
+		Properties properties = new Properties();
+		properties.setProperty(STRIPE_INDEX_PROPERTY, String.valueOf(index));
+		properties.setProperty(STRIPE_COUNT_PROPERTY, String.valueOf(count));
+		try (Writer writer = new OutputStreamWriter(new FileOutputStream(descriptor), StandardCharsets.ISO_8859_1))
+		{
+			properties.store(writer, "BTM striped disk journal stripe, do not edit");
+		}
+	}
+
+	/**
+	 * Close all the stripes.
+	 *
+	 * @throws java.io.IOException
+	 * 		in case of disk IO failure.
+	 */
+	@Override
+	public synchronized void close() throws IOException
+	{
+		DiskJournal[] current = stripes;
+		if (current == null)
+		{
+			return;
+		}
+
+		stripes = null;
+		closeStripes(current);
+		ManagementRegistrar.unregister(JMX_NAME);
+
+		if (debugCheck.isDebugEnabled())
+		{
+			log.finer("striped disk journal closed");
+		}
+	}
+
+	/**
+	 * Close the specified stripes, logging failures.
+	 *
+	 * @param toClose
+	 * 		the stripes to close, possibly containing nulls.
+	 */
+	private static void closeStripes(DiskJournal[] toClose)
+	{
+		for (DiskJournal stripe : toClose)
+		{
+			if (stripe == null)
+			{
+				continue;
+			}
+			try
+			{
+				stripe.close();
+			}
+			catch (IOException ex)
+			{
+				log.log(Level.SEVERE, "cannot close " + stripe, ex);
+			}
+		}
+	}
+
+	/**
+	 * Collect the dangling records of all stripes.
+	 *
+	 * @return a Map using Uid objects GTRID as key and {@link TransactionLogRecord} as value
+	 *
+	 * @throws java.io.IOException
+	 * 		in case of disk IO failure or if the journal is not open.
+	 */
+	@Override
+	public Map<Uid, JournalRecord> collectDanglingRecords() throws IOException
+	{
+		DiskJournal[] current = stripes;
+		if (current == null)
+		{
+			throw new IOException("cannot collect dangling records, striped disk logger is not open");
+		}
+
+		Map<Uid, JournalRecord> danglingRecords = new HashMap<>(64);
+		for (DiskJournal stripe : current)
+		{
+			danglingRecords.putAll(stripe.collectDanglingRecords());
+		}
+		return danglingRecords;
+	}
+
+	/**
+	 * Copy the dangling records to another journal with a {@link JournalMigrator}, in batches and with a single force.
+	 *
+	 * @param other
+	 * 		the journal to migrate all unfinished transactions to.
+	 *
+	 * @throws java.io.IOException
+	 * 		if not all records could be copied to the other journal.
+	 */
+	@Override
+	public void migrateTo(Journal other) throws IOException
+	{
+		if (other == this)
+		{
+			throw new IllegalArgumentException("cannot migrate a journal to itself (this == otherJournal)");
+		}
+		if (other == null)
+		{
+			throw new IllegalArgumentException("the migration target journal cannot be null");
+		}
+
+		new JournalMigrator(this, other, true, configuration.getJournalMigrationBatchSize()).migrate();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void unsafeReadRecordsInto(Collection<JournalRecord> target, boolean includeInvalid) throws IOException
+	{
+		DiskJournal[] current = stripes;
+		if (current == null)
+		{
+			throw new IOException("cannot read records, striped disk logger is not open");
+		}
+
+		for (DiskJournal stripe : current)
+		{
+			stripe.unsafeReadRecordsInto(target, includeInvalid);
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public int getStripeCount()
+	{
+		DiskJournal[] current = stripes;
+		return current == null ? 0 : current.length;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public long getForceCount()
+	{
+		long count = 0L;
+		DiskJournal[] current = stripes;
+		for (DiskJournal stripe : current == null ? new DiskJournal[0] : current)
+		{
+			count += stripe.getForceCount();
+		}
+		return count;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public long getStripeForceRequestCount()
+	{
+		long count = 0L;
+		DiskJournal[] current = stripes;
+		for (DiskJournal stripe : current == null ? new DiskJournal[0] : current)
+		{
+			count += stripe.getForceRequestCount();
+		}
+		return count;
+	}
+
+	/**
+	 * Shutdown the service and free all held resources.
+	 */
+	@Override
+	public void shutdown()
+	{
+		try
+		{
+			close();
+		}
+		catch (IOException ex)
+		{
+			log.log(Level.SEVERE, "error shutting down striped disk journal. Transaction log integrity could be compromised!", ex);
+		}
+	}
+}
@@ -0,0 +1,45 @@
+/*
+ * Copyright (C) 2006-2013 Bitronix Software (http://www.bitronix.be)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package bitronix.tm.journal;
+
+/**
+ * {@link StripedDiskJournal} Management interface. Each stripe is also registered as a {@link DiskJournalMBean}.
+ */
+public interface StripedDiskJournalMBean
+{
+
+	/**
+	 * Method getStripeCount returns the number of stripes of the journal.
+	 *
+	 * @return the stripeCount (type int) of this StripedDiskJournalMBean object.
+	 */
+	int getStripeCount();
+
+	/**
+	 * Method getForceCount returns the number of disk forces performed on all stripes.
+	 *
+	 * @return the forceCount (type long) of this StripedDiskJournalMBean object.
+	 */
+	long getForceCount();
+
+	/**
+	 * Method getStripeForceRequestCount returns the number of force requests received by all stripes. A single call
+	 * to force the journal sends a request to each stripe touched by the caller.
+	 *
+	 * @return the stripeForceRequestCount (type long) of this StripedDiskJournalMBean object.
+	 */
+	long getStripeForceRequestCount();
+}
@@ -15,7 +15,10 @@
  */
 package bitronix.tm.journal;
 
+import bitronix.tm.BitronixXid;
+import bitronix.tm.TransactionManagerServices;
 import bitronix.tm.internal.LogDebugCheck;
+import bitronix.tm.utils.Encoder;
 import bitronix.tm.utils.Uid;
 
 import jakarta.transaction.Status;
@@ -23,10 +26,14 @@ import java.io.File;
 import java.io.IOException;
 import java.io.RandomAccessFile;
 import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
 import java.nio.channels.FileChannel;
 import java.nio.channels.FileLock;
 import java.util.*;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * Used to write {@link TransactionLogRecord} objects to a log file.
@@ -44,16 +51,50 @@ public class TransactionLogAppender
 	 */
 	public static final int END_RECORD = 0x786e7442;
 	private static final java.util.logging.Logger log = java.util.logging.Logger.getLogger(TransactionLogAppender.class.toString());
+	private static final LogDebugCheck debugCheck = LogDebugCheck.forLogger(log);
+	private static final int PRETOUCH_CHUNK_SIZE = 64 * 1024;
 
 	private final File file;
 	private final RandomAccessFile randomeAccessFile;
 	private final FileChannel fc;
+	private final MappedByteBuffer map;
 	private final FileLock lock;
 	private final TransactionLogHeader header;
 	private final long maxFileLength;
 	private final AtomicInteger outstandingWrites;
-	private final HashMap<Uid, Set<String>> danglingRecords;
+	private final Lock outstandingWritesLock = new ReentrantLock();
+	private final Condition outstandingWritesCompleted = outstandingWritesLock.newCondition();
+	/**
+	 * True while a checkpoint waits for the outstanding writes to complete.
+	 */
+	private volatile boolean awaitingOutstandingWrites;
+	private final DanglingRecordIndex danglingRecords;
+	/**
+	 * The unique names dictionary of the log file, null when records are written in the original format. Guarded by
+	 * the lock serializing the calls to setPositionAndAdvance.
+	 */
+	private final TransactionLogDictionary dictionary;
+	private final long checkpointInterval;
+	private final int maxCheckpointRecords;
+	/**
+	 * The format ID telling the checksum algorithm the log file switches to whenever it is empty.
+	 */
+	private final int formatId;
+	/**
+	 * The size of the blocks writes are padded to, 0 if they are not padded.
+	 */
+	private final int writeBlockSize;
 	private long position;
+	/**
+	 * Position of the latest checkpoint written or found in the log file and position right after it, null if there
+	 * is none.
+	 */
+	private volatile long[] checkpoint;
+	/**
+	 * Position from which the checkpoint interval is counted when it is later than the latest checkpoint, because a
+	 * checkpoint has been postponed or suspended. Guarded by the lock serializing the calls to setPositionAndAdvance.
+	 */
+	private long checkpointSkipPosition = TransactionLogHeader.HEADER_LENGTH;
 
 	/**
 	 * Create an appender that will write to specified file up to the specified maximum length.
@@ -68,10 +109,48 @@ public class TransactionLogAppender
 	 */
 	public TransactionLogAppender(File file, long maxFileLength) throws IOException
 	{
+		this(file, maxFileLength, false);
+	}
+
+	/**
+	 * Create an appender that will write to specified file up to the specified maximum length, optionally through a
+	 * memory mapping of the whole file.
+	 *
+	 * @param file
+	 * 		the underlying File used to write to disk.
+	 * @param maxFileLength
+	 * 		size of the file on disk that can never be bypassed.
+	 * @param memoryMapped
+	 * 		true if the file must be memory-mapped, in which case the header is also written through the mapping.
+	 *
+	 * @throws IOException
+	 * 		if an I/O error occurs.
+	 */
+	protected TransactionLogAppender(File file, long maxFileLength, boolean memoryMapped) throws IOException
+	{
+		this.writeBlockSize = TransactionManagerServices.getConfiguration()
+		                                                .getWriteBlockSize();
+		if (writeBlockSize != 0 && (writeBlockSize < 512 || writeBlockSize > 4096 || Integer.bitCount(writeBlockSize) != 1))
+		{
+			throw new IOException("invalid write block size " + writeBlockSize + ", it must be 0 or a power of two between 512 and 4096");
+		}
 		this.file = file;
 		this.randomeAccessFile = new RandomAccessFile(file, "rw");
 		this.fc = randomeAccessFile.getChannel();
-		this.header = new TransactionLogHeader(fc, maxFileLength);
+		if (memoryMapped)
+		{
+			if (maxFileLength > Integer.MAX_VALUE || fc.size() < maxFileLength)
+			{
+				randomeAccessFile.close();
+				throw new IOException("transaction log file " + file.getName() + " cannot be memory-mapped, it must be pre-allocated and smaller than 2GB");
+			}
+			this.map = fc.map(FileChannel.MapMode.READ_WRITE, 0, maxFileLength);
+		}
+		else
+		{
+			this.map = null;
+		}
+		this.header = new TransactionLogHeader(fc, map, maxFileLength);
 		this.maxFileLength = maxFileLength;
 		this.lock = fc.tryLock(0, TransactionLogHeader.TIMESTAMP_HEADER, false);
 		if (this.lock == null)
@@ -81,9 +160,22 @@ public class TransactionLogAppender
 
 		this.outstandingWrites = new AtomicInteger();
 
-		this.danglingRecords = new HashMap<>();
+		this.danglingRecords = new DanglingRecordIndex();
+
+		this.dictionary = TransactionManagerServices.getConfiguration()
+		                                            .isUniqueNameDictionaryEnabled() ? new TransactionLogDictionary() : null;
+		this.checkpointInterval = TransactionManagerServices.getConfiguration()
+		                                                    .getCheckpointIntervalInKb() * 1024L;
+		this.maxCheckpointRecords = TransactionManagerServices.getConfiguration()
+		                                                      .getMaxCheckpointRecords();
+		this.formatId = TransactionManagerServices.getConfiguration()
+		                                          .isCrc32cChecksumEnabled() ? TransactionLogHeader.CRC32C_FORMAT_ID : BitronixXid.FORMAT_ID;
 
 		this.position = header.getPosition();
+		if (position == TransactionLogHeader.HEADER_LENGTH)
+		{
+			applyFormatId();
+		}
 	}
 
 	/**
@@ -93,6 +185,7 @@ public class TransactionLogAppender
 	 * never be two callers to this method.  This creates a Java memory barrier
 	 * that guarantees that 'position' will never be viewed inconsistently
 	 * between threads.
+	 * <p>The record is written on its own, so it is padded to the write block size.</p>
 	 *
 	 * @param tlog
 	 * 		the TransactionLogRecord
@@ -101,15 +194,43 @@ public class TransactionLogAppender
 	 */
 	protected boolean setPositionAndAdvance(TransactionLogRecord tlog)
 	{
+		return setPositionAndAdvance(tlog, true);
+	}
+
+	/**
+	 * Get the current file position and advance the position by recordSize if the maximum file length won't be
+	 * exceeded, see {@link #setPositionAndAdvance(TransactionLogRecord)}. Records written together by
+	 * {@link #writeLogs(List)} must only be padded after the last one.
+	 *
+	 * @param tlog
+	 * 		the TransactionLogRecord
+	 * @param endOfWrite
+	 * 		true if the record is the last one of its write, in which case it is padded to the write block size.
+	 *
+	 * @return true if the log should rollover, false otherwise
+	 */
+	protected boolean setPositionAndAdvance(TransactionLogRecord tlog, boolean endOfWrite)
+	{
+		tlog.setCrc32c(header.isCrc32c());
+		if (dictionary != null)
+		{
+			tlog.bindDictionary(dictionary);
+		}
 		int tlogSize = tlog.calculateTotalRecordSize();
 		if (position + tlogSize > maxFileLength)
 		{
 			return true;
 		}
+		if (dictionary != null)
+		{
+			tlog.defineNames(dictionary);
+		}
 
 		long writePosition = position;
 		position += tlogSize;
 		tlog.setWritePosition(writePosition);
+		tlog.setPaddingLength(endOfWrite ? paddingAfter(position) : 0);
+		position += tlog.getPaddingLength();
 
 		outstandingWrites.incrementAndGet();
 		return false;
@@ -128,135 +249,439 @@ public class TransactionLogAppender
 	{
 		try
 		{
-			int status = tlog.getStatus();
-			Uid gtrid = tlog.getGtrid();
-
-			int recordSize = tlog.calculateTotalRecordSize();
-			ByteBuffer buf = ByteBuffer.allocate(recordSize);
-			buf.putInt(tlog.getStatus());
-			buf.putInt(tlog.getRecordLength());
-			buf.putInt(tlog.getHeaderLength());
-			buf.putLong(tlog.getTime());
-			buf.putInt(tlog.getSequenceNumber());
-			buf.putInt(tlog.getCrc32());
-			buf.put((byte) gtrid.getArray().length);
-			buf.put(gtrid.getArray());
-			Set<String> uniqueNames = tlog.getUniqueNames();
-			buf.putInt(uniqueNames.size());
-			for (String uniqueName : uniqueNames)
+			ByteBuffer buf = TransactionLogSerializer.get()
+			                                         .buffer(tlog.calculateTotalRecordSize() + tlog.getPaddingLength());
+			tlog.writeTo(buf);
+			pad(buf, tlog);
+			buf.flip();
+
+			if (debugCheck.isDebugEnabled())
 			{
-				buf.putShort((short) uniqueName.length());
-				buf.put(uniqueName.getBytes());
+				log.finer("between " + tlog.getWritePosition() + " and " + tlog.getWritePosition() + tlog.calculateTotalRecordSize() + ", writing " + tlog);
+			}
+
+			write(buf, tlog.getWritePosition());
+
+			trackOutstanding(tlog);
+		}
+		finally
+		{
+			writesCompleted(1);
+		}
+	}
+
+	/**
+	 * Write a batch of {@link TransactionLogRecord}s to disk with a single write. The records must have been
+	 * positioned one after the other by consecutive calls to {@link #setPositionAndAdvance(TransactionLogRecord)}.
+	 *
+	 * @param tlogs
+	 * 		the records to write to disk, in position order.
+	 *
+	 * @throws IOException
+	 * 		if an I/O error occurs.
+	 */
+	protected void writeLogs(List<TransactionLogRecord> tlogs) throws IOException
+	{
+		if (tlogs.isEmpty())
+		{
+			return;
+		}
+		try
+		{
+			int size = 0;
+			for (TransactionLogRecord tlog : tlogs)
+			{
+				size += tlog.calculateTotalRecordSize() + tlog.getPaddingLength();
+			}
+
+			ByteBuffer buf = TransactionLogSerializer.get()
+			                                         .buffer(size);
+			for (TransactionLogRecord tlog : tlogs)
+			{
+				tlog.writeTo(buf);
+				pad(buf, tlog);
 			}
-			buf.putInt(tlog.getEndRecord());
 			buf.flip();
 
-			if (LogDebugCheck.isDebugEnabled())
+			long writePosition = tlogs.get(0)
+			                          .getWritePosition();
+			if (debugCheck.isDebugEnabled())
 			{
-				log.finer("between " + tlog.getWritePosition() + " and " + tlog.getWritePosition() + tlog.calculateTotalRecordSize() + ", writing " + tlog);
+				log.finer("between " + writePosition + " and " + (writePosition + size) + ", writing " + tlogs.size() + " record(s)");
 			}
 
-			long writePosition = tlog.getWritePosition();
-			while (buf.hasRemaining())
+			write(buf, writePosition);
+
+			for (TransactionLogRecord tlog : tlogs)
 			{
-				fc.write(buf, writePosition + buf.position());
+				trackOutstanding(tlog);
 			}
+		}
+		finally
+		{
+			writesCompleted(tlogs.size());
+		}
+	}
 
-			trackOutstanding(status, gtrid, uniqueNames);
+	/**
+	 * Account for completed writes, updating the header position and waking up a waiting checkpoint once no write is
+	 * outstanding anymore.
+	 *
+	 * @param count
+	 * 		the number of records whose write completed, successfully or not.
+	 *
+	 * @throws IOException
+	 * 		if the header position cannot be written.
+	 */
+	private void writesCompleted(int count) throws IOException
+	{
+		if (outstandingWrites.addAndGet(-count) != 0)
+		{
+			return;
+		}
+		try
+		{
+			header.setPosition(position);
 		}
 		finally
 		{
-			if (outstandingWrites.decrementAndGet() == 0)
+			if (awaitingOutstandingWrites)
 			{
-				header.setPosition(position);
+				outstandingWritesLock.lock();
+				try
+				{
+					outstandingWritesCompleted.signalAll();
+				}
+				finally
+				{
+					outstandingWritesLock.unlock();
+				}
 			}
 		}
 	}
 
 	/**
-	 * This method tracks outstanding (uncommitted) resources by gtrid.  Access
-	 * to the danglingRecords map, and the TreeSets contained within are guarded
-	 * by a synchronization lock on danglingRecords itself.
-	 *
-	 * @param status
-	 * 		the transaction log record status
-	 * @param gtrid
-	 * 		the transaction id
-	 * @param uniqueNames
-	 * 		the set of uniquely named resources
+	 * Wait until the records positioned so far have all been written.
 	 */
-	private void trackOutstanding(int status, Uid gtrid, Set<String> uniqueNames)
+	private void awaitOutstandingWrites()
 	{
-		if (uniqueNames.isEmpty())
+		if (outstandingWrites.get() == 0)
 		{
 			return;
 		}
+		outstandingWritesLock.lock();
+		try
+		{
+			awaitingOutstandingWrites = true;
+			while (outstandingWrites.get() != 0)
+			{
+				outstandingWritesCompleted.awaitUninterruptibly();
+			}
+		}
+		finally
+		{
+			awaitingOutstandingWrites = false;
+			outstandingWritesLock.unlock();
+		}
+	}
+
+	/**
+	 * Get the size of the padding record filling the log file from a position to the next write block boundary.
+	 *
+	 * @param end
+	 * 		the position right after the last record of a write.
+	 *
+	 * @return the size of the padding record, 0 if writes are not padded, if the position already is a block
+	 * boundary or if the padding would not fit in the log file.
+	 */
+	private int paddingAfter(long end)
+	{
+		if (writeBlockSize == 0)
+		{
+			return 0;
+		}
+		long aligned = (end + writeBlockSize - 1) & -writeBlockSize;
+		if (aligned != end && aligned - end < TransactionLogRecord.MIN_PADDING_LENGTH)
+		{
+			// too small for a record, pad up to the boundary after
+			aligned += writeBlockSize;
+		}
+		return aligned > maxFileLength ? 0 : (int) (aligned - end);
+	}
+
+	/**
+	 * Serialize the padding record following a record, if it has one.
+	 *
+	 * @param buf
+	 * 		the buffer to write to, positioned right after the record.
+	 * @param tlog
+	 * 		the record.
+	 */
+	private void pad(ByteBuffer buf, TransactionLogRecord tlog)
+	{
+		if (tlog.getPaddingLength() > 0)
+		{
+			TransactionLogRecord.writePadding(buf, tlog.getPaddingLength(), header.isCrc32c());
+		}
+	}
+
+	/**
+	 * Write the content of a buffer at the specified position of the log file.
+	 *
+	 * @param buf
+	 * 		the buffer holding the serialized record.
+	 * @param writePosition
+	 * 		the position in the file at which the buffer content must be written.
+	 *
+	 * @throws IOException
+	 * 		if an I/O error occurs.
+	 */
+	protected void write(ByteBuffer buf, long writePosition) throws IOException
+	{
+		while (buf.hasRemaining())
+		{
+			fc.write(buf, writePosition + buf.position());
+		}
+	}
 
+	/**
+	 * Get the memory mapping of the whole log file.
+	 *
+	 * @return the memory mapping or null if this appender is not memory-mapped.
+	 */
+	protected MappedByteBuffer getMap()
+	{
+		return map;
+	}
+
+	/**
+	 * This method tracks outstanding (uncommitted) resources by gtrid in the
+	 * concurrent danglingRecords index, without serializing the writers.
+	 * <p>The same rules as when collecting the dangling records of the log file
+	 * apply, so that the map can be checkpointed.</p>
+	 *
+	 * @param tlog
+	 * 		the transaction log record
+	 */
+	private void trackOutstanding(TransactionLogRecord tlog)
+	{
+		int status = tlog.getStatus();
+		Uid gtrid = tlog.getGtrid();
+		Set<String> uniqueNames = tlog.getUniqueNames();
 		switch (status)
 		{
 			case Status.STATUS_COMMITTING:
 			{
-				synchronized (danglingRecords)
-				{
-					Set<String> outstanding = danglingRecords.computeIfAbsent(gtrid, k -> new TreeSet<>(uniqueNames));
-					outstanding.addAll(uniqueNames);
-				}
+				danglingRecords.put(gtrid, uniqueNames);
 				break;
 			}
 			case Status.STATUS_ROLLEDBACK:
 			case Status.STATUS_COMMITTED:
 			case Status.STATUS_UNKNOWN:
 			{
-				synchronized (danglingRecords)
+				danglingRecords.remove(gtrid, uniqueNames);
+				break;
+			}
+			case TransactionLogRecord.STATUS_OUTCOME_BATCH:
+			{
+				for (TransactionLogRecord outcome : tlog.getOutcomes())
 				{
-					Set<String> outstanding = danglingRecords.get(gtrid);
-					if (outstanding != null && outstanding.removeAll(uniqueNames) && outstanding.isEmpty())
-					{
-						danglingRecords.remove(gtrid);
-					}
+					trackOutstanding(outcome);
 				}
 				break;
 			}
 			default:
 			{
-				log.finest("Status Type not actioned : " + status);
+				if (debugCheck.isDebugEnabled())
+				{
+					log.finest("Status Type not actioned : " + status);
+				}
 			}
 		}
 	}
 
 	/**
-	 * Method getDanglingLogs returns the danglingLogs of this TransactionLogAppender object.
+	 * Track the dangling records of the log file written before this appender was created.
 	 *
-	 * @return the danglingLogs (type List TransactionLogRecord ) of this TransactionLogAppender object.
+	 * @param records
+	 * 		the dangling records collected from the log file.
 	 */
-	protected List<TransactionLogRecord> getDanglingLogs()
+	void trackDanglingRecords(Collection<JournalRecord> records)
 	{
-		synchronized (danglingRecords)
+		for (JournalRecord record : records)
 		{
-			List<Uid> sortedUids = new ArrayList<>(danglingRecords.keySet());
-			Collections.sort(sortedUids, (uid1, uid2) -> Integer.valueOf(uid1.extractSequence())
-			                                                    .compareTo(uid2.extractSequence()));
+			danglingRecords.put(record.getGtrid(), record.getUniqueNames());
+		}
+	}
+
+	/**
+	 * Tell if enough records have been written since the latest checkpoint to write a new one. Callers must hold the
+	 * lock serializing the calls to {@link #setPositionAndAdvance(TransactionLogRecord)}.
+	 *
+	 * @return true if a checkpoint should be written.
+	 */
+	protected boolean isCheckpointDue()
+	{
+		long[] latest = checkpoint;
+		long from = Math.max(latest == null ? TransactionLogHeader.HEADER_LENGTH : latest[1], checkpointSkipPosition);
+		return checkpointInterval > 0 && position - from >= checkpointInterval;
+	}
+
+	/**
+	 * Write a checkpoint of the dangling records. Callers must hold the lock serializing the calls to
+	 * {@link #setPositionAndAdvance(TransactionLogRecord)} so that no record can be positioned meanwhile. The records
+	 * positioned so far by other threads are waited for, their outcome must be part of the checkpoint.
+	 * <p>The checkpoint is postponed by a whole interval if it does not fit in the log file or if there are more
+	 * dangling records than a checkpoint may hold.</p>
+	 *
+	 * @return true if the checkpoint has been written.
+	 *
+	 * @throws IOException
+	 * 		if an I/O error occurs.
+	 */
+	protected boolean writeCheckpoint() throws IOException
+	{
+		awaitOutstandingWrites();
 
-			List<TransactionLogRecord> outstandingLogs = new ArrayList<>(danglingRecords.size());
-			for (Uid uid : sortedUids)
+		// no write is outstanding and none can be positioned, the snapshot is exact
+		if (danglingRecords.size() > maxCheckpointRecords)
+		{
+			if (debugCheck.isDebugEnabled())
 			{
-				Set<String> uniqueNames = danglingRecords.get(uid);
-				outstandingLogs.add(new TransactionLogRecord(Status.STATUS_COMMITTING, uid, uniqueNames));
+				log.finer("postponing checkpoint of " + danglingRecords.size() + " dangling record(s), more than " + maxCheckpointRecords);
 			}
+			checkpointSkipPosition = position;
+			return false;
+		}
+		Map<Uid, Set<String>> snapshot = danglingRecords.snapshot();
+		List<TransactionLogRecord> records = new ArrayList<>(snapshot.size() + 1);
+		for (Map.Entry<Uid, Set<String>> entry : snapshot.entrySet())
+		{
+			records.add(new TransactionLogRecord(TransactionLogRecord.STATUS_CHECKPOINT_ENTRY, entry.getKey(), entry.getValue()));
+		}
+		records.add(new TransactionLogRecord(TransactionLogRecord.STATUS_CHECKPOINT_END, new Uid(Encoder.intToBytes(records.size())), Collections.emptySet()));
+
+		long size = 0L;
+		for (TransactionLogRecord tlog : records)
+		{
+			size += tlog.calculateTotalRecordSize();
+		}
+		if (position + size > maxFileLength)
+		{
+			checkpointSkipPosition = position;
+			return false;
+		}
 
-			return outstandingLogs;
+		long startPosition = position;
+		for (TransactionLogRecord tlog : records)
+		{
+			tlog.setCrc32c(header.isCrc32c());
+			tlog.setWritePosition(position);
+			position += tlog.calculateTotalRecordSize();
 		}
+		long endPosition = position;
+		TransactionLogRecord last = records.get(records.size() - 1);
+		last.setPaddingLength(paddingAfter(endPosition));
+		position += last.getPaddingLength();
+		outstandingWrites.addAndGet(records.size());
+		if (dictionary != null)
+		{
+			// the records following the checkpoint must be readable without the ones preceding it
+			dictionary.clear();
+		}
+		writeLogs(records);
+
+		checkpoint = new long[]{startPosition, endPosition};
+		if (debugCheck.isDebugEnabled())
+		{
+			log.finer("checkpoint of " + (records.size() - 1) + " dangling record(s) written between " + startPosition + " and " + endPosition);
+		}
+		return true;
 	}
 
 	/**
-	 * Method clearDanglingLogs ...
+	 * Stop writing checkpoints until the log file is rewound, because the dangling records written before this
+	 * appender was created are not known.
 	 */
-	protected void clearDanglingLogs()
+	void suspendCheckpoints()
+	{
+		checkpointSkipPosition = Long.MAX_VALUE;
+	}
+
+	/**
+	 * Remember the latest checkpoint found in the log file.
+	 *
+	 * @param position
+	 * 		the position of the checkpoint.
+	 * @param endPosition
+	 * 		the position right after the checkpoint.
+	 */
+	void checkpointFound(long position, long endPosition)
+	{
+		long[] latest = checkpoint;
+		if (latest == null || latest[0] < position)
+		{
+			checkpoint = new long[]{position, endPosition};
+		}
+	}
+
+	/**
+	 * Get the latest checkpoint of the log file.
+	 *
+	 * @return the position of the checkpoint and the position right after it, or null if there is none.
+	 */
+	long[] getCheckpoint()
+	{
+		return checkpoint;
+	}
+
+	/**
+	 * Method getDanglingLogs returns the danglingLogs of this TransactionLogAppender object. The snapshot is weakly
+	 * consistent, callers needing an exact one must prevent records from being written meanwhile.
+	 *
+	 * @return the danglingLogs (type List TransactionLogRecord ) of this TransactionLogAppender object.
+	 */
+	protected List<TransactionLogRecord> getDanglingLogs()
 	{
-		synchronized (danglingRecords)
+		Map<Uid, Set<String>> snapshot = danglingRecords.snapshot();
+		List<Uid> sortedUids = new ArrayList<>(snapshot.keySet());
+		sortedUids.sort(Comparator.comparingInt(Uid::extractSequence));
+
+		List<TransactionLogRecord> outstandingLogs = new ArrayList<>(sortedUids.size());
+		for (Uid uid : sortedUids)
 		{
-			danglingRecords.clear();
+			outstandingLogs.add(new TransactionLogRecord(Status.STATUS_COMMITTING, uid, snapshot.get(uid)));
 		}
+
+		return outstandingLogs;
+	}
+
+	/**
+	 * Get the number of dangling records tracked by this appender.
+	 *
+	 * @return the number of dangling GTRIDs.
+	 */
+	int getDanglingRecordCount()
+	{
+		return danglingRecords.size();
+	}
+
+	/**
+	 * Get the estimated memory used to track the dangling records of this appender.
+	 *
+	 * @return the estimated footprint in bytes.
+	 */
+	long getDanglingRecordFootprint()
+	{
+		return danglingRecords.getFootprint();
+	}
+
+	/**
+	 * Method clearDanglingLogs ...
+	 */
+	protected void clearDanglingLogs()
+	{
+		danglingRecords.clear();
 	}
 
 	/**
@@ -269,6 +694,64 @@ public class TransactionLogAppender
 	{
 		header.rewind();
 		position = header.getPosition();
+		checkpoint = null;
+		checkpointSkipPosition = position;
+		if (dictionary != null)
+		{
+			dictionary.clear();
+		}
+		applyFormatId();
+		if (writeBlockSize != 0)
+		{
+			pretouch();
+		}
+	}
+
+	/**
+	 * Make sure the whole log file is allocated and its pages are in memory, so that the writes following a rewind
+	 * neither extend the file nor wait for its blocks to be read from the disk.
+	 *
+	 * @throws IOException
+	 * 		if an I/O error occurs
+	 */
+	protected void pretouch() throws IOException
+	{
+		ByteBuffer buf = ByteBuffer.allocateDirect(PRETOUCH_CHUNK_SIZE);
+		long size = fc.size();
+		if (size < maxFileLength)
+		{
+			log.warning("transaction log file " + file.getName() + " is " + size + " bytes long instead of " + maxFileLength + ", extending it");
+			for (long pos = size; pos < maxFileLength; pos += buf.limit())
+			{
+				buf.clear()
+				   .limit((int) Math.min(PRETOUCH_CHUNK_SIZE, maxFileLength - pos));
+				write(buf, pos);
+			}
+		}
+		for (long pos = 0; pos < maxFileLength; )
+		{
+			buf.clear();
+			int read = fc.read(buf, pos);
+			if (read < 0)
+			{
+				break;
+			}
+			pos += read;
+		}
+	}
+
+	/**
+	 * Switch the checksum algorithm of the log file to the configured one. Only call this while the log file is empty.
+	 *
+	 * @throws IOException
+	 * 		if an I/O error occurs
+	 */
+	private void applyFormatId() throws IOException
+	{
+		if (header.getFormatId() != formatId)
+		{
+			header.setFormatId(formatId);
+		}
 	}
 
 	/**
@@ -329,6 +812,26 @@ public class TransactionLogAppender
 		return position;
 	}
 
+	/**
+	 * Get the log file this appender writes to.
+	 *
+	 * @return the log file
+	 */
+	File getFile()
+	{
+		return file;
+	}
+
+	/**
+	 * Get the position stored in the log file header. All records before that position have been completely written.
+	 *
+	 * @return the header position
+	 */
+	protected long getHeaderPosition()
+	{
+		return header.getPosition();
+	}
+
 
 	/**
 	 * Close the appender and the underlying file.
@@ -339,7 +842,7 @@ public class TransactionLogAppender
 	protected void close() throws IOException
 	{
 		header.setState(TransactionLogHeader.CLEAN_LOG_STATE);
-		fc.force(false);
+		force();
 		if (lock != null)
 		{
 			lock.release();
@@ -371,12 +874,12 @@ public class TransactionLogAppender
 	 */
 	protected void force() throws IOException
 	{
-		if (LogDebugCheck.isDebugEnabled())
+		if (debugCheck.isDebugEnabled())
 		{
 			log.finer("forcing log writing");
 		}
 		fc.force(false);
-		if (LogDebugCheck.isDebugEnabled())
+		if (debugCheck.isDebugEnabled())
 		{
 			log.finer("done forcing log");
 		}
@@ -390,6 +893,6 @@ public class TransactionLogAppender
 	@Override
 	public String toString()
 	{
-		return "a TransactionLogAppender on " + file.getName();
+		return "a " + getClass().getSimpleName() + " on " + file.getName();
 	}
 }
@@ -24,7 +24,9 @@ import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.nio.channels.FileChannel;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 
 /**
@@ -37,12 +39,20 @@ public class TransactionLogCursor
 {
 
 	private static final java.util.logging.Logger log = java.util.logging.Logger.getLogger(TransactionLogCursor.class.toString());
+
+	private static final LogDebugCheck debugCheck = LogDebugCheck.forLogger(log);
 	private static final String CORRUPTED_LOGS = "corrupted log found at position ";
+	/**
+	 * Size of the page records are read into, the largest record a file cursor can read.
+	 */
+	static final int PAGE_SIZE = 8192;
 
 	private final FileInputStream fis;
 	private final FileChannel fileChannel;
 	private final long endPosition;
 	private final ByteBuffer page;
+	private final boolean crc32c;
+	private final TransactionLogDictionary dictionary = new TransactionLogDictionary();
 	private long currentPosition;
 
 	/**
@@ -59,11 +69,32 @@ public class TransactionLogCursor
 	{
 		this.fis = new FileInputStream(file);
 		this.fileChannel = fis.getChannel();
-		this.page = ByteBuffer.allocate(8192);
+		this.page = ByteBuffer.allocate(PAGE_SIZE);
 
-		fileChannel.position(TransactionLogHeader.CURRENT_POSITION_HEADER);
+		fileChannel.position(TransactionLogHeader.FORMAT_ID_HEADER);
 		fileChannel.read(page);
 		page.rewind();
+		crc32c = page.getInt() == TransactionLogHeader.CRC32C_FORMAT_ID;
+		page.position((int) TransactionLogHeader.CURRENT_POSITION_HEADER);
+		endPosition = page.getLong();
+		currentPosition = TransactionLogHeader.CURRENT_POSITION_HEADER + 8L;
+	}
+
+	/**
+	 * Create a TransactionLogCursor that will read from a buffer holding the whole content of a log file, like a
+	 * memory-mapped view of it. Records are decoded straight from that buffer, nothing is copied.
+	 *
+	 * @param content
+	 * 		a buffer whose index 0 is the beginning of the log file. Its position and limit are not modified.
+	 */
+	TransactionLogCursor(ByteBuffer content)
+	{
+		this.fis = null;
+		this.fileChannel = null;
+		this.page = content.asReadOnlyBuffer();
+
+		crc32c = page.getInt((int) TransactionLogHeader.FORMAT_ID_HEADER) == TransactionLogHeader.CRC32C_FORMAT_ID;
+		page.position((int) TransactionLogHeader.CURRENT_POSITION_HEADER);
 		endPosition = page.getLong();
 		currentPosition = TransactionLogHeader.CURRENT_POSITION_HEADER + 8L;
 	}
@@ -98,7 +129,7 @@ public class TransactionLogCursor
 	{
 		if (currentPosition >= endPosition)
 		{
-			if (LogDebugCheck.isDebugEnabled())
+			if (debugCheck.isDebugEnabled())
 			{
 				log.finer("end of transaction log file reached at " + currentPosition);
 			}
@@ -111,7 +142,7 @@ public class TransactionLogCursor
 
 		currentPosition += 8;
 
-		if (page.position() + recordLength + 8 > page.limit())
+		if (fileChannel != null && page.position() + recordLength + 8 > page.limit())
 		{
 			page.compact();
 			fileChannel.read(page);
@@ -136,9 +167,12 @@ public class TransactionLogCursor
 
 		int crc32 = page.getInt();
 
+		boolean dictionaryEncoded = headerLength == TransactionLogRecord.FORMATTED_HEADER_LENGTH;
+		byte format = dictionaryEncoded ? page.get() : 0;
+
 		byte gtridSize = page.get();
 
-		currentPosition += 21;
+		currentPosition += dictionaryEncoded ? 22 : 21;
 
 		// check for log terminator
 		page.mark();
@@ -151,17 +185,34 @@ public class TransactionLogCursor
 		}
 
 		// check that GTRID is not too long
-		if (4 + 8 + 4 + 4 + 1 + gtridSize > recordLength)
+		if (4 + 8 + 4 + 4 + (dictionaryEncoded ? 2 : 1) + gtridSize > recordLength)
 		{
 			page.position(endOfRecordPosition);
 			throw new CorruptedTransactionLogException(CORRUPTED_LOGS + currentPosition
 			                                           + " (GTRID size too long)");
 		}
 
+		if (dictionaryEncoded && format != TransactionLogRecord.DICTIONARY_FORMAT && format != TransactionLogRecord.OUTCOME_BATCH_FORMAT)
+		{
+			page.position(endOfRecordPosition);
+			throw new CorruptedTransactionLogException(CORRUPTED_LOGS + currentPosition
+			                                           + " (unknown record format " + format + ")");
+		}
+
 		byte[] gtridArray = new byte[gtridSize];
 		page.get(gtridArray);
 		currentPosition += gtridSize;
-		Uid gtrid = new Uid(gtridArray);
+		Uid gtrid = Uid.wrap(gtridArray);
+
+		if (dictionaryEncoded && format == TransactionLogRecord.OUTCOME_BATCH_FORMAT)
+		{
+			return readOutcomeBatch(recordLength, time, sequenceNumber, crc32, endOfRecordPosition, skipCrcCheck);
+		}
+		if (dictionaryEncoded)
+		{
+			return readDictionaryEncodedNames(status, recordLength, time, sequenceNumber, crc32, gtrid, endOfRecordPosition, skipCrcCheck);
+		}
+
 		int uniqueNamesCount = page.getInt();
 		currentPosition += 4;
 		Set<String> uniqueNames = new HashSet<>();
@@ -192,6 +243,7 @@ public class TransactionLogCursor
 
 		TransactionLogRecord tlog = new TransactionLogRecord(status, recordLength, headerLength, time, sequenceNumber,
 		                                                     crc32, gtrid, uniqueNames, cEndRecord);
+		tlog.setCrc32c(crc32c);
 
 		// check that CRC is okay
 		if (!skipCrcCheck && !tlog.isCrc32Correct())
@@ -204,6 +256,202 @@ public class TransactionLogCursor
 		return tlog;
 	}
 
+	/**
+	 * Read the dictionary encoded unique names of a record and build it.
+	 *
+	 * @param status
+	 * 		record type
+	 * @param recordLength
+	 * 		record length excluding status and recordLength
+	 * @param time
+	 * 		record time in milliseconds
+	 * @param sequenceNumber
+	 * 		record sequence number
+	 * @param crc32
+	 * 		stored checksum of the record
+	 * @param gtrid
+	 * 		global transaction id
+	 * @param endOfRecordPosition
+	 * 		position of the end of the record in the page
+	 * @param skipCrcCheck
+	 * 		if set to false, an InvalidChecksumException is thrown if the CRC does not match the recalculated one.
+	 *
+	 * @return the TransactionLogRecord
+	 *
+	 * @throws IOException
+	 * 		if the record is corrupted.
+	 */
+	private TransactionLogRecord readDictionaryEncodedNames(int status, int recordLength, long time, int sequenceNumber, int crc32, Uid gtrid, int endOfRecordPosition,
+	                                                        boolean skipCrcCheck) throws IOException
+	{
+		int start = page.position();
+		int namesEnd = endOfRecordPosition - 4;
+		int uniqueNamesCount = TransactionLogSerializer.getVarInt(page, namesEnd);
+		// every unique name takes at least one byte
+		if (uniqueNamesCount < 0 || uniqueNamesCount > namesEnd - page.position())
+		{
+			throw corruptedNames(start, endOfRecordPosition, "invalid unique names count " + uniqueNamesCount);
+		}
+
+		Set<String> uniqueNames = new HashSet<>();
+		int[] nameIds = new int[uniqueNamesCount];
+		boolean[] nameDefinitions = new boolean[uniqueNamesCount];
+		for (int i = 0; i < uniqueNamesCount; i++)
+		{
+			int reference = TransactionLogSerializer.getVarInt(page, namesEnd);
+			if (reference < 0)
+			{
+				throw corruptedNames(start, endOfRecordPosition, "invalid unique name reference, " + (i + 1) + " out of " + uniqueNamesCount);
+			}
+			nameIds[i] = reference >>> 1;
+			nameDefinitions[i] = (reference & 1) != 0;
+
+			String uniqueName;
+			if (nameDefinitions[i])
+			{
+				int length = TransactionLogSerializer.getVarInt(page, namesEnd);
+				if (length < 0 || length > namesEnd - page.position())
+				{
+					throw corruptedNames(start, endOfRecordPosition, "unique names too long, " + (i + 1) + " out of " + uniqueNamesCount + ", length: " + length);
+				}
+				byte[] nameBytes = new byte[length];
+				page.get(nameBytes);
+				uniqueName = new String(nameBytes, StandardCharsets.US_ASCII);
+			}
+			else
+			{
+				uniqueName = dictionary.nameOf(nameIds[i]);
+				if (uniqueName == null)
+				{
+					throw corruptedNames(start, endOfRecordPosition, "undefined unique name id " + nameIds[i]);
+				}
+			}
+			uniqueNames.add(uniqueName);
+		}
+		if (page.position() != namesEnd)
+		{
+			throw corruptedNames(start, endOfRecordPosition, "unique names length mismatch");
+		}
+		int cEndRecord = page.getInt();
+		currentPosition += endOfRecordPosition - start;
+
+		TransactionLogRecord tlog = new TransactionLogRecord(status, recordLength, time, sequenceNumber, crc32, gtrid, uniqueNames, nameIds, nameDefinitions,
+		                                                     cEndRecord);
+		tlog.setCrc32c(crc32c);
+
+		// check that CRC is okay
+		if (!skipCrcCheck && !tlog.isCrc32Correct())
+		{
+			throw new CorruptedTransactionLogException(CORRUPTED_LOGS + currentPosition
+			                                           + "(invalid CRC, recorded: " + tlog.getCrc32() + ", calculated: " + tlog.calculateCrc32() + ")");
+		}
+
+		tlog.defineNames(dictionary);
+		return tlog;
+	}
+
+	/**
+	 * Read the outcomes of an outcome batch record and build it.
+	 *
+	 * @param recordLength
+	 * 		record length excluding status and recordLength
+	 * @param time
+	 * 		record time in milliseconds
+	 * @param sequenceNumber
+	 * 		record sequence number
+	 * @param crc32
+	 * 		stored checksum of the record
+	 * @param endOfRecordPosition
+	 * 		position of the end of the record in the page
+	 * @param skipCrcCheck
+	 * 		if set to false, an InvalidChecksumException is thrown if the CRC does not match the recalculated one.
+	 *
+	 * @return the TransactionLogRecord
+	 *
+	 * @throws IOException
+	 * 		if the record is corrupted.
+	 */
+	private TransactionLogRecord readOutcomeBatch(int recordLength, long time, int sequenceNumber, int crc32, int endOfRecordPosition, boolean skipCrcCheck)
+			throws IOException
+	{
+		int start = page.position();
+		int outcomesEnd = endOfRecordPosition - 4;
+		int outcomesCount = TransactionLogSerializer.getVarInt(page, outcomesEnd);
+		// every outcome takes at least three bytes
+		if (outcomesCount < 0 || outcomesCount > (outcomesEnd - page.position()) / 3)
+		{
+			throw corruptedNames(start, endOfRecordPosition, "invalid outcomes count " + outcomesCount);
+		}
+
+		List<TransactionLogRecord> outcomes = new ArrayList<>(outcomesCount);
+		for (int i = 0; i < outcomesCount; i++)
+		{
+			int status = TransactionLogSerializer.getVarInt(page, outcomesEnd);
+			int gtridSize = status < 0 || page.position() >= outcomesEnd ? -1 : page.get();
+			if (gtridSize < 0 || gtridSize > outcomesEnd - page.position())
+			{
+				throw corruptedNames(start, endOfRecordPosition, "invalid outcome, " + (i + 1) + " out of " + outcomesCount);
+			}
+			byte[] gtridArray = new byte[gtridSize];
+			page.get(gtridArray);
+
+			int uniqueNamesCount = TransactionLogSerializer.getVarInt(page, outcomesEnd);
+			if (uniqueNamesCount < 0 || uniqueNamesCount > outcomesEnd - page.position())
+			{
+				throw corruptedNames(start, endOfRecordPosition, "invalid unique names count " + uniqueNamesCount + ", outcome " + (i + 1) + " out of " + outcomesCount);
+			}
+			Set<String> uniqueNames = new HashSet<>();
+			for (int j = 0; j < uniqueNamesCount; j++)
+			{
+				int length = TransactionLogSerializer.getVarInt(page, outcomesEnd);
+				if (length < 0 || length > outcomesEnd - page.position())
+				{
+					throw corruptedNames(start, endOfRecordPosition, "unique names too long, outcome " + (i + 1) + " out of " + outcomesCount + ", length: " + length);
+				}
+				byte[] nameBytes = new byte[length];
+				page.get(nameBytes);
+				uniqueNames.add(new String(nameBytes, StandardCharsets.US_ASCII));
+			}
+			outcomes.add(new TransactionLogRecord(status, time, sequenceNumber, Uid.wrap(gtridArray), uniqueNames));
+		}
+		if (page.position() != outcomesEnd)
+		{
+			throw corruptedNames(start, endOfRecordPosition, "outcomes length mismatch");
+		}
+		int cEndRecord = page.getInt();
+		currentPosition += endOfRecordPosition - start;
+
+		TransactionLogRecord tlog = new TransactionLogRecord(recordLength, time, sequenceNumber, crc32, outcomes, cEndRecord);
+		tlog.setCrc32c(crc32c);
+
+		// check that CRC is okay
+		if (!skipCrcCheck && !tlog.isCrc32Correct())
+		{
+			throw new CorruptedTransactionLogException(CORRUPTED_LOGS + currentPosition
+			                                           + "(invalid CRC, recorded: " + tlog.getCrc32() + ", calculated: " + tlog.calculateCrc32() + ")");
+		}
+		return tlog;
+	}
+
+	/**
+	 * Skip the rest of a record whose unique names cannot be decoded.
+	 *
+	 * @param start
+	 * 		position of the unique names in the page
+	 * @param endOfRecordPosition
+	 * 		position of the end of the record in the page
+	 * @param reason
+	 * 		the reason why the unique names cannot be decoded
+	 *
+	 * @return the exception to throw.
+	 */
+	private CorruptedTransactionLogException corruptedNames(int start, int endOfRecordPosition, String reason)
+	{
+		page.position(endOfRecordPosition);
+		currentPosition += endOfRecordPosition - start;
+		return new CorruptedTransactionLogException(CORRUPTED_LOGS + currentPosition + " (" + reason + ")");
+	}
+
 	/**
 	 * Close the cursor and the underlying file
 	 *
@@ -213,7 +461,10 @@ public class TransactionLogCursor
 	@Override
 	public void close() throws IOException
 	{
-		fis.close();
-		fileChannel.close();
+		if (fis != null)
+		{
+			fis.close();
+			fileChannel.close();
+		}
 	}
 }
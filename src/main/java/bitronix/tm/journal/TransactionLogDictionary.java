@@ -0,0 +1,111 @@
+/*
+ * Copyright (C) 2006-2013 Bitronix Software (http://www.bitronix.be)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package bitronix.tm.journal;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Mapping between unique names and the small ids replacing them in dictionary encoded {@link TransactionLogRecord}s.
+ * <p>A dictionary is scoped to a log file: the first record of the file using a unique name defines its id, the
+ * following ones only refer to that id. A definition is in effect from the point it appears in the file, so a writer
+ * which does not know what has already been defined, like after a restart, can safely start with an empty dictionary
+ * and define ids again.</p>
+ * <p>This class is not thread-safe: writers use it under the lock serializing record positioning, cursors own
+ * theirs.</p>
+ */
+final class TransactionLogDictionary
+{
+
+	private final Map<String, Integer> ids = new HashMap<>();
+	private final List<String> names = new ArrayList<>();
+
+	/**
+	 * Get the id of a unique name.
+	 *
+	 * @param uniqueName
+	 * 		the unique name.
+	 *
+	 * @return the id or -1 if the unique name is not defined.
+	 */
+	int idOf(String uniqueName)
+	{
+		Integer id = ids.get(uniqueName);
+		return id == null ? -1 : id;
+	}
+
+	/**
+	 * Get the unique name of an id.
+	 *
+	 * @param id
+	 * 		the id.
+	 *
+	 * @return the unique name or null if the id is not defined.
+	 */
+	String nameOf(int id)
+	{
+		return id < names.size() ? names.get(id) : null;
+	}
+
+	/**
+	 * Get the id the next newly defined unique name will get.
+	 *
+	 * @return the next id.
+	 */
+	int nextId()
+	{
+		return names.size();
+	}
+
+	/**
+	 * Define or redefine the id of a unique name.
+	 *
+	 * @param id
+	 * 		the id, at most {@link #nextId()}.
+	 * @param uniqueName
+	 * 		the unique name.
+	 *
+	 * @return false if the id is out of sequence, meaning the record defining it is corrupted.
+	 */
+	boolean define(int id, String uniqueName)
+	{
+		if (id > names.size())
+		{
+			return false;
+		}
+		if (id == names.size())
+		{
+			names.add(uniqueName);
+		}
+		else
+		{
+			ids.remove(names.set(id, uniqueName), id);
+		}
+		ids.put(uniqueName, id);
+		return true;
+	}
+
+	/**
+	 * Forget all definitions.
+	 */
+	void clear()
+	{
+		ids.clear();
+		names.clear();
+	}
+}
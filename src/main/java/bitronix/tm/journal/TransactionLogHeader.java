@@ -15,17 +15,22 @@
  */
 package bitronix.tm.journal;
 
+import bitronix.tm.BitronixXid;
 import bitronix.tm.internal.LogDebugCheck;
 import bitronix.tm.utils.Decoder;
 
 import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
 import java.nio.channels.FileChannel;
 
 /**
  * Used to control a log file's header.
  * <p>The physical data is read when this object is created then cached. Calling setter methods sets the header field
- * then moves the file pointer back to the previous location.</p>
+ * then moves the file pointer back to the previous location. When the log file is memory-mapped, the header fields are
+ * stored through the mapping instead so that they get forced along with the mapped records.</p>
+ * <p>The format ID tells which checksum the records of the log file use: {@link BitronixXid#FORMAT_ID} for CRC32,
+ * {@link #CRC32C_FORMAT_ID} for CRC32C. It only changes while the log file is empty.</p>
  *
  * @author Ludovic Orban
  */
@@ -40,6 +45,10 @@ public class TransactionLogHeader
 	 * State of the log file when it hasn't been closed properly or it is still open.
 	 */
 	public static final byte UNCLEAN_LOG_STATE = -1;
+	/**
+	 * Format ID of the log files whose records are checksummed with CRC32C, int-encoded "BtnC" ASCII string.
+	 */
+	public static final int CRC32C_FORMAT_ID = 0x42746e43;
 	/**
 	 * Position of the format ID in the header (see {@link bitronix.tm.BitronixXid#FORMAT_ID}).
 	 */
@@ -61,9 +70,12 @@ public class TransactionLogHeader
 	 */
 	static final long HEADER_LENGTH = CURRENT_POSITION_HEADER + 8;
 	private static final java.util.logging.Logger log = java.util.logging.Logger.getLogger(TransactionLogHeader.class.toString());
+	private static final LogDebugCheck debugCheck = LogDebugCheck.forLogger(log);
 	private final FileChannel fc;
+	private final MappedByteBuffer map;
 	private final long maxFileLength;
 
+	private volatile int formatId;
 	private volatile long timestamp;
 	private volatile byte state;
 	private volatile long position;
@@ -80,8 +92,27 @@ public class TransactionLogHeader
 	 * 		if an I/O error occurs.
 	 */
 	public TransactionLogHeader(FileChannel fc, long maxFileLength) throws IOException
+	{
+		this(fc, null, maxFileLength);
+	}
+
+	/**
+	 * TransactionLogHeader are used to control headers of the specified RandomAccessFile.
+	 *
+	 * @param fc
+	 * 		the file channel to read from.
+	 * @param map
+	 * 		the memory mapping of the file to write the header fields to, or null to write them to the file channel.
+	 * @param maxFileLength
+	 * 		the max file length.
+	 *
+	 * @throws IOException
+	 * 		if an I/O error occurs.
+	 */
+	TransactionLogHeader(FileChannel fc, MappedByteBuffer map, long maxFileLength) throws IOException
 	{
 		this.fc = fc;
+		this.map = map;
 		this.maxFileLength = maxFileLength;
 
 		fc.position(FORMAT_ID_HEADER);
@@ -91,18 +122,69 @@ public class TransactionLogHeader
 			this.fc.read(buf);
 		}
 		buf.flip();
-		buf.getInt(); //formatId
+		formatId = buf.getInt();
 		timestamp = buf.getLong();
 		state = buf.get();
 		position = buf.getLong();
 		fc.position(position);
 
-		if (LogDebugCheck.isDebugEnabled())
+		if (debugCheck.isDebugEnabled())
 		{
 			log.finer("read header " + this);
 		}
 	}
 
+	/**
+	 * Get FORMAT_ID_HEADER.
+	 *
+	 * @return the FORMAT_ID_HEADER value.
+	 *
+	 * @see #FORMAT_ID_HEADER
+	 */
+	public int getFormatId()
+	{
+		return formatId;
+	}
+
+	/**
+	 * Set FORMAT_ID_HEADER.
+	 *
+	 * @param formatId
+	 * 		the FORMAT_ID_HEADER value, {@link BitronixXid#FORMAT_ID} or {@link #CRC32C_FORMAT_ID}.
+	 *
+	 * @throws IOException
+	 * 		if an I/O error occurs.
+	 * @see #FORMAT_ID_HEADER
+	 */
+	public void setFormatId(int formatId) throws IOException
+	{
+		if (map != null)
+		{
+			map.putInt((int) FORMAT_ID_HEADER, formatId);
+			this.formatId = formatId;
+			return;
+		}
+
+		ByteBuffer buf = ByteBuffer.allocate(4);
+		buf.putInt(formatId);
+		buf.flip();
+		while (buf.hasRemaining())
+		{
+			fc.write(buf, FORMAT_ID_HEADER + buf.position());
+		}
+		this.formatId = formatId;
+	}
+
+	/**
+	 * Tell if the records of the log file are checksummed with CRC32C.
+	 *
+	 * @return true if the checksum is a CRC32C, false if it is a CRC32.
+	 */
+	public boolean isCrc32c()
+	{
+		return formatId == CRC32C_FORMAT_ID;
+	}
+
 	/**
 	 * Get TIMESTAMP_HEADER.
 	 *
@@ -127,6 +209,13 @@ public class TransactionLogHeader
 	 */
 	public void setTimestamp(long timestamp) throws IOException
 	{
+		if (map != null)
+		{
+			map.putLong((int) TIMESTAMP_HEADER, timestamp);
+			this.timestamp = timestamp;
+			return;
+		}
+
 		ByteBuffer buf = ByteBuffer.allocate(8);
 		buf.putLong(timestamp);
 		buf.flip();
@@ -161,6 +250,13 @@ public class TransactionLogHeader
 	 */
 	public void setState(byte state) throws IOException
 	{
+		if (map != null)
+		{
+			map.put((int) STATE_HEADER, state);
+			this.state = state;
+			return;
+		}
+
 		ByteBuffer buf = ByteBuffer.allocate(1);
 		buf.put(state);
 		buf.flip();
@@ -204,6 +300,13 @@ public class TransactionLogHeader
 			throw new IOException("invalid position " + position + " (too high)");
 		}
 
+		if (map != null)
+		{
+			map.putLong((int) CURRENT_POSITION_HEADER, position);
+			this.position = position;
+			return;
+		}
+
 		ByteBuffer buf = ByteBuffer.allocate(8);
 		buf.putLong(position);
 		buf.flip();
@@ -236,7 +339,8 @@ public class TransactionLogHeader
 	@Override
 	public String toString()
 	{
-		return "a Bitronix TransactionLogHeader with timestamp=" + timestamp +
+		return "a Bitronix TransactionLogHeader with formatId=" + Integer.toHexString(formatId) +
+		       ", timestamp=" + timestamp +
 		       ", state=" + Decoder.decodeHeaderState(state) +
 		       ", position=" + position;
 	}
@@ -22,9 +22,7 @@ import bitronix.tm.utils.Uid;
 import java.nio.ByteBuffer;
 import java.util.*;
 import java.util.concurrent.atomic.AtomicInteger;
-import java.util.zip.CRC32;
-
-import static java.nio.charset.StandardCharsets.*;
+import java.util.zip.Checksum;
 
 /**
  * Representation of a transaction log record on disk.
@@ -56,6 +54,24 @@ import static java.nio.charset.StandardCharsets.*;
  * which makes a major difference with Mike's proposed format because here a record can vary in length: the GTRID size
  * is A bytes long (A being the GTRID length) and there can be X unique names that are Y characters long, Y being eventually
  * different for each name.</p>
+ * <p>Records written with a unique name dictionary have a header one byte longer, holding the payload format, and a
+ * payload containing <code>[GTRID LENGTH :1] [GTRID :A] [UNIQUE NAMES COUNT :V] ([UNIQUE NAME REFERENCE :V]
+ * ([UNIQUE NAME LENGTH :V] [UNIQUE NAME :Y]) ...)</code> where V are varints. A reference holds the id of the unique
+ * name shifted left by one bit, the lowest bit telling if the record defines that id, in which case the unique name
+ * follows. See {@link TransactionLogDictionary}. Both formats can be mixed in a log file and are told apart by their
+ * header length.</p>
+ * <p>The COMMITTED, UNKNOWN and ROLLEDBACK outcomes of several transactions can be coalesced into a single
+ * {@link #STATUS_OUTCOME_BATCH} record, with an empty GTRID and a payload format header, whose payload contains
+ * <code>[GTRID LENGTH :1] [OUTCOMES COUNT :V] ([STATUS :V] [GTRID LENGTH :1] [GTRID :A] [UNIQUE NAMES COUNT :V]
+ * ([UNIQUE NAME LENGTH :V] [UNIQUE NAME :Y]) ...) ...)</code>.</p>
+ * <p>When writes are padded to the write block size, the end of a write is filled with a {@link #STATUS_PADDING}
+ * record in the original format, whose zeroed GTRID or single unique name gives it the required length.</p>
+ * <p>Checkpoints snapshot the dangling records of a log file so that they can be collected from the latest checkpoint
+ * instead of from the beginning of the file. A checkpoint is a run of consecutive {@link #STATUS_CHECKPOINT_ENTRY}
+ * records, one per dangling GTRID with its unique names still in doubt, terminated by a
+ * {@link #STATUS_CHECKPOINT_END} record whose GTRID holds the 4 bytes entry count. Their status is unknown to older
+ * versions which ignore them when collecting dangling records.</p>
+ * <p>The checksum is a CRC32 or, in log files whose header says so, a CRC32C. See {@link TransactionLogHeader}.</p>
  *
  * @author Ludovic Orban
  * @see <a href="http://jroller.com/page/pyrasun?entry=xa_exposed_part_iii_the">XA Exposed, Part III: The Implementor's Notebook</a>
@@ -64,20 +80,71 @@ public class TransactionLogRecord
 		implements JournalRecord
 {
 	// status + record length + record header length + current time + sequence number + checksum
-	private static final int RECORD_HEADER_LENGTH = 4 + 4 + 4 + 8 + 4 + 4;
+	static final int RECORD_HEADER_LENGTH = 4 + 4 + 4 + 8 + 4 + 4;
+	// offset of the checksum and length of the checksum + GTRID size fields that are not covered by the checksum
+	private static final int CRC32_OFFSET = 4 + 4 + 4 + 8 + 4;
+	private static final int CRC32_SKIPPED_LENGTH = 4 + 1;
+	/**
+	 * Header length of the records holding a payload format, like the ones whose unique names are dictionary encoded.
+	 */
+	static final int FORMATTED_HEADER_LENGTH = RECORD_HEADER_LENGTH + 1;
+	/**
+	 * Payload format of the records whose unique names are dictionary encoded.
+	 */
+	static final byte DICTIONARY_FORMAT = 1;
+	/**
+	 * Payload format of the records holding a batch of transaction outcomes.
+	 */
+	static final byte OUTCOME_BATCH_FORMAT = 2;
+	/**
+	 * Status of the records holding the dangling records of a checkpoint.
+	 */
+	public static final int STATUS_CHECKPOINT_ENTRY = 100;
+	/**
+	 * Status of the record terminating a checkpoint.
+	 */
+	public static final int STATUS_CHECKPOINT_END = 101;
+	/**
+	 * Status of the records holding a batch of transaction outcomes.
+	 */
+	public static final int STATUS_OUTCOME_BATCH = 102;
+	/**
+	 * Status of the records filling a write up to a write block boundary.
+	 */
+	public static final int STATUS_PADDING = 103;
+	/**
+	 * Size of the smallest padding record: a header, an empty GTRID, no unique name and the end of record marker.
+	 */
+	static final int MIN_PADDING_LENGTH = RECORD_HEADER_LENGTH + 1 + 4 + 4;
+	private static final byte[] PADDING_BYTES = new byte[TransactionLogCursor.PAGE_SIZE];
 
 	private static final AtomicInteger sequenceGenerator = new AtomicInteger();
 
 	private final int status;
-	private final int headerLength;
+	private int headerLength;
 	private final long time;
 	private final int sequenceNumber;
 	private final Uid gtrid;
 	private final SortedSet<String> uniqueNames;
 	private final int endRecord;
+	/**
+	 * Dictionary ids of the unique names in iteration order, null if the unique names are not dictionary encoded.
+	 */
+	private int[] nameIds;
+	/**
+	 * Tells for each unique name if this record defines its dictionary id.
+	 */
+	private boolean[] nameDefinitions;
+	/**
+	 * The outcomes this record holds, null if it is not an outcome batch.
+	 */
+	private List<TransactionLogRecord> outcomes;
 	private int recordLength;
 	private int crc32;
+	private boolean crc32Computed;
+	private boolean crc32c;
 	private long writePosition;
+	private int paddingLength;
 
 	/**
 	 * Use this constructor when restoring a log from the disk.
@@ -109,11 +176,110 @@ public class TransactionLogRecord
 		this.time = time;
 		this.sequenceNumber = sequenceNumber;
 		this.crc32 = crc32;
+		this.crc32Computed = true;
 		this.gtrid = gtrid;
 		this.uniqueNames = new TreeSet<>(uniqueNames);
 		this.endRecord = endRecord;
 	}
 
+	/**
+	 * Use this constructor when restoring a dictionary encoded log from the disk.
+	 *
+	 * @param status
+	 * 		record type
+	 * @param recordLength
+	 * 		record length excluding status and recordLength
+	 * @param time
+	 * 		current time in milliseconds
+	 * @param sequenceNumber
+	 * 		atomically generated sequence number during a JVM's lifespan
+	 * @param crc32
+	 * 		checksum of the full record
+	 * @param gtrid
+	 * 		global transaction id
+	 * @param uniqueNames
+	 * 		unique names of XA data sources used in this transaction, in sorted order
+	 * @param nameIds
+	 * 		the dictionary id of each unique name
+	 * @param nameDefinitions
+	 * 		tells for each unique name if the record defines its dictionary id
+	 * @param endRecord
+	 * 		end of record marker
+	 */
+	TransactionLogRecord(int status, int recordLength, long time, int sequenceNumber, int crc32, Uid gtrid, Set<String> uniqueNames, int[] nameIds, boolean[] nameDefinitions, int endRecord)
+	{
+		this(status, recordLength, FORMATTED_HEADER_LENGTH, time, sequenceNumber, crc32, gtrid, uniqueNames, endRecord);
+		this.nameIds = nameIds;
+		this.nameDefinitions = nameDefinitions;
+	}
+
+	/**
+	 * Use this constructor when restoring an outcome batch from the disk.
+	 *
+	 * @param recordLength
+	 * 		record length excluding status and recordLength
+	 * @param time
+	 * 		record time in milliseconds
+	 * @param sequenceNumber
+	 * 		atomically generated sequence number during a JVM's lifespan
+	 * @param crc32
+	 * 		checksum of the full record
+	 * @param outcomes
+	 * 		the outcomes held by the record
+	 * @param endRecord
+	 * 		end of record marker
+	 */
+	TransactionLogRecord(int recordLength, long time, int sequenceNumber, int crc32, List<TransactionLogRecord> outcomes, int endRecord)
+	{
+		this(STATUS_OUTCOME_BATCH, recordLength, FORMATTED_HEADER_LENGTH, time, sequenceNumber, crc32, new Uid(new byte[0]), Collections.emptySet(), endRecord);
+		this.outcomes = outcomes;
+	}
+
+	/**
+	 * Use this constructor when restoring an outcome held by an outcome batch from the disk.
+	 *
+	 * @param status
+	 * 		record type
+	 * @param time
+	 * 		time of the outcome batch in milliseconds
+	 * @param sequenceNumber
+	 * 		sequence number of the outcome batch
+	 * @param gtrid
+	 * 		global transaction id
+	 * @param uniqueNames
+	 * 		unique names of XA data sources used in this transaction
+	 */
+	TransactionLogRecord(int status, long time, int sequenceNumber, Uid gtrid, Set<String> uniqueNames)
+	{
+		this.status = status;
+		this.time = time;
+		this.sequenceNumber = sequenceNumber;
+		this.gtrid = gtrid;
+		this.uniqueNames = new TreeSet<>(uniqueNames);
+		this.endRecord = TransactionLogAppender.END_RECORD;
+		this.headerLength = RECORD_HEADER_LENGTH;
+		this.recordLength = calculateRecordLength();
+	}
+
+	/**
+	 * Create a new outcome batch ready to be stored.
+	 *
+	 * @param outcomes
+	 * 		the COMMITTED, UNKNOWN or ROLLEDBACK records to coalesce.
+	 */
+	TransactionLogRecord(List<TransactionLogRecord> outcomes)
+	{
+		this.status = STATUS_OUTCOME_BATCH;
+		this.time = MonotonicClock.currentTimeMillis();
+		this.sequenceNumber = sequenceGenerator.incrementAndGet();
+		this.gtrid = new Uid(new byte[0]);
+		this.uniqueNames = new TreeSet<>();
+		this.endRecord = TransactionLogAppender.END_RECORD;
+		this.headerLength = FORMATTED_HEADER_LENGTH;
+		this.outcomes = outcomes;
+		this.recordLength = calculateRecordLength();
+	}
+
 	/**
 	 * Create a new transaction log ready to be stored.
 	 *
@@ -133,53 +299,300 @@ public class TransactionLogRecord
 		this.uniqueNames = new TreeSet<>(uniqueNames);
 		this.endRecord = TransactionLogAppender.END_RECORD;
 		this.headerLength = RECORD_HEADER_LENGTH;
+		this.recordLength = calculateRecordLength();
+	}
 
-		refresh();
+	/**
+	 * Calculate the record length from the GTRID and the unique names.
+	 *
+	 * @return the record length excluding status and record length.
+	 */
+	private int calculateRecordLength()
+	{
+		int total = 0;
+		if (outcomes != null)
+		{
+			for (TransactionLogRecord outcome : outcomes)
+			{
+				total += TransactionLogSerializer.varIntSize(outcome.status) + 1 + outcome.gtrid.length() + TransactionLogSerializer.varIntSize(outcome.uniqueNames.size());
+				for (String uniqueName : outcome.uniqueNames)
+				{
+					int length = TransactionLogSerializer.encodeName(uniqueName).length;
+					total += TransactionLogSerializer.varIntSize(length) + length;
+				}
+			}
+			return total + getFixedRecordLength() + 1 + TransactionLogSerializer.varIntSize(outcomes.size()); // + format + outcomes count
+		}
+		if (nameIds == null)
+		{
+			for (String uniqueName : uniqueNames)
+			{
+				total += 2 + TransactionLogSerializer.encodeName(uniqueName).length; // 2 bytes for storing the unique name length + unique name length
+			}
+			return total + getFixedRecordLength() + 4; // + unique names count
+		}
+
+		int i = 0;
+		for (String uniqueName : uniqueNames)
+		{
+			total += TransactionLogSerializer.varIntSize(nameIds[i] << 1);
+			if (nameDefinitions[i])
+			{
+				int length = TransactionLogSerializer.encodeName(uniqueName).length;
+				total += TransactionLogSerializer.varIntSize(length) + length;
+			}
+			i++;
+		}
+		return total + getFixedRecordLength() + 1 + TransactionLogSerializer.varIntSize(uniqueNames.size()); // + format + unique names count
 	}
 
 	/**
-	 * Recalculate and store the dynamic values of this record: {@link #getRecordLength()},
-	 * and {@link #calculateCrc32()}. This method must be called each time after the set of contained unique names is updated.
+	 * Switch this record to the dictionary encoding, using the ids defined in the dictionary of the log file it is
+	 * going to be written to and defining new ids for the other unique names. The dictionary itself is not modified
+	 * until {@link #defineNames(TransactionLogDictionary)} is called.
+	 *
+	 * @param dictionary
+	 * 		the dictionary of the log file.
 	 */
-	private void refresh()
+	void bindDictionary(TransactionLogDictionary dictionary)
 	{
-		crc32 = calculateCrc32();
+		if (outcomes != null)
+		{
+			return;
+		}
+		int[] ids = new int[uniqueNames.size()];
+		boolean[] definitions = new boolean[ids.length];
+		int nextId = dictionary.nextId();
+		int i = 0;
+		for (String uniqueName : uniqueNames)
+		{
+			int id = dictionary.idOf(uniqueName);
+			if (id < 0)
+			{
+				id = nextId++;
+				definitions[i] = true;
+			}
+			ids[i++] = id;
+		}
+
+		nameIds = ids;
+		nameDefinitions = definitions;
+		headerLength = FORMATTED_HEADER_LENGTH;
+		recordLength = calculateRecordLength();
+		crc32Computed = false;
 	}
 
 	/**
-	 * Calculate the CRC32 value of this record.
+	 * Add the ids this record defines to a dictionary, once the record position in the log file has been reserved.
 	 *
-	 * @return the CRC32 value of this record.
+	 * @param dictionary
+	 * 		the dictionary of the log file.
 	 */
-	int calculateCrc32()
+	void defineNames(TransactionLogDictionary dictionary)
 	{
-		int total = 0;
+		if (nameIds == null)
+		{
+			return;
+		}
+		int i = 0;
 		for (String uniqueName : uniqueNames)
 		{
-			total += 2 + uniqueName.length(); // 2 bytes for storing the unique name length + unique name length
+			if (nameDefinitions[i])
+			{
+				dictionary.define(nameIds[i], uniqueName);
+			}
+			i++;
 		}
-		recordLength = total + getFixedRecordLength();
+	}
 
-		ByteBuffer buf = ByteBuffer.allocate(24 + gtrid.length() + 4 /*uniqueNames.size*/ + total + 4 /*endRecord*/);
+	/**
+	 * Calculate the CRC32 value of this record.
+	 *
+	 * @return the CRC32 value of this record.
+	 */
+	int calculateCrc32()
+	{
+		recordLength = calculateRecordLength();
+		return encode(TransactionLogSerializer.get()
+		                                      .buffer(calculateTotalRecordSize()));
+	}
+
+	/**
+	 * Serialize this record at the current position of the buffer, computing its CRC32 in the same pass. The buffer
+	 * position is advanced past the record.
+	 *
+	 * @param buf
+	 * 		the buffer to write to, it must have at least {@link #calculateTotalRecordSize()} bytes remaining.
+	 */
+	void writeTo(ByteBuffer buf)
+	{
+		crc32 = encode(buf);
+		crc32Computed = true;
+	}
+
+	/**
+	 * Serialize this record with its checksum and return the checksum.
+	 *
+	 * @param buf
+	 * 		the buffer to write to.
+	 *
+	 * @return the CRC32 value of this record.
+	 */
+	private int encode(ByteBuffer buf)
+	{
+		int start = buf.position();
 		buf.putInt(status);              // offset: 0
 		buf.putInt(recordLength);        // offset: 4
 		buf.putInt(headerLength);        // offset: 8
 		buf.putLong(time);               // offset: 12
 		buf.putInt(sequenceNumber);      // offset: 20
-		buf.put(gtrid.getArray());       // offset: 24
-		buf.putInt(uniqueNames.size());  // offset: 24 + gtridArray.length
+		buf.putInt(0);                   // offset: 24, checksum placeholder
+		if (outcomes != null)
+		{
+			buf.put(OUTCOME_BATCH_FORMAT);   // offset: 28
+			buf.put((byte) gtrid.length());  // offset: 29
+			buf.put(gtrid.getArray());       // offset: 30
+			TransactionLogSerializer.putVarInt(buf, outcomes.size());
+
+			for (TransactionLogRecord outcome : outcomes)
+			{
+				TransactionLogSerializer.putVarInt(buf, outcome.status);
+				buf.put((byte) outcome.gtrid.length());
+				buf.put(outcome.gtrid.getArray());
+				TransactionLogSerializer.putVarInt(buf, outcome.uniqueNames.size());
+				for (String name : outcome.uniqueNames)
+				{
+					byte[] nameBytes = TransactionLogSerializer.encodeName(name);
+					TransactionLogSerializer.putVarInt(buf, nameBytes.length);
+					buf.put(nameBytes);
+				}
+			}
+		}
+		else if (nameIds == null)
+		{
+			buf.put((byte) gtrid.length());  // offset: 28
+			buf.put(gtrid.getArray());       // offset: 29
+			buf.putInt(uniqueNames.size());  // offset: 29 + gtridArray.length
 
-		for (String name : uniqueNames)
+			for (String name : uniqueNames)
+			{
+				byte[] nameBytes = TransactionLogSerializer.encodeName(name);
+				buf.putShort((short) nameBytes.length);
+				buf.put(nameBytes);
+			}
+		}
+		else
 		{
-			buf.putShort((short) name.length());
-			buf.put(name.getBytes(US_ASCII));
+			buf.put(DICTIONARY_FORMAT);      // offset: 28
+			buf.put((byte) gtrid.length());  // offset: 29
+			buf.put(gtrid.getArray());       // offset: 30
+			TransactionLogSerializer.putVarInt(buf, uniqueNames.size());
+
+			int i = 0;
+			for (String name : uniqueNames)
+			{
+				TransactionLogSerializer.putVarInt(buf, nameIds[i] << 1 | (nameDefinitions[i] ? 1 : 0));
+				if (nameDefinitions[i])
+				{
+					byte[] nameBytes = TransactionLogSerializer.encodeName(name);
+					TransactionLogSerializer.putVarInt(buf, nameBytes.length);
+					buf.put(nameBytes);
+				}
+				i++;
+			}
 		}
 
 		buf.putInt(endRecord);
+		return putChecksum(buf, start, headerLength, crc32c);
+	}
+
+	/**
+	 * Compute the checksum of a record serialized just before the position of the buffer and store it in the record.
+	 *
+	 * @param buf
+	 * 		the buffer, positioned right after the record.
+	 * @param start
+	 * 		the position of the record in the buffer.
+	 * @param headerLength
+	 * 		the header length of the record.
+	 * @param crc32c
+	 * 		true if the checksum is a CRC32C, false if it is a CRC32.
+	 *
+	 * @return the checksum.
+	 */
+	private static int putChecksum(ByteBuffer buf, int start, int headerLength, boolean crc32c)
+	{
+		int end = buf.position();
+		int limit = buf.limit();
+
+		// the checksum covers everything but itself and, in the original format, the GTRID size
+		Checksum crc32Calculated = TransactionLogSerializer.get()
+		                                                   .checksum(crc32c);
+		buf.position(start)
+		   .limit(start + CRC32_OFFSET);
+		crc32Calculated.update(buf);
+		buf.limit(end)
+		   .position(start + CRC32_OFFSET + (headerLength == RECORD_HEADER_LENGTH ? CRC32_SKIPPED_LENGTH : 4));
+		crc32Calculated.update(buf);
+		buf.limit(limit)
+		   .position(end);
+
+		int crc = (int) crc32Calculated.getValue();
+		buf.putInt(start + CRC32_OFFSET, crc);
+		return crc;
+	}
 
-		CRC32 crc32Calculated = new CRC32();
-		crc32Calculated.update(buf.array());
-		return (int) crc32Calculated.getValue();
+	/**
+	 * Serialize a padding record at the current position of the buffer. The buffer position is advanced past the
+	 * record.
+	 *
+	 * @param buf
+	 * 		the buffer to write to, it must have at least length bytes remaining.
+	 * @param length
+	 * 		the total size of the padding record, at least {@link #MIN_PADDING_LENGTH} and less than
+	 * 		{@link TransactionLogCursor#PAGE_SIZE}.
+	 * @param crc32c
+	 * 		true if the checksum is a CRC32C, false if it is a CRC32.
+	 */
+	static void writePadding(ByteBuffer buf, int length, boolean crc32c)
+	{
+		int start = buf.position();
+		int extra = length - MIN_PADDING_LENGTH;
+		// the GTRID length is a signed byte, larger paddings are held by a unique name
+		boolean named = extra > Byte.MAX_VALUE;
+		int gtridLength = named ? 0 : extra;
+
+		buf.putInt(STATUS_PADDING);
+		buf.putInt(length - 4 - 4);
+		buf.putInt(RECORD_HEADER_LENGTH);
+		buf.putLong(0L);
+		buf.putInt(0);
+		buf.putInt(0);
+		buf.put((byte) gtridLength);
+		buf.put(PADDING_BYTES, 0, gtridLength);
+		if (named)
+		{
+			buf.putInt(1);
+			buf.putShort((short) (extra - 2));
+			buf.put(PADDING_BYTES, 0, extra - 2);
+		}
+		else
+		{
+			buf.putInt(0);
+		}
+		buf.putInt(TransactionLogAppender.END_RECORD);
+		putChecksum(buf, start, RECORD_HEADER_LENGTH, crc32c);
+	}
+
+	/**
+	 * Select the checksum algorithm of the log file this record is read from or is going to be written to.
+	 *
+	 * @param crc32c
+	 * 		true if the checksum is a CRC32C, false if it is a CRC32.
+	 */
+	void setCrc32c(boolean crc32c)
+	{
+		this.crc32c = crc32c;
 	}
 
 	/**
@@ -189,8 +602,19 @@ public class TransactionLogRecord
 	 */
 	private int getFixedRecordLength()
 	{
-		// record header length + current time + sequence number + checksum + GTRID size + GTRID + unique names count + end record marker
-		return 4 + 8 + 4 + 4 + 1 + gtrid.length() + 4 + 4;
+		// record header length + current time + sequence number + checksum + GTRID size + GTRID + end record marker
+		return 4 + 8 + 4 + 4 + 1 + gtrid.length() + 4;
+	}
+
+	/**
+	 * Get the outcomes held by this record.
+	 *
+	 * @return the COMMITTED, UNKNOWN or ROLLEDBACK records coalesced in this record, or null if it is not an outcome
+	 * batch.
+	 */
+	List<TransactionLogRecord> getOutcomes()
+	{
+		return outcomes == null ? null : Collections.unmodifiableList(outcomes);
 	}
 
 	/**
@@ -263,6 +687,11 @@ public class TransactionLogRecord
 	 */
 	public int getCrc32()
 	{
+		if (!crc32Computed)
+		{
+			crc32 = calculateCrc32();
+			crc32Computed = true;
+		}
 		return crc32;
 	}
 
@@ -276,7 +705,7 @@ public class TransactionLogRecord
 		props.put("recordLength", recordLength);
 		props.put("headerLength", headerLength);
 		props.put("sequenceNumber", sequenceNumber);
-		props.put("crc32", crc32);
+		props.put("crc32", getCrc32());
 		return props;
 	}
 
@@ -331,6 +760,27 @@ public class TransactionLogRecord
 		writePosition = position;
 	}
 
+	/**
+	 * Method getPaddingLength returns the size of the padding record written right after this record.
+	 *
+	 * @return the paddingLength (type int) of this TransactionLogRecord object, 0 if it is not padded.
+	 */
+	int getPaddingLength()
+	{
+		return paddingLength;
+	}
+
+	/**
+	 * Method setPaddingLength sets the size of the padding record written right after this record.
+	 *
+	 * @param paddingLength
+	 * 		the paddingLength of this TransactionLogRecord object, 0 if it is not padded.
+	 */
+	void setPaddingLength(int paddingLength)
+	{
+		this.paddingLength = paddingLength;
+	}
+
 	/**
 	 * Method getEndRecord returns the endRecord of this TransactionLogRecord object.
 	 *
@@ -368,7 +818,7 @@ public class TransactionLogRecord
 		sb.append(sequenceNumber);
 		sb.append(", ");
 		sb.append("crc32=");
-		sb.append(crc32);
+		sb.append(getCrc32());
 		sb.append(", ");
 		sb.append("gtrid=");
 		sb.append(gtrid.toString());
@@ -384,6 +834,11 @@ public class TransactionLogRecord
 				sb.append(',');
 			}
 		}
+		if (outcomes != null)
+		{
+			sb.append(", outcomes=");
+			sb.append(outcomes.size());
+		}
 
 		return sb.toString();
 	}
@@ -0,0 +1,191 @@
+/*
+ * Copyright (C) 2006-2013 Bitronix Software (http://www.bitronix.be)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package bitronix.tm.journal;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.zip.CRC32;
+import java.util.zip.CRC32C;
+import java.util.zip.Checksum;
+
+import static java.nio.charset.StandardCharsets.*;
+
+/**
+ * Scratch space used to serialize {@link TransactionLogRecord} objects without allocating.
+ * <p>Each thread owns a direct buffer that is reused for every record it serializes, and grown only when a record does
+ * not fit, up to {@link #MAX_RETAINED_BUFFER_SIZE}. Larger writes, like the copies of the dangling records or the
+ * checkpoints, get a buffer of their own that is dropped afterwards. Unique names are encoded once and then served from a cache as the set of resources is small and stable.</p>
+ */
+final class TransactionLogSerializer
+{
+
+	private static final int INITIAL_BUFFER_SIZE = 1024;
+	/**
+	 * The largest buffer a thread keeps between writes, so that native memory is bounded per logging thread.
+	 */
+	static final int MAX_RETAINED_BUFFER_SIZE = 64 * 1024;
+	private static final int MAX_CACHED_NAMES = 1024;
+
+	private static final ConcurrentMap<String, byte[]> encodedNames = new ConcurrentHashMap<>();
+	private static final ThreadLocal<TransactionLogSerializer> serializers = ThreadLocal.withInitial(TransactionLogSerializer::new);
+
+	private final CRC32 crc32 = new CRC32();
+	private final CRC32C crc32c = new CRC32C();
+	private ByteBuffer buffer = ByteBuffer.allocateDirect(INITIAL_BUFFER_SIZE);
+
+	/**
+	 * Constructor TransactionLogSerializer creates a new TransactionLogSerializer instance.
+	 */
+	private TransactionLogSerializer()
+	{
+		//No content
+	}
+
+	/**
+	 * Get the serializer owned by the calling thread.
+	 *
+	 * @return the calling thread's serializer.
+	 */
+	static TransactionLogSerializer get()
+	{
+		return serializers.get();
+	}
+
+	/**
+	 * Get the US-ASCII bytes of a unique name. The returned array is shared and must not be modified.
+	 *
+	 * @param uniqueName
+	 * 		the unique name to encode.
+	 *
+	 * @return the encoded unique name.
+	 */
+	static byte[] encodeName(String uniqueName)
+	{
+		byte[] encoded = encodedNames.get(uniqueName);
+		if (encoded == null)
+		{
+			encoded = uniqueName.getBytes(US_ASCII);
+			if (encodedNames.size() < MAX_CACHED_NAMES)
+			{
+				encodedNames.putIfAbsent(uniqueName, encoded);
+			}
+		}
+		return encoded;
+	}
+
+	/**
+	 * Get the number of bytes needed to store a non-negative int as a varint.
+	 *
+	 * @param value
+	 * 		the value to store.
+	 *
+	 * @return the size of the varint, between 1 and 5 bytes.
+	 */
+	static int varIntSize(int value)
+	{
+		int size = 1;
+		while ((value & ~0x7F) != 0)
+		{
+			value >>>= 7;
+			size++;
+		}
+		return size;
+	}
+
+	/**
+	 * Store a non-negative int as a varint: 7 bits per byte, least significant group first, the high bit of each byte
+	 * telling if another byte follows.
+	 *
+	 * @param buf
+	 * 		the buffer to write to.
+	 * @param value
+	 * 		the value to store.
+	 */
+	static void putVarInt(ByteBuffer buf, int value)
+	{
+		while ((value & ~0x7F) != 0)
+		{
+			buf.put((byte) ((value & 0x7F) | 0x80));
+			value >>>= 7;
+		}
+		buf.put((byte) value);
+	}
+
+	/**
+	 * Read a varint stored by {@link #putVarInt(ByteBuffer, int)}, without reading past the specified limit.
+	 *
+	 * @param buf
+	 * 		the buffer to read from.
+	 * @param limit
+	 * 		the position the varint must end before.
+	 *
+	 * @return the value, or -1 if the varint is malformed or crosses the limit.
+	 */
+	static int getVarInt(ByteBuffer buf, int limit)
+	{
+		int value = 0;
+		for (int shift = 0; shift < 32 && buf.position() < limit; shift += 7)
+		{
+			byte b = buf.get();
+			value |= (b & 0x7F) << shift;
+			if ((b & 0x80) == 0)
+			{
+				return value < 0 ? -1 : value;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Get this thread's buffer, cleared and limited to the requested size. Sizes above
+	 * {@link #MAX_RETAINED_BUFFER_SIZE} get a temporary buffer instead, only referenced by the caller.
+	 *
+	 * @param size
+	 * 		the number of bytes that are going to be written.
+	 *
+	 * @return a cleared direct buffer with exactly size bytes remaining.
+	 */
+	ByteBuffer buffer(int size)
+	{
+		if (size > MAX_RETAINED_BUFFER_SIZE)
+		{
+			return ByteBuffer.allocateDirect(size);
+		}
+		if (buffer.capacity() < size)
+		{
+			buffer = ByteBuffer.allocateDirect(Math.min(MAX_RETAINED_BUFFER_SIZE, Integer.highestOneBit(size) << 1));
+		}
+		buffer.clear();
+		buffer.limit(size);
+		return buffer;
+	}
+
+	/**
+	 * Get this thread's checksum, reset.
+	 *
+	 * @param crc32c
+	 * 		true to get a CRC32C, false to get a CRC32.
+	 *
+	 * @return a reset CRC32 or CRC32C.
+	 */
+	Checksum checksum(boolean crc32c)
+	{
+		Checksum checksum = crc32c ? this.crc32c : crc32;
+		checksum.reset();
+		return checksum;
+	}
+}
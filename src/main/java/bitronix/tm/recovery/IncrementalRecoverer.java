@@ -40,6 +40,8 @@ public class IncrementalRecoverer
 {
 
 	private static final java.util.logging.Logger log = java.util.logging.Logger.getLogger(IncrementalRecoverer.class.toString());
+
+	private static final LogDebugCheck debugCheck = LogDebugCheck.forLogger(log);
 	private static final String FAILED_RESOURCE_STRING = "failed recovering resource ";
 
 	private IncrementalRecoverer()
@@ -59,7 +61,7 @@ public class IncrementalRecoverer
 	public static void recover(XAResourceProducer xaResourceProducer) throws RecoveryException
 	{
 		String uniqueName = xaResourceProducer.getUniqueName();
-		if (LogDebugCheck.isDebugEnabled())
+		if (debugCheck.isDebugEnabled())
 		{
 			log.finer("start of incremental recovery on resource " + uniqueName);
 		}
@@ -69,13 +71,13 @@ public class IncrementalRecoverer
 			XAResourceHolderState xaResourceHolderState = xaResourceProducer.startRecovery();
 			boolean success = true;
 			Set<BitronixXid> xids = RecoveryHelper.recover(xaResourceHolderState);
-			if (LogDebugCheck.isDebugEnabled())
+			if (debugCheck.isDebugEnabled())
 			{
 				log.finer(xids.size() + " dangling transaction(s) found on resource");
 			}
 			Map<?, ?> danglingRecords = TransactionManagerServices.getJournal()
 			                                                      .collectDanglingRecords();
-			if (LogDebugCheck.isDebugEnabled())
+			if (debugCheck.isDebugEnabled())
 			{
 				log.finer(danglingRecords.size() + " dangling transaction(s) found in journal");
 			}
@@ -89,7 +91,7 @@ public class IncrementalRecoverer
 				JournalRecord tlog = (JournalRecord) danglingRecords.get(gtrid);
 				if (tlog != null)
 				{
-					if (LogDebugCheck.isDebugEnabled())
+					if (debugCheck.isDebugEnabled())
 					{
 						log.finer("committing " + xid);
 					}
@@ -99,7 +101,7 @@ public class IncrementalRecoverer
 				}
 				else
 				{
-					if (LogDebugCheck.isDebugEnabled())
+					if (debugCheck.isDebugEnabled())
 					{
 						log.finer("rolling back " + xid);
 					}
@@ -138,7 +140,7 @@ public class IncrementalRecoverer
 		finally
 		{
 			xaResourceProducer.endRecovery();
-			if (LogDebugCheck.isDebugEnabled())
+			if (debugCheck.isDebugEnabled())
 			{
 				log.finer("end of incremental recovery on resource " + uniqueName);
 			}
@@ -160,7 +162,7 @@ public class IncrementalRecoverer
 	 */
 	private static void updateJournal(Uid gtrid, String uniqueName, int status) throws IOException
 	{
-		if (LogDebugCheck.isDebugEnabled())
+		if (debugCheck.isDebugEnabled())
 		{
 			log.finer("updating journal, adding " + Decoder.decodeStatus(status) + " entry for [" + uniqueName + "] on GTRID [" + gtrid + "]");
 		}
@@ -85,6 +85,8 @@ public class Recoverer
 
 	private static final java.util.logging.Logger log = java.util.logging.Logger.getLogger(Recoverer.class.toString());
 
+	private static final LogDebugCheck debugCheck = LogDebugCheck.forLogger(log);
+
 	private final Map<String, XAResourceProducer> registeredResources = new HashMap<>();
 	private final Map<String, Set<BitronixXid>> recoveredXidSets = new HashMap<>();
 	private final AtomicBoolean isRunning = new AtomicBoolean(false);
@@ -166,7 +168,7 @@ public class Recoverer
 				                                     .isCurrentNodeOnlyRecovery()) ? " (restricted to serverId '" + TransactionManagerServices.getConfiguration()
 				                                                                                                                              .getServerId() + "')" : ""));
 			}
-			else if (LogDebugCheck.isDebugEnabled())
+			else if (debugCheck.isDebugEnabled())
 			{
 				log.finer("recovery committed " + committedCount + " dangling transaction(s) and rolled back " + rolledbackCount +
 				          " aborted transaction(s) on " + registeredResources.size() + " resource(s) [" + getRegisteredResourcesUniqueNames() + "]" +
@@ -204,12 +206,12 @@ public class Recoverer
 
 			try
 			{
-				if (LogDebugCheck.isDebugEnabled())
+				if (debugCheck.isDebugEnabled())
 				{
 					log.finer("performing recovery on " + uniqueName);
 				}
 				Set<BitronixXid> xids = recover(producer);
-				if (LogDebugCheck.isDebugEnabled())
+				if (debugCheck.isDebugEnabled())
 				{
 					log.finer("recovered " + xids.size() + " XID(s) from resource " + uniqueName);
 				}
@@ -258,7 +260,7 @@ public class Recoverer
 	{
 		Set<Uid> committedGtrids = new HashSet<>();
 
-		if (LogDebugCheck.isDebugEnabled())
+		if (debugCheck.isDebugEnabled())
 		{
 			log.finer("found " + danglingRecords.size() + " dangling record(s) in journal");
 		}
@@ -274,19 +276,19 @@ public class Recoverer
 			Set<DanglingTransaction> danglingTransactions = getDanglingTransactionsInRecoveredXids(uniqueNames, tlog.getGtrid());
 
 			long txTimestamp = gtrid.extractTimestamp();
-			if (LogDebugCheck.isDebugEnabled())
+			if (debugCheck.isDebugEnabled())
 			{
 				log.finer("recovered XID timestamp: " + txTimestamp + " - oldest in-flight TX timestamp: " + oldestTransactionTimestamp);
 			}
 
 			if (txTimestamp < oldestTransactionTimestamp)
 			{
-				if (LogDebugCheck.isDebugEnabled())
+				if (debugCheck.isDebugEnabled())
 				{
 					log.finer("committing dangling transaction with GTRID " + gtrid);
 				}
 				commit(danglingTransactions);
-				if (LogDebugCheck.isDebugEnabled())
+				if (debugCheck.isDebugEnabled())
 				{
 					log.finer("committed dangling transaction with GTRID " + gtrid);
 				}
@@ -296,7 +298,7 @@ public class Recoverer
 
 				if (!participatingUniqueNames.isEmpty())
 				{
-					if (LogDebugCheck.isDebugEnabled())
+					if (debugCheck.isDebugEnabled())
 					{
 						log.finer(
 								"updating journal's transaction with GTRID " + gtrid + " status to COMMITTED for names [" + buildUniqueNamesString(participatingUniqueNames) + "]");
@@ -306,7 +308,7 @@ public class Recoverer
 				}
 				else
 				{
-					if (LogDebugCheck.isDebugEnabled())
+					if (debugCheck.isDebugEnabled())
 					{
 						log.finer("not updating journal's transaction with GTRID " + gtrid +
 						          " status to COMMITTED as no resource could be found (incremental recovery will need to clean this)");
@@ -316,13 +318,13 @@ public class Recoverer
 			}
 			else
 			{
-				if (LogDebugCheck.isDebugEnabled())
+				if (debugCheck.isDebugEnabled())
 				{
 					log.finer("skipping in-flight transaction with GTRID " + gtrid);
 				}
 			}
 		}
-		if (LogDebugCheck.isDebugEnabled())
+		if (debugCheck.isDebugEnabled())
 		{
 			log.finer("committed " + committedGtrids.size() + " dangling transaction(s)");
 		}
@@ -346,7 +348,7 @@ public class Recoverer
 	 */
 	private int rollbackAbortedTransactions(long oldestTransactionTimestamp, Set<Uid> committedGtrids) throws RecoveryException
 	{
-		if (LogDebugCheck.isDebugEnabled())
+		if (debugCheck.isDebugEnabled())
 		{
 			log.finer("rolling back aborted branch(es)");
 		}
@@ -356,19 +358,19 @@ public class Recoverer
 			String uniqueName = entry.getKey();
 			Set<BitronixXid> recoveredXids = entry.getValue();
 
-			if (LogDebugCheck.isDebugEnabled())
+			if (debugCheck.isDebugEnabled())
 			{
 				log.finer("checking " + recoveredXids.size() + " branch(es) on " + uniqueName + " for rollback");
 			}
 			int count = rollbackAbortedBranchesOfResource(oldestTransactionTimestamp, uniqueName, recoveredXids, committedGtrids);
-			if (LogDebugCheck.isDebugEnabled())
+			if (debugCheck.isDebugEnabled())
 			{
 				log.finer("checked " + recoveredXids.size() + " branch(es) on " + uniqueName + " for rollback");
 			}
 			rollbackCount += count;
 		}
 
-		if (LogDebugCheck.isDebugEnabled())
+		if (debugCheck.isDebugEnabled())
 		{
 			log.finer("rolled back " + rollbackCount + " aborted branch(es)");
 		}
@@ -408,7 +410,7 @@ public class Recoverer
 
 		try
 		{
-			if (LogDebugCheck.isDebugEnabled())
+			if (debugCheck.isDebugEnabled())
 			{
 				log.finer("running recovery on " + producer);
 			}
@@ -440,14 +442,14 @@ public class Recoverer
 
 		for (String uniqueName : uniqueNames)
 		{
-			if (LogDebugCheck.isDebugEnabled())
+			if (debugCheck.isDebugEnabled())
 			{
 				log.finer("finding dangling transaction(s) in recovered XID(s) of resource " + uniqueName);
 			}
 			Set<BitronixXid> recoveredXids = recoveredXidSets.get(uniqueName);
 			if (recoveredXids == null)
 			{
-				if (LogDebugCheck.isDebugEnabled())
+				if (debugCheck.isDebugEnabled())
 				{
 					log.finer("resource " + uniqueName + " did not recover, skipping commit");
 				}
@@ -458,7 +460,7 @@ public class Recoverer
 			{
 				if (gtrid.equals(recoveredXid.getGlobalTransactionIdUid()))
 				{
-					if (LogDebugCheck.isDebugEnabled())
+					if (debugCheck.isDebugEnabled())
 					{
 						log.finer("found a recovered XID matching dangling log's GTRID " + gtrid + " in resource " + uniqueName);
 					}
@@ -482,7 +484,7 @@ public class Recoverer
 	 */
 	private void commit(Set<DanglingTransaction> danglingTransactions) throws RecoveryException
 	{
-		if (LogDebugCheck.isDebugEnabled())
+		if (debugCheck.isDebugEnabled())
 		{
 			log.finer(danglingTransactions.size() + " branch(es) to commit");
 		}
@@ -492,7 +494,7 @@ public class Recoverer
 			Xid xid = danglingTransaction.getXid();
 			String uniqueName = danglingTransaction.getUniqueName();
 
-			if (LogDebugCheck.isDebugEnabled())
+			if (debugCheck.isDebugEnabled())
 			{
 				log.finer("committing branch with XID " + xid + " on " + uniqueName);
 			}
@@ -514,14 +516,14 @@ public class Recoverer
 
 		for (String uniqueName : uniqueNames)
 		{
-			if (LogDebugCheck.isDebugEnabled())
+			if (debugCheck.isDebugEnabled())
 			{
 				log.finer("finding dangling transaction(s) in recovered XID(s) of resource " + uniqueName);
 			}
 			Set<BitronixXid> recoveredXids = recoveredXidSets.get(uniqueName);
 			if (recoveredXids == null)
 			{
-				if (LogDebugCheck.isDebugEnabled())
+				if (debugCheck.isDebugEnabled())
 				{
 					log.finer("cannot find resource '" + uniqueName + "' present in the journal, leaving it for incremental recovery");
 				}
@@ -584,7 +586,7 @@ public class Recoverer
 		{
 			if (committedGtrids.contains(recoveredXid.getGlobalTransactionIdUid()))
 			{
-				if (LogDebugCheck.isDebugEnabled())
+				if (debugCheck.isDebugEnabled())
 				{
 					log.finer("XID has been committed, skipping rollback: " + recoveredXid + " on " + uniqueName);
 				}
@@ -593,20 +595,20 @@ public class Recoverer
 
 			long txTimestamp = recoveredXid.getGlobalTransactionIdUid()
 			                               .extractTimestamp();
-			if (LogDebugCheck.isDebugEnabled())
+			if (debugCheck.isDebugEnabled())
 			{
 				log.finer("recovered XID timestamp: " + txTimestamp + " - oldest in-flight TX timestamp: " + oldestTransactionTimestamp);
 			}
 			if (txTimestamp >= oldestTransactionTimestamp)
 			{
-				if (LogDebugCheck.isDebugEnabled())
+				if (debugCheck.isDebugEnabled())
 				{
 					log.finer("skipping XID of in-flight transaction: " + recoveredXid);
 				}
 				continue;
 			}
 
-			if (LogDebugCheck.isDebugEnabled())
+			if (debugCheck.isDebugEnabled())
 			{
 				log.finer("rolling back in-doubt branch with XID " + recoveredXid + " on " + uniqueName);
 			}
@@ -666,7 +668,7 @@ public class Recoverer
 		XAResourceProducer producer = registeredResources.get(uniqueName);
 		if (producer == null)
 		{
-			if (LogDebugCheck.isDebugEnabled())
+			if (debugCheck.isDebugEnabled())
 			{
 				log.finer("resource " + uniqueName + " has not recovered, skipping rollback");
 			}
@@ -39,6 +39,7 @@ import java.util.logging.Level;
 public class RecoveryHelper
 {
 	private static final java.util.logging.Logger log = java.util.logging.Logger.getLogger(RecoveryHelper.class.toString());
+	private static final LogDebugCheck debugCheck = LogDebugCheck.forLogger(log);
 
 	private static final String XIDS_ON = " xid(s) on ";
 	private static final String UNABLE_TO_COMMIT_INDOUBT = "unable to commit in-doubt branch on resource ";
@@ -66,7 +67,7 @@ public class RecoveryHelper
 	{
 		Set<BitronixXid> xids = new HashSet<>();
 
-		if (LogDebugCheck.isDebugEnabled())
+		if (debugCheck.isDebugEnabled())
 		{
 			log.finer("recovering with STARTRSCAN");
 		}
@@ -79,7 +80,7 @@ public class RecoveryHelper
 		{
 			if (xaResourceHolderState.getIgnoreRecoveryFailures())
 			{
-				if (LogDebugCheck.isDebugEnabled())
+				if (debugCheck.isDebugEnabled())
 				{
 					log.log(Level.FINER, "ignoring recovery failure on resource " + xaResourceHolderState, ex);
 				}
@@ -87,7 +88,7 @@ public class RecoveryHelper
 			}
 			throw ex;
 		}
-		if (LogDebugCheck.isDebugEnabled())
+		if (debugCheck.isDebugEnabled())
 		{
 			log.finer("STARTRSCAN recovered " + xidCount + XIDS_ON + xaResourceHolderState);
 		}
@@ -96,12 +97,12 @@ public class RecoveryHelper
 		{
 			while (xidCount > 0)
 			{
-				if (LogDebugCheck.isDebugEnabled())
+				if (debugCheck.isDebugEnabled())
 				{
 					log.finer("recovering with NOFLAGS");
 				}
 				xidCount = recover(xaResourceHolderState, xids, XAResource.TMNOFLAGS);
-				if (LogDebugCheck.isDebugEnabled())
+				if (debugCheck.isDebugEnabled())
 				{
 					log.finer("NOFLAGS recovered " + xidCount + XIDS_ON + xaResourceHolderState);
 				}
@@ -109,7 +110,7 @@ public class RecoveryHelper
 		}
 		catch (XAException ex)
 		{
-			if (LogDebugCheck.isDebugEnabled())
+			if (debugCheck.isDebugEnabled())
 			{
 				log.log(Level.FINER, "NOFLAGS recovery call failed", ex);
 			}
@@ -117,19 +118,19 @@ public class RecoveryHelper
 
 		try
 		{
-			if (LogDebugCheck.isDebugEnabled())
+			if (debugCheck.isDebugEnabled())
 			{
 				log.finer("recovering with ENDRSCAN");
 			}
 			xidCount = recover(xaResourceHolderState, xids, XAResource.TMENDRSCAN);
-			if (LogDebugCheck.isDebugEnabled())
+			if (debugCheck.isDebugEnabled())
 			{
 				log.finer("ENDRSCAN recovered " + xidCount + XIDS_ON + xaResourceHolderState);
 			}
 		}
 		catch (XAException ex)
 		{
-			if (LogDebugCheck.isDebugEnabled())
+			if (debugCheck.isDebugEnabled())
 			{
 				log.log(Level.FINER, "ENDRSCAN recovery call failed", ex);
 			}
@@ -172,7 +173,7 @@ public class RecoveryHelper
 		{
 			if (xid.getFormatId() != BitronixXid.FORMAT_ID)
 			{
-				if (LogDebugCheck.isDebugEnabled())
+				if (debugCheck.isDebugEnabled())
 				{
 					log.finer("skipping non-bitronix XID " + xid + "(format ID: " + xid.getFormatId() +
 					          " GTRID: " + new Uid(xid.getGlobalTransactionId()) + "BQUAL: " + new Uid(xid.getBranchQualifier()) + ")");
@@ -184,7 +185,7 @@ public class RecoveryHelper
 
 			if (currentNodeOnly)
 			{
-				if (LogDebugCheck.isDebugEnabled())
+				if (debugCheck.isDebugEnabled())
 				{
 					log.finer("recovering XIDs generated by this node only - recovered XIDs' GTRID must contain this JVM uniqueId");
 				}
@@ -204,7 +205,7 @@ public class RecoveryHelper
 					String extractedServerIdString = new String(extractedServerId);
 					String jvmUniqueIdString = new String(jvmUniqueId);
 
-					if (LogDebugCheck.isDebugEnabled())
+					if (debugCheck.isDebugEnabled())
 					{
 						log.finer("skipping XID " + bitronixXid + " as its GTRID's serverId <" + extractedServerIdString + "> does not match this JVM unique ID <" +
 						          jvmUniqueIdString + ">");
@@ -214,7 +215,7 @@ public class RecoveryHelper
 			}
 			else
 			{
-				if (LogDebugCheck.isDebugEnabled())
+				if (debugCheck.isDebugEnabled())
 				{
 					log.finer("recovering all XIDs regardless of this JVM uniqueId");
 				}
@@ -222,7 +223,7 @@ public class RecoveryHelper
 
 			if (alreadyRecoveredXids.contains(bitronixXid))
 			{
-				if (LogDebugCheck.isDebugEnabled())
+				if (debugCheck.isDebugEnabled())
 				{
 					log.finer("already recovered XID " + bitronixXid + ", skipping it");
 				}
@@ -235,7 +236,7 @@ public class RecoveryHelper
 				continue;
 			}
 
-			if (LogDebugCheck.isDebugEnabled())
+			if (debugCheck.isDebugEnabled())
 			{
 				log.finer("recovered " + bitronixXid);
 			}
@@ -320,7 +321,7 @@ public class RecoveryHelper
 	{
 		try
 		{
-			if (LogDebugCheck.isDebugEnabled())
+			if (debugCheck.isDebugEnabled())
 			{
 				log.finer("forgetting XID " + xid + " on resource " + uniqueName);
 			}
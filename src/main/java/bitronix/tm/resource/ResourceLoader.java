@@ -48,6 +48,8 @@ public class ResourceLoader
 
 	private static final java.util.logging.Logger log = java.util.logging.Logger.getLogger(ResourceLoader.class.toString());
 
+	private static final LogDebugCheck debugCheck = LogDebugCheck.forLogger(log);
+
 	private static final String JDBC_RESOURCE_CLASSNAME = "bitronix.tm.resource.jdbc.PoolingDataSource";
 	private static final String JMS_RESOURCE_CLASSNAME = "bitronix.tm.resource.jms.PoolingConnectionFactory";
 
@@ -93,7 +95,7 @@ public class ResourceLoader
 		}
 		else
 		{
-			if (LogDebugCheck.isDebugEnabled())
+			if (debugCheck.isDebugEnabled())
 			{
 				log.finer("no resource configuration file specified");
 			}
@@ -149,14 +151,14 @@ public class ResourceLoader
 
 			if (ResourceRegistrar.get(producer.getUniqueName()) != null)
 			{
-				if (LogDebugCheck.isDebugEnabled())
+				if (debugCheck.isDebugEnabled())
 				{
 					log.finer("resource already registered, skipping it:" + producer.getUniqueName());
 				}
 				continue;
 			}
 
-			if (LogDebugCheck.isDebugEnabled())
+			if (debugCheck.isDebugEnabled())
 			{
 				log.finer("creating resource " + producer);
 			}
@@ -355,7 +357,7 @@ public class ResourceLoader
 	@Override
 	public synchronized void shutdown()
 	{
-		if (LogDebugCheck.isDebugEnabled())
+		if (debugCheck.isDebugEnabled())
 		{
 			log.finer("resource loader has registered " + resourcesByUniqueName.entrySet()
 			                                                                   .size() + " resource(s), unregistering them now");
@@ -363,7 +365,7 @@ public class ResourceLoader
 		for (Map.Entry<String, XAResourceProducer> entry : resourcesByUniqueName.entrySet())
 		{
 			XAResourceProducer producer = entry.getValue();
-			if (LogDebugCheck.isDebugEnabled())
+			if (debugCheck.isDebugEnabled())
 			{
 				log.finer("closing " + producer);
 			}
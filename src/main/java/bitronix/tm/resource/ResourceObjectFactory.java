@@ -33,6 +33,8 @@ public class ResourceObjectFactory
 
 	private static final java.util.logging.Logger log = java.util.logging.Logger.getLogger(ResourceObjectFactory.class.toString());
 
+	private static final LogDebugCheck debugCheck = LogDebugCheck.forLogger(log);
+
 	/**
 	 * Method getObjectInstance ...
 	 *
@@ -54,7 +56,7 @@ public class ResourceObjectFactory
 	public Object getObjectInstance(Object obj, Name jndiNameObject, Context nameCtx, Hashtable<?, ?> environment) throws Exception
 	{
 		Reference ref = (Reference) obj;
-		if (LogDebugCheck.isDebugEnabled())
+		if (debugCheck.isDebugEnabled())
 		{
 			log.finer("referencing resource with reference of type " + ref.getClass());
 		}
@@ -71,7 +73,7 @@ public class ResourceObjectFactory
 		}
 		String uniqueName = (String) content;
 
-		if (LogDebugCheck.isDebugEnabled())
+		if (debugCheck.isDebugEnabled())
 		{
 			log.finer("getting registered resource with uniqueName '" + uniqueName + "'");
 		}
@@ -49,6 +49,7 @@ public final class ResourceRegistrar
 	 * Specifies the charset that unique names of resources must be encodable with to be storeable in a TX journal.
 	 */
 	private static final java.util.logging.Logger log = java.util.logging.Logger.getLogger(ResourceRegistrar.class.toString());
+	private static final LogDebugCheck debugCheck = LogDebugCheck.forLogger(log);
 	private static final Set<ProducerHolder> resources = new CopyOnWriteArraySet<>();
 
 	/**
@@ -156,7 +157,7 @@ public final class ResourceRegistrar
 		boolean recovered = false;
 		try
 		{
-			if (LogDebugCheck.isDebugEnabled())
+			if (debugCheck.isDebugEnabled())
 			{
 				log.finer("Transaction manager is running, recovering resource '" + holder.getUniqueName() + "'.");
 			}
@@ -183,7 +184,7 @@ public final class ResourceRegistrar
 	public static void unregister(XAResourceProducer producer)
 	{
 		ProducerHolder holder = new ProducerHolder(producer);
-		if (!resources.remove(holder) && LogDebugCheck.isDebugEnabled())
+		if (!resources.remove(holder) && debugCheck.isDebugEnabled())
 		{
 			log.log(Level.FINER, "resource with uniqueName '" + holder.getUniqueName() + "' has not been registered");
 		}
@@ -199,7 +200,7 @@ public final class ResourceRegistrar
 	 */
 	public static XAResourceHolder findXAResourceHolder(XAResource xaResource)
 	{
-		boolean debug = LogDebugCheck.isDebugEnabled();
+		boolean debug = debugCheck.isDebugEnabled();
 
 		for (ProducerHolder holder : resources)
 		{
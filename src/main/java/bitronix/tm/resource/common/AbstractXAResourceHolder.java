@@ -39,6 +39,8 @@ public abstract class AbstractXAResourceHolder<T extends XAResourceHolder<T>>
 
 	private static final java.util.logging.Logger log = java.util.logging.Logger.getLogger(AbstractXAResourceHolder.class.toString());
 
+	private static final LogDebugCheck debugCheck = LogDebugCheck.forLogger(log);
+
 	private final Map<Uid, Map<Uid, XAResourceHolderState>> xaResourceHolderStates = new HashMap<>();
 	private final ReentrantReadWriteLock rwLock = new ReentrantReadWriteLock();
 
@@ -176,13 +178,13 @@ public abstract class AbstractXAResourceHolder<T extends XAResourceHolder<T>>
 		      .lock();
 		try
 		{
-			if (LogDebugCheck.isDebugEnabled())
+			if (debugCheck.isDebugEnabled())
 			{
 				log.finer("putting XAResourceHolderState [" + xaResourceHolderState + "] on " + this);
 			}
 			if (!xaResourceHolderStates.containsKey(gtrid))
 			{
-				if (LogDebugCheck.isDebugEnabled())
+				if (debugCheck.isDebugEnabled())
 				{
 					log.finer("GTRID [" + gtrid + "] previously unknown to " + this + ", adding it to the resource's transactions list");
 				}
@@ -194,7 +196,7 @@ public abstract class AbstractXAResourceHolder<T extends XAResourceHolder<T>>
 			}
 			else
 			{
-				if (LogDebugCheck.isDebugEnabled())
+				if (debugCheck.isDebugEnabled())
 				{
 					log.finer("GTRID [" + gtrid + "] previously known to " + this + ", adding it to the resource's transactions list");
 				}
@@ -226,7 +228,7 @@ public abstract class AbstractXAResourceHolder<T extends XAResourceHolder<T>>
 		      .lock();
 		try
 		{
-			if (LogDebugCheck.isDebugEnabled())
+			if (debugCheck.isDebugEnabled())
 			{
 				log.finer("removing XAResourceHolderState of xid " + xid + " from " + this);
 			}
@@ -279,7 +281,7 @@ public abstract class AbstractXAResourceHolder<T extends XAResourceHolder<T>>
 				{
 					if (otherXaResourceHolderState.getXAResource() == xaResourceHolder.getXAResource())
 					{
-						if (LogDebugCheck.isDebugEnabled())
+						if (debugCheck.isDebugEnabled())
 						{
 							log.finer("resource " + xaResourceHolder + " is enlisted in another transaction with " + otherXaResourceHolderState.getXid()
 							                                                                                                                   .toString());
@@ -289,7 +291,7 @@ public abstract class AbstractXAResourceHolder<T extends XAResourceHolder<T>>
 				}
 			}
 
-			if (LogDebugCheck.isDebugEnabled())
+			if (debugCheck.isDebugEnabled())
 			{
 				log.finer("resource not enlisted in any transaction: " + xaResourceHolder);
 			}
@@ -16,8 +16,8 @@
 package bitronix.tm.resource.common;
 
 import bitronix.tm.internal.LogDebugCheck;
+import bitronix.tm.utils.MonotonicClock;
 
-import java.util.Date;
 import java.util.List;
 import java.util.concurrent.CopyOnWriteArrayList;
 
@@ -31,8 +31,10 @@ public abstract class AbstractXAStatefulHolder<T extends XAStatefulHolder<T>>
 {
 
 	private static final java.util.logging.Logger log = java.util.logging.Logger.getLogger(AbstractXAStatefulHolder.class.toString());
+
+	private static final LogDebugCheck debugCheck = LogDebugCheck.forLogger(log);
 	private final List<StateChangeListener<T>> stateChangeEventListeners = new CopyOnWriteArrayList<>();
-	private final Date creationDate = new Date();
+	private final long creationTime = MonotonicClock.currentTimeMillis();
 	private volatile State state = State.IN_POOL;
 
 	/**
@@ -66,7 +68,7 @@ public abstract class AbstractXAStatefulHolder<T extends XAStatefulHolder<T>>
 			                                   " to " + state);
 		}
 
-		if (LogDebugCheck.isDebugEnabled())
+		if (debugCheck.isDebugEnabled())
 		{
 			log.finer("state changing from " + oldState +
 			          " to " + state + " in " + this);
@@ -102,14 +104,14 @@ public abstract class AbstractXAStatefulHolder<T extends XAStatefulHolder<T>>
 	}
 
 	/**
-	 * Get the date at which this object was created in the pool.
+	 * Get the time at which this object was created in the pool.
 	 *
-	 * @return the date at which this object was created in the pool.
+	 * @return the time in milliseconds at which this object was created in the pool.
 	 */
 	@Override
-	public Date getCreationDate()
+	public long getCreationTime()
 	{
-		return creationDate;
+		return creationTime;
 	}
 
 	/**
@@ -123,7 +125,7 @@ public abstract class AbstractXAStatefulHolder<T extends XAStatefulHolder<T>>
 	@SuppressWarnings("unchecked")
 	private void fireStateChanging(State currentState, State futureState)
 	{
-		if (LogDebugCheck.isDebugEnabled())
+		if (debugCheck.isDebugEnabled())
 		{
 			log.finer("notifying " + stateChangeEventListeners.size() +
 			          " stateChangeEventListener(s) about state changing from " + currentState +
@@ -147,7 +149,7 @@ public abstract class AbstractXAStatefulHolder<T extends XAStatefulHolder<T>>
 	@SuppressWarnings("unchecked")
 	private void fireStateChanged(State oldState, State newState)
 	{
-		if (LogDebugCheck.isDebugEnabled())
+		if (debugCheck.isDebugEnabled())
 		{
 			log.finer("notifying " + stateChangeEventListeners.size() +
 			          " stateChangeEventListener(s) about state changed from " + oldState +
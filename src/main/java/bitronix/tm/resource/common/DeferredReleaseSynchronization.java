@@ -31,6 +31,8 @@ public class DeferredReleaseSynchronization
 
 	private static final java.util.logging.Logger log = java.util.logging.Logger.getLogger(DeferredReleaseSynchronization.class.toString());
 
+	private static final LogDebugCheck debugCheck = LogDebugCheck.forLogger(log);
+
 	private final XAStatefulHolder xaStatefulHolder;
 
 	/**
@@ -72,7 +74,7 @@ public class DeferredReleaseSynchronization
 	@Override
 	public void afterCompletion(int status)
 	{
-		if (LogDebugCheck.isDebugEnabled())
+		if (debugCheck.isDebugEnabled())
 		{
 			log.finer("DeferredReleaseSynchronization requeuing " + xaStatefulHolder);
 		}
@@ -80,7 +82,7 @@ public class DeferredReleaseSynchronization
 		// set this connection's state back to IN_POOL
 		xaStatefulHolder.setState(State.IN_POOL);
 
-		if (LogDebugCheck.isDebugEnabled())
+		if (debugCheck.isDebugEnabled())
 		{
 			log.finer("DeferredReleaseSynchronization requeued " + xaStatefulHolder);
 		}
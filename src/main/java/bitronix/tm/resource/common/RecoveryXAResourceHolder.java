@@ -17,7 +17,6 @@ package bitronix.tm.resource.common;
 
 import javax.transaction.xa.XAResource;
 import java.util.ArrayList;
-import java.util.Date;
 import java.util.List;
 
 /**
@@ -108,14 +107,15 @@ public class RecoveryXAResourceHolder
 	}
 
 	/**
-	 * Get the date at which this object was last released to the pool. This is required to check if it is eligible
+	 * Get the time at which this object was last released to the pool. This is required to check if it is eligible
 	 * for discard when the containing pool needs to shrink.
 	 *
-	 * @return the date at which this object was last released to the pool or null if it never left the pool.
+	 * @return the time in milliseconds at which this object was last released to the pool or 0 if it never left the
+	 * pool.
 	 */
 	@Override
-	public Date getLastReleaseDate()
+	public long getLastReleaseTime()
 	{
-		return null;
+		return 0L;
 	}
 }
@@ -40,6 +40,8 @@ public final class TransactionContextHelper
 {
 
 	private static final java.util.logging.Logger log = java.util.logging.Logger.getLogger(TransactionContextHelper.class.toString());
+
+	private static final LogDebugCheck debugCheck = LogDebugCheck.forLogger(log);
 	private static final String FROM_SPACE = " from ";
 
 	/**
@@ -66,7 +68,7 @@ public final class TransactionContextHelper
 	{
 		BitronixTransaction currentTransaction = currentTransaction();
 		ResourceBean bean = xaResourceHolder.getResourceBean();
-		if (LogDebugCheck.isDebugEnabled())
+		if (debugCheck.isDebugEnabled())
 		{
 			log.finer("enlisting " + xaResourceHolder + " into " + currentTransaction);
 		}
@@ -86,7 +88,7 @@ public final class TransactionContextHelper
 			{
 				currentTransaction.enlistResource(xaResourceHolder.getXAResource());
 			}
-			else if (LogDebugCheck.isDebugEnabled())
+			else if (debugCheck.isDebugEnabled())
 			{
 				log.finer("avoiding re-enlistment of already enlisted but not ended resource " + alreadyEnlistedXAResourceHolderState);
 			}
@@ -95,7 +97,7 @@ public final class TransactionContextHelper
 		{
 			if (bean.getAllowLocalTransactions())
 			{
-				if (LogDebugCheck.isDebugEnabled())
+				if (debugCheck.isDebugEnabled())
 				{
 					log.finer("in local transaction context, skipping enlistment");
 				}
@@ -190,7 +192,7 @@ public final class TransactionContextHelper
 	{
 		BitronixTransaction currentTransaction = currentTransaction();
 		ResourceBean bean = xaResourceHolder.getResourceBean();
-		if (LogDebugCheck.isDebugEnabled())
+		if (debugCheck.isDebugEnabled())
 		{
 			log.finer("delisting " + xaResourceHolder + FROM_SPACE + currentTransaction);
 		}
@@ -215,7 +217,7 @@ public final class TransactionContextHelper
 				{
 					if (!xaResourceHolderState.isEnded())
 					{
-						if (LogDebugCheck.isDebugEnabled())
+						if (debugCheck.isDebugEnabled())
 						{
 							log.finer("delisting resource " + xaResourceHolderState + FROM_SPACE + currentTransaction);
 						}
@@ -231,7 +233,7 @@ public final class TransactionContextHelper
 							return false; // stop visitation
 						}
 					}
-					else if (LogDebugCheck.isDebugEnabled())
+					else if (debugCheck.isDebugEnabled())
 					{
 						log.finer("avoiding delistment of not enlisted resource " + xaResourceHolderState);
 					}
@@ -268,7 +270,7 @@ public final class TransactionContextHelper
 		{
 			globalTransactionMode = true;
 		}
-		if (LogDebugCheck.isDebugEnabled())
+		if (debugCheck.isDebugEnabled())
 		{
 			log.finer("resource is " + (globalTransactionMode ? "" : "not ") + "in enlisting global transaction context: " + xaResourceHolder);
 		}
@@ -294,7 +296,7 @@ public final class TransactionContextHelper
 	public static void requeue(XAStatefulHolder<? extends XAStatefulHolder> xaStatefulHolder, ResourceBean bean) throws BitronixSystemException
 	{
 		BitronixTransaction currentTransaction = currentTransaction();
-		if (LogDebugCheck.isDebugEnabled())
+		if (debugCheck.isDebugEnabled())
 		{
 			log.finer("requeuing " + xaStatefulHolder + FROM_SPACE + currentTransaction);
 		}
@@ -304,7 +306,7 @@ public final class TransactionContextHelper
 			if (!TransactionContextHelper.isEnlistedInSomeTransaction(xaStatefulHolder))
 			{
 				// local mode, always requeue connection immediately
-				if (LogDebugCheck.isDebugEnabled())
+				if (debugCheck.isDebugEnabled())
 				{
 					log.finer("resource not in enlisting global transaction context, immediately releasing to pool " + xaStatefulHolder);
 				}
@@ -318,14 +320,14 @@ public final class TransactionContextHelper
 		else if (bean.getDeferConnectionRelease())
 		{
 			// global mode, defer connection requeuing
-			if (LogDebugCheck.isDebugEnabled())
+			if (debugCheck.isDebugEnabled())
 			{
 				log.finer("deferring release to pool of " + xaStatefulHolder);
 			}
 
 			if (!TransactionContextHelper.isAlreadyRegisteredForDeferredRelease(xaStatefulHolder, currentTransaction))
 			{
-				if (LogDebugCheck.isDebugEnabled())
+				if (debugCheck.isDebugEnabled())
 				{
 					log.finer("registering DeferredReleaseSynchronization for " + xaStatefulHolder);
 				}
@@ -333,7 +335,7 @@ public final class TransactionContextHelper
 				currentTransaction.getSynchronizationScheduler()
 				                  .add(synchronization, Scheduler.ALWAYS_LAST_POSITION);
 			}
-			else if (LogDebugCheck.isDebugEnabled())
+			else if (debugCheck.isDebugEnabled())
 			{
 				log.finer("already registered DeferredReleaseSynchronization for " + xaStatefulHolder);
 			}
@@ -343,7 +345,7 @@ public final class TransactionContextHelper
 		else
 		{
 			// global mode, immediate connection requeuing
-			if (LogDebugCheck.isDebugEnabled())
+			if (debugCheck.isDebugEnabled())
 			{
 				log.finer("immediately releasing to pool " + xaStatefulHolder);
 			}
@@ -420,7 +422,7 @@ public final class TransactionContextHelper
 	private static boolean isAlreadyRegisteredForDeferredRelease(XAStatefulHolder<? extends XAStatefulHolder> xaStatefulHolder, BitronixTransaction currentTransaction)
 	{
 		boolean alreadyDeferred = findDeferredRelease(xaStatefulHolder, currentTransaction) != null;
-		if (LogDebugCheck.isDebugEnabled())
+		if (debugCheck.isDebugEnabled())
 		{
 			log.finer(xaStatefulHolder + " is " + (alreadyDeferred ? "" : "not ") + "already registered for deferred release in " + currentTransaction);
 		}
@@ -440,14 +442,14 @@ public final class TransactionContextHelper
 	 */
 	private static boolean isEnlistedInSomeTransaction(XAResourceHolder<? extends XAResourceHolder> xaResourceHolder)
 	{
-		if (LogDebugCheck.isDebugEnabled())
+		if (debugCheck.isDebugEnabled())
 		{
 			log.finer("looking in in-flight transactions for XAResourceHolderState of " + xaResourceHolder);
 		}
 
 		if (!TransactionManagerServices.isTransactionManagerRunning())
 		{
-			if (LogDebugCheck.isDebugEnabled())
+			if (debugCheck.isDebugEnabled())
 			{
 				log.finer("transaction manager not running, there is no in-flight transaction");
 			}
@@ -495,7 +497,7 @@ public final class TransactionContextHelper
 	public static void recycle(XAStatefulHolder<? extends XAStatefulHolder> xaStatefulHolder)
 	{
 		BitronixTransaction currentTransaction = currentTransaction();
-		if (LogDebugCheck.isDebugEnabled())
+		if (debugCheck.isDebugEnabled())
 		{
 			log.finer("marking " + xaStatefulHolder + " as recycled in " + currentTransaction);
 		}
@@ -506,7 +508,7 @@ public final class TransactionContextHelper
 			DeferredReleaseSynchronization deferredReleaseSynchronization = findDeferredRelease(xaStatefulHolder, currentTransaction);
 			if (deferredReleaseSynchronization != null)
 			{
-				if (LogDebugCheck.isDebugEnabled())
+				if (debugCheck.isDebugEnabled())
 				{
 					log.finer(xaStatefulHolder + " has been recycled, unregistering deferred release from " + currentTransaction);
 				}
@@ -29,6 +29,7 @@ import java.util.Map;
 final class XAFactoryHelper
 {
 	private static final java.util.logging.Logger log = java.util.logging.Logger.getLogger(XAFactoryHelper.class.toString());
+	private static final LogDebugCheck debugCheck = LogDebugCheck.forLogger(log);
 
 	private static final String PASSWORD_PROPERTY_NAME = "password";
 
@@ -73,7 +74,7 @@ final class XAFactoryHelper
 				value = decrypt(value.toString());
 			}
 
-			if (LogDebugCheck.isDebugEnabled())
+			if (debugCheck.isDebugEnabled())
 			{
 				log.finer("setting vendor property '" + name + "' to '" + value + "'");
 			}
@@ -103,7 +104,7 @@ final class XAFactoryHelper
 			return resourcePassword;
 		}
 
-		if (LogDebugCheck.isDebugEnabled())
+		if (debugCheck.isDebugEnabled())
 		{
 			log.finer("resource password is encrypted, decrypting " + resourcePassword);
 		}
@@ -52,6 +52,8 @@ public class XAPool<R extends XAResourceHolder<R>, T extends XAStatefulHolder<T>
 
 	private static final java.util.logging.Logger log = java.util.logging.Logger.getLogger(XAPool.class.toString());
 
+	private static final LogDebugCheck debugCheck = LogDebugCheck.forLogger(log);
+
 	/**
 	 * The stateTransitionLock makes sure that transitions of XAStatefulHolders from one state to another
 	 * (movement from one pool to another) are atomic.  A ReentrantReadWriteLock allows any number of
@@ -148,7 +150,7 @@ public class XAPool<R extends XAResourceHolder<R>, T extends XAStatefulHolder<T>
 	{
 		synchronized (poolGrowthShrinkLock)
 		{
-			if (LogDebugCheck.isDebugEnabled())
+			if (debugCheck.isDebugEnabled())
 			{
 				log.finer("growing " + this + " to minimum pool size " + bean.getMinPoolSize());
 			}
@@ -200,7 +202,7 @@ public class XAPool<R extends XAResourceHolder<R>, T extends XAStatefulHolder<T>
 	{
 		synchronized (poolGrowthShrinkLock)
 		{
-			if (LogDebugCheck.isDebugEnabled())
+			if (debugCheck.isDebugEnabled())
 			{
 				log.finer("closing all connections of " + this);
 			}
@@ -213,7 +215,7 @@ public class XAPool<R extends XAResourceHolder<R>, T extends XAStatefulHolder<T>
 				}
 				catch (Exception ex)
 				{
-					if (LogDebugCheck.isDebugEnabled())
+					if (debugCheck.isDebugEnabled())
 					{
 						log.log(Level.FINER, "ignoring exception while closing connection " + xaStatefulHolder, ex);
 					}
@@ -286,7 +288,7 @@ public class XAPool<R extends XAResourceHolder<R>, T extends XAStatefulHolder<T>
 				xaStatefulHolder = getInPool(remainingTimeMs);
 			}
 
-			if (LogDebugCheck.isDebugEnabled())
+			if (debugCheck.isDebugEnabled())
 			{
 				log.finer("found " + xaStatefulHolder.getState() + " connection " + xaStatefulHolder + " from " + this);
 			}
@@ -305,7 +307,7 @@ public class XAPool<R extends XAResourceHolder<R>, T extends XAStatefulHolder<T>
 			}
 			catch (Exception ex)
 			{
-				if (LogDebugCheck.isDebugEnabled())
+				if (debugCheck.isDebugEnabled())
 				{
 					log.log(Level.FINER, "connection is invalid, trying to close it", ex);
 				}
@@ -315,14 +317,14 @@ public class XAPool<R extends XAResourceHolder<R>, T extends XAStatefulHolder<T>
 				}
 				catch (Exception ex2)
 				{
-					if (LogDebugCheck.isDebugEnabled())
+					if (debugCheck.isDebugEnabled())
 					{
 						log.log(Level.FINER, "exception while trying to close invalid connection, ignoring it", ex2);
 					}
 				}
 				finally
 				{
-					if (LogDebugCheck.isDebugEnabled())
+					if (debugCheck.isDebugEnabled())
 					{
 						log.finer("removed invalid connection " + xaStatefulHolder + " from " + this);
 					}
@@ -331,7 +333,7 @@ public class XAPool<R extends XAResourceHolder<R>, T extends XAStatefulHolder<T>
 						stateChanged(xaStatefulHolder, xaStatefulHolder.getState(), State.CLOSED);
 					}
 
-					if (LogDebugCheck.isDebugEnabled())
+					if (debugCheck.isDebugEnabled())
 					{
 						log.finer("waiting " + bean.getAcquisitionInterval() + "s before trying to acquire a connection again from " + this);
 					}
@@ -402,21 +404,21 @@ public class XAPool<R extends XAResourceHolder<R>, T extends XAStatefulHolder<T>
 			switch (newState)
 			{
 				case IN_POOL:
-					if (LogDebugCheck.isDebugEnabled())
+					if (debugCheck.isDebugEnabled())
 					{
 						log.finer("added " + source + " to the available pool");
 					}
 					availablePool.addFirst(source);
 					break;
 				case ACCESSIBLE:
-					if (LogDebugCheck.isDebugEnabled())
+					if (debugCheck.isDebugEnabled())
 					{
 						log.finer("added " + source + " to the accessible pool");
 					}
 					accessiblePool.add(source);
 					break;
 				case NOT_ACCESSIBLE:
-					if (LogDebugCheck.isDebugEnabled())
+					if (debugCheck.isDebugEnabled())
 					{
 						log.finer("added " + source + " to the inaccessible pool");
 					}
@@ -459,14 +461,14 @@ public class XAPool<R extends XAResourceHolder<R>, T extends XAStatefulHolder<T>
 					// already removed when availablePool.poll() was called.
 					break;
 				case ACCESSIBLE:
-					if (LogDebugCheck.isDebugEnabled())
+					if (debugCheck.isDebugEnabled())
 					{
 						log.finer("removed " + source + " from the accessible pool");
 					}
 					accessiblePool.remove(source);
 					break;
 				case NOT_ACCESSIBLE:
-					if (LogDebugCheck.isDebugEnabled())
+					if (debugCheck.isDebugEnabled())
 					{
 						log.finer("removed " + source + " from the inaccessible pool");
 					}
@@ -501,14 +503,14 @@ public class XAPool<R extends XAResourceHolder<R>, T extends XAStatefulHolder<T>
 	{
 		if (inPoolSize() == 0)
 		{
-			if (LogDebugCheck.isDebugEnabled())
+			if (debugCheck.isDebugEnabled())
 			{
 				log.finer("no more free connections in " + this + ", trying to grow it");
 			}
 			grow();
 		}
 
-		if (LogDebugCheck.isDebugEnabled())
+		if (debugCheck.isDebugEnabled())
 		{
 			log.finer("getting IN_POOL connection from " + this + ", waiting if necessary");
 		}
@@ -553,14 +555,14 @@ public class XAPool<R extends XAResourceHolder<R>, T extends XAStatefulHolder<T>
 	 */
 	private T getNotAccessible()
 	{
-		if (LogDebugCheck.isDebugEnabled())
+		if (debugCheck.isDebugEnabled())
 		{
 			log.finer("trying to recycle a NOT_ACCESSIBLE connection of " + this);
 		}
 		BitronixTransaction transaction = TransactionContextHelper.currentTransaction();
 		if (transaction == null)
 		{
-			if (LogDebugCheck.isDebugEnabled())
+			if (debugCheck.isDebugEnabled())
 			{
 				log.finer("no current transaction, no connection can be in state NOT_ACCESSIBLE when there is no global transaction context");
 			}
@@ -568,7 +570,7 @@ public class XAPool<R extends XAResourceHolder<R>, T extends XAStatefulHolder<T>
 		}
 		Uid currentTxGtrid = transaction.getResourceManager()
 		                                .getGtrid();
-		if (LogDebugCheck.isDebugEnabled())
+		if (debugCheck.isDebugEnabled())
 		{
 			log.finer("current transaction GTRID is [" + currentTxGtrid + "]");
 		}
@@ -579,7 +581,7 @@ public class XAPool<R extends XAResourceHolder<R>, T extends XAStatefulHolder<T>
 		{
 			for (T xaStatefulHolder : inaccessiblePool)
 			{
-				if (LogDebugCheck.isDebugEnabled())
+				if (debugCheck.isDebugEnabled())
 				{
 					log.finer("found a connection in NOT_ACCESSIBLE state: " + xaStatefulHolder);
 				}
@@ -589,7 +591,7 @@ public class XAPool<R extends XAResourceHolder<R>, T extends XAStatefulHolder<T>
 				}
 			}
 
-			if (LogDebugCheck.isDebugEnabled())
+			if (debugCheck.isDebugEnabled())
 			{
 				log.finer("no NOT_ACCESSIBLE connection enlisted in this transaction");
 			}
@@ -616,7 +618,7 @@ public class XAPool<R extends XAResourceHolder<R>, T extends XAStatefulHolder<T>
 		BitronixTransaction transaction = TransactionContextHelper.currentTransaction();
 		if (transaction == null)
 		{
-			if (LogDebugCheck.isDebugEnabled())
+			if (debugCheck.isDebugEnabled())
 			{
 				log.finer("no current transaction, shared connection map will not be used");
 			}
@@ -635,7 +637,7 @@ public class XAPool<R extends XAResourceHolder<R>, T extends XAStatefulHolder<T>
 			    xaStatefulHolder.getState() != State.CLOSED)
 			{
 
-				if (LogDebugCheck.isDebugEnabled())
+				if (debugCheck.isDebugEnabled())
 				{
 					log.finer("sharing connection " + xaStatefulHolder + " in transaction " + currentTxGtrid);
 				}
@@ -659,7 +661,7 @@ public class XAPool<R extends XAResourceHolder<R>, T extends XAStatefulHolder<T>
 	private boolean containsXAResourceHolderMatchingGtrid(T xaStatefulHolder, Uid currentTxGtrid)
 	{
 		List<? extends XAResourceHolder<? extends XAResourceHolder>> xaResourceHolders = xaStatefulHolder.getXAResourceHolders();
-		if (LogDebugCheck.isDebugEnabled())
+		if (debugCheck.isDebugEnabled())
 		{
 			log.finer(xaResourceHolders.size() + " xa resource(s) created by connection in NOT_ACCESSIBLE state: " + xaStatefulHolder);
 		}
@@ -680,13 +682,13 @@ public class XAPool<R extends XAResourceHolder<R>, T extends XAStatefulHolder<T>
 				// compare GTRIDs
 				BitronixXid bitronixXid = xaResourceHolderState.getXid();
 				Uid resourceGtrid = bitronixXid.getGlobalTransactionIdUid();
-				if (LogDebugCheck.isDebugEnabled())
+				if (debugCheck.isDebugEnabled())
 				{
 					log.finer("NOT_ACCESSIBLE xa resource GTRID: " + resourceGtrid);
 				}
 				if (currentTxGtrid.equals(resourceGtrid))
 				{
-					if (LogDebugCheck.isDebugEnabled())
+					if (debugCheck.isDebugEnabled())
 					{
 						log.finer("NOT_ACCESSIBLE xa resource's GTRID matched this transaction's GTRID, recycling it");
 					}
@@ -731,7 +733,7 @@ public class XAPool<R extends XAResourceHolder<R>, T extends XAStatefulHolder<T>
 					increment = bean.getMaxPoolSize() - totalPoolSize;
 				}
 
-				if (LogDebugCheck.isDebugEnabled())
+				if (debugCheck.isDebugEnabled())
 				{
 					log.finer("incrementing " + bean.getUniqueName() + " pool size by " + increment + " unit(s) to reach " + (totalPoolSize() + increment) + " connection(s)");
 				}
@@ -742,7 +744,7 @@ public class XAPool<R extends XAResourceHolder<R>, T extends XAStatefulHolder<T>
 			}
 			else
 			{
-				if (LogDebugCheck.isDebugEnabled())
+				if (debugCheck.isDebugEnabled())
 				{
 					log.finer("pool " + bean.getUniqueName() + " already at max size of " + totalPoolSize() + " connection(s), not growing it");
 				}
@@ -765,12 +767,12 @@ public class XAPool<R extends XAResourceHolder<R>, T extends XAStatefulHolder<T>
 	{
 		synchronized (poolGrowthShrinkLock)
 		{
-			if (LogDebugCheck.isDebugEnabled())
+			if (debugCheck.isDebugEnabled())
 			{
 				log.finer("shrinking " + this);
 			}
 			expireOrCloseStatefulHolders(false);
-			if (LogDebugCheck.isDebugEnabled())
+			if (debugCheck.isDebugEnabled())
 			{
 				log.finer("shrunk " + this);
 			}
@@ -808,7 +810,7 @@ public class XAPool<R extends XAResourceHolder<R>, T extends XAStatefulHolder<T>
 			}
 		}
 
-		if (LogDebugCheck.isDebugEnabled())
+		if (debugCheck.isDebugEnabled())
 		{
 			log.finer("closed " + closed + (forceClose ? " " : " idle ") + "connection(s)");
 		}
@@ -831,19 +833,17 @@ public class XAPool<R extends XAResourceHolder<R>, T extends XAStatefulHolder<T>
 		long expirationTime = Long.MAX_VALUE;
 		if (bean.getMaxIdleTime() > 0)
 		{
-			expirationTime = xaStatefulHolder.getLastReleaseDate()
-			                                 .getTime() + TimeUnit.SECONDS.toMillis(bean.getMaxIdleTime());
+			expirationTime = xaStatefulHolder.getLastReleaseTime() + TimeUnit.SECONDS.toMillis(bean.getMaxIdleTime());
 		}
 
 		if (bean.getMaxLifeTime() > 0)
 		{
-			long endOfLife = xaStatefulHolder.getCreationDate()
-			                                 .getTime() + TimeUnit.SECONDS.toMillis(bean.getMaxLifeTime());
+			long endOfLife = xaStatefulHolder.getCreationTime() + TimeUnit.SECONDS.toMillis(bean.getMaxLifeTime());
 			expirationTime = Math.min(expirationTime, endOfLife);
 		}
 
 		long now = MonotonicClock.currentTimeMillis();
-		if (!forceClose && LogDebugCheck.isDebugEnabled())
+		if (!forceClose && debugCheck.isDebugEnabled())
 		{
 			log.finer("checking if connection can be closed: " + xaStatefulHolder + " - closing time: " + expirationTime + ", now time: " + now);
 		}
@@ -863,13 +863,13 @@ public class XAPool<R extends XAResourceHolder<R>, T extends XAStatefulHolder<T>
 	}
 
 	/**
-	 * Method getNextShrinkDate returns the nextShrinkDate of this XAPool object.
+	 * Method getNextShrinkTime returns the nextShrinkTime of this XAPool object.
 	 *
-	 * @return the nextShrinkDate (type Date) of this XAPool object.
+	 * @return the nextShrinkTime in milliseconds of this XAPool object.
 	 */
-	public Date getNextShrinkDate()
+	public long getNextShrinkTime()
 	{
-		return new Date(MonotonicClock.currentTimeMillis() + TimeUnit.SECONDS.toMillis(bean.getMaxIdleTime()));
+		return MonotonicClock.currentTimeMillis() + TimeUnit.SECONDS.toMillis(bean.getMaxIdleTime());
 	}
 
 	/**
@@ -882,12 +882,12 @@ public class XAPool<R extends XAResourceHolder<R>, T extends XAStatefulHolder<T>
 	{
 		synchronized (poolGrowthShrinkLock)
 		{
-			if (LogDebugCheck.isDebugEnabled())
+			if (debugCheck.isDebugEnabled())
 			{
 				log.finer("resetting " + this);
 			}
 			expireOrCloseStatefulHolders(true);
-			if (LogDebugCheck.isDebugEnabled())
+			if (debugCheck.isDebugEnabled())
 			{
 				log.finer("reset " + this);
 			}
@@ -905,7 +905,7 @@ public class XAPool<R extends XAResourceHolder<R>, T extends XAStatefulHolder<T>
 	{
 		try
 		{
-			if (LogDebugCheck.isDebugEnabled())
+			if (debugCheck.isDebugEnabled())
 			{
 				log.finer("resource '" + bean.getUniqueName() + "' is marked as failed, resetting and recovering it before trying connection acquisition");
 			}
@@ -1022,7 +1022,7 @@ public class XAPool<R extends XAResourceHolder<R>, T extends XAStatefulHolder<T>
 		BitronixTransaction transaction = TransactionContextHelper.currentTransaction();
 		if (transaction == null)
 		{
-			if (LogDebugCheck.isDebugEnabled())
+			if (debugCheck.isDebugEnabled())
 			{
 				log.finer("no current transaction, not adding " + xaStatefulHolder + " to shared connection map");
 			}
@@ -1049,7 +1049,7 @@ public class XAPool<R extends XAResourceHolder<R>, T extends XAStatefulHolder<T>
 
 			threadLocal = new StatefulHolderThreadLocal<>();
 			statefulHolderTransactionMap.put(currentTxGtrid, threadLocal);
-			if (LogDebugCheck.isDebugEnabled())
+			if (debugCheck.isDebugEnabled())
 			{
 				log.finer("added shared connection mapping for " + currentTxGtrid + " holder " + xaStatefulHolder);
 			}
@@ -1101,7 +1101,7 @@ public class XAPool<R extends XAResourceHolder<R>, T extends XAStatefulHolder<T>
 		public void afterCompletion(int status)
 		{
 			statefulHolderTransactionMap.remove(gtrid);
-			if (LogDebugCheck.isDebugEnabled())
+			if (debugCheck.isDebugEnabled())
 			{
 				log.finer("deleted shared connection mappings for " + gtrid);
 			}
@@ -15,7 +15,6 @@
  */
 package bitronix.tm.resource.common;
 
-import java.util.Date;
 import java.util.List;
 
 /**
@@ -92,19 +91,20 @@ public interface XAStatefulHolder<T extends XAStatefulHolder<T>>
 	void close() throws Exception;
 
 	/**
-	 * Get the date at which this object was last released to the pool. This is required to check if it is eligible
+	 * Get the time at which this object was last released to the pool. This is required to check if it is eligible
 	 * for discard when the containing pool needs to shrink.
 	 *
-	 * @return the date at which this object was last released to the pool or null if it never left the pool.
+	 * @return the time in milliseconds at which this object was last released to the pool or 0 if it never left the
+	 * pool.
 	 */
-	Date getLastReleaseDate();
+	long getLastReleaseTime();
 
 	/**
-	 * Get the date at which this object was created in the pool.
+	 * Get the time at which this object was created in the pool.
 	 *
-	 * @return the date at which this object was created in the pool.
+	 * @return the time in milliseconds at which this object was created in the pool.
 	 */
-	Date getCreationDate();
+	long getCreationTime();
 
 	enum State
 	{
@@ -20,7 +20,6 @@ import bitronix.tm.resource.common.ResourceBean;
 
 import javax.transaction.xa.XAResource;
 import java.util.Collections;
-import java.util.Date;
 import java.util.List;
 
 /**
@@ -104,7 +103,7 @@ public class EhCacheXAResourceHolder
 	 * {@inheritDoc}
 	 */
 	@Override
-	public Date getLastReleaseDate()
+	public long getLastReleaseTime()
 	{
 		throw new UnsupportedOperationException(EHCACHE_CANT_BE_USED);
 	}
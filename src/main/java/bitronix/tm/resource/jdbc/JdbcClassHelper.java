@@ -28,6 +28,8 @@ public class JdbcClassHelper
 
 	private static final java.util.logging.Logger log = java.util.logging.Logger.getLogger(JdbcClassHelper.class.toString());
 
+	private static final LogDebugCheck debugCheck = LogDebugCheck.forLogger(log);
+
 	private static final int DETECTION_TIMEOUT = 5; // seconds
 
 	private static final Map<Class<Connection>, Integer> connectionClassVersions = new ConcurrentHashMap<>();
@@ -85,7 +87,7 @@ public class JdbcClassHelper
 		}
 
 		connectionClassVersions.put(connectionClass, jdbcVersionDetected);
-		if (LogDebugCheck.isDebugEnabled())
+		if (debugCheck.isDebugEnabled())
 		{
 			log.finer("detected JDBC connection class '" + connectionClass + "' is version " + jdbcVersionDetected + " type");
 		}
@@ -47,6 +47,8 @@ public class JdbcPooledConnection
 {
 
 	private static final java.util.logging.Logger log = java.util.logging.Logger.getLogger(JdbcPooledConnection.class.toString());
+
+	private static final LogDebugCheck debugCheck = LogDebugCheck.forLogger(log);
 	private static final String EMULATING_STRING = "emulating XA for resource ";
 
 	private final XAConnection xaConnection;
@@ -58,8 +60,8 @@ public class JdbcPooledConnection
 	/* management */
 	private final String jmxName;
 	private volatile int usageCount;
-	private volatile Date acquisitionDate;
-	private volatile Date lastReleaseDate;
+	private volatile long acquisitionTime;
+	private volatile long lastReleaseTime;
 
 	private volatile int jdbcVersionDetected;
 
@@ -81,7 +83,7 @@ public class JdbcPooledConnection
 		this.xaResource = xaConnection.getXAResource();
 		this.statementsCache = new LruStatementCache(poolingDataSource.getPreparedStatementCacheSize());
 		this.uncachedStatements = Collections.synchronizedList(new ArrayList<>());
-		this.lastReleaseDate = new Date(MonotonicClock.currentTimeMillis());
+		this.lastReleaseTime = MonotonicClock.currentTimeMillis();
 		statementsCache.addEvictionListener(stmt ->
 		                                    {
 			                                    try
@@ -101,17 +103,17 @@ public class JdbcPooledConnection
 		if (LrcXADataSource.class.getName()
 		                         .equals(poolingDataSource.getClassName()))
 		{
-			if (LogDebugCheck.isDebugEnabled())
+			if (debugCheck.isDebugEnabled())
 			{
 				log.finer(EMULATING_STRING + poolingDataSource.getUniqueName() + " - changing twoPcOrderingPosition to ALWAYS_LAST_POSITION");
 			}
 			poolingDataSource.setTwoPcOrderingPosition(Scheduler.ALWAYS_LAST_POSITION);
-			if (LogDebugCheck.isDebugEnabled())
+			if (debugCheck.isDebugEnabled())
 			{
 				log.finer(EMULATING_STRING + poolingDataSource.getUniqueName() + " - changing deferConnectionRelease to true");
 			}
 			poolingDataSource.setDeferConnectionRelease(true);
-			if (LogDebugCheck.isDebugEnabled())
+			if (debugCheck.isDebugEnabled())
 			{
 				log.finer(EMULATING_STRING + poolingDataSource.getUniqueName() + " - changing useTmJoin to true");
 			}
@@ -145,7 +147,7 @@ public class JdbcPooledConnection
 	 */
 	public boolean release() throws SQLException
 	{
-		if (LogDebugCheck.isDebugEnabled())
+		if (debugCheck.isDebugEnabled())
 		{
 			log.finer("releasing to pool " + this);
 		}
@@ -189,14 +191,14 @@ public class JdbcPooledConnection
 					throw new SQLException("error requeuing " + this, ex);
 				}
 
-				if (LogDebugCheck.isDebugEnabled())
+				if (debugCheck.isDebugEnabled())
 				{
 					log.finer("released to pool " + this);
 				}
 			}
 			else
 			{
-				if (LogDebugCheck.isDebugEnabled())
+				if (debugCheck.isDebugEnabled())
 				{
 					log.finer("not releasing " + this + " to pool yet, connection is still shared");
 				}
@@ -265,7 +267,7 @@ public class JdbcPooledConnection
 	@Override
 	public Object getConnectionHandle() throws Exception
 	{
-		if (LogDebugCheck.isDebugEnabled())
+		if (debugCheck.isDebugEnabled())
 		{
 			log.finer("getting connection handle from " + this);
 		}
@@ -289,7 +291,7 @@ public class JdbcPooledConnection
 
 		if (oldState == State.IN_POOL)
 		{
-			if (LogDebugCheck.isDebugEnabled())
+			if (debugCheck.isDebugEnabled())
 			{
 				log.finer("connection " + xaConnection + " was in state IN_POOL, testing it");
 			}
@@ -304,13 +306,13 @@ public class JdbcPooledConnection
 		}
 		else
 		{
-			if (LogDebugCheck.isDebugEnabled())
+			if (debugCheck.isDebugEnabled())
 			{
 				log.finer("connection " + xaConnection + " was in state " + oldState + ", no need to test it");
 			}
 		}
 
-		if (LogDebugCheck.isDebugEnabled())
+		if (debugCheck.isDebugEnabled())
 		{
 			log.finer("got connection handle from " + this);
 		}
@@ -358,15 +360,16 @@ public class JdbcPooledConnection
 	}
 
 	/**
-	 * Get the date at which this object was last released to the pool. This is required to check if it is eligible
+	 * Get the time at which this object was last released to the pool. This is required to check if it is eligible
 	 * for discard when the containing pool needs to shrink.
 	 *
-	 * @return the date at which this object was last released to the pool or null if it never left the pool.
+	 * @return the time in milliseconds at which this object was last released to the pool or 0 if it never left the
+	 * pool.
 	 */
 	@Override
-	public Date getLastReleaseDate()
+	public long getLastReleaseTime()
 	{
-		return lastReleaseDate;
+		return lastReleaseTime;
 	}
 
 	/**
@@ -387,7 +390,7 @@ public class JdbcPooledConnection
 			Boolean isValid = null;
 			try
 			{
-				if (LogDebugCheck.isDebugEnabled())
+				if (debugCheck.isDebugEnabled())
 				{
 					log.finer("testing with JDBC4 isValid() method, connection of " + this);
 				}
@@ -403,7 +406,7 @@ public class JdbcPooledConnection
 			// if isValid is null, an exception was caught above and we fall through to the query test
 			if (isValid != null && isValid)
 			{
-				if (LogDebugCheck.isDebugEnabled())
+				if (debugCheck.isDebugEnabled())
 				{
 					log.finer("isValid successfully tested connection of " + this);
 				}
@@ -416,7 +419,7 @@ public class JdbcPooledConnection
 		String query = poolingDataSource.getTestQuery();
 		if (query == null)
 		{
-			if (LogDebugCheck.isDebugEnabled())
+			if (debugCheck.isDebugEnabled())
 			{
 				log.finer("no query to test connection of " + this + ", skipping test");
 			}
@@ -424,7 +427,7 @@ public class JdbcPooledConnection
 		}
 
 		// Throws a SQLException if the connection is dead
-		if (LogDebugCheck.isDebugEnabled())
+		if (debugCheck.isDebugEnabled())
 		{
 			log.finer("testing with query '" + query + "' connection of " + this);
 		}
@@ -434,7 +437,7 @@ public class JdbcPooledConnection
 			ResultSet rs = stmt.executeQuery();
 			rs.close();
 		}
-		if (LogDebugCheck.isDebugEnabled())
+		if (debugCheck.isDebugEnabled())
 		{
 			log.finer("testQuery successfully tested connection of " + this);
 		}
@@ -458,7 +461,7 @@ public class JdbcPooledConnection
 			}
 			else
 			{
-				if (LogDebugCheck.isDebugEnabled())
+				if (debugCheck.isDebugEnabled())
 				{
 					log.finer("setting connection's isolation level to " + isolationLevel);
 				}
@@ -485,7 +488,7 @@ public class JdbcPooledConnection
 			}
 			else
 			{
-				if (LogDebugCheck.isDebugEnabled())
+				if (debugCheck.isDebugEnabled())
 				{
 					log.finer("setting connection's cursor holdability to " + cursorHoldability);
 				}
@@ -507,7 +510,7 @@ public class JdbcPooledConnection
 		{
 			if ("true".equalsIgnoreCase(localAutoCommit))
 			{
-				if (LogDebugCheck.isDebugEnabled())
+				if (debugCheck.isDebugEnabled())
 				{
 					log.finer("setting connection's auto commit to true");
 				}
@@ -515,7 +518,7 @@ public class JdbcPooledConnection
 			}
 			else if ("false".equalsIgnoreCase(localAutoCommit))
 			{
-				if (LogDebugCheck.isDebugEnabled())
+				if (debugCheck.isDebugEnabled())
 				{
 					log.finer("setting connection's auto commit to false");
 				}
@@ -627,11 +630,11 @@ public class JdbcPooledConnection
 	{
 		if (newState == State.IN_POOL)
 		{
-			lastReleaseDate = new Date(MonotonicClock.currentTimeMillis());
+			lastReleaseTime = MonotonicClock.currentTimeMillis();
 		}
 		else if (oldState == State.IN_POOL && newState == State.ACCESSIBLE)
 		{
-			acquisitionDate = new Date(MonotonicClock.currentTimeMillis());
+			acquisitionTime = MonotonicClock.currentTimeMillis();
 		}
 		else if (oldState == State.NOT_ACCESSIBLE && newState == State.ACCESSIBLE)
 		{
@@ -660,7 +663,7 @@ public class JdbcPooledConnection
 		if (futureState == State.IN_POOL || futureState == State.NOT_ACCESSIBLE)
 		{
 			// close all uncached statements
-			if (LogDebugCheck.isDebugEnabled())
+			if (debugCheck.isDebugEnabled())
 			{
 				log.finer("closing " + uncachedStatements.size() + " dangling uncached statement(s)");
 			}
@@ -672,7 +675,7 @@ public class JdbcPooledConnection
 				}
 				catch (SQLException ex)
 				{
-					if (LogDebugCheck.isDebugEnabled())
+					if (debugCheck.isDebugEnabled())
 					{
 						log.log(Level.FINER, "error trying to close uncached statement " + statement, ex);
 					}
@@ -687,7 +690,7 @@ public class JdbcPooledConnection
 			}
 			catch (SQLException ex)
 			{
-				if (LogDebugCheck.isDebugEnabled())
+				if (debugCheck.isDebugEnabled())
 				{
 					log.log(Level.FINER, "error cleaning warnings of " + connection, ex);
 				}
@@ -776,12 +779,13 @@ public class JdbcPooledConnection
 	/**
 	 * Method getAcquisitionDate returns the acquisitionDate of this JdbcPooledConnection object.
 	 *
-	 * @return the acquisitionDate (type Date) of this JdbcPooledConnection object.
+	 * @return the acquisitionDate (type Date) of this JdbcPooledConnection object, null if it never left the pool.
 	 */
 	@Override
 	public Date getAcquisitionDate()
 	{
-		return acquisitionDate;
+		long time = acquisitionTime;
+		return time == 0L ? null : new Date(time);
 	}
 
 	/**
@@ -38,6 +38,8 @@ public class LruStatementCache
 {
 
 	private static final java.util.logging.Logger log = java.util.logging.Logger.getLogger(LruStatementCache.class.toString());
+
+	private static final LogDebugCheck debugCheck = LogDebugCheck.forLogger(log);
 	/**
 	 * We use a LinkedHashMap with _access order_ specified in the
 	 * constructor.  According to the LinkedHashMap documentation:
@@ -119,7 +121,7 @@ public class LruStatementCache
 			if (cached != null)
 			{
 				cached.usageCount++;
-				if (LogDebugCheck.isDebugEnabled())
+				if (debugCheck.isDebugEnabled())
 				{
 					log.finer("delivered from cache with usage count " + cached.usageCount + " statement <" + key + ">");
 				}
@@ -162,7 +164,7 @@ public class LruStatementCache
 			StatementTracker cached = cache.get(key);
 			if (cached == null)
 			{
-				if (LogDebugCheck.isDebugEnabled())
+				if (debugCheck.isDebugEnabled())
 				{
 					log.finer("adding to cache statement <" + key + ">");
 				}
@@ -173,7 +175,7 @@ public class LruStatementCache
 			{
 				cached.usageCount--;
 				statement = cached.statement;
-				if (LogDebugCheck.isDebugEnabled())
+				if (debugCheck.isDebugEnabled())
 				{
 					log.finer("returning to cache statement <" + key + "> with usage count " + cached.usageCount);
 				}
@@ -211,7 +213,7 @@ public class LruStatementCache
 				it.remove();
 				size--;
 				CacheKey key = entry.getKey();
-				if (LogDebugCheck.isDebugEnabled())
+				if (debugCheck.isDebugEnabled())
 				{
 					log.finer("evicting from cache statement <" + key + "> " + entry.getValue().statement);
 				}
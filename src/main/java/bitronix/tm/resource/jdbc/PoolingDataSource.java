@@ -57,6 +57,8 @@ public class PoolingDataSource
 {
 
 	private static final java.util.logging.Logger log = java.util.logging.Logger.getLogger(PoolingDataSource.class.toString());
+
+	private static final LogDebugCheck debugCheck = LogDebugCheck.forLogger(log);
 	private final transient List<ConnectionCustomizer> connectionCustomizers = new CopyOnWriteArrayList<>();
 	private transient volatile XAPool<JdbcPooledConnection, JdbcPooledConnection> pool;
 	private transient volatile XADataSource xaDataSource;
@@ -433,7 +435,7 @@ public class PoolingDataSource
 
 		try
 		{
-			if (LogDebugCheck.isDebugEnabled())
+			if (debugCheck.isDebugEnabled())
 			{
 				log.finer("recovery xa resource is being closed: " + recoveryXAResourceHolder);
 			}
@@ -466,7 +468,7 @@ public class PoolingDataSource
 			return;
 		}
 
-		if (LogDebugCheck.isDebugEnabled())
+		if (debugCheck.isDebugEnabled())
 		{
 			log.finer("building XA pool for " + getUniqueName() + " with " + getMinPoolSize() + " connection(s)");
 		}
@@ -626,14 +628,14 @@ public class PoolingDataSource
 	{
 		if (pool == null)
 		{
-			if (LogDebugCheck.isDebugEnabled())
+			if (debugCheck.isDebugEnabled())
 			{
 				log.finer("trying to close already closed PoolingDataSource " + getUniqueName());
 			}
 			return;
 		}
 
-		if (LogDebugCheck.isDebugEnabled())
+		if (debugCheck.isDebugEnabled())
 		{
 			log.finer("closing " + this);
 		}
@@ -698,7 +700,7 @@ public class PoolingDataSource
 	@Override
 	public Reference getReference() throws NamingException
 	{
-		if (LogDebugCheck.isDebugEnabled())
+		if (debugCheck.isDebugEnabled())
 		{
 			log.finer("creating new JNDI reference of " + this);
 		}
@@ -752,13 +754,13 @@ public class PoolingDataSource
 		}
 
 		init();
-		if (LogDebugCheck.isDebugEnabled())
+		if (debugCheck.isDebugEnabled())
 		{
 			log.finer("acquiring connection from " + this);
 		}
 		if (pool == null)
 		{
-			if (LogDebugCheck.isDebugEnabled())
+			if (debugCheck.isDebugEnabled())
 			{
 				log.finer("pool is closed, returning null connection");
 			}
@@ -768,7 +770,7 @@ public class PoolingDataSource
 		try
 		{
 			Connection conn = (Connection) pool.getConnectionHandle();
-			if (LogDebugCheck.isDebugEnabled())
+			if (debugCheck.isDebugEnabled())
 			{
 				log.finer("acquired connection from " + this);
 			}
@@ -797,7 +799,7 @@ public class PoolingDataSource
 	@Override
 	public Connection getConnection(String username, String password) throws SQLException
 	{
-		if (LogDebugCheck.isDebugEnabled())
+		if (debugCheck.isDebugEnabled())
 		{
 			log.finer("JDBC connections are pooled, username and password ignored");
 		}
@@ -71,6 +71,8 @@ public class LrcXAResource
 
 	private static final java.util.logging.Logger log = java.util.logging.Logger.getLogger(LrcXAResource.class.toString());
 
+	private static final LogDebugCheck debugCheck = LogDebugCheck.forLogger(log);
+
 	private final Connection connection;
 	private volatile Xid xid;
 	private volatile boolean autocommitActiveBeforeStart;
@@ -129,7 +131,7 @@ public class LrcXAResource
 		{
 			if (onePhase)
 			{
-				if (LogDebugCheck.isDebugEnabled())
+				if (debugCheck.isDebugEnabled())
 				{
 					log.finer("OK to commit with 1PC, old state=" + xlatedState() + XID_EQUALS + xid);
 				}
@@ -153,7 +155,7 @@ public class LrcXAResource
 			{
 				if (this.xid.equals(xid))
 				{
-					if (LogDebugCheck.isDebugEnabled())
+					if (debugCheck.isDebugEnabled())
 					{
 						log.finer("OK to commit, old state=" + xlatedState() + XID_EQUALS + xid);
 					}
@@ -206,7 +208,7 @@ public class LrcXAResource
 		{
 			if (this.xid.equals(xid))
 			{
-				if (LogDebugCheck.isDebugEnabled())
+				if (debugCheck.isDebugEnabled())
 				{
 					log.finer("OK to end, old state=" + xlatedState() + XID_EQUALS + xid + FLAG_EQUALS + Decoder.decodeXAResourceFlag(flag));
 				}
@@ -320,7 +322,7 @@ public class LrcXAResource
 		{
 			if (this.xid.equals(xid))
 			{
-				if (LogDebugCheck.isDebugEnabled())
+				if (debugCheck.isDebugEnabled())
 				{
 					log.finer("OK to prepare, old state=" + xlatedState() + XID_EQUALS + xid);
 				}
@@ -393,7 +395,7 @@ public class LrcXAResource
 		{
 			if (this.xid.equals(xid))
 			{
-				if (LogDebugCheck.isDebugEnabled())
+				if (debugCheck.isDebugEnabled())
 				{
 					log.finer("OK to rollback, old state=" + xlatedState() + XID_EQUALS + xid);
 				}
@@ -480,7 +482,7 @@ public class LrcXAResource
 				}
 				else
 				{
-					if (LogDebugCheck.isDebugEnabled())
+					if (debugCheck.isDebugEnabled())
 					{
 						log.finer("OK to start, old state=" + xlatedState() + XID_EQUALS + xid + FLAG_EQUALS + Decoder.decodeXAResourceFlag(flag));
 					}
@@ -502,7 +504,7 @@ public class LrcXAResource
 			{
 				if (xid.equals(this.xid))
 				{
-					if (LogDebugCheck.isDebugEnabled())
+					if (debugCheck.isDebugEnabled())
 					{
 						log.finer("OK to join, old state=" + xlatedState() + XID_EQUALS + xid + FLAG_EQUALS + Decoder.decodeXAResourceFlag(flag));
 					}
@@ -523,7 +525,7 @@ public class LrcXAResource
 			autocommitActiveBeforeStart = connection.getAutoCommit();
 			if (autocommitActiveBeforeStart)
 			{
-				if (LogDebugCheck.isDebugEnabled())
+				if (debugCheck.isDebugEnabled())
 				{
 					log.finer("disabling autocommit mode on non-XA connection");
 				}
@@ -565,7 +567,7 @@ public class LrcXAResource
 		{
 			if (autocommitActiveBeforeStart)
 			{
-				if (LogDebugCheck.isDebugEnabled())
+				if (debugCheck.isDebugEnabled())
 				{
 					log.finer("enabling back autocommit mode on non-XA connection");
 				}
@@ -37,6 +37,8 @@ public class ConnectionJavaProxy
 {
 
 	private static final java.util.logging.Logger log = java.util.logging.Logger.getLogger(ConnectionJavaProxy.class.toString());
+
+	private static final LogDebugCheck debugCheck = LogDebugCheck.forLogger(log);
 	private static final Map<String, Method> selfMethodMap = createMethodMap(ConnectionJavaProxy.class);
 	private static final String CONNECTION_ALREADY_CLOSED = "connection handle already closed";
 
@@ -130,7 +132,7 @@ public class ConnectionJavaProxy
 	 */
 	public void close() throws SQLException
 	{
-		if (LogDebugCheck.isDebugEnabled())
+		if (debugCheck.isDebugEnabled())
 		{
 			log.finer("closing " + this);
 		}
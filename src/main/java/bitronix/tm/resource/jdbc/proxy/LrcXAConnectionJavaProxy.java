@@ -39,6 +39,8 @@ public class LrcXAConnectionJavaProxy
 
 	private static final java.util.logging.Logger log = java.util.logging.Logger.getLogger(LrcXAConnectionJavaProxy.class.toString());
 
+	private static final LogDebugCheck debugCheck = LogDebugCheck.forLogger(log);
+
 	private static final Map<String, Method> selfMethodMap = createMethodMap(LrcXAConnectionJavaProxy.class);
 
 	private final LrcXAResource xaResource;
@@ -83,7 +85,7 @@ public class LrcXAConnectionJavaProxy
 	 */
 	private void fireCloseEvent()
 	{
-		if (LogDebugCheck.isDebugEnabled())
+		if (debugCheck.isDebugEnabled())
 		{
 			log.finer("notifying " + connectionEventListeners.size() + " connectionEventListeners(s) about closing of " + this);
 		}
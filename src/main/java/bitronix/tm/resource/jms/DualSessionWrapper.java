@@ -46,6 +46,8 @@ public class DualSessionWrapper
 {
 
 	private static final java.util.logging.Logger log = java.util.logging.Logger.getLogger(DualSessionWrapper.class.toString());
+
+	private static final LogDebugCheck debugCheck = LogDebugCheck.forLogger(log);
 	private static final String CREATING_IT = ", creating it";
 	private static final String FOUND_CONSUMER_ON = "found consumer based on ";
 
@@ -76,7 +78,7 @@ public class DualSessionWrapper
 		this.transacted = transacted;
 		this.acknowledgeMode = acknowledgeMode;
 
-		if (LogDebugCheck.isDebugEnabled())
+		if (debugCheck.isDebugEnabled())
 		{
 			log.finer("getting session handle from " + pooledConnection);
 		}
@@ -119,7 +121,7 @@ public class DualSessionWrapper
 		}
 		else if (newState == State.CLOSED)
 		{
-			if (LogDebugCheck.isDebugEnabled())
+			if (debugCheck.isDebugEnabled())
 			{
 				log.finer("session state changing to CLOSED, cleaning it up: " + this);
 			}
@@ -273,14 +275,14 @@ public class DualSessionWrapper
 	{
 		if (getState() != State.ACCESSIBLE)
 		{
-			if (LogDebugCheck.isDebugEnabled())
+			if (debugCheck.isDebugEnabled())
 			{
 				log.finer("not closing already closed " + this);
 			}
 			return;
 		}
 
-		if (LogDebugCheck.isDebugEnabled())
+		if (debugCheck.isDebugEnabled())
 		{
 			log.finer("closing " + this);
 		}
@@ -317,15 +319,16 @@ public class DualSessionWrapper
 	}
 
 	/**
-	 * Get the date at which this object was last released to the pool. This is required to check if it is eligible
+	 * Get the time at which this object was last released to the pool. This is required to check if it is eligible
 	 * for discard when the containing pool needs to shrink.
 	 *
-	 * @return the date at which this object was last released to the pool or null if it never left the pool.
+	 * @return the time in milliseconds at which this object was last released to the pool or 0 if it never left the
+	 * pool.
 	 */
 	@Override
-	public Date getLastReleaseDate()
+	public long getLastReleaseTime()
 	{
-		return null;
+		return 0L;
 	}
 
 	/**
@@ -610,7 +613,7 @@ public class DualSessionWrapper
 		try
 		{
 			Session internalSession = getSession(true);
-			if (LogDebugCheck.isDebugEnabled())
+			if (debugCheck.isDebugEnabled())
 			{
 				log.finer("running XA session " + internalSession);
 			}
@@ -637,14 +640,14 @@ public class DualSessionWrapper
 	public MessageProducer createProducer(Destination destination) throws JMSException
 	{
 		MessageProducerConsumerKey key = new MessageProducerConsumerKey(destination);
-		if (LogDebugCheck.isDebugEnabled())
+		if (debugCheck.isDebugEnabled())
 		{
 			log.finer("looking for producer based on " + key);
 		}
 		MessageProducerWrapper messageProducer = (MessageProducerWrapper) messageProducers.get(key);
 		if (messageProducer == null)
 		{
-			if (LogDebugCheck.isDebugEnabled())
+			if (debugCheck.isDebugEnabled())
 			{
 				log.finer("found no producer based on " + key + CREATING_IT);
 			}
@@ -653,14 +656,14 @@ public class DualSessionWrapper
 			if (pooledConnection.getPoolingConnectionFactory()
 			                    .getCacheProducersConsumers())
 			{
-				if (LogDebugCheck.isDebugEnabled())
+				if (debugCheck.isDebugEnabled())
 				{
 					log.finer("caching producer via key " + key);
 				}
 				messageProducers.put(key, messageProducer);
 			}
 		}
-		else if (LogDebugCheck.isDebugEnabled())
+		else if (debugCheck.isDebugEnabled())
 		{
 			log.finer("found producer based on " + key + ", recycling it: " + messageProducer);
 		}
@@ -682,14 +685,14 @@ public class DualSessionWrapper
 	public MessageConsumer createConsumer(Destination destination) throws JMSException
 	{
 		MessageProducerConsumerKey key = new MessageProducerConsumerKey(destination);
-		if (LogDebugCheck.isDebugEnabled())
+		if (debugCheck.isDebugEnabled())
 		{
 			log.finer("looking for consumer based on " + key);
 		}
 		MessageConsumerWrapper messageConsumer = (MessageConsumerWrapper) messageConsumers.get(key);
 		if (messageConsumer == null)
 		{
-			if (LogDebugCheck.isDebugEnabled())
+			if (debugCheck.isDebugEnabled())
 			{
 				log.finer("found no consumer based on " + key + CREATING_IT);
 			}
@@ -698,14 +701,14 @@ public class DualSessionWrapper
 			if (pooledConnection.getPoolingConnectionFactory()
 			                    .getCacheProducersConsumers())
 			{
-				if (LogDebugCheck.isDebugEnabled())
+				if (debugCheck.isDebugEnabled())
 				{
 					log.finer("caching consumer via key " + key);
 				}
 				messageConsumers.put(key, messageConsumer);
 			}
 		}
-		else if (LogDebugCheck.isDebugEnabled())
+		else if (debugCheck.isDebugEnabled())
 		{
 			log.finer(FOUND_CONSUMER_ON + key + ", recycling it: " + messageConsumer);
 		}
@@ -729,14 +732,14 @@ public class DualSessionWrapper
 	public MessageConsumer createConsumer(Destination destination, String messageSelector) throws JMSException
 	{
 		MessageProducerConsumerKey key = new MessageProducerConsumerKey(destination, messageSelector);
-		if (LogDebugCheck.isDebugEnabled())
+		if (debugCheck.isDebugEnabled())
 		{
 			log.finer("looking for consumer based on " + key);
 		}
 		MessageConsumerWrapper messageConsumer = (MessageConsumerWrapper) messageConsumers.get(key);
 		if (messageConsumer == null)
 		{
-			if (LogDebugCheck.isDebugEnabled())
+			if (debugCheck.isDebugEnabled())
 			{
 				log.finer("found no consumer based on " + key + CREATING_IT);
 			}
@@ -745,14 +748,14 @@ public class DualSessionWrapper
 			if (pooledConnection.getPoolingConnectionFactory()
 			                    .getCacheProducersConsumers())
 			{
-				if (LogDebugCheck.isDebugEnabled())
+				if (debugCheck.isDebugEnabled())
 				{
 					log.finer("caching consumer via key " + key);
 				}
 				messageConsumers.put(key, messageConsumer);
 			}
 		}
-		else if (LogDebugCheck.isDebugEnabled())
+		else if (debugCheck.isDebugEnabled())
 		{
 			log.finer(FOUND_CONSUMER_ON + key + ", recycling it: " + messageConsumer);
 		}
@@ -778,14 +781,14 @@ public class DualSessionWrapper
 	public MessageConsumer createConsumer(Destination destination, String messageSelector, boolean noLocal) throws JMSException
 	{
 		MessageProducerConsumerKey key = new MessageProducerConsumerKey(destination, messageSelector, noLocal);
-		if (LogDebugCheck.isDebugEnabled())
+		if (debugCheck.isDebugEnabled())
 		{
 			log.finer("looking for consumer based on " + key);
 		}
 		MessageConsumerWrapper messageConsumer = (MessageConsumerWrapper) messageConsumers.get(key);
 		if (messageConsumer == null)
 		{
-			if (LogDebugCheck.isDebugEnabled())
+			if (debugCheck.isDebugEnabled())
 			{
 				log.finer("found no consumer based on " + key + CREATING_IT);
 			}
@@ -794,14 +797,14 @@ public class DualSessionWrapper
 			if (pooledConnection.getPoolingConnectionFactory()
 			                    .getCacheProducersConsumers())
 			{
-				if (LogDebugCheck.isDebugEnabled())
+				if (debugCheck.isDebugEnabled())
 				{
 					log.finer("caching consumer via key " + key);
 				}
 				messageConsumers.put(key, messageConsumer);
 			}
 		}
-		else if (LogDebugCheck.isDebugEnabled())
+		else if (debugCheck.isDebugEnabled())
 		{
 			log.finer(FOUND_CONSUMER_ON + key + ", recycling it: " + messageConsumer);
 		}
@@ -861,14 +864,14 @@ public class DualSessionWrapper
 	public TopicSubscriber createDurableSubscriber(Topic topic, String name) throws JMSException
 	{
 		MessageProducerConsumerKey key = new MessageProducerConsumerKey(topic);
-		if (LogDebugCheck.isDebugEnabled())
+		if (debugCheck.isDebugEnabled())
 		{
 			log.finer("looking for durable subscriber based on " + key);
 		}
 		TopicSubscriberWrapper topicSubscriber = topicSubscribers.get(key);
 		if (topicSubscriber == null)
 		{
-			if (LogDebugCheck.isDebugEnabled())
+			if (debugCheck.isDebugEnabled())
 			{
 				log.finer("found no durable subscriber based on " + key + CREATING_IT);
 			}
@@ -877,14 +880,14 @@ public class DualSessionWrapper
 			if (pooledConnection.getPoolingConnectionFactory()
 			                    .getCacheProducersConsumers())
 			{
-				if (LogDebugCheck.isDebugEnabled())
+				if (debugCheck.isDebugEnabled())
 				{
 					log.finer("caching durable subscriber via key " + key);
 				}
 				topicSubscribers.put(key, topicSubscriber);
 			}
 		}
-		else if (LogDebugCheck.isDebugEnabled())
+		else if (debugCheck.isDebugEnabled())
 		{
 			log.finer("found durable subscriber based on " + key + ", recycling it: " + topicSubscriber);
 		}
@@ -912,14 +915,14 @@ public class DualSessionWrapper
 	public TopicSubscriber createDurableSubscriber(Topic topic, String name, String messageSelector, boolean noLocal) throws JMSException
 	{
 		MessageProducerConsumerKey key = new MessageProducerConsumerKey(topic, messageSelector, noLocal);
-		if (LogDebugCheck.isDebugEnabled())
+		if (debugCheck.isDebugEnabled())
 		{
 			log.finer("looking for durable subscriber based on " + key);
 		}
 		TopicSubscriberWrapper topicSubscriber = topicSubscribers.get(key);
 		if (topicSubscriber == null)
 		{
-			if (LogDebugCheck.isDebugEnabled())
+			if (debugCheck.isDebugEnabled())
 			{
 				log.finer("found no durable subscriber based on " + key + CREATING_IT);
 			}
@@ -929,14 +932,14 @@ public class DualSessionWrapper
 			if (pooledConnection.getPoolingConnectionFactory()
 			                    .getCacheProducersConsumers())
 			{
-				if (LogDebugCheck.isDebugEnabled())
+				if (debugCheck.isDebugEnabled())
 				{
 					log.finer("caching durable subscriber via key " + key);
 				}
 				topicSubscribers.put(key, topicSubscriber);
 			}
 		}
-		else if (LogDebugCheck.isDebugEnabled())
+		else if (debugCheck.isDebugEnabled())
 		{
 			log.finer("found durable subscriber based on " + key + ", recycling it: " + topicSubscriber);
 		}
@@ -1057,7 +1060,7 @@ public class DualSessionWrapper
 
 		if (forceXa)
 		{
-			if (LogDebugCheck.isDebugEnabled())
+			if (debugCheck.isDebugEnabled())
 			{
 				log.finer("choosing XA session (forced)");
 			}
@@ -1068,13 +1071,13 @@ public class DualSessionWrapper
 			BitronixTransaction currentTransaction = TransactionContextHelper.currentTransaction();
 			if (currentTransaction != null)
 			{
-				if (LogDebugCheck.isDebugEnabled())
+				if (debugCheck.isDebugEnabled())
 				{
 					log.finer("choosing XA session");
 				}
 				return createXASession();
 			}
-			if (LogDebugCheck.isDebugEnabled())
+			if (debugCheck.isDebugEnabled())
 			{
 				log.finer("choosing non-XA session");
 			}
@@ -1100,7 +1103,7 @@ public class DualSessionWrapper
 			if (listener != null)
 			{
 				xaSession.setMessageListener(listener);
-				if (LogDebugCheck.isDebugEnabled())
+				if (debugCheck.isDebugEnabled())
 				{
 					log.finer("get XA session registered message listener: " + listener);
 				}
@@ -1128,7 +1131,7 @@ public class DualSessionWrapper
 			if (listener != null)
 			{
 				session.setMessageListener(listener);
-				if (LogDebugCheck.isDebugEnabled())
+				if (debugCheck.isDebugEnabled())
 				{
 					log.finer("get non-XA session registered message listener: " + listener);
 				}
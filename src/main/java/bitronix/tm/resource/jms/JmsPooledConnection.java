@@ -43,6 +43,8 @@ public class JmsPooledConnection
 {
 
 	private static final java.util.logging.Logger log = java.util.logging.Logger.getLogger(JmsPooledConnection.class.toString());
+
+	private static final LogDebugCheck debugCheck = LogDebugCheck.forLogger(log);
 	private static final String EMULATE = "emulating XA for resource ";
 
 	private final PoolingConnectionFactory poolingConnectionFactory;
@@ -50,8 +52,8 @@ public class JmsPooledConnection
 	/* management */
 	private final String jmxName;
 	private volatile XAConnection xaConnection;
-	private volatile Date acquisitionDate;
-	private volatile Date lastReleaseDate;
+	private volatile long acquisitionTime;
+	private volatile long lastReleaseTime;
 
 	/**
 	 * Constructor JmsPooledConnection creates a new JmsPooledConnection instance.
@@ -65,23 +67,23 @@ public class JmsPooledConnection
 	{
 		this.poolingConnectionFactory = poolingConnectionFactory;
 		this.xaConnection = connection;
-		this.lastReleaseDate = new Date(MonotonicClock.currentTimeMillis());
+		this.lastReleaseTime = MonotonicClock.currentTimeMillis();
 		addStateChangeEventListener(new JmsPooledConnectionStateChangeListener());
 
 		if (LrcXAConnectionFactory.class.getName()
 		                                .equals(poolingConnectionFactory.getClassName()))
 		{
-			if (LogDebugCheck.isDebugEnabled())
+			if (debugCheck.isDebugEnabled())
 			{
 				log.finer(EMULATE + poolingConnectionFactory.getUniqueName() + " - changing twoPcOrderingPosition to ALWAYS_LAST_POSITION");
 			}
 			poolingConnectionFactory.setTwoPcOrderingPosition(Scheduler.ALWAYS_LAST_POSITION);
-			if (LogDebugCheck.isDebugEnabled())
+			if (debugCheck.isDebugEnabled())
 			{
 				log.finer(EMULATE + poolingConnectionFactory.getUniqueName() + " - changing deferConnectionRelease to true");
 			}
 			poolingConnectionFactory.setDeferConnectionRelease(true);
-			if (LogDebugCheck.isDebugEnabled())
+			if (debugCheck.isDebugEnabled())
 			{
 				log.finer(EMULATE + poolingConnectionFactory.getUniqueName() + " - changing useTmJoin to true");
 			}
@@ -158,7 +160,7 @@ public class JmsPooledConnection
 	@Override
 	public Object getConnectionHandle() throws Exception
 	{
-		if (LogDebugCheck.isDebugEnabled())
+		if (debugCheck.isDebugEnabled())
 		{
 			log.finer("getting connection handle from " + this);
 		}
@@ -168,7 +170,7 @@ public class JmsPooledConnection
 
 		if (oldState == State.IN_POOL)
 		{
-			if (LogDebugCheck.isDebugEnabled())
+			if (debugCheck.isDebugEnabled())
 			{
 				log.finer("connection " + xaConnection + " was in state IN_POOL, testing it");
 			}
@@ -176,13 +178,13 @@ public class JmsPooledConnection
 		}
 		else
 		{
-			if (LogDebugCheck.isDebugEnabled())
+			if (debugCheck.isDebugEnabled())
 			{
 				log.finer("connection " + xaConnection + " was in state " + oldState + ", no need to test it");
 			}
 		}
 
-		if (LogDebugCheck.isDebugEnabled())
+		if (debugCheck.isDebugEnabled())
 		{
 			log.finer("got connection handle from " + this);
 		}
@@ -214,15 +216,16 @@ public class JmsPooledConnection
 	}
 
 	/**
-	 * Get the date at which this object was last released to the pool. This is required to check if it is eligible
+	 * Get the time at which this object was last released to the pool. This is required to check if it is eligible
 	 * for discard when the containing pool needs to shrink.
 	 *
-	 * @return the date at which this object was last released to the pool or null if it never left the pool.
+	 * @return the time in milliseconds at which this object was last released to the pool or 0 if it never left the
+	 * pool.
 	 */
 	@Override
-	public Date getLastReleaseDate()
+	public long getLastReleaseTime()
 	{
-		return lastReleaseDate;
+		return lastReleaseTime;
 	}
 
 	/**
@@ -235,14 +238,14 @@ public class JmsPooledConnection
 	{
 		if (!poolingConnectionFactory.getTestConnections())
 		{
-			if (LogDebugCheck.isDebugEnabled())
+			if (debugCheck.isDebugEnabled())
 			{
 				log.finer("not testing connection of " + this);
 			}
 			return;
 		}
 
-		if (LogDebugCheck.isDebugEnabled())
+		if (debugCheck.isDebugEnabled())
 		{
 			log.finer("testing connection of " + this);
 		}
@@ -266,7 +269,7 @@ public class JmsPooledConnection
 	 */
 	protected void release() throws JMSException
 	{
-		if (LogDebugCheck.isDebugEnabled())
+		if (debugCheck.isDebugEnabled())
 		{
 			log.finer("releasing to pool " + this);
 		}
@@ -282,7 +285,7 @@ public class JmsPooledConnection
 			throw (JMSException) new JMSException("error requeueing " + this).initCause(ex);
 		}
 
-		if (LogDebugCheck.isDebugEnabled())
+		if (debugCheck.isDebugEnabled())
 		{
 			log.finer("released to pool " + this);
 		}
@@ -304,7 +307,7 @@ public class JmsPooledConnection
 
 				try
 				{
-					if (LogDebugCheck.isDebugEnabled())
+					if (debugCheck.isDebugEnabled())
 					{
 						log.finer("trying to close pending session " + dualSessionWrapper);
 					}
@@ -336,7 +339,7 @@ public class JmsPooledConnection
 
 			if (sessionHandle == null)
 			{
-				if (LogDebugCheck.isDebugEnabled())
+				if (debugCheck.isDebugEnabled())
 				{
 					log.finer("no session handle found in NOT_ACCESSIBLE state, creating new session");
 				}
@@ -346,7 +349,7 @@ public class JmsPooledConnection
 			}
 			else
 			{
-				if (LogDebugCheck.isDebugEnabled())
+				if (debugCheck.isDebugEnabled())
 				{
 					log.finer("found session handle in NOT_ACCESSIBLE state, recycling it: " + sessionHandle);
 				}
@@ -366,7 +369,7 @@ public class JmsPooledConnection
 	{
 		synchronized (sessions)
 		{
-			if (LogDebugCheck.isDebugEnabled())
+			if (debugCheck.isDebugEnabled())
 			{
 				log.finer(sessions.size() + " session(s) open from " + this);
 			}
@@ -409,12 +412,13 @@ public class JmsPooledConnection
 	/**
 	 * Method getAcquisitionDate returns the acquisitionDate of this JmsPooledConnection object.
 	 *
-	 * @return the acquisitionDate (type Date) of this JmsPooledConnection object.
+	 * @return the acquisitionDate (type Date) of this JmsPooledConnection object, null if it never left the pool.
 	 */
 	@Override
 	public Date getAcquisitionDate()
 	{
-		return acquisitionDate;
+		long time = acquisitionTime;
+		return time == 0L ? null : new Date(time);
 	}
 
 	/**
@@ -482,15 +486,15 @@ public class JmsPooledConnection
 		{
 			if (newState == State.IN_POOL)
 			{
-				if (LogDebugCheck.isDebugEnabled())
+				if (debugCheck.isDebugEnabled())
 				{
 					log.finer("requeued JMS connection of " + poolingConnectionFactory);
 				}
-				lastReleaseDate = new Date(MonotonicClock.currentTimeMillis());
+				lastReleaseTime = MonotonicClock.currentTimeMillis();
 			}
 			if (oldState == State.IN_POOL && newState == State.ACCESSIBLE)
 			{
-				acquisitionDate = new Date(MonotonicClock.currentTimeMillis());
+				acquisitionTime = MonotonicClock.currentTimeMillis();
 			}
 			if (newState == State.CLOSED)
 			{
@@ -540,7 +544,7 @@ public class JmsPooledConnection
 				synchronized (sessions)
 				{
 					sessions.remove(source);
-					if (LogDebugCheck.isDebugEnabled())
+					if (debugCheck.isDebugEnabled())
 					{
 						log.finer("DualSessionWrapper has been closed, " + sessions.size() + " session(s) left open in pooled connection");
 					}
@@ -48,6 +48,8 @@ public class PoolingConnectionFactory
 {
 
 	private static final java.util.logging.Logger log = java.util.logging.Logger.getLogger(PoolingConnectionFactory.class.toString());
+
+	private static final LogDebugCheck debugCheck = LogDebugCheck.forLogger(log);
 	private final transient List<JmsPooledConnection> xaStatefulHolders;
 	private transient volatile XAPool<DualSessionWrapper, JmsPooledConnection> pool;
 	private transient volatile XAConnectionFactory xaConnectionFactory;
@@ -245,7 +247,7 @@ public class PoolingConnectionFactory
 			{
 				try
 				{
-					if (LogDebugCheck.isDebugEnabled())
+					if (debugCheck.isDebugEnabled())
 					{
 						log.finer("recovery connection handle is being closed: " + recoveryConnectionHandle);
 					}
@@ -261,7 +263,7 @@ public class PoolingConnectionFactory
 			{
 				try
 				{
-					if (LogDebugCheck.isDebugEnabled())
+					if (debugCheck.isDebugEnabled())
 					{
 						log.finer("recovery xa resource is being closed: " + recoveryXAResourceHolder);
 					}
@@ -294,7 +296,7 @@ public class PoolingConnectionFactory
 			return;
 		}
 
-		if (LogDebugCheck.isDebugEnabled())
+		if (debugCheck.isDebugEnabled())
 		{
 			log.finer("building JMS XA pool for " + getUniqueName() + " with " + getMinPoolSize() + " connection(s)");
 		}
@@ -426,7 +428,7 @@ public class PoolingConnectionFactory
 			return;
 		}
 
-		if (LogDebugCheck.isDebugEnabled())
+		if (debugCheck.isDebugEnabled())
 		{
 			log.finer("closing " + pool);
 		}
@@ -465,7 +467,7 @@ public class PoolingConnectionFactory
 		XAConnection xaConnection;
 		if (user == null || password == null)
 		{
-			if (LogDebugCheck.isDebugEnabled())
+			if (debugCheck.isDebugEnabled())
 			{
 				log.finer("creating new JMS XAConnection with no credentials");
 			}
@@ -473,7 +475,7 @@ public class PoolingConnectionFactory
 		}
 		else
 		{
-			if (LogDebugCheck.isDebugEnabled())
+			if (debugCheck.isDebugEnabled())
 			{
 				log.finer("creating new JMS XAConnection with user <" + user + "> and password <" + password + ">");
 			}
@@ -506,7 +508,7 @@ public class PoolingConnectionFactory
 	@Override
 	public Reference getReference() throws NamingException
 	{
-		if (LogDebugCheck.isDebugEnabled())
+		if (debugCheck.isDebugEnabled())
 		{
 			log.finer("creating new JNDI reference of " + this);
 		}
@@ -560,7 +562,7 @@ public class PoolingConnectionFactory
 	@Override
 	public Connection createConnection(String userName, String password) throws JMSException
 	{
-		if (LogDebugCheck.isDebugEnabled())
+		if (debugCheck.isDebugEnabled())
 		{
 			log.finer("JMS connections are pooled, username and password ignored");
 		}
@@ -63,6 +63,7 @@ public class LrcXAResource
 	public static final int ENDED = 2;
 	public static final int PREPARED = 3;
 	private static final java.util.logging.Logger log = java.util.logging.Logger.getLogger(LrcXAResource.class.toString());
+	private static final LogDebugCheck debugCheck = LogDebugCheck.forLogger(log);
 	private static final String XID_CANT_BE_NULL = "XID cannot be null";
 	private static final String RESOURCE_NOT_STARTED = "resource never started on XID ";
 	private static final String RESOURCE_NEVER_ENDED = "resource never ended on XID ";
@@ -127,7 +128,7 @@ public class LrcXAResource
 		{
 			if (onePhase)
 			{
-				if (LogDebugCheck.isDebugEnabled())
+				if (debugCheck.isDebugEnabled())
 				{
 					log.finer("OK to commit with 1PC, old state=" + xlatedState() + XID_NEVER_ENDED + xid);
 				}
@@ -151,7 +152,7 @@ public class LrcXAResource
 			{
 				if (this.xid.equals(xid))
 				{
-					if (LogDebugCheck.isDebugEnabled())
+					if (debugCheck.isDebugEnabled())
 					{
 						log.finer("OK to commit, old state=" + xlatedState() + XID_NEVER_ENDED + xid);
 					}
@@ -202,7 +203,7 @@ public class LrcXAResource
 		{
 			if (this.xid.equals(xid))
 			{
-				if (LogDebugCheck.isDebugEnabled())
+				if (debugCheck.isDebugEnabled())
 				{
 					log.finer("OK to end, old state=" + xlatedState() + XID_NEVER_ENDED + xid + FLAG_EQUALS + Decoder.decodeXAResourceFlag(flag));
 				}
@@ -316,7 +317,7 @@ public class LrcXAResource
 		{
 			if (this.xid.equals(xid))
 			{
-				if (LogDebugCheck.isDebugEnabled())
+				if (debugCheck.isDebugEnabled())
 				{
 					log.finer("OK to prepare, old state=" + xlatedState() + XID_NEVER_ENDED + xid);
 				}
@@ -389,7 +390,7 @@ public class LrcXAResource
 		{
 			if (this.xid.equals(xid))
 			{
-				if (LogDebugCheck.isDebugEnabled())
+				if (debugCheck.isDebugEnabled())
 				{
 					log.finer("OK to rollback, old state=" + xlatedState() + XID_NEVER_ENDED + xid);
 				}
@@ -474,7 +475,7 @@ public class LrcXAResource
 				}
 				else
 				{
-					if (LogDebugCheck.isDebugEnabled())
+					if (debugCheck.isDebugEnabled())
 					{
 						log.finer("OK to start, old state=" + xlatedState() + XID_NEVER_ENDED + xid + FLAG_EQUALS + Decoder.decodeXAResourceFlag(flag));
 					}
@@ -496,7 +497,7 @@ public class LrcXAResource
 			{
 				if (xid.equals(this.xid))
 				{
-					if (LogDebugCheck.isDebugEnabled())
+					if (debugCheck.isDebugEnabled())
 					{
 						log.finer("OK to join, old state=" + xlatedState() + XID_NEVER_ENDED + xid + FLAG_EQUALS + Decoder.decodeXAResourceFlag(flag));
 					}
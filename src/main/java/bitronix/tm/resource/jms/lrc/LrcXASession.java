@@ -32,6 +32,8 @@ public class LrcXASession
 
 	private static final java.util.logging.Logger log = java.util.logging.Logger.getLogger(LrcXASession.class.toString());
 
+	private static final LogDebugCheck debugCheck = LogDebugCheck.forLogger(log);
+
 	private final Session nonXaSession;
 	private final XAResource xaResource;
 
@@ -45,7 +47,7 @@ public class LrcXASession
 	{
 		this.nonXaSession = session;
 		this.xaResource = new LrcXAResource(session);
-		if (LogDebugCheck.isDebugEnabled())
+		if (debugCheck.isDebugEnabled())
 		{
 			log.finer("creating new LrcXASession with " + xaResource);
 		}
@@ -36,11 +36,11 @@ public class PoolShrinkingTask
 	 * @param xaPool
 	 * 		of type XAPool
 	 * @param executionTime
-	 * 		of type Date
+	 * 		the time in milliseconds at which the task must run
 	 * @param scheduler
 	 * 		of type TaskScheduler
 	 */
-	public PoolShrinkingTask(XAPool xaPool, Date executionTime, TaskScheduler scheduler)
+	public PoolShrinkingTask(XAPool xaPool, long executionTime, TaskScheduler scheduler)
 	{
 		super(executionTime, scheduler);
 		this.xaPool = xaPool;
@@ -88,7 +88,7 @@ public class PoolShrinkingTask
 	@Override
 	public String toString()
 	{
-		return "a PoolShrinkingTask scheduled for " + getExecutionTime() + " on " + xaPool;
+		return "a PoolShrinkingTask scheduled for " + new Date(getExecutionTime()) + " on " + xaPool;
 	}
 
 }
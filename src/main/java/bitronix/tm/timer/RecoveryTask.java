@@ -32,6 +32,8 @@ public class RecoveryTask
 
 	private static final java.util.logging.Logger log = java.util.logging.Logger.getLogger(RecoveryTask.class.toString());
 
+	private static final LogDebugCheck debugCheck = LogDebugCheck.forLogger(log);
+
 	private final Recoverer recoverer;
 
 	/**
@@ -40,11 +42,11 @@ public class RecoveryTask
 	 * @param recoverer
 	 * 		of type Recoverer
 	 * @param executionTime
-	 * 		of type Date
+	 * 		the time in milliseconds at which the task must run
 	 * @param scheduler
 	 * 		of type TaskScheduler
 	 */
-	public RecoveryTask(Recoverer recoverer, Date executionTime, TaskScheduler scheduler)
+	public RecoveryTask(Recoverer recoverer, long executionTime, TaskScheduler scheduler)
 	{
 		super(executionTime, scheduler);
 		this.recoverer = recoverer;
@@ -67,7 +69,7 @@ public class RecoveryTask
 	@Override
 	public void execute()
 	{
-		if (LogDebugCheck.isDebugEnabled())
+		if (debugCheck.isDebugEnabled())
 		{
 			log.finer("running recovery");
 		}
@@ -77,13 +79,13 @@ public class RecoveryTask
 		recovery.setPriority(Thread.NORM_PRIORITY - 1);
 		recovery.start();
 
-		Date nextExecutionDate = new Date(getExecutionTime().getTime() + (TransactionManagerServices.getConfiguration()
-		                                                                                            .getBackgroundRecoveryIntervalSeconds() * 1000L));
-		if (LogDebugCheck.isDebugEnabled())
+		long nextExecutionTime = getExecutionTime() + (TransactionManagerServices.getConfiguration()
+		                                                                         .getBackgroundRecoveryIntervalSeconds() * 1000L);
+		if (debugCheck.isDebugEnabled())
 		{
-			log.finer("rescheduling recovery for " + nextExecutionDate);
+			log.finer("rescheduling recovery for " + new Date(nextExecutionTime));
 		}
-		getTaskScheduler().scheduleRecovery(recoverer, nextExecutionDate);
+		getTaskScheduler().scheduleRecovery(recoverer, nextExecutionTime);
 	}
 
 	/**
@@ -94,7 +96,7 @@ public class RecoveryTask
 	@Override
 	public String toString()
 	{
-		return "a RecoveryTask scheduled for " + getExecutionTime();
+		return "a RecoveryTask scheduled for " + new Date(getExecutionTime());
 	}
 
 }
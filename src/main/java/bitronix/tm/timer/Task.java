@@ -15,12 +15,13 @@
  */
 package bitronix.tm.timer;
 
-import java.util.Date;
 import java.util.Objects;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
 
 /**
  * Asbtract superclass of all timed tasks.
+ * <p>A task is scheduled once. It then either expires, when it gets executed, or gets cancelled.</p>
  *
  * @author Ludovic Orban
  */
@@ -29,20 +30,34 @@ public abstract class Task
 {
 
 	private static final AtomicInteger UNIQUE_ID_SOURCE = new AtomicInteger();
+	private static final int SCHEDULED = 0;
+	private static final int EXPIRED = 1;
+	private static final int CANCELLED = 2;
+	private static final AtomicIntegerFieldUpdater<Task> STATE = AtomicIntegerFieldUpdater.newUpdater(Task.class, "state");
 
-	private final Date executionTime;
+	private final long executionTime;
 	private final TaskScheduler taskScheduler;
 	private final int uniqueId;
+	private volatile int state;
+
+	/*
+	 * Position in the timing wheel, only accessed by the scheduler thread.
+	 */
+	long deadlineTick;
+	int level = -1;
+	int slot;
+	Task previous;
+	Task next;
 
 	/**
 	 * Constructor Task creates a new Task instance.
 	 *
 	 * @param executionTime
-	 * 		of type Date
+	 * 		the time in milliseconds at which the task must run
 	 * @param scheduler
 	 * 		of type TaskScheduler
 	 */
-	protected Task(Date executionTime, TaskScheduler scheduler)
+	protected Task(long executionTime, TaskScheduler scheduler)
 	{
 		this.executionTime = executionTime;
 		this.taskScheduler = scheduler;
@@ -62,19 +77,49 @@ public abstract class Task
 	@Override
 	public int hashCode()
 	{
-		return Objects.hash(getExecutionTime(), getUniqueId());
+		return Objects.hash(executionTime, getUniqueId());
 	}
 
 	/**
 	 * Method getExecutionTime returns the executionTime of this Task object.
 	 *
-	 * @return the executionTime (type Date) of this Task object.
+	 * @return the executionTime in milliseconds of this Task object.
 	 */
-	public Date getExecutionTime()
+	public long getExecutionTime()
 	{
 		return executionTime;
 	}
 
+	/**
+	 * Mark the task as expired, unless it has been cancelled.
+	 *
+	 * @return true if the task should be executed.
+	 */
+	boolean expire()
+	{
+		return STATE.compareAndSet(this, SCHEDULED, EXPIRED);
+	}
+
+	/**
+	 * Mark the task as cancelled, unless it has expired.
+	 *
+	 * @return true if the task has been cancelled.
+	 */
+	boolean cancel()
+	{
+		return STATE.compareAndSet(this, SCHEDULED, CANCELLED);
+	}
+
+	/**
+	 * Method isCancelled returns true if the task has been cancelled.
+	 *
+	 * @return the cancelled (type boolean) of this Task object.
+	 */
+	boolean isCancelled()
+	{
+		return state == CANCELLED;
+	}
+
 	@Override
 	public boolean equals(Object o)
 	{
@@ -106,12 +151,11 @@ public abstract class Task
 	@Override
 	public int compareTo(Task otherTask)
 	{
-		int compareResult = this.executionTime.compareTo(otherTask.executionTime);
+		int compareResult = Long.compare(this.executionTime, otherTask.executionTime);
 
 		if (compareResult == 0)
 		{
-			compareResult = Integer.valueOf(uniqueId)
-			                       .compareTo(otherTask.getUniqueId());
+			compareResult = Integer.compare(uniqueId, otherTask.getUniqueId());
 		}
 		return compareResult;
 	}
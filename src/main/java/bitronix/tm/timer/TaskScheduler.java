@@ -23,15 +23,22 @@ import bitronix.tm.resource.common.XAPool;
 import bitronix.tm.utils.MonotonicClock;
 import bitronix.tm.utils.Service;
 
-import java.util.*;
-import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.atomic.AtomicBoolean;
-import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReentrantLock;
 import java.util.logging.Level;
 
 /**
  * Timed tasks service.
+ * <p>Scheduling and cancelling a task never blocks: the task is registered by its object in a concurrent map and
+ * queued, and a cancelled task is queued as well. The scheduler thread drains both queues into a
+ * {@link TimingWheel} every {@link #TICK_MILLIS} milliseconds and runs the tasks whose execution time has been
+ * reached.</p>
  *
  * @author Ludovic Orban
  */
@@ -41,14 +48,24 @@ public class TaskScheduler
 {
 
 	private static final java.util.logging.Logger log = java.util.logging.Logger.getLogger(TaskScheduler.class.toString());
-	private static final String EXPECTED_EXECUTION_DATE = "expected a non-null execution date";
+
+	private static final LogDebugCheck debugCheck = LogDebugCheck.forLogger(log);
 	private static final String TOTAL_QUEUED = ", total task(s) queued: ";
 	private static final String SCHEDULED_STRING = "scheduled ";
 	private static final String NO_TASK = "no task found based on object ";
+	/**
+	 * The resolution of the scheduler, a task runs at most that late after its execution time.
+	 */
+	static final long TICK_MILLIS = 50L;
 
-
-	private final SortedSet<Task> tasks;
-	private final Lock tasksLock;
+	/**
+	 * The scheduled tasks, by object. Only one task can be scheduled per object.
+	 */
+	private final Map<Object, Task> tasks = new ConcurrentHashMap<>();
+	private final Queue<Task> scheduledQueue = new ConcurrentLinkedQueue<>();
+	private final Queue<Task> cancelledQueue = new ConcurrentLinkedQueue<>();
+	private final TimingWheel wheel = new TimingWheel(TICK_MILLIS, MonotonicClock.currentTimeMillis());
+	private final List<Task> expired = new ArrayList<>();
 	private final AtomicBoolean active = new AtomicBoolean(true);
 
 	/**
@@ -60,30 +77,6 @@ public class TaskScheduler
 		// to die gracefully, meaning enough time for all tasks to get executed. This is why it is set as daemon.
 		setDaemon(true);
 		setName("bitronix-task-scheduler");
-
-		SortedSet<Task> sortedTasks;
-		Lock innerTasksLock;
-		try
-		{
-			sortedTasks = new ConcurrentSkipListSet<>();
-			innerTasksLock = null;
-			if (LogDebugCheck.isDebugEnabled())
-			{
-				log.finer("task scheduler backed by ConcurrentSkipListSet");
-			}
-		}
-		catch (Exception e)
-		{
-			sortedTasks = new TreeSet<>();
-			innerTasksLock = new ReentrantLock();
-			if (LogDebugCheck.isDebugEnabled())
-			{
-				log.finer("task scheduler backed by locked TreeSet");
-				log.log(Level.FINEST, "exception is", e);
-			}
-		}
-		this.tasks = sortedTasks;
-		this.tasksLock = innerTasksLock;
 	}
 
 	/**
@@ -100,7 +93,7 @@ public class TaskScheduler
 			{
 				long gracefulShutdownTime = TransactionManagerServices.getConfiguration()
 				                                                      .getGracefulShutdownInterval() * 1000L;
-				if (LogDebugCheck.isDebugEnabled())
+				if (debugCheck.isDebugEnabled())
 				{
 					log.finer("graceful scheduler shutdown interval: " + gracefulShutdownTime + "ms");
 				}
@@ -128,32 +121,27 @@ public class TaskScheduler
 	}
 
 	/**
-	 * Schedule a task that will mark the transaction as timed out at the specified date. If this method is called
-	 * with the same transaction multiple times, the previous timeout date is dropped and replaced by the new one.
+	 * Schedule a task that will mark the transaction as timed out at the specified time. If this method is called
+	 * with the same transaction multiple times, the previous timeout time is dropped and replaced by the new one.
 	 *
 	 * @param transaction
 	 * 		the transaction to mark as timeout.
 	 * @param executionTime
-	 * 		the date at which the transaction must be marked.
+	 * 		the time in milliseconds at which the transaction must be marked.
 	 */
-	public void scheduleTransactionTimeout(BitronixTransaction transaction, Date executionTime)
+	public void scheduleTransactionTimeout(BitronixTransaction transaction, long executionTime)
 	{
-		if (LogDebugCheck.isDebugEnabled())
+		if (debugCheck.isDebugEnabled())
 		{
-			log.finer("scheduling transaction timeout task on " + transaction + " for " + executionTime);
+			log.finer("scheduling transaction timeout task on " + transaction + " for " + new Date(executionTime));
 		}
 		if (transaction == null)
 		{
 			throw new IllegalArgumentException("expected a non-null transaction");
 		}
-		if (executionTime == null)
-		{
-			throw new IllegalArgumentException(EXPECTED_EXECUTION_DATE);
-		}
-
 		TransactionTimeoutTask task = new TransactionTimeoutTask(transaction, executionTime, this);
 		addTask(task);
-		if (LogDebugCheck.isDebugEnabled())
+		if (debugCheck.isDebugEnabled())
 		{
 			log.finer(SCHEDULED_STRING + task + TOTAL_QUEUED + countTasksQueued());
 		}
@@ -167,16 +155,12 @@ public class TaskScheduler
 	 */
 	void addTask(Task task)
 	{
-		lock();
-		try
+		Task replaced = tasks.put(task.getObject(), task);
+		if (replaced != null)
 		{
-			removeTaskByObject(task.getObject());
-			tasks.add(task);
-		}
-		finally
-		{
-			unlock();
+			cancel(replaced);
 		}
+		scheduledQueue.add(task);
 	}
 
 	/**
@@ -186,26 +170,7 @@ public class TaskScheduler
 	 */
 	public int countTasksQueued()
 	{
-		lock();
-		try
-		{
-			return tasks.size();
-		}
-		finally
-		{
-			unlock();
-		}
-	}
-
-	/**
-	 * Method lock ...
-	 */
-	private void lock()
-	{
-		if (tasksLock != null)
-		{
-			tasksLock.lock();
-		}
+		return tasks.size();
 	}
 
 	/**
@@ -218,42 +183,35 @@ public class TaskScheduler
 	 */
 	boolean removeTaskByObject(Object obj)
 	{
-		lock();
-		try
+		if (debugCheck.isDebugEnabled())
 		{
-			if (LogDebugCheck.isDebugEnabled())
-			{
-				log.finer("removing task by " + obj);
-			}
+			log.finer("removing task by " + obj);
+		}
 
-			for (Task task : tasks)
-			{
-				if (task.getObject() == obj)
-				{
-					tasks.remove(task);
-					if (LogDebugCheck.isDebugEnabled())
-					{
-						log.finer("cancelled " + task + ", total task(s) still queued: " + tasks.size());
-					}
-					return true;
-				}
-			}
+		Task task = tasks.remove(obj);
+		if (task == null)
+		{
 			return false;
 		}
-		finally
+		cancel(task);
+		if (debugCheck.isDebugEnabled())
 		{
-			unlock();
+			log.finer("cancelled " + task + ", total task(s) still queued: " + tasks.size());
 		}
+		return true;
 	}
 
 	/**
-	 * Method unlock ...
+	 * Cancel a task and queue it for removal from the wheel.
+	 *
+	 * @param task
+	 * 		the task.
 	 */
-	private void unlock()
+	private void cancel(Task task)
 	{
-		if (tasksLock != null)
+		if (task.cancel())
 		{
-			tasksLock.unlock();
+			cancelledQueue.add(task);
 		}
 	}
 
@@ -265,7 +223,7 @@ public class TaskScheduler
 	 */
 	public void cancelTransactionTimeout(BitronixTransaction transaction)
 	{
-		if (LogDebugCheck.isDebugEnabled())
+		if (debugCheck.isDebugEnabled())
 		{
 			log.finer("cancelling transaction timeout task on " + transaction);
 		}
@@ -273,7 +231,7 @@ public class TaskScheduler
 		{
 			throw new IllegalArgumentException("expected a non-null transaction");
 		}
-		if (!removeTaskByObject(transaction) && LogDebugCheck.isDebugEnabled())
+		if (!removeTaskByObject(transaction) && debugCheck.isDebugEnabled())
 		{
 			log.finer(NO_TASK + transaction);
 		}
@@ -281,31 +239,27 @@ public class TaskScheduler
 	}
 
 	/**
-	 * Schedule a task that will run background recovery at the specified date.
+	 * Schedule a task that will run background recovery at the specified time.
 	 *
 	 * @param recoverer
 	 * 		the recovery implementation to use.
 	 * @param executionTime
-	 * 		the date at which the transaction must be marked.
+	 * 		the time in milliseconds at which the recovery must run.
 	 */
-	public void scheduleRecovery(Recoverer recoverer, Date executionTime)
+	public void scheduleRecovery(Recoverer recoverer, long executionTime)
 	{
-		if (LogDebugCheck.isDebugEnabled())
+		if (debugCheck.isDebugEnabled())
 		{
-			log.finer("scheduling recovery task for " + executionTime);
+			log.finer("scheduling recovery task for " + new Date(executionTime));
 		}
 		if (recoverer == null)
 		{
 			throw new IllegalArgumentException("expected a non-null recoverer");
 		}
-		if (executionTime == null)
-		{
-			throw new IllegalArgumentException(EXPECTED_EXECUTION_DATE);
-		}
 
 		RecoveryTask task = new RecoveryTask(recoverer, executionTime, this);
 		addTask(task);
-		if (LogDebugCheck.isDebugEnabled())
+		if (debugCheck.isDebugEnabled())
 		{
 			log.finer(SCHEDULED_STRING + task + TOTAL_QUEUED + countTasksQueued());
 		}
@@ -319,11 +273,11 @@ public class TaskScheduler
 	 */
 	public void cancelRecovery(Recoverer recoverer)
 	{
-		if (LogDebugCheck.isDebugEnabled())
+		if (debugCheck.isDebugEnabled())
 		{
 			log.finer("cancelling recovery task");
 		}
-		if (!removeTaskByObject(recoverer) && LogDebugCheck.isDebugEnabled())
+		if (!removeTaskByObject(recoverer) && debugCheck.isDebugEnabled())
 		{
 			log.finer(NO_TASK + recoverer);
 		}
@@ -332,28 +286,24 @@ public class TaskScheduler
 
 	/**
 	 * Schedule a task that will tell a XA pool to close idle connections. The execution time will be provided by the
-	 * XA pool itself via the {@link bitronix.tm.resource.common.XAPool#getNextShrinkDate()}.
+	 * XA pool itself via the {@link bitronix.tm.resource.common.XAPool#getNextShrinkTime()}.
 	 *
 	 * @param xaPool
 	 * 		the XA pool to notify.
 	 */
 	public void schedulePoolShrinking(XAPool xaPool)
 	{
-		Date executionTime = xaPool.getNextShrinkDate();
-		if (LogDebugCheck.isDebugEnabled())
+		long executionTime = xaPool.getNextShrinkTime();
+		if (debugCheck.isDebugEnabled())
 		{
-			log.finer("scheduling pool shrinking task on " + xaPool + " for " + executionTime);
-		}
-		if (executionTime == null)
-		{
-			throw new IllegalArgumentException(EXPECTED_EXECUTION_DATE);
+			log.finer("scheduling pool shrinking task on " + xaPool + " for " + new Date(executionTime));
 		}
 
 		PoolShrinkingTask task = new PoolShrinkingTask(xaPool, executionTime, this);
 		addTask(task);
-		if (LogDebugCheck.isDebugEnabled())
+		if (debugCheck.isDebugEnabled())
 		{
-			log.finer(SCHEDULED_STRING + task + TOTAL_QUEUED + tasks.size());
+			log.finer(SCHEDULED_STRING + task + TOTAL_QUEUED + countTasksQueued());
 		}
 	}
 
@@ -365,7 +315,7 @@ public class TaskScheduler
 	 */
 	public void cancelPoolShrinking(XAPool xaPool)
 	{
-		if (LogDebugCheck.isDebugEnabled())
+		if (debugCheck.isDebugEnabled())
 		{
 			log.finer("cancelling pool shrinking task on " + xaPool);
 		}
@@ -374,7 +324,7 @@ public class TaskScheduler
 			throw new IllegalArgumentException("expected a non-null XA pool");
 		}
 
-		if (!removeTaskByObject(xaPool) && LogDebugCheck.isDebugEnabled())
+		if (!removeTaskByObject(xaPool) && debugCheck.isDebugEnabled())
 		{
 			log.finer(NO_TASK + xaPool);
 		}
@@ -392,7 +342,7 @@ public class TaskScheduler
 			try
 			{
 				executeElapsedTasks();
-				Thread.sleep(500); // execute twice per second. That's enough precision.
+				Thread.sleep(TICK_MILLIS);
 			}
 			catch (InterruptedException ex)
 			{
@@ -412,73 +362,66 @@ public class TaskScheduler
 	}
 
 	/**
-	 * Method executeElapsedTasks ...
+	 * Move the queued tasks into the wheel, advance it to the current time and run the tasks that expired.
 	 */
 	private void executeElapsedTasks()
 	{
-		lock();
-		try
+		Task task;
+		while ((task = scheduledQueue.poll()) != null)
 		{
-			if (this.tasks.isEmpty())
+			if (!task.isCancelled())
 			{
-				return;
+				wheel.add(task, expired);
 			}
-
-			Set<Task> toRemove = new HashSet<>();
-			for (Task task : getSafeIterableTasks())
-			{
-				if (task.getExecutionTime()
-				        .compareTo(new Date(MonotonicClock.currentTimeMillis())) <= 0)
-				{
-					// if the execution time is now or in the past
-					if (LogDebugCheck.isDebugEnabled())
-					{
-						log.finer("running " + task);
-					}
-					try
-					{
-						task.execute();
-						if (LogDebugCheck.isDebugEnabled())
-						{
-							log.finer("successfully ran " + task);
-						}
-					}
-					catch (Exception ex)
-					{
-						log.log(Level.WARNING, "error running " + task, ex);
-					}
-					finally
-					{
-						toRemove.add(task);
-						if (LogDebugCheck.isDebugEnabled())
-						{
-							log.finer("total task(s) still queued: " + tasks.size());
-						}
-					}
-				} // if
-			}
-			this.tasks.removeAll(toRemove);
 		}
-		finally
+		while ((task = cancelledQueue.poll()) != null)
+		{
+			wheel.remove(task);
+		}
+		wheel.advanceTo(MonotonicClock.currentTimeMillis(), expired);
+
+		for (int i = 0; i < expired.size(); i++)
 		{
-			unlock();
+			execute(expired.get(i));
 		}
+		expired.clear();
 	}
 
 	/**
-	 * Method getSafeIterableTasks returns the safeIterableTasks of this TaskScheduler object.
+	 * Run an expired task, unless it got cancelled meanwhile.
 	 *
-	 * @return the safeIterableTasks (type SortedSet<Task>) of this TaskScheduler object.
+	 * @param task
+	 * 		the task.
 	 */
-	private SortedSet<Task> getSafeIterableTasks()
+	private void execute(Task task)
 	{
-		if (tasksLock != null)
+		// unregistered first so that the task can schedule a new one for its object
+		if (!task.expire() || !tasks.remove(task.getObject(), task))
+		{
+			return;
+		}
+		if (debugCheck.isDebugEnabled())
+		{
+			log.finer("running " + task);
+		}
+		try
 		{
-			return new TreeSet<>(tasks);
+			task.execute();
+			if (debugCheck.isDebugEnabled())
+			{
+				log.finer("successfully ran " + task);
+			}
 		}
-		else
+		catch (Exception ex)
 		{
-			return tasks;
+			log.log(Level.WARNING, "error running " + task, ex);
+		}
+		finally
+		{
+			if (debugCheck.isDebugEnabled())
+			{
+				log.finer("total task(s) still queued: " + tasks.size());
+			}
 		}
 	}
 
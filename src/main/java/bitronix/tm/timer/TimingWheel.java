@@ -0,0 +1,203 @@
+/*
+ * Copyright (C) 2006-2013 Bitronix Software (http://www.bitronix.be)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package bitronix.tm.timer;
+
+import java.util.List;
+
+/**
+ * Hierarchical timing wheel holding the tasks of the {@link TaskScheduler}.
+ * <p>Time is divided in ticks. Each of the {@link #LEVELS} levels has {@link #SLOTS} slots, a slot of level 0 spanning
+ * one tick and a slot of level n spanning all the slots of level n - 1. A task is linked into the slot of the lowest
+ * level whose current lap covers its deadline, in constant time. When the wheel enters a slot of an upper level, the
+ * tasks of that slot are cascaded into the lower levels; when it enters a slot of level 0, the tasks of that slot are
+ * expired. Deadlines beyond a full lap of the top level are parked in one of its slots and cascaded again.</p>
+ * <p>The wheel is not thread-safe, it is only used by the scheduler thread.</p>
+ */
+final class TimingWheel
+{
+
+	static final int LEVELS = 4;
+	private static final int LEVEL_BITS = 6;
+	static final int SLOTS = 1 << LEVEL_BITS;
+	private static final int SLOT_MASK = SLOTS - 1;
+
+	private final long tickMillis;
+	private final Task[][] slots = new Task[LEVELS][SLOTS];
+	private long currentTick;
+	private int size;
+
+	/**
+	 * Create an empty wheel.
+	 *
+	 * @param tickMillis
+	 * 		the duration of a tick in milliseconds.
+	 * @param now
+	 * 		the current time in milliseconds.
+	 */
+	TimingWheel(long tickMillis, long now)
+	{
+		this.tickMillis = tickMillis;
+		this.currentTick = now / tickMillis;
+	}
+
+	/**
+	 * Link a task into the wheel, or add it to the expired tasks if its deadline has been reached.
+	 *
+	 * @param task
+	 * 		the task.
+	 * @param expired
+	 * 		the list of the expired tasks.
+	 */
+	void add(Task task, List<Task> expired)
+	{
+		// rounded up so that a task never runs early
+		task.deadlineTick = (task.getExecutionTime() + tickMillis - 1) / tickMillis;
+		link(task, expired);
+	}
+
+	/**
+	 * Unlink a task from the wheel, if it is linked.
+	 *
+	 * @param task
+	 * 		the task.
+	 */
+	void remove(Task task)
+	{
+		if (task.level < 0)
+		{
+			return;
+		}
+		if (task.previous == null)
+		{
+			slots[task.level][task.slot] = task.next;
+		}
+		else
+		{
+			task.previous.next = task.next;
+		}
+		if (task.next != null)
+		{
+			task.next.previous = task.previous;
+		}
+		task.previous = null;
+		task.next = null;
+		task.level = -1;
+		size--;
+	}
+
+	/**
+	 * Advance the wheel up to a time, collecting the tasks whose deadline has been reached.
+	 *
+	 * @param now
+	 * 		the current time in milliseconds.
+	 * @param expired
+	 * 		the list the expired tasks are added to.
+	 */
+	void advanceTo(long now, List<Task> expired)
+	{
+		long targetTick = now / tickMillis;
+		while (currentTick < targetTick)
+		{
+			currentTick++;
+			for (int level = LEVELS - 1; level > 0; level--)
+			{
+				if ((currentTick & ((1L << (LEVEL_BITS * level)) - 1)) == 0)
+				{
+					cascade(level, (int) ((currentTick >>> (LEVEL_BITS * level)) & SLOT_MASK), expired);
+				}
+			}
+			cascade(0, (int) (currentTick & SLOT_MASK), expired);
+		}
+	}
+
+	/**
+	 * Get the number of tasks linked into the wheel.
+	 *
+	 * @return the number of tasks.
+	 */
+	int size()
+	{
+		return size;
+	}
+
+	/**
+	 * Unlink all the tasks of a slot and link them again according to the current tick, which expires the tasks of
+	 * level 0.
+	 *
+	 * @param level
+	 * 		the level of the slot.
+	 * @param slot
+	 * 		the slot.
+	 * @param expired
+	 * 		the list of the expired tasks.
+	 */
+	private void cascade(int level, int slot, List<Task> expired)
+	{
+		Task task = slots[level][slot];
+		slots[level][slot] = null;
+		while (task != null)
+		{
+			Task next = task.next;
+			task.previous = null;
+			task.next = null;
+			task.level = -1;
+			size--;
+			link(task, expired);
+			task = next;
+		}
+	}
+
+	private void link(Task task, List<Task> expired)
+	{
+		long deadlineTick = task.deadlineTick;
+		if (deadlineTick <= currentTick)
+		{
+			expired.add(task);
+			return;
+		}
+
+		int level = 0;
+		while (level < LEVELS && (deadlineTick >>> (LEVEL_BITS * (level + 1))) != (currentTick >>> (LEVEL_BITS * (level + 1))))
+		{
+			level++;
+		}
+		int slot;
+		if (level == LEVELS)
+		{
+			// in a later lap of the top level: its slot if it comes before the current one, otherwise parked in the
+			// slot preceding the current one and cascaded again from there
+			level = LEVELS - 1;
+			long currentIndex = currentTick >>> (LEVEL_BITS * level);
+			long deadlineIndex = deadlineTick >>> (LEVEL_BITS * level);
+			slot = (int) ((deadlineIndex - currentIndex < SLOTS ? deadlineIndex : currentIndex + SLOT_MASK) & SLOT_MASK);
+		}
+		else
+		{
+			slot = (int) ((deadlineTick >>> (LEVEL_BITS * level)) & SLOT_MASK);
+		}
+
+		Task head = slots[level][slot];
+		task.next = head;
+		if (head != null)
+		{
+			head.previous = task;
+		}
+		slots[level][slot] = task;
+		task.level = level;
+		task.slot = slot;
+		size++;
+	}
+}
@@ -32,6 +32,8 @@ public class TransactionTimeoutTask
 
 	private static final java.util.logging.Logger log = java.util.logging.Logger.getLogger(TransactionTimeoutTask.class.toString());
 
+	private static final LogDebugCheck debugCheck = LogDebugCheck.forLogger(log);
+
 	private final BitronixTransaction transaction;
 
 	/**
@@ -40,11 +42,11 @@ public class TransactionTimeoutTask
 	 * @param transaction
 	 * 		of type BitronixTransaction
 	 * @param executionTime
-	 * 		of type Date
+	 * 		the time in milliseconds at which the task must run
 	 * @param scheduler
 	 * 		of type TaskScheduler
 	 */
-	public TransactionTimeoutTask(BitronixTransaction transaction, Date executionTime, TaskScheduler scheduler)
+	public TransactionTimeoutTask(BitronixTransaction transaction, long executionTime, TaskScheduler scheduler)
 	{
 		super(executionTime, scheduler);
 		this.transaction = transaction;
@@ -72,7 +74,7 @@ public class TransactionTimeoutTask
 	{
 		try
 		{
-			if (LogDebugCheck.isDebugEnabled())
+			if (debugCheck.isDebugEnabled())
 			{
 				log.finer("marking " + transaction + " as timed out");
 			}
@@ -92,7 +94,7 @@ public class TransactionTimeoutTask
 	@Override
 	public String toString()
 	{
-		return "a TransactionTimeoutTask on " + transaction + " scheduled for " + getExecutionTime();
+		return "a TransactionTimeoutTask on " + transaction + " scheduled for " + new Date(getExecutionTime());
 	}
 
 }
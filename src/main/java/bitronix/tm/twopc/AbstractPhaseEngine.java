@@ -38,6 +38,8 @@ public abstract class AbstractPhaseEngine
 
 	private static final java.util.logging.Logger log = java.util.logging.Logger.getLogger(AbstractPhaseEngine.class.toString());
 
+	private static final LogDebugCheck debugCheck = LogDebugCheck.forLogger(log);
+
 	private final Executor executor;
 
 	/**
@@ -118,7 +120,7 @@ public abstract class AbstractPhaseEngine
 		if (reverse)
 		{
 			positions = resourceManager.getReverseOrderPositions();
-			if (LogDebugCheck.isDebugEnabled())
+			if (debugCheck.isDebugEnabled())
 			{
 				log.finer("executing phase on " + resourceManager.size() + " resource(s) enlisted in " + positions.size() + " position(s) in reverse position order");
 			}
@@ -126,7 +128,7 @@ public abstract class AbstractPhaseEngine
 		else
 		{
 			positions = resourceManager.getNaturalOrderPositions();
-			if (LogDebugCheck.isDebugEnabled())
+			if (debugCheck.isDebugEnabled())
 			{
 				log.finer("executing phase on " + resourceManager.size() + " resource(s) enlisted in " + positions.size() + " position(s) in natural position order");
 			}
@@ -146,7 +148,7 @@ public abstract class AbstractPhaseEngine
 				resources = resourceManager.getNaturalOrderResourcesForPosition(positionKey);
 			}
 
-			if (LogDebugCheck.isDebugEnabled())
+			if (debugCheck.isDebugEnabled())
 			{
 				log.finer("running " + resources.size() + " job(s) for position '" + positionKey + "'");
 			}
@@ -154,7 +156,7 @@ public abstract class AbstractPhaseEngine
 			if (!report.getExceptions()
 			           .isEmpty())
 			{
-				if (LogDebugCheck.isDebugEnabled())
+				if (debugCheck.isDebugEnabled())
 				{
 					log.finer(report.getExceptions()
 					                .size() + " error(s) happened during execution of position '" + positionKey + "'");
@@ -162,7 +164,7 @@ public abstract class AbstractPhaseEngine
 				positionErrorReports.add(report);
 				break;
 			}
-			if (LogDebugCheck.isDebugEnabled())
+			if (debugCheck.isDebugEnabled())
 			{
 				log.finer("ran " + resources.size() + " job(s) for position '" + positionKey + "'");
 			}
@@ -203,7 +205,7 @@ public abstract class AbstractPhaseEngine
 		{
 			if (!isParticipating(resource))
 			{
-				if (LogDebugCheck.isDebugEnabled())
+				if (debugCheck.isDebugEnabled())
 				{
 					log.finer("skipping not participating resource " + resource);
 				}
@@ -232,7 +234,7 @@ public abstract class AbstractPhaseEngine
 			{
 				String extraErrorDetails = TransactionManagerServices.getExceptionAnalyzer()
 				                                                     .extractExtraXAExceptionDetails(xaException);
-				if (LogDebugCheck.isDebugEnabled())
+				if (debugCheck.isDebugEnabled())
 				{
 					log.finer("error executing " + job + ", errorCode=" + Decoder.decodeXAExceptionErrorCode(xaException) +
 					          (extraErrorDetails == null ? "" : ", extra error=" + extraErrorDetails));
@@ -242,7 +244,7 @@ public abstract class AbstractPhaseEngine
 			}
 			else if (runtimeException != null)
 			{
-				if (LogDebugCheck.isDebugEnabled())
+				if (debugCheck.isDebugEnabled())
 				{
 					log.finer("error executing " + job);
 				}
@@ -251,7 +253,7 @@ public abstract class AbstractPhaseEngine
 			}
 		}
 
-		if (LogDebugCheck.isDebugEnabled())
+		if (debugCheck.isDebugEnabled())
 		{
 			log.finer("phase executed with " + exceptions.size() + " exception(s)");
 		}
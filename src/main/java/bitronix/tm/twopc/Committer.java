@@ -40,6 +40,8 @@ public final class Committer
 {
 
 	private static final java.util.logging.Logger log = java.util.logging.Logger.getLogger(Committer.class.toString());
+
+	private static final LogDebugCheck debugCheck = LogDebugCheck.forLogger(log);
 	private final List<XAResourceHolderState> interestedResources = Collections.synchronizedList(new ArrayList<>());
 	// this list has to be thread-safe as the CommitJobs can be executed in parallel (when async 2PC is configured)
 	private final List<XAResourceHolderState> committedResources = Collections.synchronizedList(new ArrayList<>());
@@ -82,7 +84,7 @@ public final class Committer
 		{
 			transaction.setStatus(Status.STATUS_COMMITTING);
 			transaction.setStatus(Status.STATUS_COMMITTED);
-			if (LogDebugCheck.isDebugEnabled())
+			if (debugCheck.isDebugEnabled())
 			{
 				log.finer("phase 2 commit succeeded with no interested resource");
 			}
@@ -114,7 +116,7 @@ public final class Committer
 			}
 		}
 
-		if (LogDebugCheck.isDebugEnabled())
+		if (debugCheck.isDebugEnabled())
 		{
 			log.finer("phase 2 commit executed on resources " + Decoder.collectResourcesNames(committedResources));
 		}
@@ -129,7 +131,7 @@ public final class Committer
 		List<XAResourceHolderState> notInterestedResources = collectNotInterestedResources(resourceManager.getAllResources(), interestedResources);
 		committedAndNotInterestedUniqueNames.addAll(collectResourcesUniqueNames(notInterestedResources));
 
-		if (LogDebugCheck.isDebugEnabled())
+		if (debugCheck.isDebugEnabled())
 		{
 			List<XAResourceHolderState> committedAndNotInterestedResources = new ArrayList<>();
 			committedAndNotInterestedResources.addAll(committedResources);
@@ -321,14 +323,14 @@ public final class Committer
 		{
 			try
 			{
-				if (LogDebugCheck.isDebugEnabled())
+				if (debugCheck.isDebugEnabled())
 				{
 					log.finer("committing resource " + resourceHolder + (onePhase ? " (with one-phase optimization)" : ""));
 				}
 				resourceHolder.getXAResource()
 				              .commit(resourceHolder.getXid(), onePhase);
 				committedResources.add(resourceHolder);
-				if (LogDebugCheck.isDebugEnabled())
+				if (debugCheck.isDebugEnabled())
 				{
 					log.finer("committed resource " + resourceHolder);
 				}
@@ -381,7 +383,7 @@ public final class Committer
 				default:
 					if (onePhase)
 					{
-						if (LogDebugCheck.isDebugEnabled())
+						if (debugCheck.isDebugEnabled())
 						{
 							log.finer("XAException thrown in commit phase of 1PC optimization, rethrowing it");
 						}
@@ -405,13 +407,13 @@ public final class Committer
 		{
 			try
 			{
-				if (LogDebugCheck.isDebugEnabled())
+				if (debugCheck.isDebugEnabled())
 				{
 					log.finer("handling heuristic commit on resource " + resourceHolder.getXAResource());
 				}
 				resourceHolder.getXAResource()
 				              .forget(resourceHolder.getXid());
-				if (LogDebugCheck.isDebugEnabled())
+				if (debugCheck.isDebugEnabled())
 				{
 					log.finer("forgotten heuristically committed resource " + resourceHolder.getXAResource());
 				}
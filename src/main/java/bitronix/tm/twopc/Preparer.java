@@ -45,6 +45,8 @@ public final class Preparer
 
 	private static final java.util.logging.Logger log = java.util.logging.Logger.getLogger(Preparer.class.toString());
 
+	private static final LogDebugCheck debugCheck = LogDebugCheck.forLogger(log);
+
 	// this list has to be thread-safe as the PrepareJobs can be executed in parallel (when async 2PC is configured)
 	private final List<XAResourceHolderState> preparedResources = Collections.synchronizedList(new ArrayList<>());
 
@@ -86,7 +88,7 @@ public final class Preparer
 			{
 				log.warning("executing transaction with 0 enlisted resource");
 			}
-			else if (LogDebugCheck.isDebugEnabled())
+			else if (debugCheck.isDebugEnabled())
 			{
 				log.finer("0 resource enlisted, no prepare needed");
 			}
@@ -102,7 +104,7 @@ public final class Preparer
 			                                                      .get(0);
 
 			preparedResources.add(resourceHolder);
-			if (LogDebugCheck.isDebugEnabled())
+			if (debugCheck.isDebugEnabled())
 			{
 				log.finer("1 resource enlisted, no prepare needed (1PC)");
 			}
@@ -121,7 +123,7 @@ public final class Preparer
 		}
 
 		transaction.setStatus(Status.STATUS_PREPARED);
-		if (LogDebugCheck.isDebugEnabled())
+		if (debugCheck.isDebugEnabled())
 		{
 			log.finer("successfully prepared " + preparedResources.size() + " resource(s)");
 		}
@@ -240,7 +242,7 @@ public final class Preparer
 			try
 			{
 				XAResourceHolderState resourceHolder = getResource();
-				if (LogDebugCheck.isDebugEnabled())
+				if (debugCheck.isDebugEnabled())
 				{
 					log.finer("preparing resource " + resourceHolder);
 				}
@@ -252,7 +254,7 @@ public final class Preparer
 					preparedResources.add(resourceHolder);
 				}
 
-				if (LogDebugCheck.isDebugEnabled())
+				if (debugCheck.isDebugEnabled())
 				{
 					log.finer("prepared resource " + resourceHolder + " voted " + Decoder.decodePrepareVote(vote));
 				}
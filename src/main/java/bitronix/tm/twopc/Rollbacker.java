@@ -41,6 +41,8 @@ public final class Rollbacker
 
 	private static final java.util.logging.Logger log = java.util.logging.Logger.getLogger(Rollbacker.class.toString());
 
+	private static final LogDebugCheck debugCheck = LogDebugCheck.forLogger(log);
+
 	private final List<XAResourceHolderState> interestedResources = Collections.synchronizedList(new ArrayList<>());
 	// this list has to be thread-safe as the RollbackJobs can be executed in parallel (when async 2PC is configured)
 	private final List<XAResourceHolderState> rolledbackResources = Collections.synchronizedList(new ArrayList<>());
@@ -90,7 +92,7 @@ public final class Rollbacker
 			throwException("transaction failed during rollback of " + transaction, ex, interestedResources.size());
 		}
 
-		if (LogDebugCheck.isDebugEnabled())
+		if (debugCheck.isDebugEnabled())
 		{
 			log.finer("rollback executed on resources " + Decoder.collectResourcesNames(rolledbackResources));
 		}
@@ -105,7 +107,7 @@ public final class Rollbacker
 		List<XAResourceHolderState> notInterestedResources = collectNotInterestedResources(resourceManager.getAllResources(), interestedResources);
 		rolledbackAndNotInterestedUniqueNames.addAll(collectResourcesUniqueNames(notInterestedResources));
 
-		if (LogDebugCheck.isDebugEnabled())
+		if (debugCheck.isDebugEnabled())
 		{
 			List<XAResourceHolderState> rolledbackAndNotInterestedResources = new ArrayList<>();
 			rolledbackAndNotInterestedResources.addAll(rolledbackResources);
@@ -274,14 +276,14 @@ public final class Rollbacker
 		{
 			try
 			{
-				if (LogDebugCheck.isDebugEnabled())
+				if (debugCheck.isDebugEnabled())
 				{
 					log.finer("trying to rollback resource " + resourceHolder);
 				}
 				resourceHolder.getXAResource()
 				              .rollback(resourceHolder.getXid());
 				rolledbackResources.add(resourceHolder);
-				if (LogDebugCheck.isDebugEnabled())
+				if (debugCheck.isDebugEnabled())
 				{
 					log.finer("rolled back resource " + resourceHolder);
 				}
@@ -336,13 +338,13 @@ public final class Rollbacker
 		{
 			try
 			{
-				if (LogDebugCheck.isDebugEnabled())
+				if (debugCheck.isDebugEnabled())
 				{
 					log.finer("handling heuristic rollback on resource " + resourceHolder.getXAResource());
 				}
 				resourceHolder.getXAResource()
 				              .forget(resourceHolder.getXid());
-				if (LogDebugCheck.isDebugEnabled())
+				if (debugCheck.isDebugEnabled())
 				{
 					log.finer("forgotten heuristically rolled back resource " + resourceHolder.getXAResource());
 				}
@@ -30,6 +30,8 @@ public class ClassLoaderUtils
 
 	private static final java.util.logging.Logger log = java.util.logging.Logger.getLogger(ClassLoaderUtils.class.toString());
 
+	private static final LogDebugCheck debugCheck = LogDebugCheck.forLogger(log);
+
 	private ClassLoaderUtils()
 	{
 		//Nothing needed
@@ -106,7 +108,7 @@ public class ClassLoaderUtils
 			}
 			catch (ClassNotFoundException ex)
 			{
-				if (LogDebugCheck.isDebugEnabled())
+				if (debugCheck.isDebugEnabled())
 				{
 					log.log(Level.FINER, "context classloader could not find class '" + className + "', trying Class.forName() instead", ex);
 				}
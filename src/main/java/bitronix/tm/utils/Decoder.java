@@ -17,6 +17,7 @@ package bitronix.tm.utils;
 
 import bitronix.tm.internal.XAResourceHolderState;
 import bitronix.tm.journal.TransactionLogHeader;
+import bitronix.tm.journal.TransactionLogRecord;
 
 import jakarta.transaction.Status;
 import javax.transaction.xa.XAException;
@@ -132,6 +133,12 @@ public class Decoder
 				return "ROLLING_BACK";
 			case Status.STATUS_UNKNOWN:
 				return "UNKNOWN";
+			case TransactionLogRecord.STATUS_CHECKPOINT_ENTRY:
+				return "CHECKPOINT_ENTRY";
+			case TransactionLogRecord.STATUS_CHECKPOINT_END:
+				return "CHECKPOINT_END";
+			case TransactionLogRecord.STATUS_PADDING:
+				return "PADDING";
 			default:
 				return "!incorrect status (" + status + ")!";
 		}
@@ -38,19 +38,32 @@ public class Encoder
 	public static byte[] longToBytes(long aLong)
 	{
 		byte[] array = new byte[8];
-
-		array[7] = (byte) (aLong & 0xff);
-		array[6] = (byte) ((aLong >> 8) & 0xff);
-		array[5] = (byte) ((aLong >> 16) & 0xff);
-		array[4] = (byte) ((aLong >> 24) & 0xff);
-		array[3] = (byte) ((aLong >> 32) & 0xff);
-		array[2] = (byte) ((aLong >> 40) & 0xff);
-		array[1] = (byte) ((aLong >> 48) & 0xff);
-		array[0] = (byte) ((aLong >> 56) & 0xff);
-
+		longToBytes(aLong, array, 0);
 		return array;
 	}
 
+	/**
+	 * Write a long in big-endian order into an array.
+	 *
+	 * @param aLong
+	 * 		the value.
+	 * @param array
+	 * 		the array to write to.
+	 * @param pos
+	 * 		the index of the first of the 8 bytes to write.
+	 */
+	public static void longToBytes(long aLong, byte[] array, int pos)
+	{
+		array[pos + 7] = (byte) (aLong & 0xff);
+		array[pos + 6] = (byte) ((aLong >> 8) & 0xff);
+		array[pos + 5] = (byte) ((aLong >> 16) & 0xff);
+		array[pos + 4] = (byte) ((aLong >> 24) & 0xff);
+		array[pos + 3] = (byte) ((aLong >> 32) & 0xff);
+		array[pos + 2] = (byte) ((aLong >> 40) & 0xff);
+		array[pos + 1] = (byte) ((aLong >> 48) & 0xff);
+		array[pos] = (byte) ((aLong >> 56) & 0xff);
+	}
+
 	/**
 	 * Method intToBytes ...
 	 *
@@ -62,15 +75,28 @@ public class Encoder
 	public static byte[] intToBytes(int anInt)
 	{
 		byte[] array = new byte[4];
-
-		array[3] = (byte) (anInt & 0xff);
-		array[2] = (byte) ((anInt >> 8) & 0xff);
-		array[1] = (byte) ((anInt >> 16) & 0xff);
-		array[0] = (byte) ((anInt >> 24) & 0xff);
-
+		intToBytes(anInt, array, 0);
 		return array;
 	}
 
+	/**
+	 * Write an int in big-endian order into an array.
+	 *
+	 * @param anInt
+	 * 		the value.
+	 * @param array
+	 * 		the array to write to.
+	 * @param pos
+	 * 		the index of the first of the 4 bytes to write.
+	 */
+	public static void intToBytes(int anInt, byte[] array, int pos)
+	{
+		array[pos + 3] = (byte) (anInt & 0xff);
+		array[pos + 2] = (byte) ((anInt >> 8) & 0xff);
+		array[pos + 1] = (byte) ((anInt >> 16) & 0xff);
+		array[pos] = (byte) ((anInt >> 24) & 0xff);
+	}
+
 	/**
 	 * Method shortToBytes ...
 	 *
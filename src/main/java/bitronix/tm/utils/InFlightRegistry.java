@@ -0,0 +1,249 @@
+/*
+ * Copyright (C) 2006-2013 Bitronix Software (http://www.bitronix.be)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package bitronix.tm.utils;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+
+/**
+ * Registry of in-flight entries, each registered with a timestamp, giving the oldest timestamp at a constant cost.
+ * <p>Entries are looked up in a concurrent hash map and also linked into one of a fixed number of stripes, each being
+ * a list ordered by timestamp and guarded by its own monitor. A thread always links its entries into the same stripe,
+ * so that threads rarely contend. Since timestamps are taken right before registering, a new entry almost always goes
+ * to the tail of its stripe: registering and unregistering take constant time. Each stripe publishes the timestamp of
+ * its head, the oldest timestamp is the smallest of them.</p>
+ *
+ * @param <K>
+ * 		the type of the keys.
+ * @param <V>
+ * 		the type of the values.
+ */
+public final class InFlightRegistry<K, V>
+{
+
+	private static final int MAX_STRIPES = 64;
+	private static final long EMPTY = Long.MAX_VALUE;
+
+	private final Map<K, Node<K, V>> nodes = new ConcurrentHashMap<>();
+	private final Stripe<K, V>[] stripes;
+	private final int stripeMask;
+
+	/**
+	 * Create a registry striped according to the number of available processors.
+	 */
+	@SuppressWarnings("unchecked")
+	public InFlightRegistry()
+	{
+		int count = Math.min(MAX_STRIPES, Integer.highestOneBit(Runtime.getRuntime()
+		                                                               .availableProcessors() * 4 - 1));
+		stripes = (Stripe<K, V>[]) new Stripe<?, ?>[count];
+		for (int i = 0; i < count; i++)
+		{
+			stripes[i] = new Stripe<>();
+		}
+		stripeMask = count - 1;
+	}
+
+	/**
+	 * Register an entry, replacing the one already registered with the same key.
+	 *
+	 * @param key
+	 * 		the key.
+	 * @param value
+	 * 		the value.
+	 * @param timestamp
+	 * 		the timestamp of the entry.
+	 */
+	public void register(K key, V value, long timestamp)
+	{
+		Stripe<K, V> stripe = stripes[(int) Thread.currentThread()
+		                                          .getId() & stripeMask];
+		Node<K, V> node = new Node<>(key, value, timestamp, stripe);
+		stripe.link(node);
+		Node<K, V> replaced = nodes.put(key, node);
+		if (replaced != null)
+		{
+			replaced.stripe.unlink(replaced);
+		}
+	}
+
+	/**
+	 * Unregister an entry.
+	 *
+	 * @param key
+	 * 		the key.
+	 *
+	 * @return the value of the entry, or null if no entry was registered with the key.
+	 */
+	public V unregister(K key)
+	{
+		Node<K, V> node = nodes.remove(key);
+		if (node == null)
+		{
+			return null;
+		}
+		node.stripe.unlink(node);
+		return node.value;
+	}
+
+	/**
+	 * Get the value of an entry.
+	 *
+	 * @param key
+	 * 		the key.
+	 *
+	 * @return the value, or null if no entry is registered with the key.
+	 */
+	public V get(K key)
+	{
+		Node<K, V> node = nodes.get(key);
+		return node == null ? null : node.value;
+	}
+
+	/**
+	 * Get the number of registered entries.
+	 *
+	 * @return the number of entries.
+	 */
+	public int size()
+	{
+		return nodes.size();
+	}
+
+	/**
+	 * Get the timestamp of the oldest registered entry.
+	 *
+	 * @return the timestamp, or Long.MIN_VALUE if no entry is registered.
+	 */
+	public long getOldestTimestamp()
+	{
+		long oldest = EMPTY;
+		for (Stripe<K, V> stripe : stripes)
+		{
+			oldest = Math.min(oldest, stripe.oldest);
+		}
+		return oldest == EMPTY ? Long.MIN_VALUE : oldest;
+	}
+
+	/**
+	 * Call an action for each registered entry, without blocking registrations. Entries registered or unregistered
+	 * meanwhile may or may not be seen.
+	 *
+	 * @param action
+	 * 		the action.
+	 */
+	public void forEach(BiConsumer<? super K, ? super V> action)
+	{
+		for (Node<K, V> node : nodes.values())
+		{
+			action.accept(node.key, node.value);
+		}
+	}
+
+	/**
+	 * Create human-readable String representation.
+	 *
+	 * @return a human-readable String representing this object's state.
+	 */
+	@Override
+	public String toString()
+	{
+		return "an InFlightRegistry with " + size() + " entries in " + stripes.length + " stripe(s)";
+	}
+
+	/**
+	 * A registered entry, linked in its stripe.
+	 */
+	private static final class Node<K, V>
+	{
+		private final K key;
+		private final V value;
+		private final long timestamp;
+		private final Stripe<K, V> stripe;
+		private Node<K, V> previous;
+		private Node<K, V> next;
+
+		private Node(K key, V value, long timestamp, Stripe<K, V> stripe)
+		{
+			this.key = key;
+			this.value = value;
+			this.timestamp = timestamp;
+			this.stripe = stripe;
+		}
+	}
+
+	/**
+	 * A list of entries ordered by timestamp, publishing the timestamp of its head.
+	 */
+	private static final class Stripe<K, V>
+	{
+		private Node<K, V> head;
+		private Node<K, V> tail;
+		private volatile long oldest = EMPTY;
+
+		private synchronized void link(Node<K, V> node)
+		{
+			Node<K, V> after = tail;
+			while (after != null && after.timestamp > node.timestamp)
+			{
+				after = after.previous;
+			}
+			node.previous = after;
+			node.next = after == null ? head : after.next;
+			if (node.next == null)
+			{
+				tail = node;
+			}
+			else
+			{
+				node.next.previous = node;
+			}
+			if (after == null)
+			{
+				head = node;
+				oldest = node.timestamp;
+			}
+			else
+			{
+				after.next = node;
+			}
+		}
+
+		private synchronized void unlink(Node<K, V> node)
+		{
+			if (node.previous == null)
+			{
+				head = node.next;
+				oldest = head == null ? EMPTY : head.timestamp;
+			}
+			else
+			{
+				node.previous.next = node.next;
+			}
+			if (node.next == null)
+			{
+				tail = node.previous;
+			}
+			else
+			{
+				node.next.previous = node.previous;
+			}
+			node.previous = null;
+			node.next = null;
+		}
+	}
+}
@@ -43,6 +43,8 @@ public final class ManagementRegistrar
 {
 
 	private static final java.util.logging.Logger log = java.util.logging.Logger.getLogger(ManagementRegistrar.class.toString());
+
+	private static final LogDebugCheck debugCheck = LogDebugCheck.forLogger(log);
 	private static final MBeanServer mbeanServer;
 	private static final Queue<ManagementCommand> commandQueue;
 
@@ -77,14 +79,14 @@ public final class ManagementRegistrar
 	{
 		if (mbeanServer != null)
 		{
-			if (LogDebugCheck.isDebugEnabled())
+			if (debugCheck.isDebugEnabled())
 			{
 				log.finer("Enabled JMX with MBeanServer " + mbeanServer + "; MBean registration is '" + (commandQueue == null ? "synchronous" : "asynchronous") + "'.");
 			}
 		}
 		else
 		{
-			if (LogDebugCheck.isDebugEnabled())
+			if (debugCheck.isDebugEnabled())
 			{
 				log.finer("JMX support is disabled.");
 			}
@@ -316,7 +318,7 @@ public final class ManagementRegistrar
 			}
 			catch (InstanceNotFoundException e)
 			{
-				if (LogDebugCheck.isDebugEnabled())
+				if (debugCheck.isDebugEnabled())
 				{
 					log.log(Level.FINE, "Failed to unregister the JMX instance of name '" + name + "' as it doesn't exist.", e);
 				}
@@ -363,7 +365,7 @@ public final class ManagementRegistrar
 		{
 			try
 			{
-				if (LogDebugCheck.isDebugEnabled())
+				if (debugCheck.isDebugEnabled())
 				{
 					log.finer("Calling " + getClass().getSimpleName() + " on object with name " + name);
 				}
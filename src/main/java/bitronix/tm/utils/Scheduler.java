@@ -21,6 +21,12 @@ import java.util.*;
  * Positional object container. Objects can be added to a scheduler at a certain position (or priority) and can be
  * retrieved later on in their position + added order. All the objects of a scheduler can be iterated in order or
  * objects of a cetain position can be retrieved for iteration.
+ * <p>A scheduler only holds a handful of objects, the resources or the synchronizations of a transaction. They are
+ * kept in an array sorted by position then added order, along with an array of their positions: adding at the last
+ * position is a simple append and iterating does not allocate anything but the iterator.</p>
+ * <p>A scheduler is thread-safe: the transaction timeout task reads the resources of a transaction from the task
+ * scheduler thread while they get enlisted. Iterators lock the scheduler on each step only, and see the objects added
+ * or removed meanwhile.</p>
  *
  * @param <T>
  * 		the type the scheduler handles
@@ -35,8 +41,12 @@ public class Scheduler<T>
 	public static final Integer ALWAYS_FIRST_POSITION = Integer.MIN_VALUE;
 	public static final Integer ALWAYS_LAST_POSITION = Integer.MAX_VALUE;
 
-	private final List<Integer> keys = new ArrayList<>();
-	private final Map<Integer, List<T>> objects = new TreeMap<>();
+	private static final int INITIAL_CAPACITY = 4;
+	private static final Object[] NO_OBJECTS = {};
+	private static final int[] NO_POSITIONS = {};
+
+	private Object[] objects = NO_OBJECTS;
+	private int[] positions = NO_POSITIONS;
 	private int size = 0;
 
 
@@ -58,18 +68,23 @@ public class Scheduler<T>
 	 */
 	public synchronized void add(T obj, Integer position)
 	{
-		List<T> list = objects.get(position);
-		if (list == null)
+		int pos = position;
+		int index = size;
+		while (index > 0 && positions[index - 1] > pos)
 		{
-			if (!keys.contains(position))
-			{
-				keys.add(position);
-				Collections.sort(keys);
-			}
-			list = new ArrayList<>();
-			objects.put(position, list);
+			index--;
+		}
+
+		if (size == objects.length)
+		{
+			int capacity = Math.max(INITIAL_CAPACITY, size * 2);
+			objects = Arrays.copyOf(objects, capacity);
+			positions = Arrays.copyOf(positions, capacity);
 		}
-		list.add(obj);
+		System.arraycopy(objects, index, objects, index + 1, size - index);
+		System.arraycopy(positions, index, positions, index + 1, size - index);
+		objects[index] = obj;
+		positions[index] = pos;
 		size++;
 	}
 
@@ -81,17 +96,12 @@ public class Scheduler<T>
 	 */
 	public synchronized void remove(T obj)
 	{
-		Iterator<T> it = iterator();
-		while (it.hasNext())
+		int index = indexOf(obj, 0);
+		if (index < 0)
 		{
-			T o = it.next();
-			if (o == obj)
-			{
-				it.remove();
-				return;
-			}
+			throw new NoSuchElementException("no such element: " + obj);
 		}
-		throw new NoSuchElementException("no such element: " + obj);
+		removeAt(index);
 	}
 
 	/**
@@ -124,7 +134,12 @@ public class Scheduler<T>
 	 */
 	public synchronized SortedSet<Integer> getNaturalOrderPositions()
 	{
-		return new TreeSet<>(objects.keySet());
+		TreeSet<Integer> result = new TreeSet<>();
+		for (int i = 0; i < size; i++)
+		{
+			result.add(positions[i]);
+		}
+		return result;
 	}
 
 	/**
@@ -137,8 +152,11 @@ public class Scheduler<T>
 	 */
 	public synchronized List<T> getByReverseOrderForPosition(Integer position)
 	{
-		List<T> result = new ArrayList<>(getByNaturalOrderForPosition(position));
-		Collections.reverse(result);
+		List<T> result = getByNaturalOrderForPosition(position);
+		if (result != null)
+		{
+			Collections.reverse(result);
+		}
 		return result;
 	}
 
@@ -148,11 +166,25 @@ public class Scheduler<T>
 	 * @param position
 	 * 		of type Integer
 	 *
-	 * @return List T
+	 * @return List T, or null if no object has been added at that position.
 	 */
+	@SuppressWarnings("unchecked")
 	public synchronized List<T> getByNaturalOrderForPosition(Integer position)
 	{
-		return objects.get(position);
+		int pos = position;
+		List<T> result = null;
+		for (int i = 0; i < size && positions[i] <= pos; i++)
+		{
+			if (positions[i] == pos)
+			{
+				if (result == null)
+				{
+					result = new ArrayList<>(size - i);
+				}
+				result.add((T) objects[i]);
+			}
+		}
+		return result;
 	}
 
 	/**
@@ -187,51 +219,74 @@ public class Scheduler<T>
 	}
 
 	/**
-	 * This iterator supports in-flight updates of the iterated object.
+	 * Find an object by identity. Must be called with the scheduler locked.
+	 *
+	 * @param obj
+	 * 		the object to look for.
+	 * @param hint
+	 * 		the index the object is expected at.
+	 *
+	 * @return the index of the object, or -1 if it is not in the scheduler.
 	 */
-	private final class SchedulerNaturalOrderIterator
-			implements Iterator<T>
+	private int indexOf(Object obj, int hint)
 	{
-		private int nextKeyIndex;
-		private List<T> objectsOfCurrentKey;
-		private int objectsOfCurrentKeyIndex;
-
-		/**
-		 * Constructor SchedulerNaturalOrderIterator creates a new SchedulerNaturalOrderIterator instance.
-		 */
-		private SchedulerNaturalOrderIterator()
+		if (hint >= 0 && hint < size && objects[hint] == obj)
+		{
+			return hint;
+		}
+		for (int i = 0; i < size; i++)
 		{
-			this.nextKeyIndex = 0;
+			if (objects[i] == obj)
+			{
+				return i;
+			}
 		}
+		return -1;
+	}
+
+	private void removeAt(int index)
+	{
+		size--;
+		System.arraycopy(objects, index + 1, objects, index, size - index);
+		System.arraycopy(positions, index + 1, positions, index, size - index);
+		objects[size] = null;
+	}
+
+	/**
+	 * Base of the iterators. The index of the last returned object is checked before moving on, so that objects added
+	 * or removed while iterating are taken into account. The scheduler is locked for each step.
+	 */
+	private abstract class SchedulerIterator
+			implements Iterator<T>
+	{
+		Object lastReturned;
+		int lastIndex = -1;
+		int lastPosition;
+		boolean lastRemoved;
 
 		/**
-		 * Method remove ...
+		 * Get the index of the object that comes after the last returned one in the scheduler.
+		 *
+		 * @return the index right after the last returned object, which may be the size of the scheduler.
 		 */
-		@Override
-		public void remove()
+		int indexAfterLast()
 		{
-			synchronized (Scheduler.this)
+			if (lastRemoved)
 			{
-				if (objectsOfCurrentKey == null)
-				{
-					throw new NoSuchElementException("iterator not yet placed on an element");
-				}
-
-				objectsOfCurrentKeyIndex--;
-				objectsOfCurrentKey.remove(objectsOfCurrentKeyIndex);
-				if (objectsOfCurrentKey.isEmpty())
-				{
-					// there are no more objects in the current position's list -> remove it
-					nextKeyIndex--;
-					Integer key = Scheduler.this.keys.get(nextKeyIndex);
-					Scheduler.this.keys.remove(nextKeyIndex);
-					Scheduler.this.objects.remove(key);
-					objectsOfCurrentKey = null;
-				}
-				Scheduler.this.size--;
+				return lastIndex;
 			}
+			int index = indexOf(lastReturned, lastIndex);
+			// removed behind the iterator's back: the following objects have been shifted down
+			return index < 0 ? Math.min(lastIndex, size) : index + 1;
 		}
 
+		/**
+		 * Get the index of the next object to return.
+		 *
+		 * @return the index, or -1 if the iteration is over.
+		 */
+		abstract int nextIndex();
+
 		/**
 		 * Method hasNext ...
 		 *
@@ -242,27 +297,7 @@ public class Scheduler<T>
 		{
 			synchronized (Scheduler.this)
 			{
-				if (objectsOfCurrentKey == null || objectsOfCurrentKeyIndex >= objectsOfCurrentKey.size())
-				{
-					// we reached the end of the current position's list
-
-					if (nextKeyIndex < Scheduler.this.keys.size())
-					{
-						// there is another position after this one
-						Integer currentKey = Scheduler.this.keys.get(nextKeyIndex++);
-						objectsOfCurrentKey = Scheduler.this.objects.get(currentKey);
-						objectsOfCurrentKeyIndex = 0;
-						return true;
-					}
-					else
-					{
-						// there is no other position after this one
-						return false;
-					}
-				}
-
-				// there are still objects in the current position's list
-				return true;
+				return nextIndex() >= 0;
 			}
 		}
 
@@ -272,37 +307,21 @@ public class Scheduler<T>
 		 * @return T
 		 */
 		@Override
+		@SuppressWarnings("unchecked")
 		public T next()
 		{
 			synchronized (Scheduler.this)
 			{
-				if (!hasNext())
+				int index = nextIndex();
+				if (index < 0)
 				{
 					throw new NoSuchElementException("iterator bounds reached");
 				}
-				return objectsOfCurrentKey.get(objectsOfCurrentKeyIndex++);
-			}
-		}
-	}
-
-	/**
-	 * This iterator supports in-flight updates of the iterated object.
-	 */
-	private final class SchedulerReverseOrderIterator
-			implements Iterator<T>
-	{
-		private int nextKeyIndex;
-		private List<T> objectsOfCurrentKey;
-		private int objectsOfCurrentKeyIndex;
-
-		/**
-		 * Constructor SchedulerReverseOrderIterator creates a new SchedulerReverseOrderIterator instance.
-		 */
-		private SchedulerReverseOrderIterator()
-		{
-			synchronized (Scheduler.this)
-			{
-				this.nextKeyIndex = Scheduler.this.keys.size() - 1;
+				lastReturned = objects[index];
+				lastIndex = index;
+				lastPosition = positions[index];
+				lastRemoved = false;
+				return (T) lastReturned;
 			}
 		}
 
@@ -314,75 +333,70 @@ public class Scheduler<T>
 		{
 			synchronized (Scheduler.this)
 			{
-				if (objectsOfCurrentKey == null)
+				int index = lastRemoved ? -1 : indexOf(lastReturned, lastIndex);
+				if (lastIndex < 0 || index < 0)
 				{
 					throw new NoSuchElementException("iterator not yet placed on an element");
 				}
-
-				objectsOfCurrentKeyIndex--;
-				objectsOfCurrentKey.remove(objectsOfCurrentKeyIndex);
-				if (objectsOfCurrentKey.isEmpty())
-				{
-					// there are no more objects in the current position's list -> remove it
-					Integer key = Scheduler.this.keys.get(nextKeyIndex + 1);
-					Scheduler.this.keys.remove(nextKeyIndex + 1);
-					Scheduler.this.objects.remove(key);
-					objectsOfCurrentKey = null;
-				}
-				Scheduler.this.size--;
+				removeAt(index);
+				lastIndex = index;
+				lastRemoved = true;
 			}
 		}
+	}
 
-		/**
-		 * Method hasNext ...
-		 *
-		 * @return boolean
-		 */
+	/**
+	 * Iterates the objects in natural position order, each position in added order.
+	 */
+	private final class SchedulerNaturalOrderIterator
+			extends SchedulerIterator
+	{
 		@Override
-		public boolean hasNext()
+		int nextIndex()
 		{
-			synchronized (Scheduler.this)
-			{
-				if (objectsOfCurrentKey == null || objectsOfCurrentKeyIndex >= objectsOfCurrentKey.size())
-				{
-					// we reached the end of the current position's list
-
-					if (nextKeyIndex >= 0)
-					{
-						// there is another position after this one
-						Integer currentKey = Scheduler.this.keys.get(nextKeyIndex--);
-						objectsOfCurrentKey = Scheduler.this.objects.get(currentKey);
-						objectsOfCurrentKeyIndex = 0;
-						return true;
-					}
-					else
-					{
-						// there is no other position after this one
-						return false;
-					}
-				}
-
-				// there are still objects in the current position's list
-				return true;
-			}
+			int index = lastIndex < 0 ? 0 : indexAfterLast();
+			return index < size ? index : -1;
 		}
+	}
 
-		/**
-		 * Method next ...
-		 *
-		 * @return T
-		 */
+	/**
+	 * Iterates the positions in reverse order, the objects of each position in added order.
+	 */
+	private final class SchedulerReverseOrderIterator
+			extends SchedulerIterator
+	{
 		@Override
-		public T next()
+		int nextIndex()
 		{
-			synchronized (Scheduler.this)
+			int candidate;
+			if (lastIndex < 0)
 			{
-				if (!hasNext())
+				candidate = size;
+			}
+			else
+			{
+				candidate = indexAfterLast();
+				if (candidate < size && positions[candidate] == lastPosition)
 				{
-					throw new NoSuchElementException("iterator bounds reached");
+					return candidate;
 				}
-				return objectsOfCurrentKey.get(objectsOfCurrentKeyIndex++);
 			}
+
+			// the first object of the closest position below the last returned one
+			int index = candidate - 1;
+			while (index >= 0 && lastIndex >= 0 && positions[index] >= lastPosition)
+			{
+				index--;
+			}
+			if (index < 0)
+			{
+				return -1;
+			}
+			while (index > 0 && positions[index - 1] == positions[index])
+			{
+				index--;
+			}
+			return index;
 		}
 	}
 
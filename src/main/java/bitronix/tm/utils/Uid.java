@@ -28,7 +28,10 @@ public final class Uid
 	private static final char[] HEX = {'0', '1', '2', '3', '4', '5', '6', '7', '8', '9', 'A', 'B', 'C', 'D', 'E', 'F'};
 	private final byte[] array;
 	private final int hashCodeValue;
-	private final String toStringValue;
+	/**
+	 * The hex string, computed on first use. Racy but idempotent, the String being immutable.
+	 */
+	private String toStringValue;
 
 	/**
 	 * Constructor Uid creates a new Uid instance.
@@ -41,7 +44,34 @@ public final class Uid
 		this.array = new byte[array.length];
 		System.arraycopy(array, 0, this.array, 0, array.length);
 		this.hashCodeValue = arrayHashCode(array);
-		this.toStringValue = arrayToString(array);
+	}
+
+	/**
+	 * Constructor Uid creates a new Uid instance owning the array.
+	 *
+	 * @param array
+	 * 		the array, used as is.
+	 * @param hashCodeValue
+	 * 		the hash of the array.
+	 */
+	private Uid(byte[] array, int hashCodeValue)
+	{
+		this.array = array;
+		this.hashCodeValue = hashCodeValue;
+	}
+
+	/**
+	 * Create a Uid taking ownership of a freshly built array instead of copying it. The caller must not modify the
+	 * array afterwards.
+	 *
+	 * @param array
+	 * 		the UID bytes.
+	 *
+	 * @return the Uid.
+	 */
+	public static Uid wrap(byte[] array)
+	{
+		return new Uid(array, arrayHashCode(array));
 	}
 
 	/**
@@ -197,7 +227,13 @@ public final class Uid
 	@Override
 	public String toString()
 	{
-		return toStringValue;
+		String value = toStringValue;
+		if (value == null)
+		{
+			value = arrayToString(array);
+			toStringValue = value;
+		}
+		return value;
 	}
 }
 
@@ -60,19 +60,16 @@ public class UidGenerator
 	 */
 	public static Uid generateUid()
 	{
-		byte[] timestamp = Encoder.longToBytes(MonotonicClock.currentTimeMillis());
-		byte[] sequence = Encoder.intToBytes(sequenceGenerator.incrementAndGet());
+		// the server ID array is built once and cached by the configuration
 		byte[] serverId = TransactionManagerServices.getConfiguration()
 		                                            .buildServerIdArray();
 
-		int uidLength = serverId.length + timestamp.length + sequence.length;
-		byte[] uidArray = new byte[uidLength];
-
+		byte[] uidArray = new byte[serverId.length + 8 + 4];
 		System.arraycopy(serverId, 0, uidArray, 0, serverId.length);
-		System.arraycopy(timestamp, 0, uidArray, serverId.length, timestamp.length);
-		System.arraycopy(sequence, 0, uidArray, serverId.length + timestamp.length, sequence.length);
+		Encoder.longToBytes(MonotonicClock.currentTimeMillis(), uidArray, serverId.length);
+		Encoder.intToBytes(sequenceGenerator.incrementAndGet(), uidArray, serverId.length + 8);
 
-		return new Uid(uidArray);
+		return Uid.wrap(uidArray);
 	}
 
 }